@@ -35,6 +35,12 @@ public final class ClientConfig implements IClientConfig {
 
 	// advanced
 	private final Supplier<Boolean> lowMemorySlowSearchEnabled;
+	private final Supplier<Boolean> backgroundLoadingEnabled;
+	private final Supplier<Boolean> fastCraftableSortEnabled;
+	private final Supplier<Boolean> binaryConfigFilesEnabled;
+	private final Supplier<Boolean> parallelCreativeTabsEnabled;
+	private final Supplier<Boolean> parallelColorSearchEnabled;
+	private final Supplier<Integer> guiExclusionAreaPollingIntervalMs;
 	private final Supplier<Boolean> catchRenderErrorsEnabled;
 	private final Supplier<Boolean> lookupFluidContentsEnabled;
 	private final Supplier<Boolean> lookupBlockTagsEnabled;
@@ -90,6 +96,17 @@ public final class ClientConfig implements IClientConfig {
 
 		IConfigCategoryBuilder performance = schema.addCategory("performance");
 		lowMemorySlowSearchEnabled = performance.addBoolean("lowMemorySlowSearchEnabled", false);
+		backgroundLoadingEnabled = performance.addBoolean("backgroundLoadingEnabled", false);
+		fastCraftableSortEnabled = performance.addBoolean("fastCraftableSortEnabled", false);
+		binaryConfigFilesEnabled = performance.addBoolean("binaryConfigFilesEnabled", false);
+		parallelCreativeTabsEnabled = performance.addBoolean("parallelCreativeTabsEnabled", false);
+		parallelColorSearchEnabled = performance.addBoolean("parallelColorSearchEnabled", false);
+		guiExclusionAreaPollingIntervalMs = performance.addInteger(
+			"guiExclusionAreaPollingIntervalInMilliseconds",
+			50,
+			0,
+			1000
+		);
 
 		IConfigCategoryBuilder lookups = schema.addCategory("lookups");
 		lookupFluidContentsEnabled = lookups.addBoolean("lookupFluidContentsEnabled", false);
@@ -144,6 +161,36 @@ public final class ClientConfig implements IClientConfig {
 		return lowMemorySlowSearchEnabled.get();
 	}
 
+	@Override
+	public boolean isBackgroundLoadingEnabled() {
+		return backgroundLoadingEnabled.get();
+	}
+
+	@Override
+	public boolean isFastCraftableSortEnabled() {
+		return fastCraftableSortEnabled.get();
+	}
+
+	@Override
+	public boolean isBinaryConfigFilesEnabled() {
+		return binaryConfigFilesEnabled.get();
+	}
+
+	@Override
+	public boolean isParallelCreativeTabsEnabled() {
+		return parallelCreativeTabsEnabled.get();
+	}
+
+	@Override
+	public boolean isParallelColorSearchEnabled() {
+		return parallelColorSearchEnabled.get();
+	}
+
+	@Override
+	public int getGuiExclusionAreaPollingIntervalMs() {
+		return guiExclusionAreaPollingIntervalMs.get();
+	}
+
 	@Override
 	public boolean isCatchRenderErrorsEnabled() {
 		return catchRenderErrorsEnabled.get();
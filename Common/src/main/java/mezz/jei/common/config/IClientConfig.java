@@ -12,6 +12,18 @@ public interface IClientConfig {
 
 	boolean isLowMemorySlowSearchEnabled();
 
+	boolean isBackgroundLoadingEnabled();
+
+	boolean isFastCraftableSortEnabled();
+
+	boolean isBinaryConfigFilesEnabled();
+
+	boolean isParallelCreativeTabsEnabled();
+
+	boolean isParallelColorSearchEnabled();
+
+	int getGuiExclusionAreaPollingIntervalMs();
+
 	boolean isCatchRenderErrorsEnabled();
 
 	boolean isCheatToHotbarUsingHotkeysEnabled();
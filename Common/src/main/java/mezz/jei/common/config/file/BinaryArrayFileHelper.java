@@ -0,0 +1,84 @@
+package mezz.jei.common.config.file;
+
+import com.google.gson.JsonElement;
+import com.mojang.datafixers.util.Pair;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.DataResult;
+import com.mojang.serialization.DynamicOps;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * The binary equivalent of {@link JsonArrayFileHelper}, see {@link BinaryArrayWriter} for the format.
+ */
+public class BinaryArrayFileHelper {
+	private BinaryArrayFileHelper() {}
+
+	public static <T> void write(
+		OutputStream out,
+		int version,
+		Collection<T> elements,
+		Codec<T> codec,
+		DynamicOps<JsonElement> registryOps,
+		Consumer<? super DataResult.Error<JsonElement>> ifElementError,
+		BiConsumer<T, RuntimeException> ifElementException
+	) throws IOException {
+		List<JsonElement> jsonElements = new ArrayList<>(elements.size());
+		for (T element : elements) {
+			try {
+				DataResult<JsonElement> dataResult = codec.encodeStart(registryOps, element);
+				dataResult.ifError(ifElementError);
+				dataResult.result().ifPresent(jsonElements::add);
+			} catch (RuntimeException e) {
+				ifElementException.accept(element, e);
+			}
+		}
+		BinaryArrayWriter.write(out, version, jsonElements);
+	}
+
+	/**
+	 * Reads a binary array from a file, decoding each element as soon as it is read.
+	 * Returns nothing if the file has a different version than the one given.
+	 */
+	public static <T> List<T> read(
+		InputStream in,
+		@Nullable Integer version,
+		Codec<T> codec,
+		DynamicOps<JsonElement> registryOps,
+		BiConsumer<JsonElement, ? super DataResult.Error<Pair<T, JsonElement>>> ifElementError,
+		BiConsumer<JsonElement, RuntimeException> ifElementException
+	) throws IOException {
+		BinaryArrayReader arrayReader = BinaryArrayReader.start(in);
+		if (version != null && version != arrayReader.getVersion()) {
+			return List.of();
+		}
+
+		List<T> results = new ArrayList<>();
+		while (arrayReader.hasNext()) {
+			JsonElement element = arrayReader.next();
+			try {
+				DataResult<Pair<T, JsonElement>> dataResult = codec.decode(registryOps, element);
+				dataResult.ifError(error -> {
+					ifElementError.accept(element, error);
+				});
+				Optional<Pair<T, JsonElement>> resultOpt = dataResult.result();
+				if (resultOpt.isPresent()) {
+					T value = resultOpt.get().getFirst();
+					results.add(value);
+				}
+			} catch (RuntimeException e) {
+				ifElementException.accept(element, e);
+			}
+		}
+		return results;
+	}
+}
@@ -0,0 +1,192 @@
+package mezz.jei.common.config.file;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the elements written by {@link BinaryArrayWriter}.
+ *
+ * The header and string table are read when the reader starts.
+ * Each element is only read and decoded when {@link #next()} is called.
+ *
+ * Sizes in the file are never trusted to allocate memory up front,
+ * so that a damaged file fails with an {@link IOException} instead of running out of memory.
+ */
+public class BinaryArrayReader {
+	private static final int MAX_DEPTH = 512;
+	/**
+	 * The string table is grown as it is read, this is only the most that is allocated before reading it.
+	 */
+	private static final int MAX_INITIAL_STRING_TABLE_SIZE = 1024;
+
+	private final DataInputStream in;
+	private final int version;
+	private final String[] strings;
+	private int remaining;
+
+	public static BinaryArrayReader start(InputStream inputStream) throws IOException {
+		DataInputStream in = new DataInputStream(inputStream);
+		if (in.readInt() != BinaryArrayWriter.MAGIC) {
+			throw new IOException("Not a JEI binary config file");
+		}
+		int formatVersion = in.readUnsignedByte();
+		if (formatVersion != BinaryArrayWriter.FORMAT_VERSION) {
+			throw new IOException("Unknown JEI binary config file format version: " + formatVersion);
+		}
+		int version = in.readInt();
+
+		// each string takes at least one byte, so a size that is too large runs out of bytes before it runs out of memory
+		int stringCount = readSize(in);
+		List<String> strings = new ArrayList<>(Math.min(stringCount, MAX_INITIAL_STRING_TABLE_SIZE));
+		for (int i = 0; i < stringCount; i++) {
+			byte[] bytes = readBytes(in, readSize(in));
+			strings.add(new String(bytes, StandardCharsets.UTF_8));
+		}
+		int count = readSize(in);
+		return new BinaryArrayReader(in, version, strings.toArray(String[]::new), count);
+	}
+
+	private BinaryArrayReader(DataInputStream in, int version, String[] strings, int count) {
+		this.in = in;
+		this.version = version;
+		this.strings = strings;
+		this.remaining = count;
+	}
+
+	/**
+	 * @return the data version that was written in the header
+	 */
+	public int getVersion() {
+		return version;
+	}
+
+	public boolean hasNext() {
+		return remaining > 0;
+	}
+
+	/**
+	 * Reads and decodes the next element.
+	 */
+	public JsonElement next() throws IOException {
+		if (remaining <= 0) {
+			throw new IOException("No more elements");
+		}
+		remaining--;
+		byte[] bytes = readBytes(in, readSize(in));
+		DataInputStream elementIn = new DataInputStream(new ByteArrayInputStream(bytes));
+		JsonElement element = readValue(elementIn, 0);
+		if (elementIn.available() > 0) {
+			throw new IOException("Element did not use all of its bytes");
+		}
+		return element;
+	}
+
+	private JsonElement readValue(DataInputStream in, int depth) throws IOException {
+		if (depth > MAX_DEPTH) {
+			throw new IOException("Elements are nested too deeply");
+		}
+		int tag = in.readUnsignedByte();
+		return switch (tag) {
+			case BinaryArrayWriter.TAG_NULL -> JsonNull.INSTANCE;
+			case BinaryArrayWriter.TAG_TRUE -> new JsonPrimitive(true);
+			case BinaryArrayWriter.TAG_FALSE -> new JsonPrimitive(false);
+			case BinaryArrayWriter.TAG_INTEGER -> {
+				long zigzag = readVarLong(in);
+				long value = (zigzag >>> 1) ^ -(zigzag & 1);
+				if (value == (int) value) {
+					yield new JsonPrimitive((int) value);
+				}
+				yield new JsonPrimitive(value);
+			}
+			case BinaryArrayWriter.TAG_DOUBLE -> new JsonPrimitive(in.readDouble());
+			case BinaryArrayWriter.TAG_STRING -> new JsonPrimitive(readString(in));
+			case BinaryArrayWriter.TAG_RESOURCE_LOCATION -> {
+				String namespace = readString(in);
+				String path = readString(in);
+				yield new JsonPrimitive(namespace + ':' + path);
+			}
+			case BinaryArrayWriter.TAG_ARRAY -> {
+				// each value takes at least one byte
+				int size = readSize(in, in.available());
+				JsonArray array = new JsonArray(size);
+				for (int i = 0; i < size; i++) {
+					array.add(readValue(in, depth + 1));
+				}
+				yield array;
+			}
+			case BinaryArrayWriter.TAG_OBJECT -> {
+				// each entry takes at least two bytes, for its key and the tag of its value
+				int size = readSize(in, in.available() / 2);
+				JsonObject object = new JsonObject();
+				for (int i = 0; i < size; i++) {
+					String key = readString(in);
+					object.add(key, readValue(in, depth + 1));
+				}
+				yield object;
+			}
+			default -> throw new IOException("Unknown value tag: " + tag);
+		};
+	}
+
+	private String readString(DataInputStream in) throws IOException {
+		int index = readSize(in);
+		if (index >= strings.length) {
+			throw new IOException("String index out of range: " + index);
+		}
+		return strings[index];
+	}
+
+	/**
+	 * Reads exactly the given number of bytes.
+	 * {@link InputStream#readNBytes(int)} only allocates as much as it has read, so a size that is too large is safe.
+	 */
+	private static byte[] readBytes(DataInputStream in, int size) throws IOException {
+		byte[] bytes = in.readNBytes(size);
+		if (bytes.length != size) {
+			throw new IOException("Unexpected end of file, expected " + size + " bytes but found " + bytes.length);
+		}
+		return bytes;
+	}
+
+	/**
+	 * Reads a size inside an element, where all the remaining bytes are available.
+	 */
+	private static int readSize(DataInputStream in, int maxSize) throws IOException {
+		int size = readSize(in);
+		if (size > maxSize) {
+			throw new IOException("Size is larger than the remaining data: " + size);
+		}
+		return size;
+	}
+
+	private static int readSize(DataInputStream in) throws IOException {
+		long value = readVarLong(in);
+		if (value > Integer.MAX_VALUE) {
+			throw new IOException("Size out of range: " + value);
+		}
+		return (int) value;
+	}
+
+	private static long readVarLong(DataInputStream in) throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Varint is too long");
+	}
+}
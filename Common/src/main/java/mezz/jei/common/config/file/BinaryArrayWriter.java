@@ -0,0 +1,182 @@
+package mezz.jei.common.config.file;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a list of json elements in a compact binary format, as an alternative to {@link JsonArrayWriter}.
+ *
+ * The file starts with a header and a table of every string used, so that repeated strings like
+ * resource location namespaces are only stored once.
+ * Each element is stored with its length, so that {@link BinaryArrayReader} can decode elements one at a time.
+ *
+ * Layout:
+ * <pre>
+ * int magic "JEIB", byte format version, int data version
+ * varint string count, then for each string: varint length, utf-8 bytes
+ * varint element count, then for each element: varint length, encoded value
+ * </pre>
+ * Values are a tag byte followed by their contents, see the tags below.
+ * Resource locations are stored as two strings, so that their namespaces are shared.
+ */
+public class BinaryArrayWriter {
+	static final int MAGIC = 0x4A454942;
+	static final int FORMAT_VERSION = 1;
+
+	static final int TAG_NULL = 0;
+	static final int TAG_TRUE = 1;
+	static final int TAG_FALSE = 2;
+	/** zigzag varint */
+	static final int TAG_INTEGER = 3;
+	/** 8 bytes */
+	static final int TAG_DOUBLE = 4;
+	/** varint string index */
+	static final int TAG_STRING = 5;
+	/** varint namespace string index, varint path string index */
+	static final int TAG_RESOURCE_LOCATION = 6;
+	/** varint size, then values */
+	static final int TAG_ARRAY = 7;
+	/** varint size, then a varint key string index and a value for each entry */
+	static final int TAG_OBJECT = 8;
+
+	private final Map<String, Integer> stringIndexes = new HashMap<>();
+	private final List<String> strings = new ArrayList<>();
+
+	public static void write(OutputStream out, int version, List<JsonElement> elements) throws IOException {
+		BinaryArrayWriter writer = new BinaryArrayWriter();
+
+		// encode the elements first, to find all the strings for the string table
+		List<byte[]> encodedElements = new ArrayList<>(elements.size());
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		DataOutputStream bufferOut = new DataOutputStream(buffer);
+		for (JsonElement element : elements) {
+			buffer.reset();
+			writer.writeValue(bufferOut, element);
+			encodedElements.add(buffer.toByteArray());
+		}
+
+		DataOutputStream dataOut = new DataOutputStream(out);
+		dataOut.writeInt(MAGIC);
+		dataOut.writeByte(FORMAT_VERSION);
+		dataOut.writeInt(version);
+
+		writeVarInt(dataOut, writer.strings.size());
+		for (String string : writer.strings) {
+			byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+			writeVarInt(dataOut, bytes.length);
+			dataOut.write(bytes);
+		}
+
+		writeVarInt(dataOut, encodedElements.size());
+		for (byte[] encodedElement : encodedElements) {
+			writeVarInt(dataOut, encodedElement.length);
+			dataOut.write(encodedElement);
+		}
+		dataOut.flush();
+	}
+
+	private BinaryArrayWriter() {}
+
+	private void writeValue(DataOutputStream out, JsonElement element) throws IOException {
+		if (element.isJsonNull()) {
+			out.writeByte(TAG_NULL);
+		} else if (element instanceof JsonPrimitive primitive) {
+			writePrimitive(out, primitive);
+		} else if (element instanceof JsonArray array) {
+			out.writeByte(TAG_ARRAY);
+			writeVarInt(out, array.size());
+			for (JsonElement value : array) {
+				writeValue(out, value);
+			}
+		} else if (element instanceof JsonObject object) {
+			out.writeByte(TAG_OBJECT);
+			writeVarInt(out, object.size());
+			for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+				writeVarInt(out, getStringIndex(entry.getKey()));
+				writeValue(out, entry.getValue());
+			}
+		} else {
+			throw new IOException("Unknown json element: " + element);
+		}
+	}
+
+	private void writePrimitive(DataOutputStream out, JsonPrimitive primitive) throws IOException {
+		if (primitive.isBoolean()) {
+			out.writeByte(primitive.getAsBoolean() ? TAG_TRUE : TAG_FALSE);
+		} else if (primitive.isNumber()) {
+			Number number = primitive.getAsNumber();
+			if (number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte) {
+				out.writeByte(TAG_INTEGER);
+				writeVarLong(out, zigzag(number.longValue()));
+				return;
+			}
+			double value = number.doubleValue();
+			if (value == Math.rint(value) && Math.abs(value) < 0x1p53) {
+				out.writeByte(TAG_INTEGER);
+				writeVarLong(out, zigzag((long) value));
+			} else {
+				out.writeByte(TAG_DOUBLE);
+				out.writeDouble(value);
+			}
+		} else {
+			String string = primitive.getAsString();
+			int colon = string.indexOf(':');
+			if (colon > 0 && isNamespace(string, colon)) {
+				out.writeByte(TAG_RESOURCE_LOCATION);
+				writeVarInt(out, getStringIndex(string.substring(0, colon)));
+				writeVarInt(out, getStringIndex(string.substring(colon + 1)));
+			} else {
+				out.writeByte(TAG_STRING);
+				writeVarInt(out, getStringIndex(string));
+			}
+		}
+	}
+
+	private int getStringIndex(String string) {
+		Integer index = stringIndexes.get(string);
+		if (index == null) {
+			index = strings.size();
+			strings.add(string);
+			stringIndexes.put(string, index);
+		}
+		return index;
+	}
+
+	private static boolean isNamespace(String string, int end) {
+		for (int i = 0; i < end; i++) {
+			char c = string.charAt(i);
+			if (!(c >= 'a' && c <= 'z') && !(c >= '0' && c <= '9') && c != '_' && c != '-' && c != '.') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static long zigzag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	static void writeVarInt(DataOutputStream out, int value) throws IOException {
+		writeVarLong(out, value & 0xFFFFFFFFL);
+	}
+
+	private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			out.writeByte((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.writeByte((int) value);
+	}
+}
@@ -0,0 +1,128 @@
+package mezz.jei.common.config.file;
+
+import com.google.gson.JsonElement;
+import com.mojang.datafixers.util.Pair;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.DataResult;
+import com.mojang.serialization.DynamicOps;
+
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * The file formats that lists of config entries (like bookmarks and the blacklist) can be saved in.
+ */
+public enum ConfigFileFormat {
+	JSON("json") {
+		@Override
+		public <T> void write(
+			Path path,
+			int version,
+			Collection<T> elements,
+			Codec<T> codec,
+			DynamicOps<JsonElement> registryOps,
+			Consumer<? super DataResult.Error<JsonElement>> ifElementError,
+			BiConsumer<T, RuntimeException> ifElementException
+		) throws IOException {
+			try (BufferedWriter out = Files.newBufferedWriter(path)) {
+				JsonArrayFileHelper.write(out, version, elements, codec, registryOps, ifElementError, ifElementException);
+			}
+		}
+
+		@Override
+		public <T> List<T> read(
+			Path path,
+			@Nullable Integer version,
+			Codec<T> codec,
+			DynamicOps<JsonElement> registryOps,
+			BiConsumer<JsonElement, ? super DataResult.Error<Pair<T, JsonElement>>> ifElementError,
+			BiConsumer<JsonElement, RuntimeException> ifElementException
+		) throws IOException {
+			try (BufferedReader reader = Files.newBufferedReader(path)) {
+				return JsonArrayFileHelper.read(reader, version, codec, registryOps, ifElementError, ifElementException);
+			}
+		}
+	},
+	BINARY("dat") {
+		@Override
+		public <T> void write(
+			Path path,
+			int version,
+			Collection<T> elements,
+			Codec<T> codec,
+			DynamicOps<JsonElement> registryOps,
+			Consumer<? super DataResult.Error<JsonElement>> ifElementError,
+			BiConsumer<T, RuntimeException> ifElementException
+		) throws IOException {
+			try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path))) {
+				BinaryArrayFileHelper.write(out, version, elements, codec, registryOps, ifElementError, ifElementException);
+			}
+		}
+
+		@Override
+		public <T> List<T> read(
+			Path path,
+			@Nullable Integer version,
+			Codec<T> codec,
+			DynamicOps<JsonElement> registryOps,
+			BiConsumer<JsonElement, ? super DataResult.Error<Pair<T, JsonElement>>> ifElementError,
+			BiConsumer<JsonElement, RuntimeException> ifElementException
+		) throws IOException {
+			try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+				return BinaryArrayFileHelper.read(in, version, codec, registryOps, ifElementError, ifElementException);
+			}
+		}
+	};
+
+	private final String extension;
+
+	ConfigFileFormat(String extension) {
+		this.extension = extension;
+	}
+
+	public static ConfigFileFormat get(boolean binary) {
+		return binary ? BINARY : JSON;
+	}
+
+	public String getFileName(String baseName) {
+		return baseName + "." + extension;
+	}
+
+	/**
+	 * @return the format that files are migrated from when switching to this one.
+	 */
+	public ConfigFileFormat getOther() {
+		return this == JSON ? BINARY : JSON;
+	}
+
+	public abstract <T> void write(
+		Path path,
+		int version,
+		Collection<T> elements,
+		Codec<T> codec,
+		DynamicOps<JsonElement> registryOps,
+		Consumer<? super DataResult.Error<JsonElement>> ifElementError,
+		BiConsumer<T, RuntimeException> ifElementException
+	) throws IOException;
+
+	public abstract <T> List<T> read(
+		Path path,
+		@Nullable Integer version,
+		Codec<T> codec,
+		DynamicOps<JsonElement> registryOps,
+		BiConsumer<JsonElement, ? super DataResult.Error<Pair<T, JsonElement>>> ifElementError,
+		BiConsumer<JsonElement, RuntimeException> ifElementException
+	) throws IOException;
+}
@@ -0,0 +1,129 @@
+package mezz.jei.common.config.file;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An append-only journal of changes to a config file, one line for each change.
+ *
+ * Recording a change appends a single line, instead of rewriting the whole config file.
+ * The changes are compacted into the config file later: {@link #rotate()} moves the journal aside
+ * so that new changes go to a fresh journal, and {@link #deleteRotated()} is called once the config file
+ * has been written with everything from the rotated journal.
+ *
+ * If the game crashes before that, {@link #readAll()} returns the changes from both journals in order,
+ * so that they can be replayed onto the config file when it is loaded.
+ * A line that was only partly written when the game crashed is ignored.
+ */
+public class ConfigJournal {
+	private static final Logger LOGGER = LogManager.getLogger();
+
+	private final Path path;
+	private final Path rotatedPath;
+	private @Nullable BufferedWriter writer;
+	private int entryCount;
+
+	public ConfigJournal(Path path) {
+		this.path = path;
+		this.rotatedPath = path.resolveSibling(path.getFileName() + ".old");
+	}
+
+	/**
+	 * Appends one change to the journal.
+	 * The line must not contain any line breaks.
+	 */
+	public synchronized void append(String line) throws IOException {
+		if (writer == null) {
+			writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+		}
+		writer.write(line);
+		writer.write('\n');
+		writer.flush();
+		entryCount++;
+	}
+
+	/**
+	 * @return the number of changes appended since the journal was last rotated
+	 */
+	public synchronized int getEntryCount() {
+		return entryCount;
+	}
+
+	/**
+	 * Moves the current journal aside, so that it can be compacted while new changes are appended to a new journal.
+	 * If an earlier rotated journal was never deleted, the current journal is added to the end of it.
+	 */
+	public synchronized void rotate() throws IOException {
+		close();
+		entryCount = 0;
+		if (!Files.exists(path)) {
+			return;
+		}
+		if (Files.exists(rotatedPath)) {
+			Files.write(rotatedPath, Files.readAllBytes(path), StandardOpenOption.APPEND);
+			Files.delete(path);
+		} else {
+			Files.move(path, rotatedPath);
+		}
+	}
+
+	/**
+	 * Deletes the rotated journal, once all of its changes have been saved to the config file.
+	 */
+	public void deleteRotated() throws IOException {
+		Files.deleteIfExists(rotatedPath);
+	}
+
+	/**
+	 * @return true if there is a journal or a rotated journal on disk
+	 */
+	public synchronized boolean exists() {
+		return Files.exists(path) || Files.exists(rotatedPath);
+	}
+
+	/**
+	 * Reads every change that has not been compacted yet, oldest first.
+	 */
+	public synchronized List<String> readAll() throws IOException {
+		List<String> lines = new ArrayList<>();
+		readLines(rotatedPath, lines);
+		readLines(path, lines);
+		return lines;
+	}
+
+	public synchronized void close() throws IOException {
+		if (writer != null) {
+			writer.close();
+			writer = null;
+		}
+	}
+
+	private static void readLines(Path path, List<String> lines) throws IOException {
+		if (!Files.exists(path)) {
+			return;
+		}
+		String contents = Files.readString(path, StandardCharsets.UTF_8);
+		int start = 0;
+		while (start < contents.length()) {
+			int end = contents.indexOf('\n', start);
+			if (end < 0) {
+				LOGGER.warn("Ignoring an incomplete change at the end of {}", path);
+				return;
+			}
+			if (end > start) {
+				lines.add(contents.substring(start, end));
+			}
+			start = end + 1;
+		}
+	}
+}
@@ -29,7 +29,7 @@ public class FileWatcher {
 	/**
 	 * @param path     a config file to watch
 	 * @param callback a callbacks to call when the file changes.
-	 *                 Callbacks must be thread-safe, they will be called from this thread.
+	 *                 Callbacks must be thread-safe, they will be called from a shared scheduler thread.
 	 */
 	public void addCallback(Path path, Runnable callback) {
 		if (thread != null) {
@@ -1,10 +1,13 @@
 package mezz.jei.common.config.file;
 
+import mezz.jei.common.util.DeduplicatingRunner;
+import mezz.jei.common.util.JeiScheduler;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import javax.annotation.concurrent.ThreadSafe;
 import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
@@ -13,15 +16,22 @@ import java.nio.file.StandardWatchEventKinds;
 import java.nio.file.WatchEvent;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
 
+/**
+ * Waits for changes to watched config files, and calls their callbacks.
+ *
+ * This thread only waits on the {@link WatchService}.
+ * Each file has its own {@link DeduplicatingRunner}, so callbacks are debounced per file
+ * and run one at a time on a shared scheduler thread.
+ */
 @ThreadSafe
 public class FileWatcherThread extends Thread {
 	private static final Logger LOGGER = LogManager.getLogger();
@@ -30,26 +40,35 @@ public class FileWatcherThread extends Thread {
 	 * To avoid calling the callbacks many times while a file is being edited,
 	 * wait a little while for there to be no more changes before we call them.
 	 */
-	private static final int quietTimeMs = 500;
+	private static final Duration quietTime = Duration.ofMillis(500);
 	/**
 	 * If a directory we want to watch does not exist, we should periodically check for it.
 	 */
 	private static final int recheckDirectoriesMs = 60_000;
 
 	private final WatchService watchService;
-	private final Map<Path, Runnable> callbacks;
+	private final ScheduledExecutorService callbackExecutor;
+	private final Map<Path, DeduplicatingRunner> callbacks;
 	private final Set<Path> directoriesToWatch;
 
 	private final Map<WatchKey, Path> watchedDirectories = new HashMap<>();
-	private final Set<Path> changedPaths = new HashSet<>();
 	private long nextDirectoryCheckTime = System.currentTimeMillis();
 
 	/**
 	 * @param name the name of the new thread
 	 */
 	public FileWatcherThread(String name) throws IOException {
+		this(name, JeiScheduler.get());
+	}
+
+	/**
+	 * @param name             the name of the new thread
+	 * @param callbackExecutor the executor that callbacks are run on
+	 */
+	public FileWatcherThread(String name, ScheduledExecutorService callbackExecutor) throws IOException {
 		super(name);
 		this.setDaemon(true);
+		this.callbackExecutor = callbackExecutor;
 		this.callbacks = new HashMap<>();
 		this.directoriesToWatch = new HashSet<>();
 		FileSystem fileSystem = FileSystems.getDefault();
@@ -59,12 +78,14 @@ public class FileWatcherThread extends Thread {
 	/**
 	 * @param path     a config file to watch
 	 * @param callback a callbacks to call when the file changes.
-	 *                 Callbacks must be thread-safe, they will be called from this thread.
+	 *                 Callbacks must be thread-safe, they will be called from the callback executor.
 	 */
 	public synchronized void addCallback(Path path, Runnable callback) {
-		this.callbacks.put(path, callback);
+		DeduplicatingRunner runner = new DeduplicatingRunner(callback, quietTime, "JEI File Watcher Callback for " + path.getFileName(), callbackExecutor);
+		this.callbacks.put(path, runner);
 		if (this.directoriesToWatch.add(path.getParent())) {
-			this.nextDirectoryCheckTime = System.currentTimeMillis();
+			// start watching right away, the watcher thread may be waiting for a long time
+			watchDirectories();
 		}
 	}
 
@@ -92,12 +113,11 @@ public class FileWatcherThread extends Thread {
 			watchDirectories();
 		}
 
-		// Collect as many changes as we can, and notify the callbacks when we stop getting new changes.
-		WatchKey watchKey = watchService.poll(quietTimeMs, TimeUnit.MILLISECONDS);
+		// Wake up in time for the next directory check, callbacks are called by their own delayed runners.
+		long waitTime = Math.max(1, nextDirectoryCheckTime - System.currentTimeMillis());
+		WatchKey watchKey = watchService.poll(waitTime, TimeUnit.MILLISECONDS);
 		if (watchKey != null) {
 			pollWatchKey(watchKey);
-		} else {
-			notifyChanges();
 		}
 	}
 
@@ -115,14 +135,17 @@ public class FileWatcherThread extends Thread {
 			if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
 				// we missed some events,
 				// so we must assume every watched file in the directory has changed
-				callbacks.keySet().stream()
-					.filter(path -> path.getParent().equals(watchedDirectory))
-					.forEach(changedPaths::add);
+				callbacks.forEach((path, runner) -> {
+					if (path.getParent().equals(watchedDirectory)) {
+						onChanged(path, runner);
+					}
+				});
 				break;
 			} else if (event.context() instanceof Path eventPath) {
 				Path fullPath = watchedDirectory.resolve(eventPath);
-				if (callbacks.containsKey(fullPath)) {
-					changedPaths.add(fullPath);
+				DeduplicatingRunner runner = callbacks.get(fullPath);
+				if (runner != null) {
+					onChanged(fullPath, runner);
 				}
 			}
 		}
@@ -133,26 +156,14 @@ public class FileWatcherThread extends Thread {
 		}
 	}
 
-	private synchronized void notifyChanges() {
-		if (changedPaths.isEmpty()) {
-			return;
-		}
-		LOGGER.debug("Detected changes in files:\n{}", changedPaths.stream().map(Path::toString).collect(Collectors.joining("\n")));
-
-		List<Runnable> runnables = changedPaths.stream()
-			.map(callbacks::get)
-			.filter(Objects::nonNull)
-			.toList();
-
-		changedPaths.clear();
-
-		// The FileWatcherThread is a daemon thread, so it can stop suddenly
-		// when the JVM exits.
-		// Because they read and write from the disk, we must run the callbacks
-		// in a separate, non-daemon thread so that it prevents the JVM from exiting.
-		// This ensures that they can finish running completely, without corrupting data.
-		Thread runThread = new CallbackRunner(runnables);
-		runThread.start();
+	/**
+	 * The FileWatcherThread is a daemon thread, so it can stop suddenly when the JVM exits.
+	 * Because they read and write from the disk, the callbacks run on the {@link JeiScheduler},
+	 * whose shutdown hook waits for callbacks that are already due, so that they are not cut off halfway.
+	 */
+	private static void onChanged(Path path, DeduplicatingRunner runner) {
+		LOGGER.debug("Detected changes in file: {}", path);
+		runner.run();
 	}
 
 	private synchronized void watchDirectories() {
@@ -172,24 +183,10 @@ public class FileWatcherThread extends Thread {
 						StandardWatchEventKinds.OVERFLOW
 					);
 					watchedDirectories.put(key, directory);
-				} catch (IOException e) {
+				} catch (IOException | ClosedWatchServiceException e) {
 					LOGGER.error("Failed to watch directory: {}", directory, e);
 				}
 			}
 		}
 	}
-
-	private static class CallbackRunner extends Thread {
-		private final List<Runnable> runnables;
-
-		public CallbackRunner(List<Runnable> runnables) {
-			super("JEI File Watcher Callback Runner");
-			this.runnables = List.copyOf(runnables);
-		}
-
-		@Override
-		public void run() {
-			runnables.forEach(Runnable::run);
-		}
-	}
 }
@@ -1,10 +1,8 @@
 package mezz.jei.common.config.file;
 
-import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonIOException;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import com.google.gson.JsonSyntaxException;
 import com.mojang.datafixers.util.Pair;
 import com.mojang.serialization.Codec;
@@ -67,7 +65,7 @@ public class JsonArrayFileHelper {
 			return null;
 		}
 		JsonElement versionElement = firstElement.getAsJsonObject().get("version");
-		if (versionElement.isJsonPrimitive()) {
+		if (versionElement != null && versionElement.isJsonPrimitive()) {
 			try {
 				return versionElement.getAsInt();
 			} catch (NumberFormatException | UnsupportedOperationException e) {
@@ -77,6 +75,10 @@ public class JsonArrayFileHelper {
 		return null;
 	}
 
+	/**
+	 * Reads a json array from a file, decoding each element as soon as it is read.
+	 * The first element must be the version header, if a version is given.
+	 */
 	public static <T> List<T> read(
 		BufferedReader reader,
 		@Nullable Integer version,
@@ -86,22 +88,20 @@ public class JsonArrayFileHelper {
 		BiConsumer<JsonElement, RuntimeException> ifElementException
 	) throws JsonIOException, JsonSyntaxException {
 		List<T> results = new ArrayList<>();
-		JsonElement jsonElement = JsonParser.parseReader(reader);
-		if (!jsonElement.isJsonArray()) {
-			throw new JsonSyntaxException("Expected an array but got :" + jsonElement);
-		}
-		boolean versionFound = version == null;
+		JsonArrayReader arrayReader = JsonArrayReader.start(reader);
 
-		JsonArray jsonArray = jsonElement.getAsJsonArray();
-		for (JsonElement element : jsonArray) {
-			if (!versionFound) {
-				Integer foundVersion = getVersion(element);
-				if (!version.equals(foundVersion)) {
-					return List.of();
-				}
-				versionFound = true;
-				continue;
+		if (version != null) {
+			if (!arrayReader.hasNext()) {
+				return List.of();
 			}
+			Integer foundVersion = getVersion(arrayReader.next());
+			if (!version.equals(foundVersion)) {
+				return List.of();
+			}
+		}
+
+		while (arrayReader.hasNext()) {
+			JsonElement element = arrayReader.next();
 			try {
 				DataResult<Pair<T, JsonElement>> dataResult = codec.decode(registryOps, element);
 				dataResult.ifError(error -> {
@@ -116,6 +116,7 @@ public class JsonArrayFileHelper {
 				ifElementException.accept(element, e);
 			}
 		}
+		arrayReader.end();
 		return results;
 	}
 }
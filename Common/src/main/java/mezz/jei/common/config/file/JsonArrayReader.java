@@ -0,0 +1,90 @@
+package mezz.jei.common.config.file;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads the elements of a json array in a file one at a time,
+ * so that the whole file does not have to be parsed into memory before the first element can be used.
+ *
+ * Like {@link JsonParser#parseReader(Reader)}, which was used to read the whole file before,
+ * the file is read leniently, so hand-edited files with comments or unquoted names still load.
+ */
+public class JsonArrayReader {
+	private final JsonReader in;
+
+	public static JsonArrayReader start(Reader reader) throws JsonIOException, JsonSyntaxException {
+		JsonReader in = new JsonReader(reader);
+		in.setLenient(true);
+		JsonToken token = peek(in);
+		if (token != JsonToken.BEGIN_ARRAY) {
+			throw new JsonSyntaxException("Expected an array but got :" + token);
+		}
+		try {
+			in.beginArray();
+		} catch (IOException e) {
+			throw wrap(e);
+		}
+		return new JsonArrayReader(in);
+	}
+
+	private JsonArrayReader(JsonReader in) {
+		this.in = in;
+	}
+
+	public boolean hasNext() throws JsonIOException, JsonSyntaxException {
+		try {
+			return in.hasNext();
+		} catch (IOException e) {
+			throw wrap(e);
+		}
+	}
+
+	/**
+	 * Reads the next element of the array.
+	 */
+	public JsonElement next() throws JsonIOException, JsonSyntaxException {
+		return JsonParser.parseReader(in);
+	}
+
+	/**
+	 * Skips the rest of the array, and checks that nothing comes after it.
+	 */
+	public void end() throws JsonIOException, JsonSyntaxException {
+		try {
+			while (in.hasNext()) {
+				in.skipValue();
+			}
+			in.endArray();
+		} catch (IOException e) {
+			throw wrap(e);
+		}
+		if (peek(in) != JsonToken.END_DOCUMENT) {
+			throw new JsonSyntaxException("Did not consume the entire document.");
+		}
+	}
+
+	private static JsonToken peek(JsonReader in) throws JsonIOException, JsonSyntaxException {
+		try {
+			return in.peek();
+		} catch (IOException e) {
+			throw wrap(e);
+		}
+	}
+
+	private static RuntimeException wrap(IOException e) {
+		if (e instanceof MalformedJsonException || e instanceof EOFException) {
+			return new JsonSyntaxException(e);
+		}
+		return new JsonIOException(e);
+	}
+}
@@ -10,10 +10,13 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.function.ToIntFunction;
 
 public abstract class SortingConfig<T> {
 	private static final Logger LOGGER = LogManager.getLogger();
@@ -89,11 +92,26 @@ public abstract class SortingConfig<T> {
 	}
 
 	public <V> Comparator<V> getComparator(Collection<T> allValues, Function<V, T> mapping) {
+		ToIntFunction<V> sortIndex = getSortIndex(allValues, mapping);
+		return Comparator.comparingInt(sortIndex);
+	}
+
+	/**
+	 * Get the position of each value in the sort order, for computing sort keys up front.
+	 * Values that are not in the sort order are placed last.
+	 * The returned function is safe to call from multiple threads.
+	 */
+	public <V> ToIntFunction<V> getSortIndex(Collection<T> allValues, Function<V, T> mapping) {
 		List<T> sorted = getSorted(allValues);
-		return Comparator.comparingInt(o -> {
+		Map<T, Integer> indexes = new HashMap<>();
+		for (int i = 0; i < sorted.size(); i++) {
+			indexes.putIfAbsent(sorted.get(i), i);
+		}
+		return o -> {
 			T value = mapping.apply(o);
-			return indexOfSort(sorted.indexOf(value));
-		});
+			Integer index = indexes.get(value);
+			return index == null ? Integer.MAX_VALUE : index;
+		};
 	}
 
 }
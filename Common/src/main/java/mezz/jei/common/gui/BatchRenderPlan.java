@@ -0,0 +1,41 @@
+package mezz.jei.common.gui;
+
+import mezz.jei.api.ingredients.rendering.BatchRenderElement;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An immutable list of elements to render in a batch, stamped with a unique generation.
+ *
+ * A new plan is created every time the rendered contents change, so renderers can
+ * look up the work they prepared for a batch by its generation instead of
+ * hashing and comparing all the elements every frame.
+ */
+public final class BatchRenderPlan<T> extends AbstractList<BatchRenderElement<T>> implements RandomAccess {
+	private static final AtomicLong nextGeneration = new AtomicLong();
+
+	private final List<BatchRenderElement<T>> elements;
+	private final long generation;
+
+	public BatchRenderPlan(List<BatchRenderElement<T>> elements) {
+		this.elements = List.copyOf(elements);
+		this.generation = nextGeneration.incrementAndGet();
+	}
+
+	public long getGeneration() {
+		return generation;
+	}
+
+	@Override
+	public BatchRenderElement<T> get(int index) {
+		return elements.get(index);
+	}
+
+	@Override
+	public int size() {
+		return elements.size();
+	}
+}
@@ -0,0 +1,101 @@
+package mezz.jei.common.gui;
+
+import mezz.jei.api.runtime.IScreenHelper;
+import mezz.jei.common.Internal;
+import mezz.jei.common.util.ImmutableRect2i;
+import net.minecraft.client.gui.screens.Screen;
+import net.minecraft.client.renderer.Rect2i;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps track of the gui exclusion areas of the current screen without querying
+ * every gui handler on every frame.
+ *
+ * Handlers are polled when the screen changes, when the polling interval from the config has passed,
+ * or after a plugin calls {@link IScreenHelper#invalidateGuiExclusionAreas()}.
+ * The same set instance is returned until the areas really change,
+ * so that comparing them to the previous areas is cheap.
+ */
+public class GuiExclusionAreaTracker {
+	private static final AtomicInteger invalidations = new AtomicInteger();
+
+	private final IScreenHelper screenHelper;
+	private @Nullable Screen screen;
+	private int polledInvalidations;
+	private long lastPollTime;
+	private int[] buffer = new int[0];
+	private int[] coordinates = new int[0];
+	private Set<ImmutableRect2i> exclusionAreas = Set.of();
+
+	public GuiExclusionAreaTracker(IScreenHelper screenHelper) {
+		this.screenHelper = screenHelper;
+	}
+
+	/**
+	 * Makes every tracker poll the gui handlers again on its next update.
+	 */
+	public static void invalidateAll() {
+		invalidations.incrementAndGet();
+	}
+
+	public Set<ImmutableRect2i> getExclusionAreas(Screen screen) {
+		long now = System.currentTimeMillis();
+		int currentInvalidations = invalidations.get();
+		int pollingIntervalMs = Internal.getJeiClientConfigs().getClientConfig().getGuiExclusionAreaPollingIntervalMs();
+		if (screen != this.screen || currentInvalidations != polledInvalidations || now - lastPollTime >= pollingIntervalMs) {
+			return pollExclusionAreas(screen);
+		}
+		return exclusionAreas;
+	}
+
+	/**
+	 * Polls the gui handlers right away, for when the screen has just been resized or opened.
+	 */
+	public Set<ImmutableRect2i> pollExclusionAreas(Screen screen) {
+		this.screen = screen;
+		this.polledInvalidations = invalidations.get();
+		this.lastPollTime = System.currentTimeMillis();
+		poll(screen);
+		return exclusionAreas;
+	}
+
+	private void poll(Screen screen) {
+		// Compare the raw coordinates to the previous poll, and only create new areas when they are different.
+		// Handlers may reuse and mutate their Rect2i instances, so the values have to be copied.
+		int[] buffer = this.buffer;
+		int length = 0;
+		Iterator<Rect2i> iterator = screenHelper.getGuiExclusionAreas(screen).iterator();
+		while (iterator.hasNext()) {
+			Rect2i area = iterator.next();
+			if (length + 4 > buffer.length) {
+				buffer = Arrays.copyOf(buffer, Math.max(16, buffer.length * 2));
+			}
+			buffer[length] = area.getX();
+			buffer[length + 1] = area.getY();
+			buffer[length + 2] = area.getWidth();
+			buffer[length + 3] = area.getHeight();
+			length += 4;
+		}
+		this.buffer = buffer;
+
+		if (length == coordinates.length && Arrays.equals(buffer, 0, length, coordinates, 0, length)) {
+			return;
+		}
+		this.coordinates = Arrays.copyOf(buffer, length);
+		this.exclusionAreas = createExclusionAreas(this.coordinates);
+	}
+
+	private static Set<ImmutableRect2i> createExclusionAreas(int[] coordinates) {
+		Set<ImmutableRect2i> areas = new HashSet<>();
+		for (int i = 0; i < coordinates.length; i += 4) {
+			areas.add(new ImmutableRect2i(coordinates[i], coordinates[i + 1], coordinates[i + 2], coordinates[i + 3]));
+		}
+		return Set.copyOf(areas);
+	}
+}
@@ -0,0 +1,102 @@
+package mezz.jei.common.gui;
+
+import mezz.jei.api.ingredients.IIngredientRenderer;
+import mezz.jei.api.ingredients.IIngredientType;
+import mezz.jei.api.ingredients.rendering.BatchRenderElement;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Groups the ingredients drawn in one frame by their renderer,
+ * so that each renderer can draw all of its ingredients as one batch.
+ *
+ * Batches are in the order their renderer was first used, and elements are in the order they were added.
+ * When a renderer gets the same elements as in the last frame, the last plan is used again,
+ * so the renderer can reuse the work it prepared for it.
+ */
+public class IngredientBatchPlanner {
+	private final Map<IIngredientRenderer<?>, Group<?>> groups = new IdentityHashMap<>();
+	private final List<Group<?>> orderedGroups = new ArrayList<>();
+
+	public <T> void add(IIngredientRenderer<T> renderer, IIngredientType<T> type, T ingredient, int x, int y) {
+		Group<T> group = getGroup(renderer, type);
+		group.elements.add(new BatchRenderElement<>(ingredient, x, y));
+	}
+
+	private <T> Group<T> getGroup(IIngredientRenderer<T> renderer, IIngredientType<T> type) {
+		Group<?> group = groups.get(renderer);
+		if (group == null) {
+			group = new Group<>(renderer, type);
+			groups.put(renderer, group);
+			orderedGroups.add(group);
+		} else if (group.elements.isEmpty()) {
+			// the group was kept from an earlier frame, add it again in this frame's order
+			orderedGroups.add(group);
+		}
+		@SuppressWarnings("unchecked")
+		Group<T> castGroup = (Group<T>) group;
+		return castGroup;
+	}
+
+	/**
+	 * @return the batches for everything added since the last call, and starts planning the next frame.
+	 */
+	public List<Batch<?>> finish() {
+		List<Batch<?>> batches = new ArrayList<>(orderedGroups.size());
+		for (Group<?> group : orderedGroups) {
+			batches.add(group.finish());
+		}
+		// forget renderers that were not used this frame
+		groups.clear();
+		for (Group<?> group : orderedGroups) {
+			groups.put(group.renderer, group);
+		}
+		orderedGroups.clear();
+		return batches;
+	}
+
+	public record Batch<T>(IIngredientRenderer<T> renderer, IIngredientType<T> type, BatchRenderPlan<T> plan) {}
+
+	private static class Group<T> {
+		private final IIngredientRenderer<T> renderer;
+		private final IIngredientType<T> type;
+		private final List<BatchRenderElement<T>> elements = new ArrayList<>();
+		private @Nullable BatchRenderPlan<T> lastPlan;
+
+		public Group(IIngredientRenderer<T> renderer, IIngredientType<T> type) {
+			this.renderer = renderer;
+			this.type = type;
+		}
+
+		public Batch<T> finish() {
+			if (lastPlan == null || !hasSameElements(lastPlan, elements)) {
+				lastPlan = new BatchRenderPlan<>(elements);
+			}
+			elements.clear();
+			return new Batch<>(renderer, type, lastPlan);
+		}
+
+		/**
+		 * Ingredients are compared by identity, like the batch renderers do.
+		 */
+		private static <T> boolean hasSameElements(List<BatchRenderElement<T>> a, List<BatchRenderElement<T>> b) {
+			if (a.size() != b.size()) {
+				return false;
+			}
+			for (int i = 0; i < a.size(); i++) {
+				BatchRenderElement<T> elementA = a.get(i);
+				BatchRenderElement<T> elementB = b.get(i);
+				if (elementA.ingredient() != elementB.ingredient() ||
+					elementA.x() != elementB.x() ||
+					elementA.y() != elementB.y()) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+}
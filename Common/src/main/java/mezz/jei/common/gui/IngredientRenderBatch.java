@@ -0,0 +1,129 @@
+package mezz.jei.common.gui;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.PoseStack;
+import mezz.jei.api.gui.drawable.IDrawable;
+import mezz.jei.api.ingredients.IIngredientRenderer;
+import mezz.jei.api.ingredients.ITypedIngredient;
+import mezz.jei.common.util.SafeIngredientUtil;
+import net.minecraft.client.gui.GuiGraphics;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Matrix4f;
+import org.joml.Matrix4fc;
+import org.lwjgl.opengl.GL11;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the ingredients of the recipe slots of a recipe layout,
+ * so that they are drawn together in one batch for each renderer instead of one at a time.
+ *
+ * While a batch is open, recipe slots add their ingredient and overlay to it instead of drawing them.
+ * Slots can only be added when they are drawn with a plain translation at the same depth as the batch,
+ * and no scissor is active, anything else is drawn right away.
+ * Overlays are drawn after all the ingredients, so they still go on top of them.
+ * The batch must be ended before anything that should be drawn on top of the slots.
+ */
+public class IngredientRenderBatch {
+	private static @Nullable IngredientRenderBatch current;
+
+	private @Nullable IngredientRenderBatch previous;
+
+	private final IngredientBatchPlanner planner = new IngredientBatchPlanner();
+	private final List<Overlay> overlays = new ArrayList<>();
+	private boolean batchable;
+	private float baseX;
+	private float baseY;
+	private float baseZ;
+	private int offsetX;
+	private int offsetY;
+
+	/**
+	 * @return the open batch, if there is one.
+	 */
+	@Nullable
+	public static IngredientRenderBatch getCurrent() {
+		return current;
+	}
+
+	public void begin(GuiGraphics guiGraphics) {
+		Matrix4f pose = guiGraphics.pose().last().pose();
+		// deferred slots would be drawn after the scissor is disabled, outside of its area
+		this.batchable = isTranslation(pose) && !GL11.glIsEnabled(GL11.GL_SCISSOR_TEST);
+		this.baseX = pose.m30();
+		this.baseY = pose.m31();
+		this.baseZ = pose.m32();
+		this.previous = current;
+		current = this;
+	}
+
+	/**
+	 * Draws everything that was added since {@link #begin}, and closes the batch.
+	 * This must be called with the same pose as {@link #begin}.
+	 */
+	public void end(GuiGraphics guiGraphics) {
+		current = previous;
+		previous = null;
+
+		RenderSystem.enableBlend();
+		for (IngredientBatchPlanner.Batch<?> batch : planner.finish()) {
+			renderBatch(guiGraphics, batch);
+		}
+
+		if (!overlays.isEmpty()) {
+			RenderSystem.enableBlend();
+			PoseStack poseStack = guiGraphics.pose();
+			poseStack.pushPose();
+			{
+				poseStack.translate(0, 0, 200);
+				for (Overlay overlay : overlays) {
+					overlay.drawable.draw(guiGraphics, overlay.x, overlay.y);
+				}
+			}
+			poseStack.popPose();
+			overlays.clear();
+		}
+		RenderSystem.disableBlend();
+	}
+
+	private static <T> void renderBatch(GuiGraphics guiGraphics, IngredientBatchPlanner.Batch<T> batch) {
+		SafeIngredientUtil.renderBatch(guiGraphics, batch.type(), batch.renderer(), batch.plan());
+	}
+
+	/**
+	 * Checks if things drawn with the current pose can be added to this batch.
+	 * Must be called before adding, and the pose must not change until they are added.
+	 */
+	public boolean canAdd(GuiGraphics guiGraphics) {
+		if (!batchable) {
+			return false;
+		}
+		Matrix4f pose = guiGraphics.pose().last().pose();
+		if (!isTranslation(pose) || pose.m32() != baseZ) {
+			return false;
+		}
+		float x = pose.m30() - baseX;
+		float y = pose.m31() - baseY;
+		if (x != (int) x || y != (int) y) {
+			return false;
+		}
+		this.offsetX = (int) x;
+		this.offsetY = (int) y;
+		return true;
+	}
+
+	public <T> void addIngredient(IIngredientRenderer<T> ingredientRenderer, ITypedIngredient<T> typedIngredient, int x, int y) {
+		planner.add(ingredientRenderer, typedIngredient.getType(), typedIngredient.getIngredient(), offsetX + x, offsetY + y);
+	}
+
+	public void addOverlay(IDrawable overlay, int x, int y) {
+		overlays.add(new Overlay(overlay, offsetX + x, offsetY + y));
+	}
+
+	private static boolean isTranslation(Matrix4f pose) {
+		return (pose.properties() & (Matrix4fc.PROPERTY_IDENTITY | Matrix4fc.PROPERTY_TRANSLATION)) != 0;
+	}
+
+	private record Overlay(IDrawable drawable, int x, int y) {}
+}
@@ -1,9 +1,16 @@
 package mezz.jei.common.network;
 
 import mezz.jei.common.network.packets.PlayToServerPacket;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
 
 public interface IConnectionToServer {
 	boolean isJeiOnServer();
 
+	/**
+	 * @return true if the server can receive packets of this type.
+	 * Servers with an older version of JEI may not know about newer packets.
+	 */
+	boolean canSend(CustomPacketPayload.Type<?> type);
+
 	<T extends PlayToServerPacket<T>> void sendPacketToServer(T packet);
 }
@@ -0,0 +1,57 @@
+package mezz.jei.common.network.packets;
+
+import mezz.jei.api.constants.ModIds;
+import mezz.jei.common.config.GiveMode;
+import mezz.jei.common.network.ServerPacketContext;
+import mezz.jei.common.network.codecs.EnumStreamCodec;
+import mezz.jei.common.util.ServerCommandUtil;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.ItemStack;
+
+import java.util.List;
+
+/**
+ * Gives several items at once, so the server only has to check the player's permission once for all of them.
+ */
+public class PacketGiveItemStacks extends PlayToServerPacket<PacketGiveItemStacks> {
+	/**
+	 * The most item stacks sent in one packet, to stay well under the size limit for custom payloads.
+	 */
+	public static final int MAX_STACKS = 128;
+
+	public static final CustomPacketPayload.Type<PacketGiveItemStacks> TYPE = new CustomPacketPayload.Type<>(ResourceLocation.fromNamespaceAndPath(ModIds.JEI_ID, "give_item_stacks"));
+	public static final StreamCodec<RegistryFriendlyByteBuf, PacketGiveItemStacks> STREAM_CODEC = StreamCodec.composite(
+		ItemStack.STREAM_CODEC.apply(ByteBufCodecs.list(MAX_STACKS)),
+		p -> p.itemStacks,
+		new EnumStreamCodec<>(GiveMode.class),
+		p -> p.giveMode,
+		PacketGiveItemStacks::new
+	);
+
+	private final List<ItemStack> itemStacks;
+	private final GiveMode giveMode;
+
+	public PacketGiveItemStacks(List<ItemStack> itemStacks, GiveMode giveMode) {
+		this.itemStacks = List.copyOf(itemStacks);
+		this.giveMode = giveMode;
+	}
+
+	@Override
+	public Type<PacketGiveItemStacks> type() {
+		return TYPE;
+	}
+
+	@Override
+	public StreamCodec<RegistryFriendlyByteBuf, PacketGiveItemStacks> streamCodec() {
+		return STREAM_CODEC;
+	}
+
+	@Override
+	public void process(ServerPacketContext context) {
+		ServerCommandUtil.executeGive(context, itemStacks, giveMode);
+	}
+}
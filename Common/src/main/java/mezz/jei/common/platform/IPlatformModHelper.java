@@ -1,7 +1,14 @@
 package mezz.jei.common.platform;
 
+import java.util.List;
+
 public interface IPlatformModHelper {
 	String getModNameForModId(String modId);
 
 	boolean isInDev();
+
+	/**
+	 * @return the id and version of each loaded mod, like "modid@1.0.0"
+	 */
+	List<String> getModVersions();
 }
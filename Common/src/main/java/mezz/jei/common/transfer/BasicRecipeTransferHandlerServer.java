@@ -175,6 +175,16 @@ public final class BasicRecipeTransferHandlerServer {
 			);
 		}
 
+		if (canPlanMaxTransfer(recipeSlotToRequiredItemStack, itemTransferAmount)) {
+			return takeMaxItemsFromInventory(
+				player,
+				recipeSlotToRequiredItemStack,
+				craftingSlots,
+				inventorySlots,
+				transferAsCompleteSets
+			);
+		}
+
 		final Map<Slot, ItemStack> recipeSlotToResult = new LinkedHashMap<>(recipeSlotToRequiredItemStack.size());
 		while (true) {
 			final Map<Slot, ItemStack> foundItemsInSet = removeOneSetOfItemsFromInventory(
@@ -202,6 +212,131 @@ public final class BasicRecipeTransferHandlerServer {
 		return recipeSlotToResult;
 	}
 
+	/**
+	 * The planned max transfer moves one item per recipe slot at a time,
+	 * custom transfer amounts still use the slower set-by-set transfer.
+	 */
+	private static boolean canPlanMaxTransfer(Map<Slot, ItemStackWithSlotHint> recipeSlotToRequiredItemStack, List<Integer> itemTransferAmounts) {
+		for (int amount : itemTransferAmounts) {
+			if (amount != 1) {
+				return false;
+			}
+		}
+		for (Map.Entry<Slot, ItemStackWithSlotHint> entry : recipeSlotToRequiredItemStack.entrySet()) {
+			if (entry.getKey().getMaxStackSize(entry.getValue().stack) < 1) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Takes as many items as possible, with the same result as taking one set at a time,
+	 * but counts the items in each slot once instead of searching every slot again for each item.
+	 * See {@link MaxTransferPlanner}.
+	 */
+	private static Map<Slot, ItemStack> takeMaxItemsFromInventory(
+		Player player,
+		Map<Slot, ItemStackWithSlotHint> recipeSlotToRequiredItemStack,
+		List<Slot> craftingSlots,
+		List<Slot> inventorySlots,
+		boolean transferAsCompleteSets
+	) {
+		List<ItemStack> groupStacks = new ArrayList<>();
+
+		List<Slot> sources = new ArrayList<>(craftingSlots.size() + inventorySlots.size());
+		sources.addAll(craftingSlots);
+		sources.addAll(inventorySlots);
+		Map<Slot, Integer> sourceIndexes = new IdentityHashMap<>(sources.size());
+		for (int i = 0; i < sources.size(); i++) {
+			sourceIndexes.putIfAbsent(sources.get(i), i);
+		}
+
+		int requiredCount = recipeSlotToRequiredItemStack.size();
+		List<Slot> recipeSlots = new ArrayList<>(requiredCount);
+		int[] requiredGroups = new int[requiredCount];
+		int[] requiredHints = new int[requiredCount];
+		int[] requiredLimits = new int[requiredCount];
+		int index = 0;
+		for (Map.Entry<Slot, ItemStackWithSlotHint> entry : recipeSlotToRequiredItemStack.entrySet()) {
+			Slot recipeSlot = entry.getKey();
+			ItemStack requiredStack = entry.getValue().stack;
+			recipeSlots.add(recipeSlot);
+			requiredGroups[index] = getGroup(groupStacks, requiredStack, true);
+			requiredHints[index] = sourceIndexes.getOrDefault(entry.getValue().hint, -1);
+			requiredLimits[index] = recipeSlot.getMaxStackSize(requiredStack);
+			index++;
+		}
+
+		int[] sourceGroups = new int[sources.size()];
+		int[] sourceCounts = new int[sources.size()];
+		for (int i = 0; i < sources.size(); i++) {
+			Slot slot = sources.get(i);
+			ItemStack stack = slot.getItem();
+			if (!stack.isEmpty() && slot.allowModification(player)) {
+				sourceGroups[i] = getGroup(groupStacks, stack, false);
+				sourceCounts[i] = stack.getCount();
+			} else {
+				sourceGroups[i] = -1;
+			}
+		}
+
+		MaxTransferPlanner.Plan plan = MaxTransferPlanner.plan(
+			sourceGroups,
+			sourceCounts,
+			craftingSlots.size(),
+			requiredGroups,
+			requiredHints,
+			requiredLimits,
+			transferAsCompleteSets
+		);
+
+		// take everything from each slot at once
+		int[] takenCounts = new int[groupStacks.size()];
+		ItemStack[] takenStacks = new ItemStack[groupStacks.size()];
+		int[] taken = plan.taken();
+		for (int i = 0; i < taken.length; i++) {
+			if (taken[i] > 0) {
+				int group = sourceGroups[i];
+				ItemStack removed = sources.get(i).safeTake(taken[i], Integer.MAX_VALUE, player);
+				if (!removed.isEmpty()) {
+					takenCounts[group] += removed.getCount();
+					if (takenStacks[group] == null) {
+						takenStacks[group] = removed;
+					}
+				}
+			}
+		}
+
+		Map<Slot, ItemStack> recipeSlotToResult = new LinkedHashMap<>(requiredCount);
+		int[] given = plan.given();
+		for (int i = 0; i < requiredCount; i++) {
+			int group = requiredGroups[i];
+			int count = Math.min(given[i], takenCounts[group]);
+			if (count > 0) {
+				recipeSlotToResult.put(recipeSlots.get(i), takenStacks[group].copyWithCount(count));
+				takenCounts[group] -= count;
+			}
+		}
+		return recipeSlotToResult;
+	}
+
+	/**
+	 * @return the index of the group of items that are the same as the given stack, or -1 if there is none and add is false.
+	 */
+	private static int getGroup(List<ItemStack> groupStacks, ItemStack stack, boolean add) {
+		for (int i = 0; i < groupStacks.size(); i++) {
+			if (ItemStack.isSameItemSameComponents(groupStacks.get(i), stack)) {
+				return i;
+			}
+		}
+		if (add) {
+			groupStacks.add(stack);
+			return groupStacks.size() - 1;
+		}
+		return -1;
+	}
+
 	private static Map<Slot, ItemStack> removeOneSetOfItemsFromInventory(
 		Player player,
 		Map<Slot, ItemStackWithSlotHint> recipeSlotToRequiredItemStack,
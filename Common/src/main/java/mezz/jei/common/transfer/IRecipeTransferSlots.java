@@ -0,0 +1,28 @@
+package mezz.jei.common.transfer;
+
+import net.minecraft.world.inventory.AbstractContainerMenu;
+import net.minecraft.world.inventory.Slot;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implemented by recipe transfer handlers that take the items for a recipe from lists of slots,
+ * with {@link RecipeTransferUtil#getRecipeTransferOperations}.
+ *
+ * The craftable recipe sort uses the same slots to estimate which recipes can be crafted,
+ * without running the handler for each recipe.
+ */
+public interface IRecipeTransferSlots<C extends AbstractContainerMenu, R> {
+	/**
+	 * @return the slots the handler uses for the recipe,
+	 * or empty if the handler returns an error for it without looking at the items
+	 */
+	Optional<TransferSlots> getTransferSlots(C container, R recipe);
+
+	/**
+	 * @param craftingSlots  the slots that the recipe's inputs are moved into
+	 * @param inventorySlots the slots that items are taken from, along with the crafting slots
+	 */
+	record TransferSlots(List<Slot> craftingSlots, List<Slot> inventorySlots) {}
+}
@@ -0,0 +1,127 @@
+package mezz.jei.common.transfer;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import mezz.jei.api.helpers.IStackHelper;
+import mezz.jei.api.ingredients.subtypes.UidContext;
+import net.minecraft.world.inventory.AbstractContainerMenu;
+import net.minecraft.world.inventory.Slot;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * The items in a container's slots, grouped by their ingredient uid.
+ *
+ * Working out uids can be slow, and every recipe on screen checks the same container for transfers.
+ * The last index is kept until the container or its contents change, so those checks can share it.
+ * It is kept by its container weakly, so it is dropped along with the container when it is closed.
+ */
+public final class InventoryIndex {
+	private static final Map<AbstractContainerMenu, InventoryIndex> LAST_INDEX = new WeakHashMap<>();
+
+	/**
+	 * Get an index of the container's current contents, reusing the last one if nothing has changed.
+	 */
+	public static synchronized InventoryIndex get(IStackHelper stackHelper, AbstractContainerMenu container) {
+		InventoryIndex index = LAST_INDEX.get(container);
+		if (index == null || !index.matches(stackHelper, container)) {
+			index = new InventoryIndex(stackHelper, container);
+			LAST_INDEX.clear();
+			LAST_INDEX.put(container, index);
+		}
+		return index;
+	}
+
+	private final IStackHelper stackHelper;
+	/**
+	 * Copies of the stacks in each slot, because stacks can be changed in place.
+	 */
+	private final ItemStack[] stacks;
+	private final int[] slotGroups;
+	private final Object2IntMap<Object> uidGroups;
+	private final Set<Item> items;
+
+	private InventoryIndex(IStackHelper stackHelper, AbstractContainerMenu container) {
+		this.stackHelper = stackHelper;
+
+		List<Slot> slots = container.slots;
+		this.stacks = new ItemStack[slots.size()];
+		this.slotGroups = new int[slots.size()];
+		this.uidGroups = new Object2IntOpenHashMap<>();
+		this.uidGroups.defaultReturnValue(-1);
+		this.items = new HashSet<>();
+
+		for (int i = 0; i < slots.size(); i++) {
+			ItemStack stack = slots.get(i).getItem();
+			stacks[i] = stack.copy();
+			if (stack.isEmpty()) {
+				slotGroups[i] = -1;
+				continue;
+			}
+			Object uid = stackHelper.getUidForStack(stack, UidContext.Ingredient);
+			int group = uidGroups.getInt(uid);
+			if (group < 0) {
+				group = uidGroups.size();
+				uidGroups.put(uid, group);
+			}
+			slotGroups[i] = group;
+			items.add(stack.getItem());
+		}
+	}
+
+	/**
+	 * Stacks are compared by count and components instead of identity,
+	 * because some changes like damage or using up items are made to the stack in place.
+	 */
+	private boolean matches(IStackHelper stackHelper, AbstractContainerMenu container) {
+		if (this.stackHelper != stackHelper) {
+			return false;
+		}
+		List<Slot> slots = container.slots;
+		if (slots.size() != stacks.length) {
+			return false;
+		}
+		for (int i = 0; i < stacks.length; i++) {
+			ItemStack stack = slots.get(i).getItem();
+			if (!ItemStack.matches(stack, stacks[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public int getGroupCount() {
+		return uidGroups.size();
+	}
+
+	/**
+	 * @return the group of the item in the slot, or -1 if the slot was empty
+	 */
+	public int getGroup(Slot slot) {
+		int index = slot.index;
+		if (index < 0 || index >= slotGroups.length) {
+			return -1;
+		}
+		return slotGroups[index];
+	}
+
+	/**
+	 * @return the group of items with the given ingredient uid, or -1 if the container does not have any
+	 */
+	public int getGroup(Object uid) {
+		return uidGroups.getInt(uid);
+	}
+
+	/**
+	 * Checking the item first is cheaper than working out a uid for an ingredient that can't be in the container.
+	 */
+	public boolean containsItem(Item item) {
+		return items.contains(item);
+	}
+}
@@ -0,0 +1,151 @@
+package mezz.jei.common.transfer;
+
+import java.util.Arrays;
+
+/**
+ * Works out where the items for a max transfer come from, using only item counts.
+ *
+ * This gives the same result as taking one item for each recipe slot at a time until the slots are full
+ * or the items run out, but each source slot only needs to be looked at once,
+ * instead of searching every slot again for each item.
+ *
+ * Items are grouped by the item they hold, and everything is referred to by index:
+ * sources are the crafting slots (in order) followed by the inventory slots (in order).
+ * Each recipe slot takes from the first crafting slot with its item, then its hint slot, then the first inventory slot with its item.
+ */
+public final class MaxTransferPlanner {
+	private MaxTransferPlanner() {}
+
+	/**
+	 * @param taken how many items to take from each source
+	 * @param given how many items go to each recipe slot
+	 */
+	public record Plan(int[] taken, int[] given) {}
+
+	/**
+	 * @param sourceGroups        the group of each source, or -1 if items can't be taken from it
+	 * @param sourceCounts        the number of items in each source
+	 * @param craftingSourceCount how many of the sources are crafting slots
+	 * @param requiredGroups      the group of the item each recipe slot needs
+	 * @param requiredHints       the source index of each recipe slot's hint, or -1 if it has none
+	 * @param requiredLimits      the most items each recipe slot can hold, at least 1
+	 * @param completeSets        if true, only transfer complete sets of items
+	 */
+	public static Plan plan(
+		int[] sourceGroups,
+		int[] sourceCounts,
+		int craftingSourceCount,
+		int[] requiredGroups,
+		int[] requiredHints,
+		int[] requiredLimits,
+		boolean completeSets
+	) {
+		int groupCount = 0;
+		for (int group : requiredGroups) {
+			groupCount = Math.max(groupCount, group + 1);
+		}
+
+		int[] remaining = new int[sourceCounts.length];
+		long[] available = new long[groupCount];
+		for (int i = 0; i < sourceCounts.length; i++) {
+			int group = sourceGroups[i];
+			if (group >= 0 && group < groupCount) {
+				remaining[i] = sourceCounts[i];
+				available[group] += sourceCounts[i];
+			}
+		}
+
+		int maxLimit = 0;
+		for (int limit : requiredLimits) {
+			maxLimit = Math.max(maxLimit, limit);
+		}
+		int sets = completeSets ? countCompleteSets(requiredGroups, requiredLimits, available, maxLimit) : maxLimit;
+
+		int[] taken = new int[sourceCounts.length];
+		int[] given = new int[requiredGroups.length];
+		int[] craftingCursors = new int[groupCount];
+		int[] inventoryCursors = new int[groupCount];
+		Arrays.fill(inventoryCursors, craftingSourceCount);
+
+		for (int set = 1; set <= sets; set++) {
+			boolean tookAny = false;
+			for (int i = 0; i < requiredGroups.length; i++) {
+				if (requiredLimits[i] < set) {
+					// this recipe slot is already full
+					continue;
+				}
+				int group = requiredGroups[i];
+				int source = findSource(group, requiredHints[i], sourceGroups, remaining, craftingSourceCount, craftingCursors, inventoryCursors);
+				if (source >= 0) {
+					remaining[source]--;
+					taken[source]++;
+					given[i]++;
+					tookAny = true;
+				}
+			}
+			if (!tookAny) {
+				break;
+			}
+		}
+
+		return new Plan(taken, given);
+	}
+
+	/**
+	 * In each set, every recipe slot that is not full yet takes one item.
+	 * A set is complete when there are enough items left in every group for all of those recipe slots.
+	 */
+	private static int countCompleteSets(int[] requiredGroups, int[] requiredLimits, long[] available, int maxLimit) {
+		long[] needed = new long[available.length];
+		for (int set = 1; set <= maxLimit; set++) {
+			for (int i = 0; i < requiredGroups.length; i++) {
+				if (requiredLimits[i] >= set) {
+					needed[requiredGroups[i]]++;
+				}
+			}
+			for (int group = 0; group < available.length; group++) {
+				if (needed[group] > available[group]) {
+					return set - 1;
+				}
+			}
+		}
+		return maxLimit;
+	}
+
+	/**
+	 * Sources only ever lose items, so each group's cursors only move forward.
+	 */
+	private static int findSource(
+		int group,
+		int hint,
+		int[] sourceGroups,
+		int[] remaining,
+		int craftingSourceCount,
+		int[] craftingCursors,
+		int[] inventoryCursors
+	) {
+		int crafting = advance(group, craftingCursors[group], craftingSourceCount, sourceGroups, remaining);
+		craftingCursors[group] = crafting;
+		if (crafting < craftingSourceCount) {
+			return crafting;
+		}
+
+		if (hint >= 0 && sourceGroups[hint] == group && remaining[hint] > 0) {
+			return hint;
+		}
+
+		int inventory = advance(group, inventoryCursors[group], sourceGroups.length, sourceGroups, remaining);
+		inventoryCursors[group] = inventory;
+		if (inventory < sourceGroups.length) {
+			return inventory;
+		}
+		return -1;
+	}
+
+	private static int advance(int group, int cursor, int end, int[] sourceGroups, int[] remaining) {
+		while (cursor < end && (sourceGroups[cursor] != group || remaining[cursor] == 0)) {
+			cursor++;
+		}
+		return cursor;
+	}
+}
@@ -0,0 +1,107 @@
+package mezz.jei.common.transfer;
+
+import java.util.Arrays;
+
+/**
+ * Chooses which inventory slot each recipe slot takes its item from, using only item counts.
+ *
+ * Slots that hold equivalent items are put in the same group.
+ * Each recipe slot takes one item from the first of its groups that still has items,
+ * where groups with more items come first (and then groups with a lower slot index).
+ * Within a group, it takes from the slot with the fewest items (and then the lowest slot index).
+ * The orders are worked out from the counts before anything is taken.
+ */
+public final class RecipeSlotMatcher {
+	private RecipeSlotMatcher() {}
+
+	/**
+	 * @param sourceSlotIndexes the slot index of each source slot
+	 * @param sourceGroups      the group of each source slot, from 0 to groupCount - 1
+	 * @param sourceCounts      the number of items in each source slot
+	 * @param groupCount        the number of groups
+	 * @param requiredGroups    for each recipe slot, the groups that it accepts items from
+	 * @return for each recipe slot, the source it takes an item from, or -1 if there is no item for it
+	 */
+	public static int[] match(int[] sourceSlotIndexes, int[] sourceGroups, int[] sourceCounts, int groupCount, int[][] requiredGroups) {
+		int sourceCount = sourceGroups.length;
+		long[] groupRemaining = new long[groupCount];
+		int[] groupMinSlotIndex = new int[groupCount];
+		int[] groupSizes = new int[groupCount];
+		Arrays.fill(groupMinSlotIndex, Integer.MAX_VALUE);
+		for (int i = 0; i < sourceCount; i++) {
+			int group = sourceGroups[i];
+			groupRemaining[group] += sourceCounts[i];
+			groupMinSlotIndex[group] = Math.min(groupMinSlotIndex[group], sourceSlotIndexes[i]);
+			groupSizes[group]++;
+		}
+
+		// sources of each group, next to each other, fewest items first
+		int[] groupStarts = new int[groupCount + 1];
+		for (int group = 0; group < groupCount; group++) {
+			groupStarts[group + 1] = groupStarts[group] + groupSizes[group];
+		}
+		Integer[] sortedSources = new Integer[sourceCount];
+		for (int i = 0; i < sourceCount; i++) {
+			sortedSources[i] = i;
+		}
+		Arrays.sort(sortedSources, (a, b) -> {
+			int compare = Integer.compare(sourceGroups[a], sourceGroups[b]);
+			if (compare == 0) {
+				compare = Integer.compare(sourceCounts[a], sourceCounts[b]);
+			}
+			if (compare == 0) {
+				compare = Integer.compare(sourceSlotIndexes[a], sourceSlotIndexes[b]);
+			}
+			return compare;
+		});
+
+		// groups with the most items first
+		Integer[] sortedGroups = new Integer[groupCount];
+		for (int group = 0; group < groupCount; group++) {
+			sortedGroups[group] = group;
+		}
+		Arrays.sort(sortedGroups, (a, b) -> {
+			int compare = Long.compare(groupRemaining[b], groupRemaining[a]);
+			if (compare == 0) {
+				compare = Integer.compare(groupMinSlotIndex[a], groupMinSlotIndex[b]);
+			}
+			return compare;
+		});
+		int[] groupRanks = new int[groupCount];
+		for (int rank = 0; rank < groupCount; rank++) {
+			groupRanks[sortedGroups[rank]] = rank;
+		}
+
+		int[] remaining = sourceCounts.clone();
+		int[] cursors = Arrays.copyOf(groupStarts, groupCount);
+		int[] result = new int[requiredGroups.length];
+		for (int i = 0; i < requiredGroups.length; i++) {
+			int group = findBestGroup(requiredGroups[i], groupRanks, groupRemaining);
+			if (group < 0) {
+				result[i] = -1;
+				continue;
+			}
+			// sources only ever lose items, so the cursor only moves forward
+			int cursor = cursors[group];
+			while (remaining[sortedSources[cursor]] == 0) {
+				cursor++;
+			}
+			cursors[group] = cursor;
+			int source = sortedSources[cursor];
+			remaining[source]--;
+			groupRemaining[group]--;
+			result[i] = source;
+		}
+		return result;
+	}
+
+	private static int findBestGroup(int[] groups, int[] groupRanks, long[] groupRemaining) {
+		int best = -1;
+		for (int group : groups) {
+			if (groupRemaining[group] > 0 && (best < 0 || groupRanks[group] < groupRanks[best])) {
+				best = group;
+			}
+		}
+		return best;
+	}
+}
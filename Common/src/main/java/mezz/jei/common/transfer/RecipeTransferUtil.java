@@ -1,8 +1,7 @@
 package mezz.jei.common.transfer;
 
-import it.unimi.dsi.fastutil.Hash;
-import it.unimi.dsi.fastutil.objects.Object2ObjectArrayMap;
-import it.unimi.dsi.fastutil.objects.Object2ObjectOpenCustomHashMap;
+import it.unimi.dsi.fastutil.ints.IntArraySet;
+import it.unimi.dsi.fastutil.ints.IntSet;
 import mezz.jei.api.constants.VanillaTypes;
 import mezz.jei.api.gui.IRecipeLayoutDrawable;
 import mezz.jei.api.gui.ingredient.IRecipeSlotView;
@@ -18,15 +17,13 @@ import mezz.jei.common.util.StringUtil;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.inventory.AbstractContainerMenu;
 import net.minecraft.world.inventory.Slot;
+import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import org.jetbrains.annotations.Nullable;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -168,93 +165,51 @@ public final class RecipeTransferUtil {
 	/**
 	 * Returns a list of items in slots that complete the recipe defined by requiredStacksList.
 	 * Returns a result that contains missingItems if there are not enough items in availableItemStacks.
+	 *
+	 * @param inventoryIndex the uids of the items in the container, from {@link InventoryIndex#get}
 	 */
 	public static RecipeTransferOperationsResult getRecipeTransferOperations(
 		IStackHelper stackhelper,
+		InventoryIndex inventoryIndex,
 		Map<Slot, ItemStack> availableItemStacks,
 		List<IRecipeSlotView> requiredItemStacks,
 		List<Slot> craftingSlots
 	) {
 		RecipeTransferOperationsResult transferOperations = new RecipeTransferOperationsResult();
 
-		// Find groups of slots for each recipe input, so each ingredient knows list of slots it can take item from
-		// and also split them between "equal" groups
-		Map<IRecipeSlotView, Map<ItemStack, ArrayList<PhantomSlotState>>> relevantSlots = new IdentityHashMap<>();
-
-		Map<IRecipeSlotView, Set<Object>> slotUidCache = new IdentityHashMap<>();
-		List<IRecipeSlotView> nonEmptyRequiredStacks = requiredItemStacks.stream()
-			.filter(r -> !r.isEmpty())
-			.toList();
-
-		UidHashStrategy uidHashStrategy = new UidHashStrategy(stackhelper);
-
+		// Group the available slots by the uid of their items, using the index so that uids are not worked out again
+		Slot[] sourceSlots = new Slot[availableItemStacks.size()];
+		int[] sourceSlotIndexes = new int[sourceSlots.length];
+		int[] sourceGroups = new int[sourceSlots.length];
+		int[] sourceCounts = new int[sourceSlots.length];
+		int sourceCount = 0;
 		for (Map.Entry<Slot, ItemStack> slotTuple : availableItemStacks.entrySet()) {
-			ItemStack slotItemStack = slotTuple.getValue();
-			Object slotItemStackUid = stackhelper.getUidForStack(slotItemStack, UidContext.Ingredient);
-
-			for (IRecipeSlotView ingredient : nonEmptyRequiredStacks) {
-				Set<Object> ingredientUids = slotUidCache.computeIfAbsent(ingredient, s -> calculateUids(s, stackhelper));
-
-				if (ingredientUids.contains(slotItemStackUid)) {
-					relevantSlots
-						.computeIfAbsent(ingredient, it -> new Object2ObjectOpenCustomHashMap<>(uidHashStrategy))
-						.computeIfAbsent(slotItemStack, it -> new ArrayList<>())
-						.add(new PhantomSlotState(slotTuple.getKey(), slotItemStack));
-				}
+			Slot slot = slotTuple.getKey();
+			int group = inventoryIndex.getGroup(slot);
+			if (group >= 0) {
+				sourceSlots[sourceCount] = slot;
+				sourceSlotIndexes[sourceCount] = slot.index;
+				sourceGroups[sourceCount] = group;
+				sourceCounts[sourceCount] = slotTuple.getValue().getCount();
+				sourceCount++;
 			}
 		}
+		sourceSlotIndexes = Arrays.copyOf(sourceSlotIndexes, sourceCount);
+		sourceGroups = Arrays.copyOf(sourceGroups, sourceCount);
+		sourceCounts = Arrays.copyOf(sourceCounts, sourceCount);
 
-		// Now we have Ingredient -> (type -> slots) list
-		// But it is not sorted
-		// So we construct a List containing Ingredient -> List<Lists of slots>
-		// Then we sort each List so children List of slots so that List with Slots which contain
-		// the most items appear at top (this is outer sort)
-
-		// After we have done outer sort, we need to do inner sort, that is, sort lists containing slots themselves
-		// so that slots with lesser items appear at top
-
-		// We need to get following structure:
-		// Ingredient1 -> listOf(MostItems(LeastItemsInSlot, MoreItemsInSlot, ...), LesserItems(), ...)
-
-		Map<IRecipeSlotView, ArrayList<PhantomSlotStateList>> bestMatches = new Object2ObjectArrayMap<>();
-
-		for (Map.Entry<IRecipeSlotView, Map<ItemStack, ArrayList<PhantomSlotState>>> entry : relevantSlots.entrySet()) {
-			ArrayList<PhantomSlotStateList> countedAndSorted = new ArrayList<>();
-
-			for (Map.Entry<ItemStack, ArrayList<PhantomSlotState>> foundSlots : entry.getValue().entrySet()) {
-				// Ascending sort
-				// if counts are equal, push slots with lesser index to top
-				foundSlots.getValue().sort((o1, o2) -> {
-					int compare = Integer.compare(o1.itemStack.getCount(), o2.itemStack.getCount());
-
-					if (compare == 0) {
-						return Integer.compare(o1.slot.index, o2.slot.index);
-					}
-
-					return compare;
-				});
-
-				countedAndSorted.add(new PhantomSlotStateList(foundSlots.getValue()));
+		int[][] requiredGroups = new int[requiredItemStacks.size()][];
+		for (int i = 0; i < requiredItemStacks.size(); i++) {
+			IRecipeSlotView requiredItemStack = requiredItemStacks.get(i);
+			if (requiredItemStack.isEmpty()) {
+				requiredGroups[i] = new int[0];
+			} else {
+				requiredGroups[i] = getGroups(requiredItemStack, stackhelper, inventoryIndex);
 			}
-
-			// Descending sort
-			// if counts are equal, push groups with the lowest slot index to the top
-			countedAndSorted.sort((o1, o2) -> {
-				int compare = Long.compare(o2.totalItemCount, o1.totalItemCount);
-
-				if (compare == 0) {
-					return Integer.compare(
-						o1.stateList.stream().mapToInt(it -> it.slot.index).min().orElse(0),
-						o2.stateList.stream().mapToInt(it -> it.slot.index).min().orElse(0)
-					);
-				}
-
-				return compare;
-			});
-
-			bestMatches.put(entry.getKey(), countedAndSorted);
 		}
 
+		int[] matches = RecipeSlotMatcher.match(sourceSlotIndexes, sourceGroups, sourceCounts, inventoryIndex.getGroupCount(), requiredGroups);
+
 		for (int i = 0; i < requiredItemStacks.size(); i++) {
 			IRecipeSlotView requiredItemStack = requiredItemStacks.get(i);
 
@@ -263,25 +218,11 @@ public final class RecipeTransferUtil {
 			}
 
 			Slot craftingSlot = craftingSlots.get(i);
-
-			PhantomSlotState matching = null;
-			List<PhantomSlotStateList> matches = bestMatches.get(requiredItemStack);
-			if (matches != null) {
-				for (PhantomSlotStateList phantomSlotStateList : matches) {
-					PhantomSlotState first = phantomSlotStateList.getFirstNonEmpty();
-					if (first != null) {
-						matching = first;
-						break;
-					}
-				}
-			}
-
-			if (matching == null) {
+			int match = matches[i];
+			if (match < 0) {
 				transferOperations.missingItems.add(requiredItemStack);
 			} else {
-				Slot matchingSlot = matching.slot;
-				ItemStack matchingStack = matching.itemStack;
-				matchingStack.shrink(1);
+				Slot matchingSlot = sourceSlots[match];
 				transferOperations.results.add(new TransferOperation(matchingSlot.index, craftingSlot.index));
 			}
 		}
@@ -289,55 +230,29 @@ public final class RecipeTransferUtil {
 		return transferOperations;
 	}
 
-	private static Set<Object> calculateUids(IRecipeSlotView recipeSlotView, IStackHelper stackhelper) {
-		List<@Nullable ITypedIngredient<?>> allIngredientsList = recipeSlotView.getAllIngredientsList();
-		Set<Object> uids = new HashSet<>(allIngredientsList.size());
-		for (ITypedIngredient<?> typedIngredient : allIngredientsList) {
+	/**
+	 * Find the groups in the inventory index that have an item this recipe slot accepts.
+	 */
+	private static int[] getGroups(IRecipeSlotView recipeSlotView, IStackHelper stackhelper, InventoryIndex inventoryIndex) {
+		IntSet groups = new IntArraySet();
+		for (ITypedIngredient<?> typedIngredient : recipeSlotView.getAllIngredientsList()) {
 			if (typedIngredient == null) {
 				continue;
 			}
 			ITypedIngredient<ItemStack> typedItemStack = typedIngredient.cast(VanillaTypes.ITEM_STACK);
-			if (typedItemStack != null) {
-				Object uid = stackhelper.getUidForStack(typedItemStack, UidContext.Ingredient);
-				uids.add(uid);
+			if (typedItemStack == null) {
+				continue;
 			}
-		}
-		return uids;
-	}
-
-	private record PhantomSlotState(Slot slot, ItemStack itemStack) {}
-
-	private record PhantomSlotStateList(List<PhantomSlotState> stateList, long totalItemCount) {
-		public PhantomSlotStateList(List<PhantomSlotState> states) {
-			this(states, states.stream().mapToLong(it -> it.itemStack.getCount()).sum());
-		}
-
-		@Nullable
-		public PhantomSlotState getFirstNonEmpty() {
-			for (PhantomSlotState state : this.stateList) {
-				if (!state.itemStack.isEmpty()) {
-					return state;
-				}
+			Item item = typedItemStack.getBaseIngredient(VanillaTypes.ITEM_STACK);
+			if (!inventoryIndex.containsItem(item)) {
+				continue;
+			}
+			Object uid = stackhelper.getUidForStack(typedItemStack, UidContext.Ingredient);
+			int group = inventoryIndex.getGroup(uid);
+			if (group >= 0) {
+				groups.add(group);
 			}
-			return null;
-		}
-	}
-
-	private static class UidHashStrategy implements Hash.Strategy<ItemStack> {
-		private final IStackHelper stackhelper;
-
-		public UidHashStrategy(IStackHelper stackhelper) {
-			this.stackhelper = stackhelper;
-		}
-
-		@Override
-		public int hashCode(ItemStack o) {
-			return o.getItem().hashCode();
-		}
-
-		@Override
-		public boolean equals(ItemStack a, ItemStack b) {
-			return stackhelper.isEquivalent(a, b, UidContext.Ingredient);
 		}
+		return groups.toIntArray();
 	}
 }
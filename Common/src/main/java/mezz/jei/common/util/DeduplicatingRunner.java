@@ -1,51 +1,71 @@
 package mezz.jei.common.util;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.Nullable;
 
 import java.time.Duration;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This will only run once `delay` has elapsed, without additional runs being called.
+ *
+ * Runs are scheduled on the shared {@link JeiScheduler} thread by default,
+ * instead of each runner creating its own thread.
  */
 public class DeduplicatingRunner {
+	private static final Logger LOGGER = LogManager.getLogger();
+
 	private final Runnable runnable;
 	private final Duration delay;
 	private final String name;
-	private @Nullable Timer timer;
-	private @Nullable TimerTask task;
+	private final ScheduledExecutorService executor;
+	private @Nullable ScheduledFuture<?> future;
+	private long runNumber;
 
 	public DeduplicatingRunner(Runnable runnable, Duration delay, String name) {
+		this(runnable, delay, name, JeiScheduler.get());
+	}
+
+	public DeduplicatingRunner(Runnable runnable, Duration delay, String name, ScheduledExecutorService executor) {
 		this.runnable = runnable;
 		this.delay = delay;
 		this.name = name;
+		this.executor = executor;
 	}
 
 	public synchronized void run() {
-		if (task != null) {
-			task.cancel();
+		if (future != null) {
+			future.cancel(false);
 		}
-		task = new TimerTask() {
-			@Override
-			public void run() {
-				doRun(this);
-			}
-		};
-		if (timer == null) {
-			timer = new Timer(name);
+		// a run that has already started waiting for the lock can't be cancelled,
+		// so each run checks that it is still the latest one.
+		long scheduledRunNumber = ++runNumber;
+		try {
+			future = executor.schedule(() -> doRun(scheduledRunNumber), delay.toMillis(), TimeUnit.MILLISECONDS);
+		} catch (RejectedExecutionException e) {
+			// the executor has been shut down, run now so that nothing is lost
+			LOGGER.debug("{} could not be scheduled, running it now.", name);
+			future = null;
+			runSafely();
+		}
+	}
+
+	private synchronized void doRun(long scheduledRunNumber) {
+		if (runNumber == scheduledRunNumber && future != null) {
+			future = null;
+			runSafely();
 		}
-		timer.schedule(task, delay.toMillis());
 	}
 
-	private synchronized void doRun(TimerTask fromTask) {
-		if (task == fromTask) {
+	private void runSafely() {
+		try {
 			runnable.run();
-			task = null;
-			if (timer != null) {
-				timer.cancel();
-				timer = null;
-			}
+		} catch (RuntimeException e) {
+			LOGGER.error("{} encountered an exception.", name, e);
 		}
 	}
 }
@@ -0,0 +1,148 @@
+package mezz.jei.common.util;
+
+import mezz.jei.common.config.DebugConfig;
+import net.minecraft.Util;
+import net.minecraft.client.Minecraft;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Measures how much time JEI spends in each stage of a frame, so that JEI's share of gui lag can be shown.
+ *
+ * Timings are always recorded, it only costs two calls to {@link System#nanoTime()} per stage.
+ * They are drawn on screen when debug guis are enabled,
+ * and appended to logs/jei-frame-timings.csv periodically in debug mode.
+ * Not thread-safe, it is meant to be used from the render thread.
+ */
+public final class FrameTimings {
+	private static final Logger LOGGER = LogManager.getLogger();
+	private static final long CSV_INTERVAL_NANOS = Duration.ofSeconds(10).toNanos();
+	private static final String CSV_FILE_NAME = "jei-frame-timings.csv";
+	private static final String CSV_HEADER = "time,stage,calls_per_second,average_us,max_us,percent_of_time\n";
+
+	public enum Stage {
+		EXCLUSION_AREAS("Exclusion areas"),
+		INGREDIENT_LIST("Ingredient list"),
+		BOOKMARKS("Bookmarks"),
+		TOOLTIPS("Tooltips"),
+		RECIPES("Recipe page"),
+		INPUT("Input routing");
+
+		private final String displayName;
+
+		Stage(String displayName) {
+			this.displayName = displayName;
+		}
+	}
+
+	private static final Map<Stage, RollingTiming> timings = new EnumMap<>(Stage.class);
+	private static long lastCsvTime = System.nanoTime();
+
+	static {
+		for (Stage stage : Stage.values()) {
+			timings.put(stage, new RollingTiming());
+		}
+	}
+
+	private FrameTimings() {}
+
+	/**
+	 * @return the start time to pass to {@link #end}.
+	 */
+	public static long start() {
+		return System.nanoTime();
+	}
+
+	public static void end(Stage stage, long startNanos) {
+		long elapsed = System.nanoTime() - startNanos;
+		timings.get(stage).add(elapsed);
+	}
+
+	/**
+	 * @return a line describing each stage, for drawing on screen.
+	 */
+	public static List<String> getDebugLines() {
+		long now = System.currentTimeMillis();
+		long totalNanosPerSecond = 0;
+		List<String> lines = new ArrayList<>();
+		for (Stage stage : Stage.values()) {
+			RollingTiming timing = timings.get(stage);
+			long nanosPerSecond = timing.getNanosPerSecond(now);
+			totalNanosPerSecond += nanosPerSecond;
+			lines.add(String.format(
+				"%s: %d/s, %.1f us average, %.1f us max, %.2f%% of time",
+				stage.displayName,
+				timing.getCallsPerSecond(now),
+				timing.getAverageNanos() / 1000.0,
+				timing.getMaxNanos() / 1000.0,
+				nanosPerSecond / 10_000_000.0
+			));
+		}
+		lines.addFirst(String.format("JEI frame timings: %.2f%% of time", totalNanosPerSecond / 10_000_000.0));
+		return lines;
+	}
+
+	/**
+	 * Appends the current timings to the csv file periodically, in debug mode.
+	 * Called once per frame.
+	 */
+	public static void onFrameEnd() {
+		if (!DebugConfig.isDebugModeEnabled()) {
+			return;
+		}
+		long now = System.nanoTime();
+		if (now - lastCsvTime > CSV_INTERVAL_NANOS) {
+			lastCsvTime = now;
+			String rows = getCsvRows();
+			Path path = Minecraft.getInstance().gameDirectory.toPath()
+				.resolve("logs")
+				.resolve(CSV_FILE_NAME);
+			Util.ioPool().execute(() -> appendCsv(path, rows));
+		}
+	}
+
+	private static String getCsvRows() {
+		long now = System.currentTimeMillis();
+		String time = Instant.ofEpochMilli(now).toString();
+		StringBuilder rows = new StringBuilder();
+		for (Stage stage : Stage.values()) {
+			RollingTiming timing = timings.get(stage);
+			rows.append(String.format(
+				Locale.ROOT,
+				"%s,%s,%d,%.1f,%.1f,%.3f\n",
+				time,
+				stage.name().toLowerCase(Locale.ROOT),
+				timing.getCallsPerSecond(now),
+				timing.getAverageNanos() / 1000.0,
+				timing.getMaxNanos() / 1000.0,
+				timing.getNanosPerSecond(now) / 10_000_000.0
+			));
+		}
+		return rows.toString();
+	}
+
+	private static void appendCsv(Path path, String rows) {
+		try {
+			if (!Files.exists(path)) {
+				Files.createDirectories(path.getParent());
+				Files.writeString(path, CSV_HEADER, StandardCharsets.UTF_8);
+			}
+			Files.writeString(path, rows, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+		} catch (IOException e) {
+			LOGGER.error("Failed to write frame timings to {}", path, e);
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package mezz.jei.common.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One shared thread for JEI's delayed work, like saving config files after a change
+ * and calling the file watcher callbacks.
+ *
+ * Tasks run one at a time, in the order they are due.
+ * The thread is a daemon, so it never keeps the game running after it exits.
+ * Instead, a shutdown hook waits for the tasks that are still scheduled, so that pending saves are not lost.
+ * It stops after it has had nothing to do for a while, and starts again when a task is scheduled.
+ *
+ * The shutdown hook can only finish work that runs on this thread.
+ * Tasks that hand their work to the main thread, like the delayed bookmark save and the blacklist compaction,
+ * are not run if the game exits without stopping JEI first, because the main thread is no longer running them.
+ * When the game closes normally, JEI stops first and flushes those saves on the main thread.
+ * Blacklist changes are also kept in its journal until they are compacted, so only recent bookmark changes can be lost.
+ */
+public final class JeiScheduler {
+	private static final Logger LOGGER = LogManager.getLogger();
+	private static final Duration KEEP_ALIVE = Duration.ofSeconds(30);
+	private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+	private static final ScheduledThreadPoolExecutor INSTANCE = createShared();
+
+	private JeiScheduler() {}
+
+	public static ScheduledExecutorService get() {
+		return INSTANCE;
+	}
+
+	private static ScheduledThreadPoolExecutor createShared() {
+		ScheduledThreadPoolExecutor executor = create("JEI Scheduler", KEEP_ALIVE);
+		Thread shutdownHook = new Thread(() -> awaitPendingTasks(executor), "JEI Scheduler Shutdown");
+		Runtime.getRuntime().addShutdownHook(shutdownHook);
+		return executor;
+	}
+
+	public static ScheduledThreadPoolExecutor create(String threadName, Duration keepAlive) {
+		ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(runnable, threadName);
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.setKeepAliveTime(keepAlive.toMillis(), TimeUnit.MILLISECONDS);
+		executor.allowCoreThreadTimeOut(true);
+		// debounced tasks are cancelled often, don't keep them in the queue until they would have run
+		executor.setRemoveOnCancelPolicy(true);
+		return executor;
+	}
+
+	/**
+	 * Stops accepting new tasks and waits for the tasks that were already scheduled, up to {@link #SHUTDOWN_TIMEOUT}.
+	 * Tasks scheduled after this are run immediately by their callers, see {@link DeduplicatingRunner}.
+	 */
+	private static void awaitPendingTasks(ScheduledThreadPoolExecutor executor) {
+		executor.shutdown();
+		try {
+			if (!executor.awaitTermination(SHUTDOWN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+				LOGGER.warn("JEI Scheduler did not finish its pending tasks in {} seconds.", SHUTDOWN_TIMEOUT.toSeconds());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,35 @@
+package mezz.jei.common.util;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Remembers whether each player has a permission, so that it does not have to be worked out again for every packet.
+ *
+ * Each answer is stored with the state it was worked out from, like the player's game mode and permission level.
+ * When a player's state changes (for example when they are opped or change game mode), the permission is checked again.
+ *
+ * Players are held weakly, so players that leave the server or respawn are dropped from the cache,
+ * and the whole cache goes away with the players of a server that stops.
+ * Anything else that should make the permission be checked again, like a /reload, must be part of the state.
+ *
+ * @param <P> the player
+ * @param <S> the state that the permission depends on, compared with {@link Object#equals(Object)}.
+ *            It must not hold on to the player.
+ */
+public class PermissionCache<P, S> {
+	private final Map<P, Entry<S>> entries = new WeakHashMap<>();
+
+	public synchronized boolean hasPermission(P player, S state, Predicate<P> permissionCheck) {
+		Entry<S> entry = entries.get(player);
+		if (entry != null && entry.state().equals(state)) {
+			return entry.hasPermission();
+		}
+		boolean hasPermission = permissionCheck.test(player);
+		entries.put(player, new Entry<>(state, hasPermission));
+		return hasPermission;
+	}
+
+	private record Entry<S>(S state, boolean hasPermission) {}
+}
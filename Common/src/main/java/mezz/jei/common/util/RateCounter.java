@@ -0,0 +1,50 @@
+package mezz.jei.common.util;
+
+/**
+ * Counts how many times something happens per second, for displaying debug info.
+ * Not thread-safe, it is meant to be used from the render thread.
+ */
+public class RateCounter {
+	private static final long WINDOW_MS = 1000;
+
+	private long windowStart;
+	private int count;
+	private int lastWindowCount;
+
+	public void increment() {
+		increment(System.currentTimeMillis());
+	}
+
+	public void increment(long currentTime) {
+		advance(currentTime);
+		count++;
+	}
+
+	/**
+	 * @return the number of times {@link #increment()} was called during the last complete second.
+	 */
+	public int getRate() {
+		return getRate(System.currentTimeMillis());
+	}
+
+	public int getRate(long currentTime) {
+		advance(currentTime);
+		return lastWindowCount;
+	}
+
+	private void advance(long currentTime) {
+		long elapsed = currentTime - windowStart;
+		if (elapsed < WINDOW_MS) {
+			return;
+		}
+		if (elapsed < 2 * WINDOW_MS) {
+			lastWindowCount = count;
+			windowStart += WINDOW_MS;
+		} else {
+			// nothing happened during the whole last window
+			lastWindowCount = 0;
+			windowStart = currentTime;
+		}
+		count = 0;
+	}
+}
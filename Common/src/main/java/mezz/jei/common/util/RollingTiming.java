@@ -0,0 +1,93 @@
+package mezz.jei.common.util;
+
+/**
+ * Keeps the durations of the last few calls to something, and how much time it took during the last second.
+ * Not thread-safe, it is meant to be used from the render thread.
+ */
+public class RollingTiming {
+	private static final int SAMPLE_COUNT = 128;
+	private static final long WINDOW_MS = 1000;
+
+	private final long[] samples = new long[SAMPLE_COUNT];
+	private int sampleCount;
+	private int nextSample;
+
+	private long windowStart;
+	private int windowCalls;
+	private long windowNanos;
+	private int lastWindowCalls;
+	private long lastWindowNanos;
+
+	public void add(long nanos) {
+		add(nanos, System.currentTimeMillis());
+	}
+
+	public void add(long nanos, long currentTime) {
+		advance(currentTime);
+		samples[nextSample] = nanos;
+		nextSample = (nextSample + 1) % SAMPLE_COUNT;
+		sampleCount = Math.min(sampleCount + 1, SAMPLE_COUNT);
+		windowCalls++;
+		windowNanos += nanos;
+	}
+
+	/**
+	 * @return the average duration of the recent calls.
+	 */
+	public long getAverageNanos() {
+		if (sampleCount == 0) {
+			return 0;
+		}
+		long total = 0;
+		for (int i = 0; i < sampleCount; i++) {
+			total += samples[i];
+		}
+		return total / sampleCount;
+	}
+
+	/**
+	 * @return the longest duration of the recent calls.
+	 */
+	public long getMaxNanos() {
+		long max = 0;
+		for (int i = 0; i < sampleCount; i++) {
+			max = Math.max(max, samples[i]);
+		}
+		return max;
+	}
+
+	/**
+	 * @return the number of calls during the last complete second.
+	 */
+	public int getCallsPerSecond(long currentTime) {
+		advance(currentTime);
+		return lastWindowCalls;
+	}
+
+	/**
+	 * @return the total duration of the calls during the last complete second.
+	 */
+	public long getNanosPerSecond(long currentTime) {
+		advance(currentTime);
+		return lastWindowNanos;
+	}
+
+	private void advance(long currentTime) {
+		long elapsed = currentTime - windowStart;
+		if (elapsed < WINDOW_MS) {
+			return;
+		}
+		if (elapsed < 2 * WINDOW_MS) {
+			lastWindowCalls = windowCalls;
+			lastWindowNanos = windowNanos;
+			windowStart += WINDOW_MS;
+		} else {
+			// nothing happened during the whole last window
+			lastWindowCalls = 0;
+			lastWindowNanos = 0;
+			windowStart = currentTime;
+		}
+		windowCalls = 0;
+		windowNanos = 0;
+	}
+}
@@ -104,6 +104,26 @@ public final class SafeIngredientUtil {
 		}
 	}
 
+	public static <T> void prepareBatch(
+		IIngredientRenderer<T> ingredientRenderer,
+		List<BatchRenderElement<T>> elements
+	) {
+		if (CRASHING_INGREDIENT_BATCH_RENDERERS.contains(ingredientRenderer)) {
+			return;
+		}
+
+		try {
+			ingredientRenderer.prepareBatch(elements);
+		} catch (RuntimeException | LinkageError e) {
+			CRASHING_INGREDIENT_BATCH_RENDERERS.add(ingredientRenderer);
+			LOGGER.error(
+				"Caught an error while preparing a batch of Ingredients with ingredient renderer: {}",
+				ingredientRenderer.getClass(),
+				e
+			);
+		}
+	}
+
 	public static <T> void render(
 		GuiGraphics guiGraphics,
 		IIngredientRenderer<T> ingredientRenderer,
@@ -25,6 +25,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -32,11 +33,29 @@ import java.util.Optional;
  */
 public final class ServerCommandUtil {
 	private static final Logger LOGGER = LogManager.getLogger();
+	private static final PermissionCache<Player, CheatPermissionState> CHEAT_PERMISSION_CACHE = new PermissionCache<>();
 
 	private ServerCommandUtil() {
 	}
 
 	public static boolean hasPermissionForCheatMode(Player sender, IServerConfig serverConfig) {
+		MinecraftServer minecraftServer = sender.getServer();
+		if (minecraftServer == null) {
+			return checkPermissionForCheatMode(sender, serverConfig);
+		}
+		CheatPermissionState state = new CheatPermissionState(
+			sender.isCreative(),
+			minecraftServer.getProfilePermissions(sender.getGameProfile()),
+			minecraftServer.getOperatorUserPermissionLevel(),
+			serverConfig.isCheatModeEnabledForCreative(),
+			serverConfig.isCheatModeEnabledForOp(),
+			serverConfig.isCheatModeEnabledForGive(),
+			minecraftServer.getCommands()
+		);
+		return CHEAT_PERMISSION_CACHE.hasPermission(sender, state, player -> checkPermissionForCheatMode(player, serverConfig));
+	}
+
+	private static boolean checkPermissionForCheatMode(Player sender, IServerConfig serverConfig) {
 		if (serverConfig.isCheatModeEnabledForCreative() &&
 			sender.isCreative()) {
 			return true;
@@ -67,24 +86,40 @@ public final class ServerCommandUtil {
 		ServerPacketContext context,
 		ItemStack itemStack,
 		GiveMode giveMode
+	) {
+		executeGive(context, List.of(itemStack), giveMode);
+	}
+
+	/**
+	 * Gives a player several items, checking their permission once for all of them.
+	 */
+	public static void executeGive(
+		ServerPacketContext context,
+		List<ItemStack> itemStacks,
+		GiveMode giveMode
 	) {
 		ServerPlayer sender = context.player();
 		IServerConfig serverConfig = context.serverConfig();
 		if (hasPermissionForCheatMode(sender, serverConfig)) {
-			if (itemStack.isEmpty()) {
-				if (LOGGER.isDebugEnabled()) {
-					LOGGER.debug("Player '{} ({})' tried to give an empty ItemStack.", sender.getName(), sender.getUUID());
+			for (ItemStack itemStack : itemStacks) {
+				if (itemStack.isEmpty()) {
+					if (LOGGER.isDebugEnabled()) {
+						LOGGER.debug("Player '{} ({})' tried to give an empty ItemStack.", sender.getName(), sender.getUUID());
+					}
+					continue;
+				}
+				if (giveMode == GiveMode.INVENTORY) {
+					giveToInventory(sender, itemStack);
+				} else if (giveMode == GiveMode.MOUSE_PICKUP) {
+					mousePickupItemStack(sender, itemStack);
 				}
-				return;
-			}
-			if (giveMode == GiveMode.INVENTORY) {
-				giveToInventory(sender, itemStack);
-			} else if (giveMode == GiveMode.MOUSE_PICKUP) {
-				mousePickupItemStack(sender, itemStack);
 			}
 		} else {
 			if (LOGGER.isDebugEnabled()) {
-				LOGGER.debug("Player '{} ({})' tried to cheat an ItemStack '{}' but does not have permission.", sender.getName(), sender.getUUID(), itemStack.getDisplayName());
+				List<Component> names = itemStacks.stream()
+					.map(ItemStack::getDisplayName)
+					.toList();
+				LOGGER.debug("Player '{} ({})' tried to cheat ItemStacks '{}' but does not have permission.", sender.getName(), sender.getUUID(), names);
 			}
 			IConnectionToClient connection = context.connection();
 			connection.sendPacketToClient(new PacketCheatPermission(false, serverConfig), sender);
@@ -210,4 +245,23 @@ public final class ServerCommandUtil {
 				return root.getChild("give");
 			});
 	}
+
+	/**
+	 * Everything that {@link #checkPermissionForCheatMode} depends on,
+	 * so that a cached permission is checked again when the player is opped or changes game mode.
+	 *
+	 * The server's commands are compared by identity, so the permission is also checked again
+	 * when they are replaced, for example by /reload.
+	 * Permission mods can change who may use the give command without rebuilding the command tree.
+	 * Those changes are not seen until one of these values changes or the player rejoins.
+	 */
+	private record CheatPermissionState(
+		boolean creative,
+		int permissionLevel,
+		int opPermissionLevel,
+		boolean cheatModeEnabledForCreative,
+		boolean cheatModeEnabledForOp,
+		boolean cheatModeEnabledForGive,
+		Commands commands
+	) {}
 }
@@ -0,0 +1,29 @@
+package mezz.jei.common.util;
+
+import mezz.jei.common.config.IClientConfig;
+import net.minecraft.Util;
+import net.minecraft.client.Minecraft;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Executors used to split JEI's startup into stages.
+ *
+ * Work that does not need the main thread (sorting, building search indexes, etc.)
+ * runs on the background executor, and the results are handed back on the main thread executor.
+ * When background loading is disabled, both executors run tasks immediately on the calling thread.
+ */
+public record StartupExecutors(Executor background, Executor mainThread) {
+	private static final StartupExecutors DIRECT = new StartupExecutors(Runnable::run, Runnable::run);
+
+	public static StartupExecutors create(IClientConfig clientConfig) {
+		if (clientConfig.isBackgroundLoadingEnabled()) {
+			return new StartupExecutors(Util.backgroundExecutor(), Minecraft.getInstance());
+		}
+		return DIRECT;
+	}
+
+	public static StartupExecutors direct() {
+		return DIRECT;
+	}
+}
@@ -0,0 +1,319 @@
+package mezz.jei.test;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.JsonOps;
+import mezz.jei.common.config.file.BinaryArrayFileHelper;
+import mezz.jei.common.config.file.BinaryArrayReader;
+import mezz.jei.common.config.file.BinaryArrayWriter;
+import mezz.jei.common.config.file.JsonArrayReader;
+import mezz.jei.common.config.file.JsonArrayWriter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+public class BinaryArrayFileHelperTest {
+	private static final Logger LOGGER = LogManager.getLogger();
+	private static final int VERSION = 2;
+
+	@Test
+	public void testReadWhatWasWritten() throws IOException {
+		List<Integer> elements = List.of(1, -2, 0, Integer.MAX_VALUE, Integer.MIN_VALUE);
+		byte[] bytes = write(elements);
+		Assertions.assertEquals(elements, read(bytes, VERSION, new ArrayList<>()));
+		Assertions.assertEquals(elements, read(bytes, null, new ArrayList<>()));
+	}
+
+	@Test
+	public void testWrongVersion() throws IOException {
+		byte[] bytes = write(List.of(1, 2, 3));
+		Assertions.assertEquals(List.of(), read(bytes, VERSION + 1, new ArrayList<>()));
+	}
+
+	/**
+	 * Elements that can't be decoded are reported, and the rest are still read.
+	 */
+	@Test
+	public void testElementErrors() throws IOException {
+		JsonObject object = new JsonObject();
+		object.addProperty("three", 3);
+		byte[] bytes = writeElements(List.of(new JsonPrimitive(1), new JsonPrimitive("two"), object, new JsonPrimitive(4)));
+
+		List<JsonElement> errors = new ArrayList<>();
+		List<Integer> results = read(bytes, VERSION, errors);
+		Assertions.assertEquals(List.of(1, 4), results);
+		Assertions.assertEquals(List.of(new JsonPrimitive("two"), object), errors);
+	}
+
+	/**
+	 * Every kind of json element is read back the same as it was written.
+	 */
+	@Test
+	public void testAllElementTypes() throws IOException {
+		List<JsonElement> elements = List.of(
+			JsonParser.parseString("{\"bookmarkType\":\"INGREDIENT\",\"ingredient\":{\"type\":\"item_stack\",\"id\":\"minecraft:stone\",\"count\":1}}"),
+			JsonParser.parseString("[true, false, null, 1.5, -7, 12345678901, \"\", \"a:b:c\", \"Not:a location\", \"\\u00e9t\\u00e9:\\u2603\"]"),
+			JsonParser.parseString("{\"nested\":{\"deeper\":[[[]]],\"empty\":{}}}"),
+			JsonNull.INSTANCE,
+			new JsonPrimitive(Double.MAX_VALUE),
+			new JsonPrimitive(0.1)
+		);
+		byte[] bytes = writeElements(elements);
+
+		BinaryArrayReader reader = BinaryArrayReader.start(new ByteArrayInputStream(bytes));
+		Assertions.assertEquals(VERSION, reader.getVersion());
+		List<JsonElement> results = new ArrayList<>();
+		while (reader.hasNext()) {
+			results.add(reader.next());
+		}
+		Assertions.assertEquals(elements.size(), results.size());
+		for (int i = 0; i < elements.size(); i++) {
+			// compare as json text, numbers can come back as a different Number class
+			Assertions.assertEquals(elements.get(i).toString(), results.get(i).toString());
+		}
+	}
+
+	@Test
+	public void testMalformed() throws IOException {
+		byte[] bytes = write(List.of(1, 2, 3));
+
+		assertMalformed(new byte[0]);
+		assertMalformed("[{\"version\": 2}, 1, 2]".getBytes(StandardCharsets.UTF_8));
+		// truncated in the last element
+		assertMalformed(Arrays.copyOf(bytes, bytes.length - 1));
+		// unknown value tag in the last element
+		byte[] badTag = bytes.clone();
+		badTag[badTag.length - 2] = 100;
+		assertMalformed(badTag);
+	}
+
+	/**
+	 * Sizes that are larger than the file are reported as malformed, instead of being allocated.
+	 */
+	@Test
+	public void testSizesLargerThanFile() throws IOException {
+		byte[] maxSize = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07};
+		// string table size
+		assertMalformed(writeHeader(maxSize));
+		// string size
+		assertMalformed(writeHeader(new byte[]{1}, maxSize));
+		// element count and element size
+		assertMalformed(writeHeader(new byte[]{0}, maxSize, maxSize));
+		// array size and object size inside an element
+		byte tagArray = 7;
+		byte tagObject = 8;
+		assertMalformed(writeHeader(new byte[]{0, 1, 6, tagArray}, maxSize));
+		assertMalformed(writeHeader(new byte[]{0, 1, 6, tagObject}, maxSize));
+		assertMalformed(writeHeader(new byte[]{0, 1, 2, tagArray, 2}));
+	}
+
+	/**
+	 * Elements are decoded while the file is read, instead of after the whole file has been read.
+	 */
+	@Test
+	public void testElementsAreStreamed() throws IOException {
+		byte[] bytes = write(IntStream.range(0, 100_000).boxed().toList());
+		CountingInputStream countingInputStream = new CountingInputStream(new ByteArrayInputStream(bytes));
+		List<Long> bytesReadWhenDecoded = new ArrayList<>();
+		Codec<Integer> codec = Codec.INT.xmap(
+			i -> {
+				bytesReadWhenDecoded.add(countingInputStream.count);
+				return i;
+			},
+			i -> i
+		);
+
+		try (BufferedInputStream in = new BufferedInputStream(countingInputStream, 8192)) {
+			BinaryArrayFileHelper.read(in, VERSION, codec, JsonOps.INSTANCE, (e, r) -> {}, (e, r) -> {});
+		}
+
+		Assertions.assertEquals(100_000, bytesReadWhenDecoded.size());
+		long firstDecoded = bytesReadWhenDecoded.getFirst();
+		Assertions.assertTrue(firstDecoded < bytes.length / 10, "read " + firstDecoded + " of " + bytes.length + " bytes before decoding the first element");
+	}
+
+	/**
+	 * Compares the binary format with json for a large list of bookmark-like elements.
+	 * Both should load the same elements, and the binary file should be much smaller.
+	 * The save and load times are logged to compare by hand, timings are not reliable enough to assert on.
+	 */
+	@Test
+	public void testCompareWithJson() throws IOException {
+		List<JsonElement> elements = createBookmarkLikeElements(50_000);
+
+		long jsonWriteNanos = Long.MAX_VALUE;
+		long binaryWriteNanos = Long.MAX_VALUE;
+		long jsonReadNanos = Long.MAX_VALUE;
+		long binaryReadNanos = Long.MAX_VALUE;
+		String json = null;
+		byte[] binary = null;
+		for (int run = 0; run < 5; run++) {
+			long start = System.nanoTime();
+			json = writeJson(elements);
+			jsonWriteNanos = Math.min(jsonWriteNanos, System.nanoTime() - start);
+
+			start = System.nanoTime();
+			binary = writeElements(elements);
+			binaryWriteNanos = Math.min(binaryWriteNanos, System.nanoTime() - start);
+
+			start = System.nanoTime();
+			List<JsonElement> jsonResults = readJson(json);
+			jsonReadNanos = Math.min(jsonReadNanos, System.nanoTime() - start);
+
+			start = System.nanoTime();
+			List<JsonElement> binaryResults = readElements(binary);
+			binaryReadNanos = Math.min(binaryReadNanos, System.nanoTime() - start);
+
+			Assertions.assertEquals(jsonResults, binaryResults);
+		}
+
+		int jsonSize = json.getBytes(StandardCharsets.UTF_8).length;
+		String results = String.format(
+			"json: %d bytes, saved in %d us, loaded in %d us. binary: %d bytes, saved in %d us, loaded in %d us",
+			jsonSize, jsonWriteNanos / 1000, jsonReadNanos / 1000,
+			binary.length, binaryWriteNanos / 1000, binaryReadNanos / 1000
+		);
+		LOGGER.info(results);
+		Assertions.assertTrue(binary.length * 3 < jsonSize, results);
+	}
+
+	private static List<JsonElement> createBookmarkLikeElements(int count) {
+		List<JsonElement> elements = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			JsonObject ingredient = new JsonObject();
+			ingredient.addProperty("type", "item_stack");
+			ingredient.addProperty("id", (i % 2 == 0 ? "minecraft:" : "examplemod:") + "item_" + (i % 1000));
+			ingredient.addProperty("count", 1);
+			JsonObject bookmark = new JsonObject();
+			bookmark.addProperty("bookmarkType", "INGREDIENT");
+			bookmark.add("ingredient", ingredient);
+			elements.add(bookmark);
+		}
+		return elements;
+	}
+
+	private static String writeJson(List<JsonElement> elements) throws IOException {
+		StringWriter stringWriter = new StringWriter();
+		try (BufferedWriter out = new BufferedWriter(stringWriter)) {
+			JsonArrayWriter writer = JsonArrayWriter.start(out);
+			for (JsonElement element : elements) {
+				writer.add(element);
+			}
+			writer.end();
+		}
+		return stringWriter.toString();
+	}
+
+	private static List<JsonElement> readJson(String json) {
+		JsonArrayReader reader = JsonArrayReader.start(new BufferedReader(new StringReader(json)));
+		List<JsonElement> results = new ArrayList<>();
+		while (reader.hasNext()) {
+			results.add(reader.next());
+		}
+		reader.end();
+		return results;
+	}
+
+	private static List<JsonElement> readElements(byte[] bytes) throws IOException {
+		BinaryArrayReader reader = BinaryArrayReader.start(new ByteArrayInputStream(bytes));
+		List<JsonElement> results = new ArrayList<>();
+		while (reader.hasNext()) {
+			results.add(reader.next());
+		}
+		return results;
+	}
+
+	private static void assertMalformed(byte[] bytes) {
+		Assertions.assertThrows(IOException.class, () -> read(bytes, VERSION, new ArrayList<>()), Arrays.toString(bytes));
+	}
+
+	private static byte[] writeElements(List<JsonElement> elements) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		BinaryArrayWriter.write(out, VERSION, elements);
+		return out.toByteArray();
+	}
+
+	/**
+	 * @return a file header, followed by the given raw bytes
+	 */
+	private static byte[] writeHeader(byte[]... parts) throws IOException {
+		byte[] header = writeElements(List.of());
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		// leave out the empty string table and element count
+		out.write(header, 0, header.length - 2);
+		for (byte[] part : parts) {
+			out.write(part);
+		}
+		return out.toByteArray();
+	}
+
+	private static byte[] write(List<Integer> elements) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		BinaryArrayFileHelper.write(out, VERSION, elements, Codec.INT, JsonOps.INSTANCE, e -> {}, (e, r) -> {});
+		return out.toByteArray();
+	}
+
+	private static List<Integer> read(byte[] bytes, Integer version, List<JsonElement> errors) throws IOException {
+		return BinaryArrayFileHelper.read(
+			new ByteArrayInputStream(bytes),
+			version,
+			Codec.INT,
+			JsonOps.INSTANCE,
+			(element, error) -> errors.add(element),
+			(element, exception) -> errors.add(element)
+		);
+	}
+
+	private static class CountingInputStream extends InputStream {
+		private final InputStream in;
+		private long count;
+
+		public CountingInputStream(InputStream in) {
+			this.in = in;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int read = in.read();
+			if (read >= 0) {
+				count++;
+			}
+			return read;
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) throws IOException {
+			int read = in.read(buffer, offset, length);
+			if (read > 0) {
+				count += read;
+			}
+			return read;
+		}
+
+		@Override
+		public void close() throws IOException {
+			in.close();
+		}
+	}
+}
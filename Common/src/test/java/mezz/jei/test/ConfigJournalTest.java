@@ -0,0 +1,140 @@
+package mezz.jei.test;
+
+import mezz.jei.common.config.file.ConfigJournal;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class ConfigJournalTest {
+	private static final Logger LOGGER = LogManager.getLogger();
+
+	@Test
+	public void testReadAppendedChanges() throws IOException {
+		Path path = createJournalPath();
+		ConfigJournal journal = new ConfigJournal(path);
+		Assertions.assertFalse(journal.exists());
+
+		journal.append("first");
+		journal.append("second");
+		Assertions.assertTrue(journal.exists());
+		Assertions.assertEquals(2, journal.getEntryCount());
+		Assertions.assertEquals(List.of("first", "second"), journal.readAll());
+		journal.close();
+
+		// changes are kept when the journal is opened again
+		ConfigJournal reopened = new ConfigJournal(path);
+		Assertions.assertEquals(List.of("first", "second"), reopened.readAll());
+	}
+
+	/**
+	 * A change that was only partly written when the game crashed is ignored.
+	 */
+	@Test
+	public void testIncompleteChangeIsIgnored() throws IOException {
+		Path path = createJournalPath();
+		Files.writeString(path, "first\nsecond\nthi", StandardCharsets.UTF_8);
+
+		ConfigJournal journal = new ConfigJournal(path);
+		Assertions.assertEquals(List.of("first", "second"), journal.readAll());
+	}
+
+	@Test
+	public void testRotate() throws IOException {
+		Path path = createJournalPath();
+		ConfigJournal journal = new ConfigJournal(path);
+		journal.append("first");
+		journal.rotate();
+		Assertions.assertEquals(0, journal.getEntryCount());
+
+		journal.append("second");
+		Assertions.assertEquals(1, journal.getEntryCount());
+		// until the rotated journal is compacted, its changes come first
+		Assertions.assertEquals(List.of("first", "second"), journal.readAll());
+
+		journal.deleteRotated();
+		Assertions.assertEquals(List.of("second"), journal.readAll());
+
+		journal.rotate();
+		journal.deleteRotated();
+		Assertions.assertFalse(journal.exists());
+		Assertions.assertEquals(List.of(), journal.readAll());
+	}
+
+	/**
+	 * If a compaction failed, rotating again keeps the changes from both journals in order.
+	 */
+	@Test
+	public void testRotateWithoutCompaction() throws IOException {
+		Path path = createJournalPath();
+		ConfigJournal journal = new ConfigJournal(path);
+		journal.append("first");
+		journal.rotate();
+		journal.append("second");
+		journal.rotate();
+		journal.append("third");
+
+		Assertions.assertEquals(List.of("first", "second", "third"), journal.readAll());
+		journal.deleteRotated();
+		Assertions.assertEquals(List.of("third"), journal.readAll());
+		journal.close();
+	}
+
+	/**
+	 * All 50,000 changes in a large journal should be read back.
+	 * The time to save a change is logged for an empty and a large journal, to compare by hand,
+	 * it is not asserted because timings are not reliable on shared build machines.
+	 */
+	@Test
+	public void testLargeJournal() throws IOException {
+		final int entries = 50_000;
+		final String line = "{\"action\":\"hide\",\"entry\":{\"hide_mode\":\"SINGLE\",\"ingredient\":{\"type\":\"item_stack\",\"id\":\"minecraft:stone\"}}}";
+
+		Path emptyPath = createJournalPath();
+		ConfigJournal emptyJournal = new ConfigJournal(emptyPath);
+		long emptyNanos = timeAppends(emptyJournal, line);
+		emptyJournal.close();
+
+		Path largePath = createJournalPath();
+		ConfigJournal largeJournal = new ConfigJournal(largePath);
+		for (int i = 0; i < entries; i++) {
+			largeJournal.append(line);
+		}
+		long largeNanos = timeAppends(largeJournal, line);
+		largeJournal.close();
+
+		LOGGER.info("Saving a change with 50,000 changes in the journal took {} ns, with an empty journal took {} ns", largeNanos, emptyNanos);
+
+		List<String> changes = new ConfigJournal(largePath).readAll();
+		Assertions.assertEquals(entries + 5 * 100, changes.size());
+		Assertions.assertEquals(line, changes.getLast());
+	}
+
+	/**
+	 * @return the lowest average time of an append, over a few runs
+	 */
+	private static long timeAppends(ConfigJournal journal, String line) throws IOException {
+		final int appends = 100;
+		long best = Long.MAX_VALUE;
+		for (int run = 0; run < 5; run++) {
+			long start = System.nanoTime();
+			for (int i = 0; i < appends; i++) {
+				journal.append(line);
+			}
+			long elapsed = System.nanoTime() - start;
+			best = Math.min(best, elapsed / appends);
+		}
+		return best;
+	}
+
+	private static Path createJournalPath() throws IOException {
+		Path directory = Files.createTempDirectory("jei-journal-test");
+		return directory.resolve("blacklist.json.journal");
+	}
+}
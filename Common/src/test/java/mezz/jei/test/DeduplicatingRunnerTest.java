@@ -1,10 +1,16 @@
 package mezz.jei.test;
 
 import mezz.jei.common.util.DeduplicatingRunner;
+import mezz.jei.common.util.JeiScheduler;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class DeduplicatingRunnerTest {
@@ -42,4 +48,126 @@ public class DeduplicatingRunnerTest {
 			Assertions.assertEquals(i + 1, runs.get());
 		}
 	}
+
+	/**
+	 * Many runners waiting at the same time should share one thread,
+	 * instead of each one creating its own.
+	 */
+	@Test
+	public void testRunnersShareOneThread() throws InterruptedException {
+		String threadName = "test shared thread";
+		ScheduledExecutorService executor = JeiScheduler.create(threadName, Duration.ofSeconds(1));
+		int threadsBefore = countThreads(threadName);
+
+		AtomicInteger runs = new AtomicInteger();
+		Duration delay = Duration.ofMillis(50);
+		for (int i = 0; i < 20; i++) {
+			DeduplicatingRunner deduplicatingRunner = new DeduplicatingRunner(runs::getAndIncrement, delay, "test " + i, executor);
+			deduplicatingRunner.run();
+		}
+		int threadsWhileWaiting = countThreads(threadName);
+		Thread.sleep(4 * delay.toMillis());
+
+		Assertions.assertEquals(20, runs.get());
+		Assertions.assertEquals(0, threadsBefore);
+		Assertions.assertEquals(1, threadsWhileWaiting);
+		executor.shutdown();
+	}
+
+	/**
+	 * Runners with the same delay run in the order they were last called.
+	 */
+	@Test
+	public void testOrderedRuns() throws InterruptedException {
+		ScheduledExecutorService executor = JeiScheduler.create("test", Duration.ofSeconds(1));
+		List<String> order = Collections.synchronizedList(new ArrayList<>());
+		Duration delay = Duration.ofMillis(20);
+		DeduplicatingRunner a = new DeduplicatingRunner(() -> order.add("a"), delay, "a", executor);
+		DeduplicatingRunner b = new DeduplicatingRunner(() -> order.add("b"), delay, "b", executor);
+		DeduplicatingRunner c = new DeduplicatingRunner(() -> order.add("c"), delay, "c", executor);
+		a.run();
+		b.run();
+		c.run();
+		// running "a" again delays it until after the others
+		a.run();
+
+		Thread.sleep(5 * delay.toMillis());
+		Assertions.assertEquals(List.of("b", "c", "a"), order);
+		executor.shutdown();
+	}
+
+	/**
+	 * An exception in one run should not stop later runs.
+	 */
+	@Test
+	public void testRunAfterException() throws InterruptedException {
+		ScheduledExecutorService executor = JeiScheduler.create("test", Duration.ofSeconds(1));
+		AtomicInteger runs = new AtomicInteger();
+		Duration delay = Duration.ofMillis(10);
+		DeduplicatingRunner deduplicatingRunner = new DeduplicatingRunner(() -> {
+			if (runs.getAndIncrement() == 0) {
+				throw new IllegalStateException("test exception");
+			}
+		}, delay, "test", executor);
+
+		deduplicatingRunner.run();
+		Thread.sleep(3 * delay.toMillis());
+		deduplicatingRunner.run();
+		Thread.sleep(3 * delay.toMillis());
+		Assertions.assertEquals(2, runs.get());
+		executor.shutdown();
+	}
+
+	/**
+	 * Shutting down the executor still runs the runs that are waiting,
+	 * and runs after shutting down happen right away instead of being lost.
+	 */
+	@Test
+	public void testShutdown() throws InterruptedException {
+		ScheduledExecutorService executor = JeiScheduler.create("test", Duration.ofSeconds(1));
+		AtomicInteger runs = new AtomicInteger();
+		Duration delay = Duration.ofMillis(20);
+		DeduplicatingRunner deduplicatingRunner = new DeduplicatingRunner(runs::getAndIncrement, delay, "test", executor);
+
+		deduplicatingRunner.run();
+		executor.shutdown();
+		Assertions.assertEquals(0, runs.get());
+		Assertions.assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+		Assertions.assertEquals(1, runs.get());
+
+		deduplicatingRunner.run();
+		Assertions.assertEquals(2, runs.get());
+	}
+
+	/**
+	 * The shared thread stops when it has nothing to do, and starts again when needed.
+	 */
+	@Test
+	public void testIdleThreadStops() throws InterruptedException {
+		String threadName = "test idle thread";
+		Duration keepAlive = Duration.ofMillis(20);
+		ScheduledExecutorService executor = JeiScheduler.create(threadName, keepAlive);
+		AtomicInteger runs = new AtomicInteger();
+		Duration delay = Duration.ofMillis(10);
+		DeduplicatingRunner deduplicatingRunner = new DeduplicatingRunner(runs::getAndIncrement, delay, "test", executor);
+
+		for (int i = 0; i < 2; i++) {
+			deduplicatingRunner.run();
+			Assertions.assertEquals(1, countThreads(threadName));
+			Thread.sleep(delay.toMillis() + 10 * keepAlive.toMillis());
+			Assertions.assertEquals(i + 1, runs.get());
+			Assertions.assertEquals(0, countThreads(threadName));
+		}
+		executor.shutdown();
+	}
+
+	private static int countThreads(String name) {
+		int count = 0;
+		for (Thread thread : Thread.getAllStackTraces().keySet()) {
+			if (thread.isAlive() && thread.getName().equals(name)) {
+				count++;
+			}
+		}
+		return count;
+	}
 }
@@ -0,0 +1,108 @@
+package mezz.jei.test;
+
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.DecoderException;
+import io.netty.handler.codec.EncoderException;
+import mezz.jei.common.config.GiveMode;
+import mezz.jei.common.network.packets.PacketGiveItemStacks;
+import net.minecraft.SharedConstants;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.core.component.DataComponents;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Round trips {@link PacketGiveItemStacks#STREAM_CODEC} with real item stacks.
+ * The decoded packet has no getters, so it is encoded again and the bytes are compared.
+ */
+public class GiveItemStacksCodecTest {
+	private static RegistryAccess registryAccess;
+
+	@BeforeAll
+	public static void bootstrap() {
+		SharedConstants.tryDetectVersion();
+		Bootstrap.bootStrap();
+		registryAccess = RegistryAccess.fromRegistryOfRegistries(BuiltInRegistries.REGISTRY);
+	}
+
+	@Test
+	public void testRoundTrip() {
+		for (GiveMode giveMode : GiveMode.values()) {
+			for (int size : new int[]{0, 1, PacketGiveItemStacks.MAX_STACKS}) {
+				PacketGiveItemStacks packet = new PacketGiveItemStacks(createStacks(size), giveMode);
+
+				RegistryFriendlyByteBuf buf = createBuffer();
+				PacketGiveItemStacks.STREAM_CODEC.encode(buf, packet);
+				byte[] encoded = ByteBufUtil.getBytes(buf);
+
+				PacketGiveItemStacks decoded = PacketGiveItemStacks.STREAM_CODEC.decode(buf);
+				Assertions.assertEquals(0, buf.readableBytes());
+
+				RegistryFriendlyByteBuf reencodedBuf = createBuffer();
+				PacketGiveItemStacks.STREAM_CODEC.encode(reencodedBuf, decoded);
+				Assertions.assertArrayEquals(encoded, ByteBufUtil.getBytes(reencodedBuf), giveMode + " " + size);
+			}
+		}
+	}
+
+	@Test
+	public void testComponentsChangeEncoding() {
+		ItemStack plain = new ItemStack(Items.DIAMOND_PICKAXE);
+		ItemStack damaged = plain.copy();
+		damaged.setDamageValue(10);
+
+		RegistryFriendlyByteBuf plainBuf = createBuffer();
+		PacketGiveItemStacks.STREAM_CODEC.encode(plainBuf, new PacketGiveItemStacks(List.of(plain), GiveMode.INVENTORY));
+		RegistryFriendlyByteBuf damagedBuf = createBuffer();
+		PacketGiveItemStacks.STREAM_CODEC.encode(damagedBuf, new PacketGiveItemStacks(List.of(damaged), GiveMode.INVENTORY));
+
+		Assertions.assertFalse(ByteBufUtil.equals(plainBuf, damagedBuf));
+	}
+
+	@Test
+	public void testTooManyStacks() {
+		List<ItemStack> stacks = createStacks(PacketGiveItemStacks.MAX_STACKS + 1);
+		PacketGiveItemStacks packet = new PacketGiveItemStacks(stacks, GiveMode.INVENTORY);
+		Assertions.assertThrows(EncoderException.class, () -> PacketGiveItemStacks.STREAM_CODEC.encode(createBuffer(), packet));
+
+		RegistryFriendlyByteBuf decodeBuf = createBuffer();
+		ItemStack.STREAM_CODEC.apply(ByteBufCodecs.list()).encode(decodeBuf, stacks);
+		decodeBuf.writeEnum(GiveMode.INVENTORY);
+		Assertions.assertThrows(DecoderException.class, () -> PacketGiveItemStacks.STREAM_CODEC.decode(decodeBuf));
+	}
+
+	private static RegistryFriendlyByteBuf createBuffer() {
+		return new RegistryFriendlyByteBuf(Unpooled.buffer(), registryAccess);
+	}
+
+	private static List<ItemStack> createStacks(int size) {
+		List<ItemStack> stacks = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			ItemStack stack = switch (i % 3) {
+				case 0 -> new ItemStack(Items.STONE, 1 + i % 64);
+				case 1 -> new ItemStack(Items.DIAMOND_SWORD);
+				default -> new ItemStack(Items.APPLE, 16);
+			};
+			if (i % 5 == 0) {
+				stack.set(DataComponents.CUSTOM_NAME, Component.literal("Stack " + i));
+			}
+			if (stack.isDamageableItem()) {
+				stack.setDamageValue(i);
+			}
+			stacks.add(stack);
+		}
+		return stacks;
+	}
+}
@@ -0,0 +1,122 @@
+package mezz.jei.test;
+
+import mezz.jei.api.ingredients.IIngredientRenderer;
+import mezz.jei.api.ingredients.IIngredientType;
+import mezz.jei.api.ingredients.rendering.BatchRenderElement;
+import mezz.jei.common.gui.IngredientBatchPlanner;
+import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.item.TooltipFlag;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class IngredientBatchPlannerTest {
+	private static final IIngredientType<String> TYPE = () -> String.class;
+
+	@Test
+	public void testNothingAdded() {
+		IngredientBatchPlanner planner = new IngredientBatchPlanner();
+		Assertions.assertTrue(planner.finish().isEmpty());
+	}
+
+	/**
+	 * A page of recipes that all use the same renderer is drawn in one batch, in the order the slots were drawn.
+	 */
+	@Test
+	public void testOneBatchForEachRenderer() {
+		TestRenderer itemRenderer = new TestRenderer();
+		TestRenderer overrideRenderer = new TestRenderer();
+		IngredientBatchPlanner planner = new IngredientBatchPlanner();
+		for (int recipe = 0; recipe < 6; recipe++) {
+			for (int slot = 0; slot < 10; slot++) {
+				planner.add(itemRenderer, TYPE, "item" + slot, slot * 18, recipe * 60);
+			}
+			planner.add(overrideRenderer, TYPE, "override", 200, recipe * 60);
+		}
+
+		List<IngredientBatchPlanner.Batch<?>> batches = planner.finish();
+		Assertions.assertEquals(2, batches.size());
+
+		IngredientBatchPlanner.Batch<?> itemBatch = batches.get(0);
+		Assertions.assertSame(itemRenderer, itemBatch.renderer());
+		Assertions.assertEquals(60, itemBatch.plan().size());
+		Assertions.assertEquals(new BatchRenderElement<>("item0", 0, 0), itemBatch.plan().get(0));
+		Assertions.assertEquals(new BatchRenderElement<>("item9", 162, 300), itemBatch.plan().get(59));
+
+		IngredientBatchPlanner.Batch<?> overrideBatch = batches.get(1);
+		Assertions.assertSame(overrideRenderer, overrideBatch.renderer());
+		Assertions.assertEquals(6, overrideBatch.plan().size());
+	}
+
+	@Test
+	public void testUnchangedPlansAreReused() {
+		TestRenderer renderer = new TestRenderer();
+		IngredientBatchPlanner planner = new IngredientBatchPlanner();
+		String ingredient = "ingredient";
+
+		planner.add(renderer, TYPE, ingredient, 1, 2);
+		long firstGeneration = planner.finish().getFirst().plan().getGeneration();
+
+		planner.add(renderer, TYPE, ingredient, 1, 2);
+		long secondGeneration = planner.finish().getFirst().plan().getGeneration();
+		Assertions.assertEquals(firstGeneration, secondGeneration);
+	}
+
+	@Test
+	public void testChangedPlansAreNew() {
+		TestRenderer renderer = new TestRenderer();
+		IngredientBatchPlanner planner = new IngredientBatchPlanner();
+
+		planner.add(renderer, TYPE, "first", 1, 2);
+		long firstGeneration = planner.finish().getFirst().plan().getGeneration();
+
+		// cycled to a different ingredient in the same place
+		planner.add(renderer, TYPE, "second", 1, 2);
+		long secondGeneration = planner.finish().getFirst().plan().getGeneration();
+		Assertions.assertNotEquals(firstGeneration, secondGeneration);
+
+		// moved
+		planner.add(renderer, TYPE, "second", 3, 2);
+		long thirdGeneration = planner.finish().getFirst().plan().getGeneration();
+		Assertions.assertNotEquals(secondGeneration, thirdGeneration);
+	}
+
+	@Test
+	public void testBatchOrderFollowsEachFrame() {
+		TestRenderer first = new TestRenderer();
+		TestRenderer second = new TestRenderer();
+		IngredientBatchPlanner planner = new IngredientBatchPlanner();
+
+		planner.add(first, TYPE, "a", 0, 0);
+		planner.add(second, TYPE, "b", 0, 0);
+		planner.finish();
+
+		planner.add(second, TYPE, "b", 0, 0);
+		planner.add(first, TYPE, "a", 0, 0);
+		List<IngredientBatchPlanner.Batch<?>> batches = planner.finish();
+		Assertions.assertEquals(2, batches.size());
+		Assertions.assertSame(second, batches.get(0).renderer());
+		Assertions.assertSame(first, batches.get(1).renderer());
+
+		// renderers that are not used in a frame are left out
+		planner.add(first, TYPE, "a", 0, 0);
+		batches = planner.finish();
+		Assertions.assertEquals(1, batches.size());
+		Assertions.assertSame(first, batches.getFirst().renderer());
+	}
+
+	private static class TestRenderer implements IIngredientRenderer<String> {
+		@Override
+		public void render(GuiGraphics guiGraphics, String ingredient) {
+			throw new UnsupportedOperationException();
+		}
+
+		@SuppressWarnings("removal")
+		@Override
+		public List<Component> getTooltip(String ingredient, TooltipFlag tooltipFlag) {
+			return List.of();
+		}
+	}
+}
@@ -0,0 +1,163 @@
+package mezz.jei.test;
+
+import mezz.jei.api.helpers.IStackHelper;
+import mezz.jei.api.ingredients.ITypedIngredient;
+import mezz.jei.api.ingredients.subtypes.UidContext;
+import mezz.jei.common.transfer.InventoryIndex;
+import net.minecraft.SharedConstants;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.SimpleContainer;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.inventory.AbstractContainerMenu;
+import net.minecraft.world.inventory.Slot;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class InventoryIndexTest {
+	@BeforeAll
+	public static void bootstrap() {
+		SharedConstants.tryDetectVersion();
+		Bootstrap.bootStrap();
+	}
+
+	@Test
+	public void testReusedWhileUnchanged() {
+		TestStackHelper stackHelper = new TestStackHelper();
+		TestMenu container = new TestMenu(new ItemStack(Items.STONE, 10), ItemStack.EMPTY, new ItemStack(Items.STONE, 3));
+
+		InventoryIndex index = InventoryIndex.get(stackHelper, container);
+		Assertions.assertSame(index, InventoryIndex.get(stackHelper, container));
+		Assertions.assertEquals(2, stackHelper.uidCount);
+		Assertions.assertEquals(1, index.getGroupCount());
+		Assertions.assertEquals(-1, index.getGroup(container.getSlot(1)));
+	}
+
+	/**
+	 * The server replaces the stacks in slots when it updates them, which does not change the contents.
+	 */
+	@Test
+	public void testReusedWhenStackIsReplacedWithEqualStack() {
+		TestStackHelper stackHelper = new TestStackHelper();
+		TestMenu container = new TestMenu(new ItemStack(Items.STONE, 10));
+
+		InventoryIndex index = InventoryIndex.get(stackHelper, container);
+		container.getSlot(0).set(new ItemStack(Items.STONE, 10));
+		Assertions.assertSame(index, InventoryIndex.get(stackHelper, container));
+	}
+
+	@Test
+	public void testInvalidatedByReplacedStack() {
+		TestStackHelper stackHelper = new TestStackHelper();
+		TestMenu container = new TestMenu(new ItemStack(Items.STONE, 10), ItemStack.EMPTY);
+
+		InventoryIndex index = InventoryIndex.get(stackHelper, container);
+		container.getSlot(1).set(new ItemStack(Items.DIRT));
+
+		InventoryIndex newIndex = InventoryIndex.get(stackHelper, container);
+		Assertions.assertNotSame(index, newIndex);
+		Assertions.assertEquals(2, newIndex.getGroupCount());
+		Assertions.assertEquals(1, newIndex.getGroup(container.getSlot(1)));
+	}
+
+	@Test
+	public void testInvalidatedByCountChangedInPlace() {
+		TestStackHelper stackHelper = new TestStackHelper();
+		TestMenu container = new TestMenu(new ItemStack(Items.STONE, 10));
+
+		InventoryIndex index = InventoryIndex.get(stackHelper, container);
+		container.getSlot(0).getItem().shrink(10);
+
+		InventoryIndex newIndex = InventoryIndex.get(stackHelper, container);
+		Assertions.assertNotSame(index, newIndex);
+		Assertions.assertEquals(0, newIndex.getGroupCount());
+		Assertions.assertEquals(-1, newIndex.getGroup(container.getSlot(0)));
+	}
+
+	/**
+	 * Damage is stored in a component, and is changed in place when a tool is used.
+	 */
+	@Test
+	public void testInvalidatedByComponentChangedInPlace() {
+		TestStackHelper stackHelper = new TestStackHelper();
+		ItemStack pickaxe = new ItemStack(Items.DIAMOND_PICKAXE);
+		TestMenu container = new TestMenu(pickaxe, new ItemStack(Items.DIAMOND_PICKAXE));
+
+		InventoryIndex index = InventoryIndex.get(stackHelper, container);
+		Assertions.assertEquals(1, index.getGroupCount());
+		pickaxe.setDamageValue(10);
+
+		InventoryIndex newIndex = InventoryIndex.get(stackHelper, container);
+		Assertions.assertNotSame(index, newIndex);
+		Assertions.assertEquals(2, newIndex.getGroupCount());
+	}
+
+	@Test
+	public void testInvalidatedByOtherContainerOrStackHelper() {
+		TestStackHelper stackHelper = new TestStackHelper();
+		TestMenu container = new TestMenu(new ItemStack(Items.STONE, 10));
+		TestMenu otherContainer = new TestMenu(new ItemStack(Items.STONE, 10));
+
+		InventoryIndex index = InventoryIndex.get(stackHelper, container);
+		InventoryIndex otherIndex = InventoryIndex.get(stackHelper, otherContainer);
+		Assertions.assertNotSame(index, otherIndex);
+		Assertions.assertNotSame(otherIndex, InventoryIndex.get(new TestStackHelper(), otherContainer));
+	}
+
+	private static class TestMenu extends AbstractContainerMenu {
+		public TestMenu(ItemStack... stacks) {
+			super(null, 0);
+			SimpleContainer container = new SimpleContainer(stacks);
+			for (int i = 0; i < stacks.length; i++) {
+				addSlot(new Slot(container, i, 0, 0));
+			}
+		}
+
+		@Override
+		public ItemStack quickMoveStack(Player player, int index) {
+			return ItemStack.EMPTY;
+		}
+
+		@Override
+		public boolean stillValid(Player player) {
+			return true;
+		}
+	}
+
+	/**
+	 * Uids are the item and its components, like an item with a subtype interpreter for all of its components.
+	 */
+	private static class TestStackHelper implements IStackHelper {
+		private int uidCount;
+
+		@Override
+		public Object getUidForStack(ItemStack stack, UidContext context) {
+			uidCount++;
+			return List.of(stack.getItem(), stack.getComponentsPatch());
+		}
+
+		@Override
+		public Object getUidForStack(ITypedIngredient<ItemStack> stack, UidContext context) {
+			return getUidForStack(stack.getIngredient(), context);
+		}
+
+		@Override
+		public boolean isEquivalent(@Nullable ItemStack lhs, @Nullable ItemStack rhs, UidContext context) {
+			if (lhs == null || rhs == null) {
+				return lhs == rhs;
+			}
+			return getUidForStack(lhs, context).equals(getUidForStack(rhs, context));
+		}
+
+		@Override
+		@SuppressWarnings("removal")
+		public String getUniqueIdentifierForStack(ItemStack stack, UidContext context) {
+			return getUidForStack(stack, context).toString();
+		}
+	}
+}
@@ -0,0 +1,201 @@
+package mezz.jei.test;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.JsonOps;
+import mezz.jei.common.config.file.JsonArrayFileHelper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+public class JsonArrayFileHelperTest {
+	private static final Logger LOGGER = LogManager.getLogger();
+	private static final int VERSION = 2;
+
+	@Test
+	public void testReadWhatWasWritten() throws IOException {
+		List<Integer> elements = List.of(1, 2, 3);
+		String json = write(elements);
+		Assertions.assertEquals(elements, read(json, VERSION, new ArrayList<>()));
+	}
+
+	@Test
+	public void testWrongVersion() throws IOException {
+		String json = write(List.of(1, 2, 3));
+		Assertions.assertEquals(List.of(), read(json, VERSION + 1, new ArrayList<>()));
+	}
+
+	@Test
+	public void testMissingVersion() {
+		Assertions.assertEquals(List.of(), read("[{\"other\": 2}, 1, 2]", VERSION, new ArrayList<>()));
+		Assertions.assertEquals(List.of(), read("[1, 2]", VERSION, new ArrayList<>()));
+		Assertions.assertEquals(List.of(), read("[]", VERSION, new ArrayList<>()));
+	}
+
+	@Test
+	public void testNoVersionExpected() {
+		Assertions.assertEquals(List.of(1, 2), read("[1, 2]", null, new ArrayList<>()));
+	}
+
+	/**
+	 * Elements that can't be decoded are reported, and the rest are still read.
+	 */
+	@Test
+	public void testElementErrors() {
+		List<JsonElement> errors = new ArrayList<>();
+		List<Integer> results = read("[{\"version\": 2}, 1, \"two\", {\"three\": 3}, 4]", VERSION, errors);
+		Assertions.assertEquals(List.of(1, 4), results);
+		Assertions.assertEquals(2, errors.size());
+		Assertions.assertEquals("\"two\"", errors.get(0).toString());
+	}
+
+	@Test
+	public void testMalformed() {
+		assertMalformed("");
+		assertMalformed("{\"version\": 2}");
+		assertMalformed("[{\"version\": 2}, 1, 2");
+		assertMalformed("[{\"version\": 2}, 1, {\"a\": ]");
+		assertMalformed("[{\"version\": 2}, 1] 2");
+	}
+
+	/**
+	 * Files are read as leniently as when the whole file was parsed with {@link JsonParser#parseReader(Reader)},
+	 * so hand-edited files still load.
+	 */
+	@Test
+	public void testLenient() {
+		String json = """
+			// hand-edited
+			[{version: 2}, 1, /* two */ 2; 'three', 4,]
+			""";
+		List<JsonElement> errors = new ArrayList<>();
+		List<Integer> results = read(json, VERSION, errors);
+		Assertions.assertEquals(List.of(1, 2, 4), results);
+		Assertions.assertEquals(readTree(json), results);
+	}
+
+	/**
+	 * Elements are decoded while the file is read, instead of after the whole file has been parsed.
+	 */
+	@Test
+	public void testElementsAreStreamed() throws IOException {
+		String json = write(IntStream.range(0, 100_000).boxed().toList());
+		CountingReader countingReader = new CountingReader(new StringReader(json));
+		List<Long> charsReadWhenDecoded = new ArrayList<>();
+		Codec<Integer> codec = Codec.INT.xmap(
+			i -> {
+				charsReadWhenDecoded.add(countingReader.count);
+				return i;
+			},
+			i -> i
+		);
+
+		try (BufferedReader reader = new BufferedReader(countingReader, 8192)) {
+			JsonArrayFileHelper.read(reader, VERSION, codec, JsonOps.INSTANCE, (e, r) -> {}, (e, r) -> {});
+		}
+
+		Assertions.assertEquals(100_000, charsReadWhenDecoded.size());
+		// only the first buffers of the file have been read when the first element is decoded
+		long firstDecoded = charsReadWhenDecoded.getFirst();
+		Assertions.assertTrue(firstDecoded < json.length() / 10, "read " + firstDecoded + " of " + json.length() + " characters before decoding the first element");
+	}
+
+	/**
+	 * Reading a large file one element at a time should give the same result as parsing the whole file first.
+	 * The times of both are logged to compare by hand, timings are not reliable enough to assert on.
+	 */
+	@Test
+	public void testStreamingMatchesTree() throws IOException {
+		String json = write(IntStream.range(0, 200_000).boxed().toList());
+
+		long streamingNanos = Long.MAX_VALUE;
+		long treeNanos = Long.MAX_VALUE;
+		for (int run = 0; run < 5; run++) {
+			long start = System.nanoTime();
+			List<Integer> streamed = read(json, VERSION, new ArrayList<>());
+			streamingNanos = Math.min(streamingNanos, System.nanoTime() - start);
+
+			start = System.nanoTime();
+			List<Integer> tree = readTree(json);
+			treeNanos = Math.min(treeNanos, System.nanoTime() - start);
+
+			Assertions.assertEquals(tree, streamed);
+		}
+		LOGGER.info("Streaming took {} ns, parsing the tree took {} ns", streamingNanos, treeNanos);
+	}
+
+	/**
+	 * The way files were read before, parsing the whole file before decoding anything.
+	 */
+	private static List<Integer> readTree(String json) {
+		JsonArray array = JsonParser.parseReader(new StringReader(json)).getAsJsonArray();
+		List<Integer> results = new ArrayList<>();
+		for (int i = 1; i < array.size(); i++) {
+			Codec.INT.parse(JsonOps.INSTANCE, array.get(i))
+				.result()
+				.ifPresent(results::add);
+		}
+		return results;
+	}
+
+	private static void assertMalformed(String json) {
+		Assertions.assertThrows(JsonSyntaxException.class, () -> read(json, VERSION, new ArrayList<>()), json);
+	}
+
+	private static String write(List<Integer> elements) throws IOException {
+		StringWriter stringWriter = new StringWriter();
+		try (BufferedWriter out = new BufferedWriter(stringWriter)) {
+			JsonArrayFileHelper.write(out, VERSION, elements, Codec.INT, JsonOps.INSTANCE, e -> {}, (e, r) -> {});
+		}
+		return stringWriter.toString();
+	}
+
+	private static List<Integer> read(String json, Integer version, List<JsonElement> errors) {
+		BufferedReader reader = new BufferedReader(new StringReader(json));
+		return JsonArrayFileHelper.read(
+			reader,
+			version,
+			Codec.INT,
+			JsonOps.INSTANCE,
+			(element, error) -> errors.add(element),
+			(element, exception) -> errors.add(element)
+		);
+	}
+
+	private static class CountingReader extends Reader {
+		private final Reader reader;
+		private long count;
+
+		public CountingReader(Reader reader) {
+			this.reader = reader;
+		}
+
+		@Override
+		public int read(char[] buffer, int offset, int length) throws IOException {
+			int read = reader.read(buffer, offset, length);
+			if (read > 0) {
+				count += read;
+			}
+			return read;
+		}
+
+		@Override
+		public void close() throws IOException {
+			reader.close();
+		}
+	}
+}
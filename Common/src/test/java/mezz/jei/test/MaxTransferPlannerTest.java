@@ -0,0 +1,263 @@
+package mezz.jei.test;
+
+import mezz.jei.common.transfer.MaxTransferPlanner;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class MaxTransferPlannerTest {
+	private static final Logger LOGGER = LogManager.getLogger();
+
+	/**
+	 * Two recipe slots that need the same item share it evenly, one item at a time.
+	 */
+	@Test
+	public void testSharedItems() {
+		int[] sourceGroups = {0, 0};
+		int[] sourceCounts = {3, 2};
+		int[] requiredGroups = {0, 0};
+		int[] requiredHints = {-1, -1};
+		int[] requiredLimits = {64, 64};
+
+		MaxTransferPlanner.Plan plan = MaxTransferPlanner.plan(sourceGroups, sourceCounts, 0, requiredGroups, requiredHints, requiredLimits, false);
+		Assertions.assertArrayEquals(new int[]{3, 2}, plan.taken());
+		Assertions.assertArrayEquals(new int[]{3, 2}, plan.given());
+
+		MaxTransferPlanner.Plan completePlan = MaxTransferPlanner.plan(sourceGroups, sourceCounts, 0, requiredGroups, requiredHints, requiredLimits, true);
+		Assertions.assertArrayEquals(new int[]{3, 1}, completePlan.taken());
+		Assertions.assertArrayEquals(new int[]{2, 2}, completePlan.given());
+	}
+
+	/**
+	 * Items are taken from crafting slots first, then the hint slot, then the other inventory slots.
+	 */
+	@Test
+	public void testSourceOrder() {
+		int[] sourceGroups = {0, 0, 0, 0};
+		int[] sourceCounts = {1, 5, 5, 5};
+		int[] requiredGroups = {0};
+		int[] requiredHints = {3};
+		int[] requiredLimits = {8};
+
+		MaxTransferPlanner.Plan plan = MaxTransferPlanner.plan(sourceGroups, sourceCounts, 1, requiredGroups, requiredHints, requiredLimits, true);
+		Assertions.assertArrayEquals(new int[]{1, 2, 0, 5}, plan.taken());
+		Assertions.assertArrayEquals(new int[]{8}, plan.given());
+	}
+
+	/**
+	 * Recipe slots stop taking items when they are full, so slots with a higher limit get the rest.
+	 */
+	@Test
+	public void testLimits() {
+		int[] sourceGroups = {0};
+		int[] sourceCounts = {64};
+		int[] requiredGroups = {0, 0};
+		int[] requiredHints = {-1, -1};
+		int[] requiredLimits = {1, 64};
+
+		MaxTransferPlanner.Plan plan = MaxTransferPlanner.plan(sourceGroups, sourceCounts, 0, requiredGroups, requiredHints, requiredLimits, true);
+		Assertions.assertArrayEquals(new int[]{1, 63}, plan.given());
+	}
+
+	/**
+	 * The plan matches the old set-by-set transfer on many random inventories.
+	 */
+	@Test
+	public void testSameAsSetBySetTransfer() {
+		Random random = new Random(1234);
+		for (int run = 0; run < 20_000; run++) {
+			TestCase testCase = TestCase.random(random);
+			for (boolean completeSets : new boolean[]{true, false}) {
+				MaxTransferPlanner.Plan expected = testCase.planSetBySet(completeSets);
+				MaxTransferPlanner.Plan actual = testCase.plan(completeSets);
+				String message = testCase + " completeSets: " + completeSets;
+				Assertions.assertArrayEquals(expected.taken(), actual.taken(), message);
+				Assertions.assertArrayEquals(expected.given(), actual.given(), message);
+			}
+		}
+	}
+
+	/**
+	 * Shift-clicking a full grid of one item from a full inventory fills every recipe slot,
+	 * the same as the old set-by-set transfer.
+	 * The times of both are logged to compare by hand, timings are not reliable enough to assert on.
+	 */
+	@Test
+	public void testLargeTransfer() {
+		int craftingSlots = 9;
+		int inventorySlots = 36;
+		int[] sourceGroups = new int[craftingSlots + inventorySlots];
+		int[] sourceCounts = new int[craftingSlots + inventorySlots];
+		Arrays.fill(sourceGroups, 0, craftingSlots, -1);
+		for (int i = craftingSlots; i < sourceGroups.length; i++) {
+			sourceGroups[i] = 0;
+			sourceCounts[i] = 64;
+		}
+		int[] requiredGroups = new int[craftingSlots];
+		int[] requiredHints = new int[craftingSlots];
+		int[] requiredLimits = new int[craftingSlots];
+		Arrays.fill(requiredHints, -1);
+		Arrays.fill(requiredLimits, 64);
+		TestCase testCase = new TestCase(sourceGroups, sourceCounts, craftingSlots, requiredGroups, requiredHints, requiredLimits);
+
+		final int transfers = 200;
+		long setBySetNanos = Long.MAX_VALUE;
+		long plannedNanos = Long.MAX_VALUE;
+		for (int run = 0; run < 5; run++) {
+			long start = System.nanoTime();
+			for (int i = 0; i < transfers; i++) {
+				testCase.planSetBySet(true);
+			}
+			setBySetNanos = Math.min(setBySetNanos, (System.nanoTime() - start) / transfers);
+
+			start = System.nanoTime();
+			for (int i = 0; i < transfers; i++) {
+				testCase.plan(true);
+			}
+			plannedNanos = Math.min(plannedNanos, (System.nanoTime() - start) / transfers);
+		}
+
+		MaxTransferPlanner.Plan plan = testCase.plan(true);
+		MaxTransferPlanner.Plan setBySetPlan = testCase.planSetBySet(true);
+		Assertions.assertEquals(9 * 64, Arrays.stream(plan.given()).sum());
+		Assertions.assertArrayEquals(setBySetPlan.taken(), plan.taken());
+		Assertions.assertArrayEquals(setBySetPlan.given(), plan.given());
+		LOGGER.info("Planned transfer took {} ns, set by set took {} ns", plannedNanos, setBySetNanos);
+	}
+
+	private record TestCase(
+		int[] sourceGroups,
+		int[] sourceCounts,
+		int craftingSourceCount,
+		int[] requiredGroups,
+		int[] requiredHints,
+		int[] requiredLimits
+	) {
+		private static final int[] LIMITS = {1, 16, 64};
+
+		public static TestCase random(Random random) {
+			int groups = 1 + random.nextInt(4);
+			int craftingSourceCount = random.nextInt(10);
+			int sources = craftingSourceCount + random.nextInt(37);
+			int[] sourceGroups = new int[sources];
+			int[] sourceCounts = new int[sources];
+			for (int i = 0; i < sources; i++) {
+				// some slots hold other items, or can't be taken from
+				sourceGroups[i] = random.nextInt(groups + 1) - 1;
+				sourceCounts[i] = 1 + random.nextInt(64);
+			}
+
+			int required = 1 + random.nextInt(9);
+			int[] requiredGroups = new int[required];
+			int[] requiredHints = new int[required];
+			int[] requiredLimits = new int[required];
+			for (int i = 0; i < required; i++) {
+				requiredGroups[i] = random.nextInt(groups);
+				requiredHints[i] = randomHint(random, sourceGroups, requiredGroups[i]);
+				requiredLimits[i] = LIMITS[random.nextInt(LIMITS.length)];
+			}
+			return new TestCase(sourceGroups, sourceCounts, craftingSourceCount, requiredGroups, requiredHints, requiredLimits);
+		}
+
+		private static int randomHint(Random random, int[] sourceGroups, int group) {
+			List<Integer> matching = new ArrayList<>();
+			for (int i = 0; i < sourceGroups.length; i++) {
+				if (sourceGroups[i] == group) {
+					matching.add(i);
+				}
+			}
+			if (matching.isEmpty() || random.nextInt(5) == 0) {
+				return -1;
+			}
+			return matching.get(random.nextInt(matching.size()));
+		}
+
+		public MaxTransferPlanner.Plan plan(boolean completeSets) {
+			return MaxTransferPlanner.plan(sourceGroups, sourceCounts, craftingSourceCount, requiredGroups, requiredHints, requiredLimits, completeSets);
+		}
+
+		/**
+		 * The way max transfers worked before, taking one item for each recipe slot per set
+		 * and searching all the slots again for each item.
+		 */
+		public MaxTransferPlanner.Plan planSetBySet(boolean completeSets) {
+			int[] remaining = new int[sourceCounts.length];
+			for (int i = 0; i < sourceCounts.length; i++) {
+				remaining[i] = sourceGroups[i] >= 0 ? sourceCounts[i] : 0;
+			}
+			int[] taken = new int[sourceCounts.length];
+			int[] given = new int[requiredGroups.length];
+			List<Integer> unfilled = new ArrayList<>();
+			for (int i = 0; i < requiredGroups.length; i++) {
+				unfilled.add(i);
+			}
+
+			while (true) {
+				int[] remainingBeforeSet = remaining.clone();
+				List<Integer> foundInSet = new ArrayList<>();
+				List<Integer> sourcesInSet = new ArrayList<>();
+				boolean incomplete = false;
+				for (int required : unfilled) {
+					int source = findSlotWithItem(remaining, requiredGroups[required], requiredHints[required]);
+					if (source >= 0) {
+						remaining[source]--;
+						foundInSet.add(required);
+						sourcesInSet.add(source);
+					} else if (completeSets) {
+						incomplete = true;
+						break;
+					}
+				}
+				if (incomplete) {
+					System.arraycopy(remainingBeforeSet, 0, remaining, 0, remaining.length);
+					break;
+				}
+				if (foundInSet.isEmpty()) {
+					break;
+				}
+				for (int i = 0; i < foundInSet.size(); i++) {
+					int required = foundInSet.get(i);
+					given[required]++;
+					taken[sourcesInSet.get(i)]++;
+					if (given[required] == requiredLimits[required]) {
+						unfilled.remove((Integer) required);
+					}
+				}
+			}
+			return new MaxTransferPlanner.Plan(taken, given);
+		}
+
+		private int findSlotWithItem(int[] remaining, int group, int hint) {
+			for (int i = 0; i < craftingSourceCount; i++) {
+				if (sourceGroups[i] == group && remaining[i] > 0) {
+					return i;
+				}
+			}
+			if (hint >= 0 && sourceGroups[hint] == group && remaining[hint] > 0) {
+				return hint;
+			}
+			for (int i = craftingSourceCount; i < sourceGroups.length; i++) {
+				if (sourceGroups[i] == group && remaining[i] > 0) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		@Override
+		public String toString() {
+			return "sourceGroups: " + Arrays.toString(sourceGroups) +
+				" sourceCounts: " + Arrays.toString(sourceCounts) +
+				" craftingSourceCount: " + craftingSourceCount +
+				" requiredGroups: " + Arrays.toString(requiredGroups) +
+				" requiredHints: " + Arrays.toString(requiredHints) +
+				" requiredLimits: " + Arrays.toString(requiredLimits);
+		}
+	}
+}
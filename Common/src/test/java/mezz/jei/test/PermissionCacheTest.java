@@ -0,0 +1,73 @@
+package mezz.jei.test;
+
+import mezz.jei.common.util.PermissionCache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+public class PermissionCacheTest {
+	private record TestState(boolean creative, int permissionLevel) {}
+
+	/**
+	 * A burst of 1000 give requests from one player only works out the permission once.
+	 */
+	@Test
+	public void testBurstChecksOnce() {
+		PermissionCache<Object, TestState> cache = new PermissionCache<>();
+		Object player = new Object();
+		TestState state = new TestState(false, 4);
+		AtomicInteger checks = new AtomicInteger();
+		Predicate<Object> check = p -> {
+			checks.incrementAndGet();
+			return true;
+		};
+
+		for (int i = 0; i < 1000; i++) {
+			Assertions.assertTrue(cache.hasPermission(player, state, check));
+		}
+		Assertions.assertEquals(1, checks.get());
+	}
+
+	/**
+	 * Opping or de-opping a player, or changing their game mode, changes their state and checks the permission again.
+	 */
+	@Test
+	public void testStateChangeChecksAgain() {
+		PermissionCache<Object, TestState> cache = new PermissionCache<>();
+		Object player = new Object();
+		AtomicInteger checks = new AtomicInteger();
+		Predicate<Object> opCheck = p -> {
+			checks.incrementAndGet();
+			return false;
+		};
+
+		Assertions.assertFalse(cache.hasPermission(player, new TestState(false, 0), opCheck));
+		Assertions.assertEquals(1, checks.get());
+
+		Predicate<Object> oppedCheck = p -> {
+			checks.incrementAndGet();
+			return true;
+		};
+		Assertions.assertTrue(cache.hasPermission(player, new TestState(false, 4), oppedCheck));
+		Assertions.assertEquals(2, checks.get());
+		Assertions.assertTrue(cache.hasPermission(player, new TestState(false, 4), oppedCheck));
+		Assertions.assertEquals(2, checks.get());
+
+		Assertions.assertTrue(cache.hasPermission(player, new TestState(true, 4), oppedCheck));
+		Assertions.assertEquals(3, checks.get());
+	}
+
+	@Test
+	public void testPlayersAreCachedSeparately() {
+		PermissionCache<Object, TestState> cache = new PermissionCache<>();
+		Object op = new Object();
+		Object player = new Object();
+		TestState state = new TestState(false, 0);
+
+		Assertions.assertTrue(cache.hasPermission(op, state, p -> true));
+		Assertions.assertFalse(cache.hasPermission(player, state, p -> false));
+		Assertions.assertTrue(cache.hasPermission(op, state, p -> false));
+	}
+}
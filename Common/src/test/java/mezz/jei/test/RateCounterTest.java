@@ -0,0 +1,37 @@
+package mezz.jei.test;
+
+import mezz.jei.common.util.RateCounter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class RateCounterTest {
+	@Test
+	public void testRateOfLastSecond() {
+		RateCounter counter = new RateCounter();
+		long start = 50_000;
+		Assertions.assertEquals(0, counter.getRate(start));
+
+		for (int i = 0; i < 10; i++) {
+			counter.increment(start + i * 100);
+		}
+		// the first second is still in progress
+		Assertions.assertEquals(0, counter.getRate(start + 999));
+
+		counter.increment(start + 1500);
+		Assertions.assertEquals(10, counter.getRate(start + 1500));
+		Assertions.assertEquals(10, counter.getRate(start + 1999));
+		Assertions.assertEquals(1, counter.getRate(start + 2000));
+	}
+
+	@Test
+	public void testIdleResetsRate() {
+		RateCounter counter = new RateCounter();
+		long start = 50_000;
+		counter.getRate(start);
+		for (int i = 0; i < 5; i++) {
+			counter.increment(start + i);
+		}
+		Assertions.assertEquals(5, counter.getRate(start + 1000));
+		Assertions.assertEquals(0, counter.getRate(start + 5000));
+	}
+}
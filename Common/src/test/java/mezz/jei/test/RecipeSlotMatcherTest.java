@@ -0,0 +1,289 @@
+package mezz.jei.test;
+
+import mezz.jei.common.transfer.RecipeSlotMatcher;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+public class RecipeSlotMatcherTest {
+	private static final Logger LOGGER = LogManager.getLogger();
+
+	/**
+	 * Recipe slots take from the group with the most items, and from its slot with the fewest items.
+	 */
+	@Test
+	public void testGroupAndSlotOrder() {
+		int[] slotIndexes = {10, 11, 12, 13};
+		int[] groups = {0, 0, 1, 1};
+		int[] counts = {5, 2, 4, 4};
+		int[][] required = {{0, 1}, {1}, {0}};
+
+		int[] matches = RecipeSlotMatcher.match(slotIndexes, groups, counts, 2, required);
+		// group 0 has 7 items and group 1 has 8, so group 1 comes first for the first recipe slot
+		Assertions.assertArrayEquals(new int[]{2, 2, 1}, matches);
+	}
+
+	@Test
+	public void testMissingItems() {
+		int[] slotIndexes = {0};
+		int[] groups = {0};
+		int[] counts = {1};
+		int[][] required = {{0}, {0}, {}};
+
+		int[] matches = RecipeSlotMatcher.match(slotIndexes, groups, counts, 2, required);
+		Assertions.assertArrayEquals(new int[]{0, -1, -1}, matches);
+	}
+
+	/**
+	 * The matcher chooses the same slots as the old matching on many random inventories.
+	 */
+	@Test
+	public void testSameAsOldMatching() {
+		Random random = new Random(4321);
+		for (int run = 0; run < 20_000; run++) {
+			Inventory inventory = Inventory.random(random);
+			List<Set<Object>> recipe = randomRecipe(random, inventory.uidCount);
+			Assertions.assertEquals(inventory.matchOld(recipe), inventory.matchIndexed(recipe), inventory + " recipe: " + recipe);
+		}
+	}
+
+	/**
+	 * Checking 500 recipes against a full inventory with one index gives the same results as the old matching.
+	 * The times of both are logged to compare by hand, timings are not reliable enough to assert on.
+	 */
+	@Test
+	public void testManyRecipes() {
+		Random random = new Random(1234);
+		Inventory inventory = Inventory.full(random);
+		List<List<Set<Object>>> recipes = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			recipes.add(randomRecipe(random, inventory.uidCount));
+		}
+
+		long oldNanos = Long.MAX_VALUE;
+		long indexedNanos = Long.MAX_VALUE;
+		for (int run = 0; run < 5; run++) {
+			long start = System.nanoTime();
+			for (List<Set<Object>> recipe : recipes) {
+				inventory.matchOld(recipe);
+			}
+			oldNanos = Math.min(oldNanos, System.nanoTime() - start);
+
+			start = System.nanoTime();
+			Index index = new Index(inventory);
+			for (List<Set<Object>> recipe : recipes) {
+				inventory.matchIndexed(index, recipe);
+			}
+			indexedNanos = Math.min(indexedNanos, System.nanoTime() - start);
+		}
+
+		for (List<Set<Object>> recipe : recipes) {
+			Assertions.assertEquals(inventory.matchOld(recipe), inventory.matchIndexed(recipe));
+		}
+		LOGGER.info("Indexed matching took {} ns, old matching took {} ns", indexedNanos, oldNanos);
+	}
+
+	private static List<Set<Object>> randomRecipe(Random random, int uidCount) {
+		int size = 1 + random.nextInt(9);
+		List<Set<Object>> recipe = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			Set<Object> uids = new HashSet<>();
+			// empty recipe slots, single items, and tags that accept many items
+			int accepted = random.nextInt(5) == 0 ? 0 : 1 + random.nextInt(random.nextBoolean() ? 2 : 8);
+			for (int j = 0; j < accepted; j++) {
+				// some accepted items are not in the inventory
+				uids.add(uid(random.nextInt(uidCount + 3)));
+			}
+			recipe.add(uids);
+		}
+		return recipe;
+	}
+
+	/**
+	 * Like the uids from the stack helper, an item and its subtype data.
+	 */
+	private static Object uid(int item) {
+		return List.of("item" + (item / 2), item % 2);
+	}
+
+	private record Index(Map<Object, Integer> groups, int[] slotGroups) {
+		public Index(Inventory inventory) {
+			this(new HashMap<>(), new int[inventory.items.length]);
+			for (int i = 0; i < inventory.items.length; i++) {
+				Object uid = uid(inventory.items[i]);
+				Integer group = groups.get(uid);
+				if (group == null) {
+					group = groups.size();
+					groups.put(uid, group);
+				}
+				slotGroups[i] = group;
+			}
+		}
+	}
+
+	/**
+	 * @param slotIndexes the slot index of each non-empty slot, in the order the old matching saw them
+	 * @param items       the item in each slot, turned into a uid with {@link #uid}
+	 * @param counts      the number of items in each slot
+	 */
+	private record Inventory(int[] slotIndexes, int[] items, int[] counts, int uidCount) {
+		public static Inventory random(Random random) {
+			int uidCount = 1 + random.nextInt(6);
+			int size = random.nextInt(46);
+			return create(random, size, uidCount);
+		}
+
+		public static Inventory full(Random random) {
+			return create(random, 36, 20);
+		}
+
+		private static Inventory create(Random random, int size, int uidCount) {
+			List<Integer> slotIndexes = new ArrayList<>();
+			for (int i = 0; i < 46; i++) {
+				slotIndexes.add(i);
+			}
+			Collections.shuffle(slotIndexes, random);
+			int[] indexes = new int[size];
+			int[] items = new int[size];
+			int[] counts = new int[size];
+			for (int i = 0; i < size; i++) {
+				indexes[i] = slotIndexes.get(i);
+				items[i] = random.nextInt(uidCount);
+				// equal counts happen often, to check the tie breaks
+				counts[i] = random.nextBoolean() ? 64 : 1 + random.nextInt(64);
+			}
+			return new Inventory(indexes, items, counts, uidCount);
+		}
+
+		public List<Integer> matchIndexed(List<Set<Object>> recipe) {
+			return matchIndexed(new Index(this), recipe);
+		}
+
+		public List<Integer> matchIndexed(Index index, List<Set<Object>> recipe) {
+			int[][] requiredGroups = new int[recipe.size()][];
+			for (int i = 0; i < recipe.size(); i++) {
+				requiredGroups[i] = recipe.get(i).stream()
+					.map(index.groups::get)
+					.filter(group -> group != null)
+					.mapToInt(Integer::intValue)
+					.toArray();
+			}
+			int[] matches = RecipeSlotMatcher.match(slotIndexes, index.slotGroups, counts, index.groups.size(), requiredGroups);
+			List<Integer> result = new ArrayList<>();
+			for (int i = 0; i < recipe.size(); i++) {
+				if (!recipe.get(i).isEmpty()) {
+					result.add(matches[i] < 0 ? -1 : slotIndexes[matches[i]]);
+				}
+			}
+			return result;
+		}
+
+		/**
+		 * The way recipe slots were matched before, working out the uid of every slot for each recipe.
+		 */
+		public List<Integer> matchOld(List<Set<Object>> recipe) {
+			Map<Set<Object>, Map<Object, List<SlotState>>> relevantSlots = new IdentityHashMap<>();
+			for (int i = 0; i < items.length; i++) {
+				SlotState state = new SlotState(slotIndexes[i], counts[i]);
+				Object uid = uid(items[i]);
+				for (Set<Object> ingredient : recipe) {
+					if (!ingredient.isEmpty() && ingredient.contains(uid)) {
+						relevantSlots
+							.computeIfAbsent(ingredient, it -> new LinkedHashMap<>())
+							.computeIfAbsent(uid, it -> new ArrayList<>())
+							.add(state);
+					}
+				}
+			}
+
+			Map<Set<Object>, List<List<SlotState>>> bestMatches = new IdentityHashMap<>();
+			for (Map.Entry<Set<Object>, Map<Object, List<SlotState>>> entry : relevantSlots.entrySet()) {
+				List<List<SlotState>> countedAndSorted = new ArrayList<>();
+				for (List<SlotState> foundSlots : entry.getValue().values()) {
+					foundSlots.sort((o1, o2) -> {
+						int compare = Integer.compare(o1.count, o2.count);
+						if (compare == 0) {
+							return Integer.compare(o1.slotIndex, o2.slotIndex);
+						}
+						return compare;
+					});
+					countedAndSorted.add(foundSlots);
+				}
+				Map<List<SlotState>, Long> totals = new IdentityHashMap<>();
+				for (List<SlotState> list : countedAndSorted) {
+					totals.put(list, list.stream().mapToLong(it -> it.count).sum());
+				}
+				countedAndSorted.sort((o1, o2) -> {
+					int compare = Long.compare(totals.get(o2), totals.get(o1));
+					if (compare == 0) {
+						return Integer.compare(
+							o1.stream().mapToInt(it -> it.slotIndex).min().orElse(0),
+							o2.stream().mapToInt(it -> it.slotIndex).min().orElse(0)
+						);
+					}
+					return compare;
+				});
+				bestMatches.put(entry.getKey(), countedAndSorted);
+			}
+
+			List<Integer> result = new ArrayList<>();
+			for (Set<Object> ingredient : recipe) {
+				if (ingredient.isEmpty()) {
+					continue;
+				}
+				SlotState matching = null;
+				List<List<SlotState>> matches = bestMatches.get(ingredient);
+				if (matches != null) {
+					for (List<SlotState> states : matches) {
+						for (SlotState state : states) {
+							if (state.count > 0) {
+								matching = state;
+								break;
+							}
+						}
+						if (matching != null) {
+							break;
+						}
+					}
+				}
+				if (matching == null) {
+					result.add(-1);
+				} else {
+					matching.count--;
+					result.add(matching.slotIndex);
+				}
+			}
+			return result;
+		}
+
+		@Override
+		public String toString() {
+			return "slotIndexes: " + Arrays.toString(slotIndexes) +
+				" items: " + Arrays.toString(items) +
+				" counts: " + Arrays.toString(counts);
+		}
+	}
+
+	private static class SlotState {
+		private final int slotIndex;
+		private int count;
+
+		public SlotState(int slotIndex, int count) {
+			this.slotIndex = slotIndex;
+			this.count = count;
+		}
+	}
+}
@@ -0,0 +1,59 @@
+package mezz.jei.test;
+
+import mezz.jei.common.util.RollingTiming;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class RollingTimingTest {
+	@Test
+	public void testEmpty() {
+		RollingTiming timing = new RollingTiming();
+		Assertions.assertEquals(0, timing.getAverageNanos());
+		Assertions.assertEquals(0, timing.getMaxNanos());
+		Assertions.assertEquals(0, timing.getCallsPerSecond(50_000));
+		Assertions.assertEquals(0, timing.getNanosPerSecond(50_000));
+	}
+
+	@Test
+	public void testAverageAndMax() {
+		RollingTiming timing = new RollingTiming();
+		long start = 50_000;
+		timing.add(100, start);
+		timing.add(300, start);
+		timing.add(200, start);
+		Assertions.assertEquals(200, timing.getAverageNanos());
+		Assertions.assertEquals(300, timing.getMaxNanos());
+	}
+
+	@Test
+	public void testOnlyRecentCallsAreKept() {
+		RollingTiming timing = new RollingTiming();
+		long start = 50_000;
+		timing.add(1_000_000, start);
+		for (int i = 0; i < 1000; i++) {
+			timing.add(10, start);
+		}
+		Assertions.assertEquals(10, timing.getAverageNanos());
+		Assertions.assertEquals(10, timing.getMaxNanos());
+	}
+
+	@Test
+	public void testTimeOfLastSecond() {
+		RollingTiming timing = new RollingTiming();
+		long start = 50_000;
+		timing.getCallsPerSecond(start);
+		for (int i = 0; i < 10; i++) {
+			timing.add(1000, start + i * 100);
+		}
+		// the first second is still in progress
+		Assertions.assertEquals(0, timing.getCallsPerSecond(start + 999));
+		Assertions.assertEquals(0, timing.getNanosPerSecond(start + 999));
+
+		Assertions.assertEquals(10, timing.getCallsPerSecond(start + 1000));
+		Assertions.assertEquals(10_000, timing.getNanosPerSecond(start + 1000));
+
+		// nothing happened for a while
+		Assertions.assertEquals(0, timing.getCallsPerSecond(start + 5000));
+		Assertions.assertEquals(0, timing.getNanosPerSecond(start + 5000));
+	}
+}
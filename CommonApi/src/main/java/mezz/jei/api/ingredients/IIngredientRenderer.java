@@ -62,6 +62,18 @@ public interface IIngredientRenderer<T> {
 		}
 	}
 
+	/**
+	 * Called with a batch of ingredients that is likely to be rendered soon,
+	 * like the next page of the ingredient list.
+	 * Renderers that prepare work for each batch in {@link #renderBatch} can do that work here ahead of time.
+	 * This is called on the render thread.
+	 *
+	 * @since 19.22.0
+	 */
+	default void prepareBatch(List<BatchRenderElement<T>> elements) {
+
+	}
+
 	/**
 	 * Get the tooltip text for this ingredient. JEI renders the tooltip based on this.
 	 *
@@ -23,4 +23,20 @@ public interface IIngredientSupplier {
 	 */
 	@Unmodifiable
 	List<ITypedIngredient<?>> getIngredients(RecipeIngredientRole role);
+
+	/**
+	 * Get the ingredients of each slot for the given role.
+	 * Invisible ingredients are not part of any slot, so they are not included.
+	 *
+	 * The default implementation does not know about slots,
+	 * so it puts each ingredient from {@link #getIngredients} into a slot of its own.
+	 * @since 19.22.0
+	 */
+	@Unmodifiable
+	default List<List<ITypedIngredient<?>>> getSlotIngredients(RecipeIngredientRole role) {
+		return getIngredients(role)
+			.stream()
+			.<List<ITypedIngredient<?>>>map(List::of)
+			.toList();
+	}
 }
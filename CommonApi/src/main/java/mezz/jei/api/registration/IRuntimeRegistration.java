@@ -12,6 +12,8 @@ import mezz.jei.api.runtime.IIngredientVisibility;
 import mezz.jei.api.runtime.IRecipesGui;
 import mezz.jei.api.runtime.IScreenHelper;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Allows mods to override the runtime classes for JEI with their own implementation.
  *
@@ -50,6 +52,19 @@ public interface IRuntimeRegistration {
 	 */
 	void setIngredientFilter(IIngredientFilter ingredientFilter);
 
+	/**
+	 * Add a task that must finish before the runtime is available.
+	 *
+	 * This lets runtime implementations do expensive work (like building search indexes)
+	 * in the background instead of freezing the game while joining a world.
+	 * {@link mezz.jei.api.IModPlugin#onRuntimeAvailable} is only called after all startup tasks have completed.
+	 *
+	 * @since 19.22.0
+	 */
+	default void addStartupTask(CompletableFuture<?> startupTask) {
+		startupTask.join();
+	}
+
 	/**
 	 * The {@link IRecipeManager} offers several functions for retrieving and handling recipes.
 	 */
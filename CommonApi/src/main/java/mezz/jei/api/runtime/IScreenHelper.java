@@ -62,6 +62,21 @@ public interface IScreenHelper {
 	 */
 	Stream<Rect2i> getGuiExclusionAreas(Screen screen);
 
+	/**
+	 * Notify JEI that the gui exclusion areas for the current screen have changed.
+	 *
+	 * JEI does not query the gui exclusion areas every frame, it checks them periodically.
+	 * Call this when your areas change (for example when a gui tab opens)
+	 * so that JEI moves out of the way on the next frame.
+	 *
+	 * The default implementation does nothing.
+	 *
+	 * @since 19.22.0
+	 */
+	default void invalidateGuiExclusionAreas() {
+
+	}
+
 	/**
 	 * Get the ghost ingredient handlers for the given screen, if there are any.
 	 *
@@ -10,17 +10,33 @@ public class PrefixInfo<T, I> {
 	private final IModeGetter modeGetter;
 	private final IStringsGetter<T> stringsGetter;
 	private final Supplier<ISearchStorage<I>> storageSupplier;
+	private final boolean parallelStrings;
 
 	public PrefixInfo(
 		char prefix,
 		IModeGetter modeGetter,
 		IStringsGetter<T> stringsGetter,
 		Supplier<ISearchStorage<I>> storageSupplier
+	) {
+		this(prefix, modeGetter, stringsGetter, storageSupplier, false);
+	}
+
+	/**
+	 * @param parallelStrings true if the strings getter is expensive and safe to call from multiple threads at once,
+	 *                        so that strings for many elements can be computed in parallel.
+	 */
+	public PrefixInfo(
+		char prefix,
+		IModeGetter modeGetter,
+		IStringsGetter<T> stringsGetter,
+		Supplier<ISearchStorage<I>> storageSupplier,
+		boolean parallelStrings
 	) {
 		this.prefix = prefix;
 		this.modeGetter = modeGetter;
 		this.stringsGetter = stringsGetter;
 		this.storageSupplier = storageSupplier;
+		this.parallelStrings = parallelStrings;
 	}
 
 	public char getPrefix() {
@@ -31,6 +47,10 @@ public class PrefixInfo<T, I> {
 		return modeGetter.getMode();
 	}
 
+	public boolean isParallelStrings() {
+		return parallelStrings;
+	}
+
 	public ISearchStorage<I> createStorage() {
 		return this.storageSupplier.get();
 	}
@@ -34,13 +34,14 @@ public class JustEnoughItemsClient implements ClientModInitializer {
 						.registerReloadListener(new JeiIdentifiableResourceReloadListener("lifecycle", clientLifecycleHandler.getReloadListener()));
 
 				ResourceManagerHelper.get(PackType.CLIENT_RESOURCES)
-					.registerReloadListener(new JeiIdentifiableResourceReloadListener("resources_reload", createReloadListener()));
+					.registerReloadListener(new JeiIdentifiableResourceReloadListener("resources_reload", createReloadListener(clientLifecycleHandler)));
 			});
 		});
 	}
 
-	public ResourceManagerReloadListener createReloadListener() {
+	public ResourceManagerReloadListener createReloadListener(ClientLifecycleHandler clientLifecycleHandler) {
 		return (resourceManager) -> {
+			clientLifecycleHandler.onResourcesReloaded();
 			FabricGuiPlugin.getResourceReloadHandler()
 				.ifPresent(r -> r.onResourceManagerReload(resourceManager));
 		};
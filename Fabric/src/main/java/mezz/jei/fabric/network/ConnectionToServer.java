@@ -4,6 +4,7 @@ import mezz.jei.common.network.IConnectionToServer;
 import mezz.jei.common.network.packets.PacketDeletePlayerItem;
 import mezz.jei.common.network.packets.PlayToServerPacket;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
 
 public final class ConnectionToServer implements IConnectionToServer {
 	@Override
@@ -11,6 +12,11 @@ public final class ConnectionToServer implements IConnectionToServer {
 		return ClientPlayNetworking.canSend(PacketDeletePlayerItem.TYPE);
 	}
 
+	@Override
+	public boolean canSend(CustomPacketPayload.Type<?> type) {
+		return ClientPlayNetworking.canSend(type);
+	}
+
 	@Override
 	public <T extends PlayToServerPacket<T>> void sendPacketToServer(T packet) {
 		if (isJeiOnServer()) {
@@ -7,6 +7,7 @@ import net.fabricmc.loader.api.metadata.ModMetadata;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class ModHelper implements IPlatformModHelper {
@@ -30,4 +31,14 @@ public class ModHelper implements IPlatformModHelper {
 		FabricLoader loader = FabricLoader.getInstance();
 		return loader.isDevelopmentEnvironment();
 	}
+
+	@Override
+	public List<String> getModVersions() {
+		return FabricLoader.getInstance()
+			.getAllMods()
+			.stream()
+			.map(ModContainer::getMetadata)
+			.map(metadata -> metadata.getId() + "@" + metadata.getVersion().getFriendlyString())
+			.toList();
+	}
 }
@@ -6,6 +6,7 @@ import mezz.jei.api.constants.ModIds;
 import mezz.jei.api.registration.IRuntimeRegistration;
 import mezz.jei.api.runtime.IJeiRuntime;
 import mezz.jei.fabric.startup.EventRegistration;
+import mezz.jei.gui.bookmarks.BookmarkList;
 import mezz.jei.gui.startup.JeiEventHandlers;
 import mezz.jei.gui.startup.JeiGuiStarter;
 import mezz.jei.gui.startup.ResourceReloadHandler;
@@ -21,6 +22,7 @@ public class FabricGuiPlugin implements IModPlugin {
 	private static final Logger LOGGER = LogManager.getLogger();
 	private static @Nullable IJeiRuntime runtime;
 	private static @Nullable ResourceReloadHandler resourceReloadHandler;
+	private static @Nullable BookmarkList bookmarkList;
 
 	private final EventRegistration eventRegistration = new EventRegistration();
 
@@ -33,6 +35,7 @@ public class FabricGuiPlugin implements IModPlugin {
 	public void registerRuntime(IRuntimeRegistration registration) {
 		JeiEventHandlers eventHandlers = JeiGuiStarter.start(registration);
 		resourceReloadHandler = eventHandlers.resourceReloadHandler();
+		bookmarkList = eventHandlers.bookmarkList();
 		eventRegistration.setEventHandlers(eventHandlers);
 	}
 
@@ -45,6 +48,10 @@ public class FabricGuiPlugin implements IModPlugin {
 	public void onRuntimeUnavailable() {
 		runtime = null;
 		resourceReloadHandler = null;
+		if (bookmarkList != null) {
+			bookmarkList.flushSave();
+			bookmarkList = null;
+		}
 		LOGGER.info("Stopping JEI GUI");
 		eventRegistration.clear();
 	}
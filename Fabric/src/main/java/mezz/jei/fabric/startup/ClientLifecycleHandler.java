@@ -68,6 +68,10 @@ public class ClientLifecycleHandler {
 		};
 	}
 
+	public void onResourcesReloaded() {
+		jeiStarter.onResourcesReloaded();
+	}
+
 	private void startJei() {
 		Minecraft minecraft = Minecraft.getInstance();
 		if (minecraft.level == null) {
@@ -40,6 +40,14 @@ public final class ConnectionToServer implements IConnectionToServer {
 		return jeiOnServerCacheValue;
 	}
 
+	/**
+	 * Forge only tells whether the server has JEI's channel, not which packets it registered in it.
+	 */
+	@Override
+	public boolean canSend(CustomPacketPayload.Type<?> type) {
+		return isJeiOnServer();
+	}
+
 	@Override
 	public <T extends PlayToServerPacket<T>> void sendPacketToServer(T packet) {
 		Minecraft minecraft = Minecraft.getInstance();
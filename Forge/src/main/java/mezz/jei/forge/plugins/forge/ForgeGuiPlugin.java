@@ -6,6 +6,7 @@ import mezz.jei.api.constants.ModIds;
 import mezz.jei.api.registration.IRuntimeRegistration;
 import mezz.jei.forge.events.RuntimeEventSubscriptions;
 import mezz.jei.forge.startup.EventRegistration;
+import mezz.jei.gui.bookmarks.BookmarkList;
 import mezz.jei.gui.startup.JeiEventHandlers;
 import mezz.jei.gui.startup.JeiGuiStarter;
 import mezz.jei.gui.startup.ResourceReloadHandler;
@@ -21,6 +22,7 @@ import java.util.Optional;
 public class ForgeGuiPlugin implements IModPlugin {
 	private static final Logger LOGGER = LogManager.getLogger();
 	private static @Nullable ResourceReloadHandler resourceReloadHandler;
+	private static @Nullable BookmarkList bookmarkList;
 
 	private final RuntimeEventSubscriptions runtimeSubscriptions = new RuntimeEventSubscriptions(MinecraftForge.EVENT_BUS);
 
@@ -38,6 +40,7 @@ public class ForgeGuiPlugin implements IModPlugin {
 
 		JeiEventHandlers eventHandlers = JeiGuiStarter.start(registration);
 		resourceReloadHandler = eventHandlers.resourceReloadHandler();
+		bookmarkList = eventHandlers.bookmarkList();
 
 		EventRegistration.registerEvents(runtimeSubscriptions, eventHandlers);
 	}
@@ -47,6 +50,10 @@ public class ForgeGuiPlugin implements IModPlugin {
 		LOGGER.info("Stopping JEI GUI");
 		runtimeSubscriptions.clear();
 		resourceReloadHandler = null;
+		if (bookmarkList != null) {
+			bookmarkList.flushSave();
+			bookmarkList = null;
+		}
 	}
 
 	public static Optional<ResourceReloadHandler> getResourceReloadHandler() {
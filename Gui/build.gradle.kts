@@ -32,6 +32,7 @@ dependencyProjects.forEach {
 
 neoForge {
     neoFormVersion = "$minecraftVersion-$neoformTimestamp"
+    addModdingDependenciesTo(sourceSets.test.get())
 }
 
 sourceSets {
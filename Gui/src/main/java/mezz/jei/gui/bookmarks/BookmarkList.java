@@ -11,18 +11,20 @@ import mezz.jei.common.config.IClientConfig;
 import mezz.jei.gui.config.IBookmarkConfig;
 import mezz.jei.gui.overlay.IIngredientGridSource;
 import mezz.jei.gui.overlay.elements.IElement;
+import net.minecraft.Util;
+import net.minecraft.client.Minecraft;
 import net.minecraft.core.RegistryAccess;
 import org.jetbrains.annotations.Nullable;
 
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Set;
+import java.util.Optional;
 
 public class BookmarkList implements IIngredientGridSource {
-	private final List<IBookmark> bookmarksList = new LinkedList<>();
-	private final Set<IBookmark> bookmarksSet = new HashSet<>();
+	private static final Duration SAVE_DELAY = Duration.ofSeconds(1);
+
+	private final BookmarkStore bookmarks = new BookmarkStore();
 
 	private final IRecipeManager recipeManager;
 	private final IFocusFactory focusFactory;
@@ -32,7 +34,9 @@ public class BookmarkList implements IIngredientGridSource {
 	private final IClientConfig clientConfig;
 	private final IGuiHelper guiHelper;
 	private final ICodecHelper codecHelper;
+	private final BookmarkSaver saver;
 	private final List<SourceListChangedListener> listeners = new ArrayList<>();
+	private @Nullable List<IElement<?>> elementsCached;
 
 	public BookmarkList(
 		IRecipeManager recipeManager,
@@ -52,42 +56,42 @@ public class BookmarkList implements IIngredientGridSource {
 		this.clientConfig = clientConfig;
 		this.guiHelper = guiHelper;
 		this.codecHelper = codecHelper;
+		this.saver = new BookmarkSaver(this::prepareSave, Minecraft.getInstance(), Util.ioPool(), SAVE_DELAY);
 	}
 
 	public boolean add(IBookmark value) {
-		if (!addToListWithoutNotifying(value, clientConfig.isAddingBookmarksToFrontEnabled())) {
+		if (!bookmarks.add(value, clientConfig.isAddingBookmarksToFrontEnabled())) {
 			return false;
 		}
 		notifyListenersOfChange();
-		bookmarkConfig.saveBookmarks(recipeManager, focusFactory, guiHelper, ingredientManager, registryAccess, codecHelper, bookmarksList);
+		saver.markDirty();
 		return true;
 	}
 
 	public void moveBookmark(IBookmark previousBookmark, IBookmark newBookmark, int offset) {
-		if (!bookmarksSet.contains(newBookmark) || !bookmarksSet.contains(previousBookmark)) {
+		int i = bookmarks.indexOf(previousBookmark);
+		int j = bookmarks.indexOf(newBookmark);
+		if (i < 0 || j < 0) {
 			return;
 		}
-		int i = bookmarksList.indexOf(previousBookmark);
-		int j = bookmarksList.indexOf(newBookmark);
 		int newIndex = i + offset;
 		if (newIndex == j) {
 			return;
 		}
 
 		if (newIndex < 0) {
-			newIndex += bookmarksList.size();
+			newIndex += bookmarks.size();
 		}
-		newIndex %= bookmarksList.size();
+		newIndex %= bookmarks.size();
 
-		bookmarksList.remove(newBookmark);
-		bookmarksList.add(newIndex, newBookmark);
+		bookmarks.move(newBookmark, newIndex);
 
 		notifyListenersOfChange();
-		bookmarkConfig.saveBookmarks(recipeManager, focusFactory, guiHelper, ingredientManager, registryAccess, codecHelper, bookmarksList);
+		saver.markDirty();
 	}
 
 	public boolean contains(IBookmark value) {
-		return this.bookmarksSet.contains(value);
+		return bookmarks.contains(value);
 	}
 
 	public <T> boolean onElementBookmarked(IElement<T> element) {
@@ -108,66 +112,53 @@ public class BookmarkList implements IIngredientGridSource {
 	}
 
 	public boolean remove(IBookmark ingredient) {
-		if (!bookmarksSet.remove(ingredient)) {
+		if (!bookmarks.remove(ingredient)) {
 			return false;
 		}
-		bookmarksList.remove(ingredient);
 
 		notifyListenersOfChange();
-		bookmarkConfig.saveBookmarks(recipeManager, focusFactory, guiHelper, ingredientManager, registryAccess, codecHelper, bookmarksList);
+		saver.markDirty();
 		return true;
 	}
 
 	public void setFromConfigFile(List<IBookmark> bookmarks) {
-		bookmarksList.clear();
-		bookmarksSet.clear();
+		this.bookmarks.clear();
 
 		for (IBookmark bookmark : bookmarks) {
-			if (bookmarksSet.add(bookmark)) {
-				bookmarksList.add(bookmark);
-			}
+			this.bookmarks.add(bookmark, false);
 		}
 
 		notifyListenersOfChange();
 	}
 
-	private boolean addToListWithoutNotifying(IBookmark value, boolean addToFront) {
-		if (contains(value)) {
-			return false;
-		}
-		if (addToFront) {
-			bookmarksList.addFirst(value);
-			bookmarksSet.add(value);
-		} else {
-			bookmarksList.add(value);
-			bookmarksSet.add(value);
-		}
-		return true;
+	/**
+	 * Writes any bookmark changes that have not been saved yet.
+	 */
+	public void flushSave() {
+		saver.flush();
+	}
+
+	private Optional<Runnable> prepareSave() {
+		return bookmarkConfig.prepareSave(recipeManager, focusFactory, guiHelper, ingredientManager, registryAccess, codecHelper, bookmarks.getBookmarks());
 	}
 
 	@Override
 	public List<IElement<?>> getElements() {
-		return bookmarksList.stream()
-			.<IElement<?>>map(IBookmark::getElement)
-			.toList();
+		if (elementsCached == null) {
+			elementsCached = bookmarks.getBookmarks().stream()
+				.<IElement<?>>map(IBookmark::getElement)
+				.toList();
+		}
+		return elementsCached;
 	}
 
 	@Nullable
 	public <R> RecipeBookmark<R,?> getMatchingBookmark(RecipeType<R> recipeType, R recipe) {
-		for (IBookmark bookmark : bookmarksList) {
-			if (bookmark instanceof RecipeBookmark<?,?> recipeBookmark) {
-				if (recipeBookmark.isRecipe(recipeType, recipe)) {
-					@SuppressWarnings("unchecked")
-					RecipeBookmark<R, ?> castBookmark = (RecipeBookmark<R, ?>) recipeBookmark;
-					return castBookmark;
-				}
-			}
-		}
-		return null;
+		return bookmarks.getMatchingBookmark(recipeType, recipe);
 	}
 
 	public boolean isEmpty() {
-		return bookmarksSet.isEmpty();
+		return bookmarks.isEmpty();
 	}
 
 	@Override
@@ -176,6 +167,7 @@ public class BookmarkList implements IIngredientGridSource {
 	}
 
 	private void notifyListenersOfChange() {
+		elementsCached = null;
 		for (SourceListChangedListener listener : listeners) {
 			listener.onSourceListChanged();
 		}
@@ -0,0 +1,126 @@
+package mezz.jei.gui.bookmarks;
+
+import mezz.jei.common.util.DeduplicatingRunner;
+import mezz.jei.common.util.JeiScheduler;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Supplier;
+
+/**
+ * Saves bookmarks in the background, so that changing them does not wait for the file to be written.
+ *
+ * A change only marks the bookmarks as changed, which costs the same no matter how many bookmarks there are.
+ * Once there have been no changes for the save delay, a save is prepared on the main thread
+ * (this is where the bookmarks are copied), and then written on a background thread.
+ * A burst of changes, like dragging a bookmark around, results in a single write.
+ *
+ * {@link #flush()} writes any pending changes right away, it is called when JEI stops.
+ */
+public class BookmarkSaver {
+	private static final Logger LOGGER = LogManager.getLogger();
+
+	private final Supplier<Optional<Runnable>> saveFactory;
+	private final Executor mainThreadExecutor;
+	private final Executor backgroundExecutor;
+	private final DeduplicatingRunner delayedSave;
+	private final Object writeLock = new Object();
+
+	// only accessed from the main thread
+	private boolean dirty;
+	private long preparedSaves;
+
+	// guarded by writeLock
+	private long writtenSave;
+
+	/**
+	 * @param saveFactory        called on the main thread to prepare a save of the current bookmarks.
+	 *                           The returned save is run on a background thread, so it must not read
+	 *                           anything that can change on the main thread.
+	 * @param mainThreadExecutor runs tasks on the main thread
+	 * @param backgroundExecutor runs the saves
+	 * @param delay              how long to wait for more changes before saving
+	 */
+	public BookmarkSaver(
+		Supplier<Optional<Runnable>> saveFactory,
+		Executor mainThreadExecutor,
+		Executor backgroundExecutor,
+		Duration delay
+	) {
+		this(saveFactory, mainThreadExecutor, backgroundExecutor, delay, JeiScheduler.get());
+	}
+
+	/**
+	 * @param delayScheduler waits for the save delay
+	 */
+	public BookmarkSaver(
+		Supplier<Optional<Runnable>> saveFactory,
+		Executor mainThreadExecutor,
+		Executor backgroundExecutor,
+		Duration delay,
+		ScheduledExecutorService delayScheduler
+	) {
+		this.saveFactory = saveFactory;
+		this.mainThreadExecutor = mainThreadExecutor;
+		this.backgroundExecutor = backgroundExecutor;
+		this.delayedSave = new DeduplicatingRunner(this::onDelayElapsed, delay, "JEI Bookmark Save Delay", delayScheduler);
+	}
+
+	/**
+	 * Called on the main thread when the bookmarks change.
+	 */
+	public void markDirty() {
+		dirty = true;
+		delayedSave.run();
+	}
+
+	/**
+	 * Called on the main thread to write any pending changes immediately.
+	 * Waits for a save that is already being written to finish.
+	 */
+	public void flush() {
+		prepareSave()
+			.ifPresent(Runnable::run);
+
+		// wait for a save that is still being written in the background
+		synchronized (writeLock) {
+			LOGGER.debug("Flushed bookmarks, last save written: {}", writtenSave);
+		}
+	}
+
+	private void onDelayElapsed() {
+		mainThreadExecutor.execute(() ->
+			prepareSave()
+				.ifPresent(backgroundExecutor::execute)
+		);
+	}
+
+	private Optional<Runnable> prepareSave() {
+		if (!dirty) {
+			return Optional.empty();
+		}
+		dirty = false;
+		long saveNumber = ++preparedSaves;
+		return saveFactory.get()
+			.map(save -> () -> write(saveNumber, save));
+	}
+
+	private void write(long saveNumber, Runnable save) {
+		synchronized (writeLock) {
+			// a flush can write a newer save before an older one gets its turn in the background
+			if (saveNumber <= writtenSave) {
+				return;
+			}
+			writtenSave = saveNumber;
+			try {
+				save.run();
+			} catch (RuntimeException e) {
+				LOGGER.error("Failed to save bookmarks", e);
+			}
+		}
+	}
+}
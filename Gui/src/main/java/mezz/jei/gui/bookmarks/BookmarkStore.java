@@ -0,0 +1,163 @@
+package mezz.jei.gui.bookmarks;
+
+import mezz.jei.api.recipe.RecipeType;
+import net.minecraft.resources.ResourceLocation;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.UnmodifiableView;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps bookmarks in order, with hash indexes so that looking one up does not walk the whole list.
+ *
+ * Checking if a bookmark is stored, finding its position and finding the bookmark for a recipe are all hash lookups.
+ * Positions are kept up to date on every change, updating only the bookmarks whose position changes:
+ * adding to the front or back updates one position, moving updates the bookmarks between the old and new index,
+ * and removing updates the bookmarks on the shorter side of the removed one.
+ */
+public class BookmarkStore {
+	private final List<IBookmark> bookmarks = new ArrayList<>();
+	/**
+	 * The index of each bookmark plus {@link #positionOffset}.
+	 * Shifting every bookmark by one only needs the offset to change, not each position.
+	 */
+	private final Map<IBookmark, Integer> positions = new HashMap<>();
+	private final Map<RecipeType<?>, Map<ResourceLocation, RecipeBookmark<?, ?>>> recipeBookmarks = new HashMap<>();
+	private final List<IBookmark> bookmarksView = Collections.unmodifiableList(bookmarks);
+	private int positionOffset;
+
+	/**
+	 * @return false if the bookmark is already stored
+	 */
+	public boolean add(IBookmark bookmark, boolean addToFront) {
+		if (positions.containsKey(bookmark)) {
+			return false;
+		}
+		if (addToFront) {
+			bookmarks.addFirst(bookmark);
+			// every other bookmark moves back by one
+			positionOffset--;
+			updatePositions(0, 1);
+		} else {
+			bookmarks.add(bookmark);
+			updatePositions(bookmarks.size() - 1, bookmarks.size());
+		}
+		if (bookmark instanceof RecipeBookmark<?, ?> recipeBookmark) {
+			recipeBookmarks.computeIfAbsent(recipeBookmark.getRecipeCategory().getRecipeType(), k -> new HashMap<>())
+				.put(recipeBookmark.getRecipeUid(), recipeBookmark);
+		}
+		return true;
+	}
+
+	/**
+	 * @return false if the bookmark was not stored
+	 */
+	public boolean remove(IBookmark bookmark) {
+		int index = indexOf(bookmark);
+		if (index < 0) {
+			return false;
+		}
+		bookmarks.remove(index);
+		positions.remove(bookmark);
+		if (index < bookmarks.size() - index) {
+			// every bookmark after it moves forward by one, then the ones before it are moved back
+			positionOffset++;
+			updatePositions(0, index);
+		} else {
+			updatePositions(index, bookmarks.size());
+		}
+		if (bookmark instanceof RecipeBookmark<?, ?> recipeBookmark) {
+			RecipeType<?> recipeType = recipeBookmark.getRecipeCategory().getRecipeType();
+			Map<ResourceLocation, RecipeBookmark<?, ?>> byUid = recipeBookmarks.get(recipeType);
+			if (byUid != null) {
+				byUid.remove(recipeBookmark.getRecipeUid());
+				if (byUid.isEmpty()) {
+					recipeBookmarks.remove(recipeType);
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Moves a stored bookmark so that it ends up at the given index.
+	 */
+	public void move(IBookmark bookmark, int newIndex) {
+		int index = indexOf(bookmark);
+		if (index < 0 || index == newIndex) {
+			return;
+		}
+		bookmarks.remove(index);
+		bookmarks.add(newIndex, bookmark);
+		updatePositions(Math.min(index, newIndex), Math.max(index, newIndex) + 1);
+	}
+
+	public void clear() {
+		bookmarks.clear();
+		positions.clear();
+		recipeBookmarks.clear();
+		positionOffset = 0;
+	}
+
+	private void updatePositions(int fromIndex, int toIndex) {
+		for (int i = fromIndex; i < toIndex; i++) {
+			positions.put(bookmarks.get(i), i + positionOffset);
+		}
+	}
+
+	public boolean contains(IBookmark bookmark) {
+		return positions.containsKey(bookmark);
+	}
+
+	/**
+	 * @return the position of the bookmark, or -1 if it is not stored
+	 */
+	public int indexOf(IBookmark bookmark) {
+		Integer position = positions.get(bookmark);
+		if (position == null) {
+			return -1;
+		}
+		return position - positionOffset;
+	}
+
+	@Nullable
+	public <R> RecipeBookmark<R, ?> getMatchingBookmark(RecipeType<R> recipeType, R recipe) {
+		Map<ResourceLocation, RecipeBookmark<?, ?>> byUid = recipeBookmarks.get(recipeType);
+		if (byUid == null) {
+			return null;
+		}
+		// every bookmark for this recipe type has the recipe category that can name the recipe
+		@SuppressWarnings("unchecked")
+		RecipeBookmark<R, ?> anyBookmark = (RecipeBookmark<R, ?>) byUid.values().iterator().next();
+		if (!recipeType.getRecipeClass().isInstance(recipe)) {
+			return null;
+		}
+		ResourceLocation recipeUid = anyBookmark.getRecipeCategory().getRegistryName(recipe);
+		if (recipeUid == null) {
+			return null;
+		}
+		@SuppressWarnings("unchecked")
+		RecipeBookmark<R, ?> match = (RecipeBookmark<R, ?>) byUid.get(recipeUid);
+		return match;
+	}
+
+	/**
+	 * @return the bookmarks in order, this view changes when the store changes
+	 */
+	@UnmodifiableView
+	public List<IBookmark> getBookmarks() {
+		return bookmarksView;
+	}
+
+	public int size() {
+		return bookmarks.size();
+	}
+
+	public boolean isEmpty() {
+		return bookmarks.isEmpty();
+	}
+}
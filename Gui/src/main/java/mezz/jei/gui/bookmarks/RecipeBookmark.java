@@ -16,7 +16,7 @@ import org.jetbrains.annotations.Nullable;
 import java.util.Objects;
 
 public class RecipeBookmark<R, I> implements IBookmark {
-	private final IElement<I> element;
+	private @Nullable IElement<I> element;
 	private final IRecipeCategory<R> recipeCategory;
 	private final R recipe;
 	private final ResourceLocation recipeUid;
@@ -82,7 +82,6 @@ public class RecipeBookmark<R, I> implements IBookmark {
 		this.recipe = recipe;
 		this.recipeUid = recipeUid;
 		this.displayIngredient = displayIngredient;
-		this.element = new RecipeBookmarkElement<>(this);
 		this.displayIsOutput = displayIsOutput;
 	}
 
@@ -107,8 +106,16 @@ public class RecipeBookmark<R, I> implements IBookmark {
 		return displayIsOutput;
 	}
 
+	public ResourceLocation getRecipeUid() {
+		return recipeUid;
+	}
+
 	@Override
 	public IElement<?> getElement() {
+		// created when first needed, so that loading a large number of bookmarks stays cheap
+		if (element == null) {
+			element = new RecipeBookmarkElement<>(this);
+		}
 		return element;
 	}
 
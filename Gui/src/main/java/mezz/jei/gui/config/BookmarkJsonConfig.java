@@ -10,6 +10,7 @@ import mezz.jei.api.recipe.IFocusFactory;
 import mezz.jei.api.recipe.IRecipeManager;
 import mezz.jei.api.runtime.IIngredientManager;
 import mezz.jei.common.codecs.EnumCodec;
+import mezz.jei.common.config.file.ConfigFileFormat;
 import mezz.jei.common.config.file.JsonArrayFileHelper;
 import mezz.jei.common.util.ServerConfigPathUtil;
 import mezz.jei.core.util.PathUtil;
@@ -24,7 +25,6 @@ import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
 
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -35,6 +35,7 @@ import java.util.Optional;
 public class BookmarkJsonConfig implements IBookmarkConfig {
 	private static final Logger LOGGER = LogManager.getLogger();
 	private static final int VERSION = 2;
+	private static final String FILE_NAME = "bookmarks";
 
 	private static final Codec<BookmarkType> TYPE_CODEC = EnumCodec.create(BookmarkType.class);
 	private static @Nullable MapCodec<IBookmark> BOOKMARK_CODEC;
@@ -42,6 +43,8 @@ public class BookmarkJsonConfig implements IBookmarkConfig {
 	@SuppressWarnings("deprecation")
 	private final LegacyBookmarkConfig legacyBookmarkConfig;
 	private final Path jeiConfigurationDir;
+	private final ConfigFileFormat fileFormat;
+	private @Nullable Path lastPath;
 
 	private static MapCodec<IBookmark> getBookmarkCodec(ICodecHelper codecHelper, IIngredientManager ingredientManager, IRecipeManager recipeManager) {
 		if (BOOKMARK_CODEC == null) {
@@ -54,7 +57,7 @@ public class BookmarkJsonConfig implements IBookmarkConfig {
 		return BOOKMARK_CODEC;
 	}
 
-	private static Optional<Path> getPath(Path jeiConfigurationDir) {
+	private static Optional<Path> getPath(Path jeiConfigurationDir, ConfigFileFormat fileFormat) {
 		return ServerConfigPathUtil.getWorldPath(jeiConfigurationDir)
 			.flatMap(configPath -> {
 				try {
@@ -63,13 +66,43 @@ public class BookmarkJsonConfig implements IBookmarkConfig {
 					LOGGER.error("Unable to create bookmark config folder: {}", configPath);
 					return Optional.empty();
 				}
-				Path path = configPath.resolve("bookmarks.json");
+				Path path = configPath.resolve(fileFormat.getFileName(FILE_NAME));
 				return Optional.of(path);
 			});
 	}
 
-	public BookmarkJsonConfig(Path jeiConfigurationDir) {
+	/**
+	 * @return the bookmarks file of the current world, remembering it for {@link #getSavePath()}.
+	 */
+	private Optional<Path> getCurrentPath() {
+		Optional<Path> path = getPath(jeiConfigurationDir, fileFormat);
+		path.ifPresent(p -> lastPath = p);
+		return path;
+	}
+
+	/**
+	 * Saves that are flushed while JEI is stopping can happen after the world is gone,
+	 * so this falls back to the path of the world that the bookmarks were last loaded or saved for.
+	 * Only saves may use the fallback, loading always uses the current world.
+	 */
+	private Optional<Path> getSavePath() {
+		return getCurrentPath()
+			.or(() -> Optional.ofNullable(lastPath));
+	}
+
+	/**
+	 * @return the bookmarks file in the other format, if there is no file in the current format yet.
+	 */
+	private Optional<Path> getMigrationPath() {
+		return getCurrentPath()
+			.filter(path -> !Files.exists(path))
+			.flatMap(path -> getPath(jeiConfigurationDir, fileFormat.getOther()))
+			.filter(Files::exists);
+	}
+
+	public BookmarkJsonConfig(Path jeiConfigurationDir, ConfigFileFormat fileFormat) {
 		this.jeiConfigurationDir = jeiConfigurationDir;
+		this.fileFormat = fileFormat;
 		//noinspection deprecation
 		this.legacyBookmarkConfig = new LegacyBookmarkConfig(jeiConfigurationDir);
 	}
@@ -88,33 +121,75 @@ public class BookmarkJsonConfig implements IBookmarkConfig {
 		ICodecHelper codecHelper,
 		List<IBookmark> bookmarks
 	) {
-		return getPath(jeiConfigurationDir)
+		return getPath(jeiConfigurationDir, fileFormat)
 			.map(path -> {
 				Codec<IBookmark> bookmarkCodec = getBookmarkCodec(codecHelper, ingredientManager, recipeManager).codec();
 				RegistryOps<JsonElement> registryOps = getRegistryOps(registryAccess);
+				return writeBookmarks(path, fileFormat, bookmarks, bookmarkCodec, registryOps);
+			})
+			.orElse(false);
+	}
 
-				try (BufferedWriter out = Files.newBufferedWriter(path)) {
-					JsonArrayFileHelper.write(
-						out,
-						VERSION,
-						bookmarks,
-						bookmarkCodec,
-						registryOps,
-						error -> {
-							LOGGER.error("Encountered an error when saving the bookmarks config to file {}\n{}", path, error);
-						},
-						(element, exception) -> {
-							LOGGER.error("Encountered an exception when saving the bookmarks config to file {}\n{}", path, element, exception);
-						}
-					);
-					LOGGER.debug("Saved bookmarks config to file: {}", path);
-					return true;
+	@Override
+	public Optional<Runnable> prepareSave(
+		IRecipeManager recipeManager,
+		IFocusFactory focusFactory,
+		IGuiHelper guiHelper,
+		IIngredientManager ingredientManager,
+		RegistryAccess registryAccess,
+		ICodecHelper codecHelper,
+		List<IBookmark> bookmarks
+	) {
+		// the world path and codec depend on the game state, so they are looked up now on the main thread.
+		// the saved parts of the bookmarks never change, so only the list needs to be copied.
+		return getSavePath()
+			.map(path -> {
+				Codec<IBookmark> bookmarkCodec = getBookmarkCodec(codecHelper, ingredientManager, recipeManager).codec();
+				RegistryOps<JsonElement> registryOps = getRegistryOps(registryAccess);
+				List<IBookmark> bookmarksCopy = List.copyOf(bookmarks);
+				return () -> writeBookmarks(path, fileFormat, bookmarksCopy, bookmarkCodec, registryOps);
+			});
+	}
+
+	private static boolean writeBookmarks(
+		Path path,
+		ConfigFileFormat fileFormat,
+		List<IBookmark> bookmarks,
+		Codec<IBookmark> bookmarkCodec,
+		RegistryOps<JsonElement> registryOps
+	) {
+		// write to a temp file first, so that the bookmarks file is never left half-written
+		Path tempFile = null;
+		try {
+			tempFile = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+			fileFormat.write(
+				tempFile,
+				VERSION,
+				bookmarks,
+				bookmarkCodec,
+				registryOps,
+				error -> {
+					LOGGER.error("Encountered an error when saving the bookmarks config to file {}\n{}", path, error);
+				},
+				(element, exception) -> {
+					LOGGER.error("Encountered an exception when saving the bookmarks config to file {}\n{}", path, element, exception);
+				}
+			);
+			PathUtil.moveAtomicReplace(tempFile, path);
+			LOGGER.debug("Saved bookmarks config to file: {}", path);
+			return true;
+		} catch (IOException e) {
+			LOGGER.error("Failed to save bookmarks config to file {}", path, e);
+			return false;
+		} finally {
+			if (tempFile != null) {
+				try {
+					Files.deleteIfExists(tempFile);
 				} catch (IOException e) {
-					LOGGER.error("Failed to save bookmarks config to file {}", path, e);
-					return false;
+					LOGGER.error("Failed to delete temporary bookmarks file {}", tempFile, e);
 				}
-			})
-			.orElse(false);
+			}
+		}
 	}
 
 	@Override
@@ -128,7 +203,14 @@ public class BookmarkJsonConfig implements IBookmarkConfig {
 		ICodecHelper codecHelper
 	) {
 		RegistryOps<JsonElement> registryOps = getRegistryOps(registryAccess);
-		List<IBookmark> bookmarks = loadJsonBookmarks(ingredientManager, recipeManager, registryOps, codecHelper);
+		Optional<Path> migrationPath = getMigrationPath();
+		List<IBookmark> bookmarks = migrationPath
+			.map(path -> loadBookmarksFile(path, fileFormat.getOther(), ingredientManager, recipeManager, registryOps, codecHelper))
+			.orElseGet(() -> {
+				return getCurrentPath()
+					.map(path -> loadBookmarksFile(path, fileFormat, ingredientManager, recipeManager, registryOps, codecHelper))
+					.orElseGet(List::of);
+			});
 
 		List<IBookmark> legacyIniBookmarks = legacyBookmarkConfig.loadBookmarks(recipeManager, focusFactory, ingredientManager, registryAccess);
 		List<IBookmark> legacyCompressedBookmarks = loadLegacyCompressedJsonBookmarks(ingredientManager, recipeManager, registryAccess, codecHelper);
@@ -137,11 +219,12 @@ public class BookmarkJsonConfig implements IBookmarkConfig {
 		legacyBookmarks.addAll(legacyIniBookmarks);
 		legacyBookmarks.addAll(legacyCompressedBookmarks);
 
+		boolean saved = false;
 		if (!legacyBookmarks.isEmpty()) {
 			bookmarks = new ArrayList<>(bookmarks);
 			bookmarks.addAll(legacyBookmarks);
 
-			getPath(jeiConfigurationDir)
+			getPath(jeiConfigurationDir, ConfigFileFormat.JSON)
 				.ifPresent(legacyJsonPath -> {
 					if (Files.exists(legacyJsonPath)) {
 						try {
@@ -154,7 +237,8 @@ public class BookmarkJsonConfig implements IBookmarkConfig {
 					}
 				});
 
-			if (saveBookmarks(recipeManager, focusFactory, guiHelper, ingredientManager, registryAccess, codecHelper, bookmarks)) {
+			saved = saveBookmarks(recipeManager, focusFactory, guiHelper, ingredientManager, registryAccess, codecHelper, bookmarks);
+			if (saved) {
 				//noinspection deprecation
 				LegacyBookmarkConfig.getPath(jeiConfigurationDir)
 					.ifPresent(legacyPath -> {
@@ -171,47 +255,61 @@ public class BookmarkJsonConfig implements IBookmarkConfig {
 			}
 		}
 
+		if (migrationPath.isPresent()) {
+			Path oldPath = migrationPath.get();
+			if (saved || saveBookmarks(recipeManager, focusFactory, guiHelper, ingredientManager, registryAccess, codecHelper, bookmarks)) {
+				if (Files.exists(oldPath)) {
+					try {
+						Path backupPath = oldPath.resolveSibling(oldPath.getFileName() + ".bak");
+						PathUtil.moveAtomicReplace(oldPath, backupPath);
+						LOGGER.info("Converted bookmarks config file '{}' to {}, and backed it up to '{}'", oldPath, fileFormat, backupPath);
+					} catch (IOException e) {
+						LOGGER.error("Failed to back up converted bookmarks config file '{}'", oldPath, e);
+					}
+				}
+			}
+		}
+
 		bookmarkList.setFromConfigFile(bookmarks);
 	}
 
 	@Unmodifiable
-	private List<IBookmark> loadJsonBookmarks(
+	private List<IBookmark> loadBookmarksFile(
+		Path path,
+		ConfigFileFormat fileFormat,
 		IIngredientManager ingredientManager,
 		IRecipeManager recipeManager,
 		RegistryOps<JsonElement> registryOps,
 		ICodecHelper codecHelper
 	) {
-		return getPath(jeiConfigurationDir)
-			.<List<IBookmark>>map(path -> {
-				if (!Files.exists(path)) {
-					return List.of();
-				}
+		if (!Files.exists(path)) {
+			return List.of();
+		}
 
-				List<IBookmark> bookmarks;
-				Codec<IBookmark> bookmarkCodec = getBookmarkCodec(codecHelper, ingredientManager, recipeManager).codec();
+		List<IBookmark> bookmarks;
+		Codec<IBookmark> bookmarkCodec = getBookmarkCodec(codecHelper, ingredientManager, recipeManager).codec();
 
-				try (BufferedReader reader = Files.newBufferedReader(path)) {
-					bookmarks = JsonArrayFileHelper.read(
-						reader,
-						VERSION,
-						bookmarkCodec,
-						registryOps,
-						(element, error) -> {
-							LOGGER.error("Encountered an error when loading the bookmark config from file {}\n{}\n{}", path, element, error);
-						},
-						(element, exception) -> {
-							LOGGER.error("Encountered an exception when loading the bookmark config from file {}\n{}", path, element, exception);
-						}
-					);
-					LOGGER.debug("Loaded bookmarks config from file: {}", path);
-				} catch (RuntimeException | IOException e) {
-					LOGGER.error("Failed to load bookmarks from file {}", path, e);
-					bookmarks = new ArrayList<>();
+		long start = System.nanoTime();
+		try {
+			bookmarks = fileFormat.read(
+				path,
+				VERSION,
+				bookmarkCodec,
+				registryOps,
+				(element, error) -> {
+					LOGGER.error("Encountered an error when loading the bookmark config from file {}\n{}\n{}", path, element, error);
+				},
+				(element, exception) -> {
+					LOGGER.error("Encountered an exception when loading the bookmark config from file {}\n{}", path, element, exception);
 				}
+			);
+			LOGGER.debug("Loaded bookmarks config from file {} in {} ms", path, (System.nanoTime() - start) / 1_000_000);
+		} catch (RuntimeException | IOException e) {
+			LOGGER.error("Failed to load bookmarks from file {}", path, e);
+			bookmarks = new ArrayList<>();
+		}
 
-				return bookmarks;
-			})
-			.orElseGet(List::of);
+		return bookmarks;
 	}
 
 	@Unmodifiable
@@ -221,7 +319,7 @@ public class BookmarkJsonConfig implements IBookmarkConfig {
 		RegistryAccess registryAccess,
 		ICodecHelper codecHelper
 	) {
-		return getPath(jeiConfigurationDir)
+		return getPath(jeiConfigurationDir, ConfigFileFormat.JSON)
 			.<List<IBookmark>>map(path -> {
 				if (!Files.exists(path)) {
 					return List.of();
@@ -10,9 +10,16 @@ import mezz.jei.gui.bookmarks.IBookmark;
 import net.minecraft.core.RegistryAccess;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface IBookmarkConfig {
 	boolean saveBookmarks(IRecipeManager recipeManager, IFocusFactory focusFactory, IGuiHelper guiHelper, IIngredientManager ingredientManager, RegistryAccess registryAccess, ICodecHelper codecHelper, List<IBookmark> bookmarks);
 
+	/**
+	 * Prepares a save of the given bookmarks on the main thread.
+	 * The returned save can be run later on any thread, it is empty if there is nowhere to save them.
+	 */
+	Optional<Runnable> prepareSave(IRecipeManager recipeManager, IFocusFactory focusFactory, IGuiHelper guiHelper, IIngredientManager ingredientManager, RegistryAccess registryAccess, ICodecHelper codecHelper, List<IBookmark> bookmarks);
+
 	void loadBookmarks(IRecipeManager recipeManager, IFocusFactory focusFactory, IGuiHelper guiHelper, IIngredientManager ingredientManager, RegistryAccess registryAccess, BookmarkList bookmarkList, ICodecHelper codecHelper);
 }
@@ -2,13 +2,17 @@ package mezz.jei.gui.events;
 
 import com.mojang.blaze3d.systems.RenderSystem;
 import mezz.jei.api.gui.handlers.IGuiClickableArea;
+import mezz.jei.api.gui.handlers.IGuiProperties;
 import mezz.jei.api.runtime.IScreenHelper;
 import mezz.jei.common.config.DebugConfig;
+import mezz.jei.common.gui.GuiExclusionAreaTracker;
 import mezz.jei.common.gui.JeiTooltip;
 import mezz.jei.common.platform.IPlatformScreenHelper;
 import mezz.jei.common.platform.Services;
+import mezz.jei.common.util.FrameTimings;
 import mezz.jei.common.util.ImmutableRect2i;
 import mezz.jei.common.util.RectDebugger;
+import mezz.jei.gui.overlay.IngredientGridTooltipCache;
 import mezz.jei.gui.overlay.IngredientListOverlay;
 import mezz.jei.gui.overlay.bookmarks.BookmarkOverlay;
 import net.minecraft.client.DeltaTracker;
@@ -27,6 +31,7 @@ public class GuiEventHandler {
 	private final IngredientListOverlay ingredientListOverlay;
 	private final IScreenHelper screenHelper;
 	private final BookmarkOverlay bookmarkOverlay;
+	private final GuiExclusionAreaTracker exclusionAreaTracker;
 
 	public GuiEventHandler(
 		IScreenHelper screenHelper,
@@ -36,12 +41,13 @@ public class GuiEventHandler {
 		this.screenHelper = screenHelper;
 		this.bookmarkOverlay = bookmarkOverlay;
 		this.ingredientListOverlay = ingredientListOverlay;
+		this.exclusionAreaTracker = new GuiExclusionAreaTracker(screenHelper);
 	}
 
 	public void onGuiInit(Screen screen) {
-		Set<ImmutableRect2i> guiExclusionAreas = screenHelper.getGuiExclusionAreas(screen)
-			.map(ImmutableRect2i::new)
-			.collect(Collectors.toUnmodifiableSet());
+		long exclusionAreasStart = FrameTimings.start();
+		Set<ImmutableRect2i> guiExclusionAreas = exclusionAreaTracker.pollExclusionAreas(screen);
+		FrameTimings.end(FrameTimings.Stage.EXCLUSION_AREAS, exclusionAreasStart);
 		ingredientListOverlay.getScreenPropertiesUpdater()
 			.updateScreen(screen)
 			.updateExclusionAreas(guiExclusionAreas)
@@ -79,23 +85,30 @@ public class GuiEventHandler {
 	public void onDrawScreenPost(Screen screen, GuiGraphics guiGraphics, int mouseX, int mouseY) {
 		Minecraft minecraft = Minecraft.getInstance();
 
-		Set<ImmutableRect2i> guiExclusionAreas = screenHelper.getGuiExclusionAreas(screen)
-			.map(ImmutableRect2i::new)
-			.collect(Collectors.toUnmodifiableSet());
+		long exclusionAreasStart = FrameTimings.start();
+		Set<ImmutableRect2i> guiExclusionAreas = exclusionAreaTracker.getExclusionAreas(screen);
+		FrameTimings.end(FrameTimings.Stage.EXCLUSION_AREAS, exclusionAreasStart);
+		IGuiProperties guiProperties = screenHelper.getGuiProperties(screen).orElse(null);
 		ingredientListOverlay.getScreenPropertiesUpdater()
-			.updateScreen(screen)
+			.updateGuiProperties(guiProperties)
 			.updateExclusionAreas(guiExclusionAreas)
 			.update();
 		bookmarkOverlay.getScreenPropertiesUpdater()
-			.updateScreen(screen)
+			.updateGuiProperties(guiProperties)
 			.updateExclusionAreas(guiExclusionAreas)
 			.update();
 
 		DeltaTracker deltaTracker = minecraft.getTimer();
 		float partialTicks = deltaTracker.getGameTimeDeltaPartialTick(false);
+		long ingredientListStart = FrameTimings.start();
 		ingredientListOverlay.drawScreen(minecraft, guiGraphics, mouseX, mouseY, partialTicks);
+		FrameTimings.end(FrameTimings.Stage.INGREDIENT_LIST, ingredientListStart);
+
+		long bookmarksStart = FrameTimings.start();
 		bookmarkOverlay.drawScreen(minecraft, guiGraphics, mouseX, mouseY, partialTicks);
+		FrameTimings.end(FrameTimings.Stage.BOOKMARKS, bookmarksStart);
 
+		long tooltipsStart = FrameTimings.start();
 		if (screen instanceof AbstractContainerScreen<?> guiContainer) {
 			IPlatformScreenHelper screenHelper = Services.PLATFORM.getScreenHelper();
 			int guiLeft = screenHelper.getGuiLeft(guiContainer);
@@ -115,10 +128,12 @@ public class GuiEventHandler {
 
 		ingredientListOverlay.drawTooltips(minecraft, guiGraphics, mouseX, mouseY);
 		bookmarkOverlay.drawTooltips(minecraft, guiGraphics, mouseX, mouseY);
+		FrameTimings.end(FrameTimings.Stage.TOOLTIPS, tooltipsStart);
 
 		if (DebugConfig.isDebugGuisEnabled()) {
 			drawDebugInfoForScreen(screen, guiGraphics);
 		}
+		FrameTimings.onFrameEnd();
 	}
 
 	public boolean renderCompactPotionIndicators() {
@@ -128,6 +143,16 @@ public class GuiEventHandler {
 	private void drawDebugInfoForScreen(Screen screen, GuiGraphics guiGraphics) {
 		RectDebugger.INSTANCE.draw(guiGraphics);
 
+		Minecraft minecraft = Minecraft.getInstance();
+		String tooltipBuilds = "JEI tooltip builds/s: " + IngredientGridTooltipCache.getBuildsPerSecond();
+		guiGraphics.drawString(minecraft.font, tooltipBuilds, 2, 2, 0xFFFFFFFF);
+
+		int y = 4 + minecraft.font.lineHeight;
+		for (String line : FrameTimings.getDebugLines()) {
+			guiGraphics.drawString(minecraft.font, line, 2, y, 0xFFFFFFFF);
+			y += minecraft.font.lineHeight + 1;
+		}
+
 		screenHelper.getGuiProperties(screen)
 			.ifPresent(guiProperties -> {
 				Set<Rect2i> guiExclusionAreas = screenHelper.getGuiExclusionAreas(screen)
@@ -12,6 +12,8 @@ import mezz.jei.common.config.DebugConfig;
 import mezz.jei.common.config.IClientConfig;
 import mezz.jei.common.config.IClientToggleState;
 import mezz.jei.common.config.IIngredientFilterConfig;
+import mezz.jei.common.util.StartupExecutors;
+import mezz.jei.core.search.PrefixInfo;
 import mezz.jei.gui.filter.IFilterTextSource;
 import mezz.jei.gui.overlay.IIngredientGridSource;
 import mezz.jei.gui.overlay.elements.IElement;
@@ -20,6 +22,7 @@ import mezz.jei.gui.search.ElementPrefixParser;
 import mezz.jei.gui.search.ElementSearch;
 import mezz.jei.gui.search.ElementSearchLowMem;
 import mezz.jei.gui.search.IElementSearch;
+import mezz.jei.gui.search.ReloadInput;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.Nullable;
@@ -33,6 +36,7 @@ import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -57,6 +61,12 @@ public class IngredientFilter implements
 
 	private final ElementPrefixParser elementPrefixParser;
 	private IElementSearch elementSearch;
+	/**
+	 * Changes that arrive while the search index is being built in the background.
+	 * They are replayed once the index has been installed. Null when not loading.
+	 */
+	@Nullable
+	private List<Runnable> pendingChanges;
 
 	@Nullable
 	private List<IElement<?>> ingredientListCached;
@@ -80,17 +90,11 @@ public class IngredientFilter implements
 		this.ingredientComparator = ingredientComparator;
 		this.modIdHelper = modIdHelper;
 		this.ingredientVisibility = ingredientVisibility;
-		this.elementPrefixParser = new ElementPrefixParser(ingredientManager, config, colorHelper, modIdHelper);
+		this.elementPrefixParser = new ElementPrefixParser(ingredientManager, config, colorHelper, modIdHelper, clientConfig.isParallelColorSearchEnabled());
 
 		this.elementSearch = createElementSearch(clientConfig, elementPrefixParser);
-
-		LOGGER.info("Adding {} ingredients", ingredients.size());
-		for (IListElementInfo<?> ingredient : ingredients) {
-			addIngredient(ingredient);
-		}
-		LOGGER.info("Added {} ingredients", ingredients.size());
-		if (DebugConfig.isLogSuffixTreeStatsEnabled()) {
-			this.elementSearch.logStatistics();
+		if (!ingredients.isEmpty()) {
+			setElementSearch(buildElementSearch(ingredients));
 		}
 
 		this.filterTextSource.addListener(filterText -> {
@@ -109,6 +113,70 @@ public class IngredientFilter implements
 		}
 	}
 
+	/**
+	 * Build the search index for the given ingredients on the background executor,
+	 * and install it on the main thread once it and the given sorting task have finished.
+	 * Until then, the filter is empty and {@link #isLoading()} returns true.
+	 */
+	public CompletableFuture<Void> loadIngredients(List<IListElementInfo<?>> ingredients, CompletableFuture<?> sortingTask, StartupExecutors executors) {
+		this.pendingChanges = new ArrayList<>();
+		return CompletableFuture.supplyAsync(() -> buildElementSearch(ingredients), executors.background())
+			.thenAcceptBothAsync(sortingTask, (elementSearch, sorted) -> {
+				setElementSearch(elementSearch);
+				finishLoading();
+			}, executors.mainThread())
+			.whenCompleteAsync((v, t) -> {
+				if (t != null) {
+					// don't leave the overlay stuck in the loading state, the error is reported by the caller
+					finishLoading();
+				}
+			}, executors.mainThread());
+	}
+
+	@Override
+	public boolean isLoading() {
+		return pendingChanges != null;
+	}
+
+	private void finishLoading() {
+		List<Runnable> changes = this.pendingChanges;
+		this.pendingChanges = null;
+		if (changes != null) {
+			changes.forEach(Runnable::run);
+		}
+		notifyListenersOfChange();
+	}
+
+	/**
+	 * @return true if the change has been deferred until loading finishes
+	 */
+	private boolean deferWhileLoading(Runnable change) {
+		if (this.pendingChanges != null) {
+			this.pendingChanges.add(change);
+			return true;
+		}
+		return false;
+	}
+
+	private IElementSearch buildElementSearch(List<IListElementInfo<?>> ingredients) {
+		IElementSearch elementSearch = createElementSearch(this.clientConfig, this.elementPrefixParser);
+		LOGGER.info("Adding {} ingredients", ingredients.size());
+		elementSearch.addAll(ingredients);
+		LOGGER.info("Added {} ingredients", ingredients.size());
+		if (DebugConfig.isLogSuffixTreeStatsEnabled()) {
+			elementSearch.logStatistics();
+		}
+		return elementSearch;
+	}
+
+	private void setElementSearch(IElementSearch elementSearch) {
+		this.elementSearch = elementSearch;
+		for (IListElement<?> element : elementSearch.getAllIngredients()) {
+			updateHiddenState(element);
+		}
+		invalidateCache();
+	}
+
 	public <V> void addIngredient(IListElementInfo<V> info) {
 		IListElement<V> element = info.getElement();
 		updateHiddenState(element);
@@ -122,12 +190,19 @@ public class IngredientFilter implements
 		ingredientListCached = null;
 	}
 
-	public void rebuildItemFilter() {
+	/**
+	 * Rebuild the search after client resources have been reloaded.
+	 * Only the search storages that depend on the changed inputs are recomputed.
+	 */
+	public void rebuildItemFilter(Set<ReloadInput> changedInputs) {
+		if (deferWhileLoading(() -> rebuildItemFilter(changedInputs))) {
+			return;
+		}
 		this.invalidateCache();
 		Collection<IListElement<?>> ingredients = this.elementSearch.getAllIngredients();
-		this.elementSearch = createElementSearch(this.clientConfig, this.elementPrefixParser);
 		List<IListElementInfo<?>> elementInfos = IngredientListElementFactory.rebuildList(ingredientManager, ingredients, modIdHelper);
-		this.elementSearch.addAll(elementInfos);
+		Set<PrefixInfo<IListElementInfo<?>, IListElement<?>>> changedPrefixes = this.elementPrefixParser.getPrefixesAffectedBy(changedInputs);
+		this.elementSearch = this.elementSearch.rebuild(elementInfos, changedPrefixes);
 	}
 
 	public <V> Optional<IListElement<V>> searchForMatchingElement(
@@ -176,6 +251,9 @@ public class IngredientFilter implements
 
 	@Override
 	public <V> void onIngredientVisibilityChanged(ITypedIngredient<V> ingredient, boolean visible) {
+		if (deferWhileLoading(() -> onIngredientVisibilityChanged(ingredient, visible))) {
+			return;
+		}
 		IIngredientType<V> ingredientType = ingredient.getType();
 		IIngredientHelper<V> ingredientHelper = ingredientManager.getIngredientHelper(ingredientType);
 		searchForMatchingElement(ingredientHelper, ingredient)
@@ -253,6 +331,9 @@ public class IngredientFilter implements
 
 	@Override
 	public <V> void onIngredientsAdded(IIngredientHelper<V> ingredientHelper, Collection<ITypedIngredient<V>> ingredients) {
+		if (deferWhileLoading(() -> onIngredientsAdded(ingredientHelper, ingredients))) {
+			return;
+		}
 		for (ITypedIngredient<V> value : ingredients) {
 			Optional<IListElement<V>> matchingElementOptional = searchForMatchingElement(ingredientHelper, value);
 			if (matchingElementOptional.isPresent()) {
@@ -276,6 +357,9 @@ public class IngredientFilter implements
 
 	@Override
 	public <V> void onIngredientsRemoved(IIngredientHelper<V> ingredientHelper, Collection<ITypedIngredient<V>> ingredients) {
+		if (deferWhileLoading(() -> onIngredientsRemoved(ingredientHelper, ingredients))) {
+			return;
+		}
 		for (ITypedIngredient<V> typedIngredient : ingredients) {
 			Optional<IListElement<V>> matchingElementOptional = searchForMatchingElement(ingredientHelper, typedIngredient);
 			if (matchingElementOptional.isEmpty()) {
@@ -0,0 +1,248 @@
+package mezz.jei.gui.ingredients;
+
+import mezz.jei.api.ingredients.IIngredientType;
+import mezz.jei.api.ingredients.ITypedIngredient;
+import mezz.jei.api.runtime.IIngredientManager;
+import mezz.jei.common.config.IngredientSortStage;
+import mezz.jei.common.util.RegistryUtil;
+import mezz.jei.gui.config.IngredientTypeSortingConfig;
+import mezz.jei.gui.config.ModNameSortingConfig;
+import net.minecraft.core.HolderSet.ListBacked;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.item.ArmorItem;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Computes the sort keys for each {@link IngredientSortStage} once per ingredient,
+ * instead of recomputing them in a comparator on every comparison.
+ *
+ * Each stage adds one or more int columns, where a smaller value sorts first.
+ * Ingredients are ordered by comparing the columns in order.
+ */
+public class IngredientSortKeys {
+	private final IIngredientManager ingredientManager;
+	private final ModNameSortingConfig modNameSortingConfig;
+	private final IngredientTypeSortingConfig ingredientTypeSortingConfig;
+	private final Set<String> modNames;
+	private final Map<ResourceLocation, Integer> tagCounts = new ConcurrentHashMap<>();
+
+	public IngredientSortKeys(
+		IIngredientManager ingredientManager,
+		ModNameSortingConfig modNameSortingConfig,
+		IngredientTypeSortingConfig ingredientTypeSortingConfig,
+		Set<String> modNames
+	) {
+		this.ingredientManager = ingredientManager;
+		this.modNameSortingConfig = modNameSortingConfig;
+		this.ingredientTypeSortingConfig = ingredientTypeSortingConfig;
+		this.modNames = modNames;
+	}
+
+	/**
+	 * @return the key columns, indexed by column and then by the ingredient's position in the list
+	 */
+	public int[][] createKeys(List<IngredientSortStage> ingredientSorterStages, List<IListElementInfo<?>> ingredients) {
+		if (ingredientSorterStages.isEmpty()) {
+			ingredientSorterStages = IngredientSortStage.defaultStages;
+		}
+		List<int[]> columns = new ArrayList<>();
+		for (IngredientSortStage ingredientSortStage : ingredientSorterStages) {
+			addColumns(ingredientSortStage, ingredients, columns);
+		}
+		return columns.toArray(new int[0][]);
+	}
+
+	private void addColumns(IngredientSortStage ingredientSortStage, List<IListElementInfo<?>> ingredients, List<int[]> columns) {
+		switch (ingredientSortStage) {
+			case ALPHABETICAL -> columns.add(getAlphabeticalKeys(ingredients));
+			case CREATIVE_MENU -> columns.add(getCreativeMenuKeys(ingredients));
+			case INGREDIENT_TYPE -> columns.add(getIngredientTypeKeys(ingredients));
+			case MOD_NAME -> columns.add(getModNameKeys(ingredients));
+			case TAG -> addTagColumns(ingredients, columns);
+			case ARMOR -> addArmorColumns(ingredients, columns);
+			case MAX_DURABILITY -> columns.add(getMaxDurabilityKeys(ingredients));
+		}
+	}
+
+	private static int[] getCreativeMenuKeys(List<IListElementInfo<?>> ingredients) {
+		return createColumn(ingredients, IListElementInfo::getCreatedIndex);
+	}
+
+	private static int[] getAlphabeticalKeys(List<IListElementInfo<?>> ingredients) {
+		return createRankColumn(ingredients, i -> i.getNames().getFirst());
+	}
+
+	private int[] getModNameKeys(List<IListElementInfo<?>> ingredients) {
+		ToIntFunction<IListElementInfo<?>> sortIndex = this.modNameSortingConfig.getSortIndexFromMappedValues(modNames);
+		return createColumn(ingredients, sortIndex);
+	}
+
+	private int[] getIngredientTypeKeys(List<IListElementInfo<?>> ingredients) {
+		Collection<IIngredientType<?>> ingredientTypes = this.ingredientManager.getRegisteredIngredientTypes();
+		Set<String> ingredientTypeStrings = ingredientTypes.stream()
+			.map(IngredientTypeSortingConfig::getIngredientTypeString)
+			.collect(Collectors.toSet());
+		ToIntFunction<IListElementInfo<?>> sortIndex = this.ingredientTypeSortingConfig.getSortIndexFromMappedValues(ingredientTypeStrings);
+		return createColumn(ingredients, sortIndex);
+	}
+
+	private static int[] getMaxDurabilityKeys(List<IListElementInfo<?>> ingredients) {
+		return createColumn(ingredients, o -> reversed(getItemStack(o).getMaxDamage()));
+	}
+
+	private void addTagColumns(List<IListElementInfo<?>> ingredients, List<int[]> columns) {
+		String[] tags = new String[ingredients.size()];
+		IntStream.range(0, tags.length)
+			.parallel()
+			.forEach(i -> tags[i] = getTagForSorting(ingredients.get(i)));
+
+		// tagged ingredients first, then by tag
+		int[] isTagged = new int[tags.length];
+		for (int i = 0; i < tags.length; i++) {
+			isTagged[i] = tags[i].isEmpty() ? 1 : 0;
+		}
+		columns.add(isTagged);
+		columns.add(rank(tags));
+	}
+
+	private static void addArmorColumns(List<IListElementInfo<?>> ingredients, List<int[]> columns) {
+		// armor first, then by slot, defense, toughness and durability, all from highest to lowest
+		columns.add(createColumn(ingredients, o -> isArmor(getItemStack(o)) ? 0 : 1));
+		columns.add(createColumn(ingredients, o -> reversed(getArmorSlotIndex(getItemStack(o)))));
+		columns.add(createColumn(ingredients, o -> reversed(getArmorDamageReduce(getItemStack(o)))));
+		columns.add(createColumn(ingredients, o -> reversed(sortableFloat(getArmorToughness(getItemStack(o))))));
+		columns.add(createColumn(ingredients, o -> reversed(getArmorDurability(getItemStack(o)))));
+	}
+
+	private static int[] createColumn(List<IListElementInfo<?>> ingredients, ToIntFunction<IListElementInfo<?>> keyFunction) {
+		int[] column = new int[ingredients.size()];
+		IntStream.range(0, column.length)
+			.parallel()
+			.forEach(i -> column[i] = keyFunction.applyAsInt(ingredients.get(i)));
+		return column;
+	}
+
+	private static int[] createRankColumn(List<IListElementInfo<?>> ingredients, Function<IListElementInfo<?>, String> keyFunction) {
+		String[] keys = new String[ingredients.size()];
+		IntStream.range(0, keys.length)
+			.parallel()
+			.forEach(i -> keys[i] = keyFunction.apply(ingredients.get(i)));
+		return rank(keys);
+	}
+
+	/**
+	 * Replace each string with its position among the sorted distinct strings,
+	 * so that comparing the ranks gives the same order as comparing the strings.
+	 */
+	private static int[] rank(String[] keys) {
+		String[] sortedKeys = Arrays.stream(keys)
+			.parallel()
+			.distinct()
+			.sorted()
+			.toArray(String[]::new);
+		int[] ranks = new int[keys.length];
+		IntStream.range(0, keys.length)
+			.parallel()
+			.forEach(i -> ranks[i] = Arrays.binarySearch(sortedKeys, keys[i]));
+		return ranks;
+	}
+
+	/**
+	 * Flip the order of a key without overflowing, unlike negation.
+	 */
+	private static int reversed(int key) {
+		return ~key;
+	}
+
+	/**
+	 * Map a float to an int with the same order as {@link Float#compare}.
+	 */
+	private static int sortableFloat(float value) {
+		int bits = Float.floatToIntBits(value);
+		return bits ^ ((bits >> 31) & 0x7FFFFFFF);
+	}
+
+	private static boolean isArmor(ItemStack itemStack) {
+		Item item = itemStack.getItem();
+		return item instanceof ArmorItem;
+	}
+
+	private static int getArmorSlotIndex(ItemStack itemStack) {
+		Item item = itemStack.getItem();
+		if (item instanceof ArmorItem armorItem) {
+			return armorItem.getEquipmentSlot().getFilterFlag();
+		}
+		return 0;
+	}
+
+	private static int getArmorDamageReduce(ItemStack itemStack) {
+		Item item = itemStack.getItem();
+		if (item instanceof ArmorItem armorItem) {
+			return armorItem.getDefense();
+		}
+		return 0;
+	}
+
+	private static float getArmorToughness(ItemStack itemStack) {
+		Item item = itemStack.getItem();
+		if (item instanceof ArmorItem armorItem) {
+			return armorItem.getToughness();
+		}
+		return 0;
+	}
+
+	private static int getArmorDurability(ItemStack itemStack) {
+		if (isArmor(itemStack)) {
+			return itemStack.getMaxDamage();
+		}
+		return 0;
+	}
+
+	private String getTagForSorting(IListElementInfo<?> elementInfo) {
+		// Choose the most popular tag it has.
+		return elementInfo.getTagIds(ingredientManager)
+			.max(Comparator.comparing(this::tagCount))
+			.map(ResourceLocation::getPath)
+			.orElse("");
+	}
+
+	private int tagCount(ResourceLocation tagId) {
+		return tagCounts.computeIfAbsent(tagId, IngredientSortKeys::getTagCount);
+	}
+
+	private static int getTagCount(ResourceLocation tagId) {
+		//TODO: make a tag blacklist.
+		if (tagId.toString().equals("itemfilters:check_nbt")) {
+			return 0;
+		}
+		TagKey<Item> tagKey = TagKey.create(Registries.ITEM, tagId);
+		return RegistryUtil.getRegistry(Registries.ITEM)
+			.getTag(tagKey)
+			.map(ListBacked::size)
+			.orElse(0);
+	}
+
+	public static <V> ItemStack getItemStack(IListElementInfo<V> ingredientInfo) {
+		ITypedIngredient<V> ingredient = ingredientInfo.getTypedIngredient();
+		if (ingredient.getIngredient() instanceof ItemStack itemStack) {
+			return itemStack;
+		}
+		return ItemStack.EMPTY;
+	}
+}
@@ -6,16 +6,20 @@ import mezz.jei.common.config.IngredientSortStage;
 import mezz.jei.gui.config.IngredientTypeSortingConfig;
 import mezz.jei.gui.config.ModNameSortingConfig;
 
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 public final class IngredientSorter {
-	private static final Comparator<IListElement<?>> COMPARE_SORT_INDEX =
+	/**
+	 * Orders elements by the sorted index assigned in {@link #sortIngredients}.
+	 */
+	public static final Comparator<IListElement<?>> COMPARE_SORT_INDEX =
 		Comparator.comparing(IListElement::getSortedIndex);
 
-	public static Comparator<IListElement<?>> sortIngredients(
+	public static void sortIngredients(
 		IClientConfig clientConfig,
 		ModNameSortingConfig modNameSortingConfig,
 		IngredientTypeSortingConfig ingredientTypeSortingConfig,
@@ -26,14 +30,21 @@ public final class IngredientSorter {
 			.map(IListElementInfo::getModNameForSorting)
 			.collect(Collectors.toSet());
 
-		IngredientSorterComparators comparators = new IngredientSorterComparators(ingredientManager, modNameSortingConfig, ingredientTypeSortingConfig, modNames);
+		IngredientSortKeys sortKeys = new IngredientSortKeys(ingredientManager, modNameSortingConfig, ingredientTypeSortingConfig, modNames);
 
 		List<IngredientSortStage> ingredientSorterStages = clientConfig.getIngredientSorterStages();
 
-		Comparator<IListElementInfo<?>> completeComparator = comparators.getComparator(ingredientSorterStages);
+		// Compute each stage's keys once up front, then sort by comparing the keys.
+		// The parallel sort is stable, so ties keep their original order.
+		int[][] keys = sortKeys.createKeys(ingredientSorterStages, ingredients);
+		Integer[] order = new Integer[ingredients.size()];
+		Arrays.setAll(order, i -> i);
+		Arrays.parallelSort(order, (a, b) -> compareKeys(keys, a, b));
 
-		// Get all of the items sorted with our custom comparator.
-		ingredients.sort(completeComparator);
+		List<IListElementInfo<?>> unsorted = List.copyOf(ingredients);
+		for (int i = 0; i < order.length; i++) {
+			ingredients.set(i, unsorted.get(order[i]));
+		}
 
 		// Go through all of the items and set their sorted index.
 		final int size = ingredients.size();
@@ -42,9 +53,15 @@ public final class IngredientSorter {
 			IListElement<?> element = elementInfo.getElement();
 			element.setSortedIndex(i);
 		}
-
-		//Now the comparator just uses that index value to order everything.
-		return COMPARE_SORT_INDEX;
 	}
 
+	private static int compareKeys(int[][] keys, int a, int b) {
+		for (int[] column : keys) {
+			int compare = Integer.compare(column[a], column[b]);
+			if (compare != 0) {
+				return compare;
+			}
+		}
+		return 0;
+	}
 }
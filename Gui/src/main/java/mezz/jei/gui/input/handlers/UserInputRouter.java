@@ -4,6 +4,7 @@ import com.mojang.blaze3d.platform.InputConstants;
 import mezz.jei.common.config.DebugConfig;
 import mezz.jei.common.input.IInternalKeyMappings;
 import mezz.jei.common.input.KeyNameUtil;
+import mezz.jei.common.util.FrameTimings;
 import mezz.jei.gui.input.IUserInputHandler;
 import mezz.jei.gui.input.UserInput;
 import net.minecraft.client.gui.screens.Screen;
@@ -31,11 +32,14 @@ public class UserInputRouter {
 		if (DebugConfig.isDebugInputsEnabled()) {
 			LOGGER.debug("{} received user input: {}", debugName, input);
 		}
-		return switch (input.getInputType()) {
+		long start = FrameTimings.start();
+		boolean handled = switch (input.getInputType()) {
 			case IMMEDIATE -> handleImmediateClick(screen, input, keyBindings);
 			case SIMULATE -> handleSimulateClick(screen, input, keyBindings);
 			case EXECUTE -> handleExecuteClick(screen, input, keyBindings);
 		};
+		FrameTimings.end(FrameTimings.Stage.INPUT, start);
+		return handled;
 	}
 
 	/*
@@ -109,7 +113,8 @@ public class UserInputRouter {
 	}
 
 	public boolean handleMouseScrolled(double mouseX, double mouseY, double scrollDeltaX, double scrollDeltaY) {
-		return this.combinedInputHandler.handleMouseScrolled(mouseX, mouseY, scrollDeltaX, scrollDeltaY)
+		long start = FrameTimings.start();
+		boolean handled = this.combinedInputHandler.handleMouseScrolled(mouseX, mouseY, scrollDeltaX, scrollDeltaY)
 			.map(callback -> {
 				if (DebugConfig.isDebugInputsEnabled()) {
 					LOGGER.debug("{} scroll handled by: {}", debugName, callback);
@@ -117,6 +122,8 @@ public class UserInputRouter {
 				return true;
 			})
 			.orElse(false);
+		FrameTimings.end(FrameTimings.Stage.INPUT, start);
+		return handled;
 	}
 
 	@Override
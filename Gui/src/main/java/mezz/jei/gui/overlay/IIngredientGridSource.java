@@ -11,6 +11,13 @@ public interface IIngredientGridSource {
 
 	void addSourceListChangedListener(SourceListChangedListener listener);
 
+	/**
+	 * @return true while the elements are still being prepared in the background.
+	 */
+	default boolean isLoading() {
+		return false;
+	}
+
 	interface SourceListChangedListener {
 		void onSourceListChanged();
 	}
@@ -59,6 +59,8 @@ public class IngredientGrid implements IRecipeFocusSource, IIngredientGrid {
 	private final IngredientListRenderer ingredientListRenderer;
 	private final DeleteItemInputHandler deleteItemHandler;
 	private final IngredientGridTooltipHelper tooltipHelper;
+	private final IngredientGridTooltipCache tooltipCache = new IngredientGridTooltipCache();
+	private final IClientToggleState toggleState;
 	private Set<ImmutableRect2i> guiExclusionAreas = Set.of();
 	private ImmutableRect2i area = ImmutableRect2i.EMPTY;
 
@@ -76,6 +78,7 @@ public class IngredientGrid implements IRecipeFocusSource, IIngredientGrid {
 		this.ingredientManager = ingredientManager;
 		this.gridConfig = gridConfig;
 		this.searchable = searchable;
+		this.toggleState = toggleState;
 		this.ingredientListRenderer = new IngredientListRenderer(ingredientManager, searchable);
 		this.tooltipHelper = new IngredientGridTooltipHelper(ingredientManager, ingredientFilterConfig, toggleState, keyBindings, colorHelper);
 		this.deleteItemHandler = new DeleteItemInputHandler(this, toggleState, clientConfig, serverConnection, ingredientManager);
@@ -95,11 +98,12 @@ public class IngredientGrid implements IRecipeFocusSource, IIngredientGrid {
 		this.area = calculateBounds(this.gridConfig, availableArea);
 		this.guiExclusionAreas = guiExclusionAreas;
 
+		List<ImmutableRect2i> nearbyExclusionAreas = getSlotExclusionAreas(this.area, guiExclusionAreas);
 		for (int y = this.area.getY(); y < this.area.getY() + this.area.getHeight(); y += INGREDIENT_HEIGHT) {
 			for (int x = this.area.getX(); x < this.area.getX() + this.area.getWidth(); x += INGREDIENT_WIDTH) {
 				IngredientListSlot ingredientListSlot = new IngredientListSlot(x, y, INGREDIENT_WIDTH, INGREDIENT_HEIGHT, INGREDIENT_PADDING);
 				ImmutableRect2i stackArea = ingredientListSlot.getArea();
-				final boolean blocked = MathUtil.intersects(guiExclusionAreas, stackArea.expandBy(2)) ||
+				final boolean blocked = MathUtil.intersects(nearbyExclusionAreas, stackArea.expandBy(2)) ||
 					(mouseExclusionPoint != null && stackArea.contains(mouseExclusionPoint));
 				ingredientListSlot.setBlocked(blocked);
 				this.ingredientListRenderer.add(ingredientListSlot);
@@ -132,6 +136,7 @@ public class IngredientGrid implements IRecipeFocusSource, IIngredientGrid {
 
 	public static SlotInfo calculateBlockedSlotPercentage(IIngredientGridConfig config, ImmutableRect2i availableArea, Set<ImmutableRect2i> exclusionAreas) {
 		ImmutableRect2i area = calculateBounds(config, availableArea);
+		List<ImmutableRect2i> nearbyExclusionAreas = getSlotExclusionAreas(area, exclusionAreas);
 
 		int total = 0;
 		int blocked = 0;
@@ -139,7 +144,7 @@ public class IngredientGrid implements IRecipeFocusSource, IIngredientGrid {
 			for (int x = area.getX(); x < area.getX() + area.getWidth(); x += INGREDIENT_WIDTH) {
 				IngredientListSlot ingredientListSlot = new IngredientListSlot(x, y, INGREDIENT_WIDTH, INGREDIENT_HEIGHT, INGREDIENT_PADDING);
 				ImmutableRect2i stackArea = ingredientListSlot.getArea();
-				if (MathUtil.intersects(exclusionAreas, stackArea.expandBy(2))) {
+				if (MathUtil.intersects(nearbyExclusionAreas, stackArea.expandBy(2))) {
 					blocked++;
 				}
 				total++;
@@ -148,6 +153,17 @@ public class IngredientGrid implements IRecipeFocusSource, IIngredientGrid {
 		return new SlotInfo(total, blocked);
 	}
 
+	/**
+	 * Slots are blocked by exclusion areas within 2 pixels of them,
+	 * so only the exclusion areas within 2 pixels of the grid need to be checked for each slot.
+	 */
+	private static List<ImmutableRect2i> getSlotExclusionAreas(ImmutableRect2i gridArea, Set<ImmutableRect2i> exclusionAreas) {
+		ImmutableRect2i expandedGridArea = gridArea.expandBy(2);
+		return exclusionAreas.stream()
+			.filter(expandedGridArea::intersects)
+			.toList();
+	}
+
 	public ImmutableRect2i getArea() {
 		return area;
 	}
@@ -190,16 +206,18 @@ public class IngredientGrid implements IRecipeFocusSource, IIngredientGrid {
 			if (this.deleteItemHandler.shouldDeleteItemOnClick(minecraft, mouseX, mouseY)) {
 				this.deleteItemHandler.drawTooltips(guiGraphics, mouseX, mouseY);
 			} else {
-				ingredientListRenderer.getSlots()
+				Optional<IElement<?>> hoveredElement = ingredientListRenderer.getSlots()
 					.filter(s -> s.isMouseOver(mouseX, mouseY))
 					.map(IngredientListSlot::getOptionalElement)
 					.flatMap(Optional::stream)
-					.findFirst()
-					.ifPresent(element -> {
-						drawTooltip(guiGraphics, mouseX, mouseY, element);
-					});
+					.findFirst();
+				if (hoveredElement.isPresent()) {
+					drawTooltip(guiGraphics, mouseX, mouseY, hoveredElement.get());
+					return;
+				}
 			}
 		}
+		tooltipCache.clear();
 	}
 
 	private <T> void drawTooltip(GuiGraphics guiGraphics, int mouseX, int mouseY, IElement<T> element) {
@@ -208,11 +226,12 @@ public class IngredientGrid implements IRecipeFocusSource, IIngredientGrid {
 		IIngredientRenderer<T> ingredientRenderer = ingredientManager.getIngredientRenderer(ingredientType);
 		IIngredientHelper<T> ingredientHelper = ingredientManager.getIngredientHelper(ingredientType);
 
-		JeiTooltip tooltip = new JeiTooltip();
-		element.getTooltip(tooltip, tooltipHelper, ingredientRenderer, ingredientHelper);
-		if (searchable) {
-			addCreativeTabs(tooltip, typedIngredient);
-		}
+		JeiTooltip tooltip = tooltipCache.getTooltip(element, toggleState.isEditModeEnabled(), t -> {
+			element.getTooltip(t, tooltipHelper, ingredientRenderer, ingredientHelper);
+			if (searchable) {
+				addCreativeTabs(t, typedIngredient);
+			}
+		});
 		tooltip.draw(guiGraphics, mouseX, mouseY, typedIngredient, ingredientRenderer, ingredientManager);
 	}
 
@@ -278,6 +297,10 @@ public class IngredientGrid implements IRecipeFocusSource, IIngredientGrid {
 		this.ingredientListRenderer.set(firstItemIndex, ingredientList);
 	}
 
+	public void prepare(int firstItemIndex, List<IElement<?>> ingredientList) {
+		this.ingredientListRenderer.prepare(firstItemIndex, ingredientList);
+	}
+
 	public boolean hasRoom() {
 		return !this.area.isEmpty();
 	}
@@ -0,0 +1,83 @@
+package mezz.jei.gui.overlay;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * The index of the first element of each page in an ingredient grid.
+ *
+ * Invisible elements take up no slots, so the pages can't be found by multiplying the page size.
+ * They are calculated once for each element list and page size, instead of on every page turn.
+ */
+public class IngredientGridPages {
+	public static final IngredientGridPages EMPTY = new IngredientGridPages(List.of(), 0, new int[]{0});
+
+	private final List<?> elements;
+	private final int pageSize;
+	private final int[] pageStarts;
+
+	public static <T> IngredientGridPages create(List<T> elements, Predicate<T> isVisible, int pageSize) {
+		int[] pageStarts = calculatePageStarts(elements, isVisible, pageSize);
+		return new IngredientGridPages(elements, pageSize, pageStarts);
+	}
+
+	private IngredientGridPages(List<?> elements, int pageSize, int[] pageStarts) {
+		this.elements = elements;
+		this.pageSize = pageSize;
+		this.pageStarts = pageStarts;
+	}
+
+	private static <T> int[] calculatePageStarts(List<T> elements, Predicate<T> isVisible, int pageSize) {
+		if (pageSize <= 0 || elements.isEmpty()) {
+			return new int[]{0};
+		}
+		int[] pageStarts = new int[Math.max(1, (elements.size() + pageSize - 1) / pageSize)];
+		int pageCount = 0;
+		int visibleCount = 0;
+		int index = 0;
+		for (T element : elements) {
+			if (isVisible.test(element)) {
+				if (visibleCount % pageSize == 0) {
+					pageStarts[pageCount++] = index;
+				}
+				visibleCount++;
+			}
+			index++;
+		}
+		if (pageCount == 0) {
+			return new int[]{0};
+		}
+		return Arrays.copyOf(pageStarts, pageCount);
+	}
+
+	/**
+	 * @return true if these pages were calculated for the given elements and page size.
+	 */
+	public boolean isValidFor(List<?> elements, int pageSize) {
+		return this.elements == elements && this.pageSize == pageSize;
+	}
+
+	public int getPageCount() {
+		return pageStarts.length;
+	}
+
+	/**
+	 * @return the index of the first element on the given page, wrapping around at the ends.
+	 */
+	public int getPageStart(int pageNumber) {
+		return pageStarts[Math.floorMod(pageNumber, pageStarts.length)];
+	}
+
+	/**
+	 * @return the page that contains the element at the given index.
+	 */
+	public int getPageNumber(int elementIndex) {
+		int search = Arrays.binarySearch(pageStarts, elementIndex);
+		if (search >= 0) {
+			return search;
+		}
+		int insertionPoint = -search - 1;
+		return Math.max(0, insertionPoint - 1);
+	}
+}
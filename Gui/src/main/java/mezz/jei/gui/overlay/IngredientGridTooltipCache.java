@@ -0,0 +1,87 @@
+package mezz.jei.gui.overlay;
+
+import mezz.jei.common.gui.JeiTooltip;
+import mezz.jei.common.util.RateCounter;
+import mezz.jei.gui.overlay.elements.IElement;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.screens.Screen;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Consumer;
+
+/**
+ * Remembers the tooltip of the hovered element in an {@link IngredientGrid},
+ * so that it is only built once while the mouse rests on the element instead of every frame.
+ *
+ * The tooltip is rebuilt when a different element is hovered, when a modifier key,
+ * the advanced tooltips setting or edit mode changes, and after resources are reloaded.
+ */
+public final class IngredientGridTooltipCache {
+	private static final RateCounter buildCounter = new RateCounter();
+	private static int generation;
+
+	private @Nullable Key key;
+	private @Nullable JeiTooltip tooltip;
+
+	/**
+	 * Invalidates the cached tooltips of all grids.
+	 * Tooltips contain translated text and colors that depend on the loaded resources.
+	 */
+	public static void invalidateAll() {
+		generation++;
+	}
+
+	/**
+	 * @return how many tooltips were built during the last second, for debug info.
+	 */
+	public static int getBuildsPerSecond() {
+		return buildCounter.getRate();
+	}
+
+	/**
+	 * @return a copy of the cached tooltip, since drawing a tooltip adds lines to it.
+	 */
+	public JeiTooltip getTooltip(IElement<?> element, boolean editMode, Consumer<JeiTooltip> tooltipBuilder) {
+		if (!element.isTooltipCacheable()) {
+			clear();
+			return buildTooltip(tooltipBuilder);
+		}
+
+		Key key = new Key(element, getModifiers(), Minecraft.getInstance().options.advancedItemTooltips, editMode, generation);
+		if (this.tooltip == null || !key.equals(this.key)) {
+			this.key = key;
+			this.tooltip = buildTooltip(tooltipBuilder);
+		}
+		JeiTooltip copy = new JeiTooltip();
+		copy.addAll(this.tooltip);
+		return copy;
+	}
+
+	public void clear() {
+		this.key = null;
+		this.tooltip = null;
+	}
+
+	private static JeiTooltip buildTooltip(Consumer<JeiTooltip> tooltipBuilder) {
+		buildCounter.increment();
+		JeiTooltip tooltip = new JeiTooltip();
+		tooltipBuilder.accept(tooltip);
+		return tooltip;
+	}
+
+	private static int getModifiers() {
+		int modifiers = 0;
+		if (Screen.hasShiftDown()) {
+			modifiers |= 1;
+		}
+		if (Screen.hasControlDown()) {
+			modifiers |= 2;
+		}
+		if (Screen.hasAltDown()) {
+			modifiers |= 4;
+		}
+		return modifiers;
+	}
+
+	private record Key(IElement<?> element, int modifiers, boolean advancedTooltips, boolean editMode, int generation) {}
+}
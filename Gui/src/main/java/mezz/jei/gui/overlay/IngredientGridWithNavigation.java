@@ -52,6 +52,7 @@ public class IngredientGridWithNavigation implements IRecipeFocusSource {
 	private static final int INNER_PADDING = 2;
 
 	private int firstItemIndex = 0;
+	private IngredientGridPages pages = IngredientGridPages.EMPTY;
 	private final IngredientGridPaged pageDelegate;
 	private final PageNavigation navigation;
 	private final IIngredientGridConfig gridConfig;
@@ -98,6 +99,7 @@ public class IngredientGridWithNavigation implements IRecipeFocusSource {
 		this.ghostIngredientDragManager = new GhostIngredientDragManager(this.ingredientGrid, screenHelper, ingredientManager, toggleState);
 
 		this.ingredientSource.addSourceListChangedListener(() -> {
+			this.pages = IngredientGridPages.EMPTY;
 			boolean resetToFirstPage = clientConfig.isAddingBookmarksToFrontEnabled();
 			updateLayout(resetToFirstPage);
 		});
@@ -115,23 +117,39 @@ public class IngredientGridWithNavigation implements IRecipeFocusSource {
 		if (firstItemIndex >= ingredientList.size()) {
 			firstItemIndex = 0;
 		}
+		// keep showing the page that contains the first item, in case the page size has changed
+		IngredientGridPages pages = getPages(ingredientList);
+		firstItemIndex = pages.getPageStart(pages.getPageNumber(firstItemIndex));
 		this.ingredientGrid.set(firstItemIndex, ingredientList);
 		this.navigation.updatePageNumber();
 	}
 
+	private IngredientGridPages getPages(List<IElement<?>> ingredientList) {
+		final int pageSize = this.ingredientGrid.size();
+		if (!this.pages.isValidFor(ingredientList, pageSize)) {
+			this.pages = IngredientGridPages.create(ingredientList, IElement::isVisible, pageSize);
+		}
+		return this.pages;
+	}
+
+	private void prepareNextPage() {
+		List<IElement<?>> ingredientList = ingredientSource.getElements();
+		IngredientGridPages pages = getPages(ingredientList);
+		if (pages.getPageCount() > 1) {
+			int nextPageNumber = pages.getPageNumber(firstItemIndex) + 1;
+			this.ingredientGrid.prepare(pages.getPageStart(nextPageNumber), ingredientList);
+		}
+	}
+
 	private static ImmutableRect2i avoidExclusionAreas(
 		ImmutableRect2i availableArea,
 		ImmutableRect2i estimatedNavigationArea,
 		Set<ImmutableRect2i> guiExclusionAreas,
 		IIngredientGridConfig gridConfig
 	) {
-		final int maxDimension = Math.max(availableArea.getWidth(), availableArea.getHeight());
-		final int samplingScale = Math.max(IngredientGrid.INGREDIENT_HEIGHT / 2, maxDimension / 25);
-
 		ImmutableRect2i largestSafeArea = MaximalRectangle.getLargestRectangles(
 			availableArea,
-			guiExclusionAreas,
-			samplingScale
+			guiExclusionAreas
 		)
 			.max(Comparator.comparingInt((ImmutableRect2i rect) -> IngredientGrid.calculateSize(gridConfig, rect).getArea())
 				.thenComparing(r -> r.getWidth() * r.getHeight()))
@@ -187,6 +205,8 @@ public class IngredientGridWithNavigation implements IRecipeFocusSource {
 
 	public void updateBounds(final ImmutableRect2i availableArea, Set<ImmutableRect2i> guiExclusionAreas, @Nullable ImmutablePoint2i mouseExclusionPoint) {
 		this.guiExclusionAreas = guiExclusionAreas;
+		// elements may have been hidden or shown, like a bookmark that is being dragged
+		this.pages = IngredientGridPages.EMPTY;
 
 		final boolean navigationEnabled =
 			switch (this.gridConfig.getButtonNavigationVisibility()) {
@@ -259,6 +279,8 @@ public class IngredientGridWithNavigation implements IRecipeFocusSource {
 			slotBackground.draw(guiGraphics, this.slotBackgroundArea);
 		}
 
+		// prepared before drawing, so that nothing is prepared on the same frame as a page turn
+		prepareNextPage();
 		this.ingredientGrid.draw(minecraft, guiGraphics, mouseX, mouseY);
 		this.navigation.draw(minecraft, guiGraphics, mouseX, mouseY, partialTicks);
 	}
@@ -320,50 +342,21 @@ public class IngredientGridWithNavigation implements IRecipeFocusSource {
 	private class IngredientGridPaged implements IPaged {
 		@Override
 		public boolean nextPage() {
-			if (getPageCount() <= 1) {
-				return false;
-			}
-			final int itemsCount = ingredientSource.getElements().size();
-			if (itemsCount > 0) {
-				firstItemIndex += ingredientGrid.size();
-				if (firstItemIndex >= itemsCount) {
-					firstItemIndex = 0;
-				}
-				updateLayout(false);
-				return true;
-			} else {
-				firstItemIndex = 0;
-				updateLayout(false);
-				return false;
-			}
+			return turnPage(1);
 		}
 
 		@Override
 		public boolean previousPage() {
-			if (getPageCount() <= 1) {
-				return false;
-			}
+			return turnPage(-1);
+		}
 
-			final int itemsPerPage = ingredientGrid.size();
-			if (itemsPerPage == 0) {
-				firstItemIndex = 0;
-				updateLayout(false);
+		private boolean turnPage(int offset) {
+			IngredientGridPages pages = getPages(ingredientSource.getElements());
+			if (pages.getPageCount() <= 1) {
 				return false;
 			}
-			final int itemsCount = ingredientSource.getElements().size();
-
-			int pageNum = firstItemIndex / itemsPerPage;
-			if (pageNum == 0) {
-				pageNum = itemsCount / itemsPerPage;
-			} else {
-				pageNum--;
-			}
-
-			firstItemIndex = itemsPerPage * pageNum;
-			if (firstItemIndex > 0 && firstItemIndex == itemsCount) {
-				pageNum--;
-				firstItemIndex = itemsPerPage * pageNum;
-			}
+			int pageNumber = pages.getPageNumber(firstItemIndex);
+			firstItemIndex = pages.getPageStart(pageNumber + offset);
 			updateLayout(false);
 			return true;
 		}
@@ -382,23 +375,12 @@ public class IngredientGridWithNavigation implements IRecipeFocusSource {
 
 		@Override
 		public int getPageCount() {
-			final int itemCount = ingredientSource.getElements().size();
-			final int stacksPerPage = ingredientGrid.size();
-			if (stacksPerPage == 0) {
-				return 1;
-			}
-			int pageCount = MathUtil.divideCeil(itemCount, stacksPerPage);
-			pageCount = Math.max(1, pageCount);
-			return pageCount;
+			return getPages(ingredientSource.getElements()).getPageCount();
 		}
 
 		@Override
 		public int getPageNumber() {
-			final int stacksPerPage = ingredientGrid.size();
-			if (stacksPerPage == 0) {
-				return 0;
-			}
-			return firstItemIndex / stacksPerPage;
+			return getPages(ingredientSource.getElements()).getPageNumber(firstItemIndex);
 		}
 	}
 
@@ -9,6 +9,7 @@ import mezz.jei.common.config.IClientConfig;
 import mezz.jei.common.config.IClientToggleState;
 import mezz.jei.common.input.IInternalKeyMappings;
 import mezz.jei.common.util.ImmutableRect2i;
+import mezz.jei.common.util.StringUtil;
 import mezz.jei.gui.GuiProperties;
 import mezz.jei.gui.elements.GuiIconToggleButton;
 import mezz.jei.gui.filter.IFilterTextSource;
@@ -27,6 +28,7 @@ import mezz.jei.gui.input.handlers.ProxyDragHandler;
 import mezz.jei.gui.input.handlers.ProxyInputHandler;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.network.chat.Component;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.Nullable;
@@ -53,6 +55,7 @@ public class IngredientListOverlay implements IIngredientListOverlay, IRecipeFoc
 	private final IInternalKeyMappings keyBindings;
 	private final ScreenPropertiesCache screenPropertiesCache;
 	private final IFilterTextSource filterTextSource;
+	private final IIngredientGridSource ingredientGridSource;
 
 	public IngredientListOverlay(
 		IIngredientGridSource ingredientGridSource,
@@ -64,6 +67,7 @@ public class IngredientListOverlay implements IIngredientListOverlay, IRecipeFoc
 		IInternalKeyMappings keyBindings
 	) {
 		this.screenPropertiesCache = new ScreenPropertiesCache(screenHelper);
+		this.ingredientGridSource = ingredientGridSource;
 		this.contents = contents;
 		this.clientConfig = clientConfig;
 		this.toggleState = toggleState;
@@ -172,6 +176,10 @@ public class IngredientListOverlay implements IIngredientListOverlay, IRecipeFoc
 		if (isListDisplayed()) {
 			this.searchField.renderWidget(guiGraphics, mouseX, mouseY, partialTicks);
 			this.contents.draw(minecraft, guiGraphics, mouseX, mouseY, partialTicks);
+			if (this.ingredientGridSource.isLoading()) {
+				String loadingText = Component.translatable("jei.tooltip.ingredient.list.loading").getString();
+				StringUtil.drawCenteredStringWithShadow(guiGraphics, minecraft.font, loadingText, this.contents.getBackgroundArea());
+			}
 		}
 		if (this.screenPropertiesCache.hasValidScreen()) {
 			this.configButton.draw(guiGraphics, mouseX, mouseY, partialTicks);
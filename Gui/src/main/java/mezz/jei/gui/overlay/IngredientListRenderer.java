@@ -9,6 +9,7 @@ import mezz.jei.api.ingredients.rendering.BatchRenderElement;
 import mezz.jei.api.runtime.IEditModeConfig;
 import mezz.jei.api.runtime.IIngredientManager;
 import mezz.jei.common.Internal;
+import mezz.jei.common.gui.BatchRenderPlan;
 import mezz.jei.common.gui.elements.OffsetDrawable;
 import mezz.jei.common.util.ImmutableRect2i;
 import mezz.jei.common.util.SafeIngredientUtil;
@@ -16,12 +17,14 @@ import mezz.jei.core.collect.ListMultiMap;
 import mezz.jei.gui.overlay.elements.IElement;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.renderer.RenderType;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.stream.Stream;
 
 public class IngredientListRenderer {
@@ -31,10 +34,13 @@ public class IngredientListRenderer {
 	private final List<IngredientListSlot> slots = new ArrayList<>();
 	private final ListMultiMap<IIngredientType<?>, BatchRenderElement<?>> renderElementsByType = new ListMultiMap<>();
 	private final List<IDrawable> renderOverlays = new ArrayList<>();
+	private final List<TypedBatchRenderPlan<?>> batchRenderPlans = new ArrayList<>();
 	private final IIngredientManager ingredientManager;
 	private final boolean searchable;
 
 	private int blocked = 0;
+	private boolean rendered = false;
+	private @Nullable PreparedPage preparedPage;
 
 	public IngredientListRenderer(IIngredientManager ingredientManager, boolean searchable) {
 		this.ingredientManager = ingredientManager;
@@ -44,8 +50,11 @@ public class IngredientListRenderer {
 	public void clear() {
 		slots.clear();
 		renderElementsByType.clear();
+		batchRenderPlans.clear();
 		renderOverlays.clear();
 		blocked = 0;
+		rendered = false;
+		preparedPage = null;
 	}
 
 	public int size() {
@@ -55,16 +64,16 @@ public class IngredientListRenderer {
 	public void add(IngredientListSlot ingredientListSlot) {
 		slots.add(ingredientListSlot);
 		addRenderElement(ingredientListSlot);
+		batchRenderPlans.clear();
+		rendered = false;
+		preparedPage = null;
 	}
 
 	private void addRenderElement(IngredientListSlot ingredientListSlot) {
 		ingredientListSlot.getOptionalElement()
 			.ifPresent(element -> {
-				ITypedIngredient<?> typedIngredient = element.getTypedIngredient();
-				IIngredientType<?> ingredientType = typedIngredient.getType();
 				ImmutableRect2i renderArea = ingredientListSlot.getRenderArea();
-				BatchRenderElement<?> batchRenderElement = new BatchRenderElement<>(typedIngredient.getIngredient(), renderArea.x(), renderArea.y());
-				renderElementsByType.put(ingredientType, batchRenderElement);
+				addBatchRenderElement(renderElementsByType, element, renderArea);
 				IDrawable renderOverlay = element.createRenderOverlay();
 				if (renderOverlay != null) {
 					renderOverlays.add(OffsetDrawable.create(renderOverlay, renderArea.x(), renderArea.y()));
@@ -72,6 +81,13 @@ public class IngredientListRenderer {
 			});
 	}
 
+	private static void addBatchRenderElement(ListMultiMap<IIngredientType<?>, BatchRenderElement<?>> renderElementsByType, IElement<?> element, ImmutableRect2i renderArea) {
+		ITypedIngredient<?> typedIngredient = element.getTypedIngredient();
+		IIngredientType<?> ingredientType = typedIngredient.getType();
+		BatchRenderElement<?> batchRenderElement = new BatchRenderElement<>(typedIngredient.getIngredient(), renderArea.x(), renderArea.y());
+		renderElementsByType.put(ingredientType, batchRenderElement);
+	}
+
 	public Stream<IngredientListSlot> getSlots() {
 		return slots.stream()
 			.filter(s -> !s.isBlocked());
@@ -79,29 +95,73 @@ public class IngredientListRenderer {
 
 	public void set(final int startIndex, List<IElement<?>> ingredientList) {
 		blocked = 0;
+		rendered = false;
 		renderElementsByType.clear();
 		renderOverlays.clear();
+		batchRenderPlans.clear();
+
+		forEachSlotElement(startIndex, ingredientList, (ingredientListSlot, element) -> {
+			if (ingredientListSlot.isBlocked()) {
+				blocked++;
+			}
+			if (element != null) {
+				ingredientListSlot.setElement(element);
+				addRenderElement(ingredientListSlot);
+			} else {
+				ingredientListSlot.clear();
+			}
+		});
+
+		PreparedPage preparedPage = this.preparedPage;
+		this.preparedPage = null;
+		if (preparedPage != null && preparedPage.isFor(startIndex, ingredientList)) {
+			batchRenderPlans.addAll(preparedPage.batchRenderPlans());
+		}
+	}
+
+	/**
+	 * Prepares the batch render plans for the page starting at the given index,
+	 * so that turning to it can reuse the work the ingredient renderers did for them.
+	 * This does nothing until the current page has been rendered, to avoid doing the work of two pages in one frame.
+	 */
+	public void prepare(final int startIndex, List<IElement<?>> ingredientList) {
+		if (!rendered || (preparedPage != null && preparedPage.isFor(startIndex, ingredientList))) {
+			return;
+		}
+
+		ListMultiMap<IIngredientType<?>, BatchRenderElement<?>> preparedElementsByType = new ListMultiMap<>();
+		forEachSlotElement(startIndex, ingredientList, (ingredientListSlot, element) -> {
+			if (element != null) {
+				addBatchRenderElement(preparedElementsByType, element, ingredientListSlot.getRenderArea());
+			}
+		});
 
+		List<TypedBatchRenderPlan<?>> preparedPlans = createBatchRenderPlans(preparedElementsByType);
+		for (TypedBatchRenderPlan<?> plan : preparedPlans) {
+			prepareBatch(plan);
+		}
+		this.preparedPage = new PreparedPage(ingredientList, startIndex, preparedPlans);
+	}
+
+	/**
+	 * Calls the consumer for every slot with the element that goes in it, or null if it stays empty.
+	 * Blocked slots and invisible elements are skipped over.
+	 */
+	private void forEachSlotElement(final int startIndex, List<IElement<?>> ingredientList, BiConsumer<IngredientListSlot, @Nullable IElement<?>> consumer) {
 		ListIterator<IElement<?>> elementIterator = ingredientList.listIterator(startIndex);
 
 		for (IngredientListSlot ingredientListSlot : slots) {
-			if (ingredientListSlot.isBlocked()) {
-				ingredientListSlot.clear();
-				blocked++;
-			} else if (elementIterator.hasNext()) {
+			IElement<?> slotElement = null;
+			if (!ingredientListSlot.isBlocked() && elementIterator.hasNext()) {
 				IElement<?> element = elementIterator.next();
 				while (!element.isVisible() && elementIterator.hasNext()) {
 					element = elementIterator.next();
 				}
 				if (element.isVisible()) {
-					ingredientListSlot.setElement(element);
-					addRenderElement(ingredientListSlot);
-				} else {
-					ingredientListSlot.clear();
+					slotElement = element;
 				}
-			} else {
-				ingredientListSlot.clear();
 			}
+			consumer.accept(ingredientListSlot, slotElement);
 		}
 	}
 
@@ -110,22 +170,48 @@ public class IngredientListRenderer {
 			renderEditMode(guiGraphics);
 		}
 
-		for (Map.Entry<IIngredientType<?>, List<BatchRenderElement<?>>> entry : renderElementsByType.entrySet()) {
-			renderBatch(guiGraphics, entry);
+		if (batchRenderPlans.isEmpty()) {
+			batchRenderPlans.addAll(createBatchRenderPlans(renderElementsByType));
+		}
+		for (TypedBatchRenderPlan<?> plan : batchRenderPlans) {
+			renderBatch(guiGraphics, plan);
 		}
 
 		for (IDrawable overlay : renderOverlays) {
 			overlay.draw(guiGraphics);
 		}
+		rendered = true;
+	}
+
+	/**
+	 * Plans are only created when the contents change, so that renderers
+	 * can reuse the work they prepared for them until the next change.
+	 */
+	private static List<TypedBatchRenderPlan<?>> createBatchRenderPlans(ListMultiMap<IIngredientType<?>, BatchRenderElement<?>> renderElementsByType) {
+		List<TypedBatchRenderPlan<?>> plans = new ArrayList<>();
+		for (Map.Entry<IIngredientType<?>, List<BatchRenderElement<?>>> entry : renderElementsByType.entrySet()) {
+			plans.add(createBatchRenderPlan(entry));
+		}
+		return plans;
 	}
 
-	private <T> void renderBatch(GuiGraphics guiGraphics, Map.Entry<IIngredientType<?>, List<BatchRenderElement<?>>> entry) {
+	private static <T> TypedBatchRenderPlan<T> createBatchRenderPlan(Map.Entry<IIngredientType<?>, List<BatchRenderElement<?>>> entry) {
 		@SuppressWarnings("unchecked")
 		IIngredientType<T> type = (IIngredientType<T>) entry.getKey();
-		IIngredientRenderer<T> ingredientRenderer = ingredientManager.getIngredientRenderer(type);
 		@SuppressWarnings("unchecked")
 		List<BatchRenderElement<T>> elements = (List<BatchRenderElement<T>>) (Object) entry.getValue();
-		SafeIngredientUtil.renderBatch(guiGraphics, type, ingredientRenderer, elements);
+		return new TypedBatchRenderPlan<>(type, new BatchRenderPlan<>(elements));
+	}
+
+	private <T> void renderBatch(GuiGraphics guiGraphics, TypedBatchRenderPlan<T> typedPlan) {
+		IIngredientType<T> type = typedPlan.type();
+		IIngredientRenderer<T> ingredientRenderer = ingredientManager.getIngredientRenderer(type);
+		SafeIngredientUtil.renderBatch(guiGraphics, type, ingredientRenderer, typedPlan.plan());
+	}
+
+	private <T> void prepareBatch(TypedBatchRenderPlan<T> typedPlan) {
+		IIngredientRenderer<T> ingredientRenderer = ingredientManager.getIngredientRenderer(typedPlan.type());
+		SafeIngredientUtil.prepareBatch(ingredientRenderer, typedPlan.plan());
 	}
 
 	private void renderEditMode(GuiGraphics guiGraphics) {
@@ -185,4 +271,12 @@ public class IngredientListRenderer {
 			RenderSystem.setShaderColor(1f, 1f, 1f, 1f);
 		}
 	}
+
+	private record TypedBatchRenderPlan<T>(IIngredientType<T> type, BatchRenderPlan<T> plan) {}
+
+	private record PreparedPage(List<IElement<?>> ingredientList, int startIndex, List<TypedBatchRenderPlan<?>> batchRenderPlans) {
+		public boolean isFor(int startIndex, List<IElement<?>> ingredientList) {
+			return this.startIndex == startIndex && this.ingredientList == ingredientList;
+		}
+	}
 }
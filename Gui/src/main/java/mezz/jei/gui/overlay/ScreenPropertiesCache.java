@@ -46,6 +46,14 @@ public class ScreenPropertiesCache {
 				.flatMap(cache.screenHelper::getGuiProperties)
 				.orElse(null);
 
+			return updateGuiProperties(currentGuiProperties);
+		}
+
+		/**
+		 * Like {@link #updateScreen}, for when the gui properties have already been fetched
+		 * and are shared between several caches.
+		 */
+		public Updater updateGuiProperties(@Nullable IGuiProperties currentGuiProperties) {
 			if (!GuiProperties.areEqual(cache.previousGuiProperties, currentGuiProperties)) {
 				boolean previouslyValid = cache.guiPropertiesAreValid;
 				cache.guiPropertiesAreValid = validateGuiProperties(currentGuiProperties);
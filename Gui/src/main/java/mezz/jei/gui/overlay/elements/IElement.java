@@ -34,6 +34,14 @@ public interface IElement<T> {
 
 	boolean isVisible();
 
+	/**
+	 * @return true if the tooltip only changes with the modifier keys, edit mode, and loaded resources,
+	 * so it can be built once and reused while the element is hovered.
+	 */
+	default boolean isTooltipCacheable() {
+		return true;
+	}
+
 	default boolean handleClick(UserInput input, IInternalKeyMappings keyBindings) {
 		return false;
 	}
@@ -255,6 +255,12 @@ public class RecipeBookmarkElement<R, I> implements IElement<I> {
 		return recipeBookmark.isVisible();
 	}
 
+	@Override
+	public boolean isTooltipCacheable() {
+		// the transfer hints depend on the player's inventory
+		return false;
+	}
+
 	private static class RecipeBookmarkIcon implements IDrawable {
 		private final IDrawable icon;
 
@@ -8,6 +8,7 @@ import mezz.jei.api.recipe.IRecipeManager;
 import mezz.jei.api.recipe.RecipeType;
 import mezz.jei.api.recipe.category.IRecipeCategory;
 import mezz.jei.api.recipe.transfer.IRecipeTransferManager;
+import mezz.jei.api.runtime.IIngredientManager;
 import mezz.jei.common.Internal;
 import mezz.jei.common.config.IClientConfig;
 import mezz.jei.common.config.IJeiClientConfigs;
@@ -15,6 +16,7 @@ import mezz.jei.common.config.RecipeSorterStage;
 import mezz.jei.common.util.MathUtil;
 import mezz.jei.gui.bookmarks.BookmarkList;
 import mezz.jei.gui.recipes.layouts.IRecipeLayoutList;
+import mezz.jei.gui.recipes.layouts.RecipeLayoutCache;
 import mezz.jei.gui.recipes.lookups.IFocusedRecipes;
 import mezz.jei.gui.recipes.lookups.ILookupState;
 import mezz.jei.gui.recipes.lookups.IngredientLookupState;
@@ -38,6 +40,7 @@ public class RecipeGuiLogic implements IRecipeGuiLogic {
 	private ILookupState state;
 	private final Stack<ILookupState> history = new Stack<>();
 	private final IFocusFactory focusFactory;
+	private final RecipeLayoutCache recipeLayoutCache;
 	private @Nullable IRecipeCategory<?> cachedRecipeCategory;
 	private @Nullable IRecipeLayoutList cachedRecipeLayoutsWithButtons;
 	private int cachedContainerId = -1;
@@ -47,7 +50,8 @@ public class RecipeGuiLogic implements IRecipeGuiLogic {
 		IRecipeManager recipeManager,
 		IRecipeTransferManager recipeTransferManager,
 		IRecipeLogicStateListener stateListener,
-		IFocusFactory focusFactory
+		IFocusFactory focusFactory,
+		IIngredientManager ingredientManager
 	) {
 		this.recipeManager = recipeManager;
 		this.recipeTransferManager = recipeTransferManager;
@@ -62,6 +66,7 @@ public class RecipeGuiLogic implements IRecipeGuiLogic {
 			recipeTransferManager
 		);
 		this.focusFactory = focusFactory;
+		this.recipeLayoutCache = new RecipeLayoutCache(ingredientManager);
 	}
 
 	@Override
@@ -221,6 +226,7 @@ public class RecipeGuiLogic implements IRecipeGuiLogic {
 				state.getFocuses(),
 				bookmarkList,
 				recipeManager,
+				recipeLayoutCache,
 				recipesGui
 			);
 			this.cachedRecipeCategory = recipeCategory;
@@ -52,23 +52,26 @@ public class RecipeSortUtil {
 
 			RecipeTransferButton transferButton = r.transferButton();
 			int missingCount = transferButton.getMissingCountHint();
-			if (missingCount == -1) {
-				return 0;
-			}
-
-			IRecipeSlotsView recipeSlotsView = recipeLayout.getRecipeSlotsView();
-			int ingredientCount = ingredientCount(recipeSlotsView);
-			if (ingredientCount == 0) {
-				return 0;
-			}
-
-			int matchCount = ingredientCount - missingCount;
-			int matchPercent = 100 * matchCount / ingredientCount;
-			return -matchPercent;
+			int ingredientCount = ingredientCount(recipeLayout.getRecipeSlotsView());
+			return getCraftableSortKey(ingredientCount, missingCount);
 		});
 	}
 
-	private static int ingredientCount(IRecipeSlotsView recipeSlotsView) {
+	/**
+	 * @param ingredientCount the number of non-empty input slots of a recipe
+	 * @param missingCount    the number of missing inputs, or -1 if it is not known
+	 * @return the negative percentage of inputs that are not missing, so that sorting in ascending order puts the most craftable recipes first
+	 */
+	public static int getCraftableSortKey(int ingredientCount, int missingCount) {
+		if (missingCount == -1 || ingredientCount == 0) {
+			return 0;
+		}
+		int matchCount = ingredientCount - missingCount;
+		int matchPercent = 100 * matchCount / ingredientCount;
+		return -matchPercent;
+	}
+
+	public static int ingredientCount(IRecipeSlotsView recipeSlotsView) {
 		int count = 0;
 		for (IRecipeSlotView i : recipeSlotsView.getSlotViews()) {
 			if (i.getRole() == RecipeIngredientRole.INPUT && !i.isEmpty()) {
@@ -16,6 +16,7 @@ import mezz.jei.api.recipe.IRecipeManager;
 import mezz.jei.api.recipe.RecipeType;
 import mezz.jei.api.recipe.category.IRecipeCategory;
 import mezz.jei.api.recipe.transfer.IRecipeTransferManager;
+import mezz.jei.api.runtime.IIngredientManager;
 import mezz.jei.api.runtime.IRecipesGui;
 import mezz.jei.common.Internal;
 import mezz.jei.common.config.DebugConfig;
@@ -25,6 +26,7 @@ import mezz.jei.common.gui.elements.DrawableNineSliceTexture;
 import mezz.jei.common.gui.textures.Textures;
 import mezz.jei.common.input.IInternalKeyMappings;
 import mezz.jei.common.util.ErrorUtil;
+import mezz.jei.common.util.FrameTimings;
 import mezz.jei.common.util.ImmutableRect2i;
 import mezz.jei.common.util.MathUtil;
 import mezz.jei.common.util.StringUtil;
@@ -112,7 +114,8 @@ public class RecipesGui extends Screen implements IRecipesGui, IRecipeFocusSourc
 		IInternalKeyMappings keyBindings,
 		IFocusFactory focusFactory,
 		BookmarkList bookmarks,
-		IGuiHelper guiHelper
+		IGuiHelper guiHelper,
+		IIngredientManager ingredientManager
 	) {
 		super(Component.literal("Recipes"));
 		this.bookmarks = bookmarks;
@@ -121,7 +124,8 @@ public class RecipesGui extends Screen implements IRecipesGui, IRecipeFocusSourc
 			recipeManager,
 			recipeTransferManager,
 			this::updateLayout,
-			focusFactory
+			focusFactory,
+			ingredientManager
 		);
 		this.recipeCatalysts = new RecipeCatalysts(recipeManager);
 		this.recipeGuiTabs = new RecipeGuiTabs(this.logic, recipeManager, guiHelper);
@@ -257,12 +261,15 @@ public class RecipesGui extends Screen implements IRecipesGui, IRecipeFocusSourc
 		nextPage.render(guiGraphics, mouseX, mouseY, partialTicks);
 		previousPage.render(guiGraphics, mouseX, mouseY, partialTicks);
 
+		long recipesStart = FrameTimings.start();
 		Optional<IRecipeLayoutDrawable<?>> hoveredRecipeLayout = this.layouts.draw(guiGraphics, mouseX, mouseY);
+		FrameTimings.end(FrameTimings.Stage.RECIPES, recipesStart);
 		optionButtons.draw(guiGraphics, mouseX, mouseY, partialTicks);
 		Optional<IRecipeSlotDrawable> hoveredRecipeCatalyst = recipeCatalysts.draw(guiGraphics, mouseX, mouseY);
 
 		recipeGuiTabs.draw(minecraft, guiGraphics, mouseX, mouseY, partialTicks);
 
+		long tooltipsStart = FrameTimings.start();
 		this.layouts.drawTooltips(guiGraphics, mouseX, mouseY);
 
 		optionButtons.drawTooltips(guiGraphics, mouseX, mouseY);
@@ -286,6 +293,7 @@ public class RecipesGui extends Screen implements IRecipesGui, IRecipeFocusSourc
 			}
 			tooltip.draw(guiGraphics, mouseX, mouseY);
 		}
+		FrameTimings.end(FrameTimings.Stage.TOOLTIPS, tooltipsStart);
 
 		if (DebugConfig.isDebugGuisEnabled()) {
 			guiGraphics.fill(
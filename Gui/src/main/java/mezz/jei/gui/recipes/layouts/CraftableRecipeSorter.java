@@ -0,0 +1,342 @@
+package mezz.jei.gui.recipes.layouts;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntArraySet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import mezz.jei.api.constants.VanillaTypes;
+import mezz.jei.api.helpers.IStackHelper;
+import mezz.jei.api.ingredients.ITypedIngredient;
+import mezz.jei.api.ingredients.subtypes.UidContext;
+import mezz.jei.api.recipe.RecipeType;
+import mezz.jei.common.config.DebugConfig;
+import mezz.jei.common.transfer.IRecipeTransferSlots;
+import mezz.jei.common.transfer.InventoryIndex;
+import mezz.jei.common.transfer.RecipeSlotMatcher;
+import mezz.jei.common.transfer.RecipeTransferUtil;
+import mezz.jei.gui.recipes.RecipeSortUtil;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.inventory.AbstractContainerMenu;
+import net.minecraft.world.inventory.Slot;
+import net.minecraft.world.item.ItemStack;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Estimates how many input slots of each recipe can't be filled from the player's inventory,
+ * without building a layout and running the recipe transfer handler for each recipe.
+ *
+ * Only recipes with a transfer handler that implements {@link IRecipeTransferSlots} are estimated.
+ * The estimate uses the handler's slots, the same {@link InventoryIndex},
+ * and the same slot matching as {@link RecipeTransferUtil#getRecipeTransferOperations}.
+ *
+ * The item uids of the recipe inputs are worked out on the main thread,
+ * a few recipes at a time, because subtype interpreters are plugin code.
+ * Only the counting runs in the background.
+ *
+ * Recipes that this can't model (inputs that are not items, or need more than one item in a slot,
+ * or recipes that the handler returns some other error for) are not estimated, and are left to their recipe transfer handler.
+ */
+public final class CraftableRecipeSorter<C extends AbstractContainerMenu, T> {
+	private static final Logger LOGGER = LogManager.getLogger();
+	/**
+	 * The missing count of a recipe that was not estimated.
+	 */
+	public static final int NOT_ESTIMATED = Integer.MIN_VALUE;
+
+	private final List<T> recipes;
+	private final RecipeType<T> recipeType;
+	private final Function<T, List<List<ITypedIngredient<?>>>> inputSlotsGetter;
+	private final IRecipeTransferSlots<C, T> transferSlots;
+	private final C container;
+	private final Player player;
+	private final IStackHelper stackHelper;
+	private final InventoryIndex inventoryIndex;
+	/**
+	 * The items that the handler can use, for each set of slots it uses, or empty if it can't use them.
+	 */
+	private final Map<IRecipeTransferSlots.TransferSlots, Optional<SourceInventory>> sourceInventories = new HashMap<>();
+	/**
+	 * For each recipe, the items that its handler can use, or null if it is not estimated.
+	 */
+	private final Inventory[] recipeInventories;
+	/**
+	 * For each recipe, the inventory groups that each of its input slots accepts, or null if it is not estimated.
+	 */
+	private final int[][][] requiredGroups;
+	private final int[] inputCounts;
+	private int collectedCount;
+
+	/**
+	 * @param inputSlotsGetter the ingredients of each input slot of a recipe, in the same order as its recipe slot views
+	 */
+	public CraftableRecipeSorter(
+		List<T> recipes,
+		RecipeType<T> recipeType,
+		Function<T, List<List<ITypedIngredient<?>>>> inputSlotsGetter,
+		IRecipeTransferSlots<C, T> transferSlots,
+		C container,
+		Player player,
+		IStackHelper stackHelper
+	) {
+		this.recipes = recipes;
+		this.recipeType = recipeType;
+		this.inputSlotsGetter = inputSlotsGetter;
+		this.transferSlots = transferSlots;
+		this.container = container;
+		this.player = player;
+		this.stackHelper = stackHelper;
+		this.inventoryIndex = InventoryIndex.get(stackHelper, container);
+		this.recipeInventories = new Inventory[recipes.size()];
+		this.requiredGroups = new int[recipes.size()][][];
+		this.inputCounts = new int[recipes.size()];
+	}
+
+	/**
+	 * Collects the items the handler can use from its slots,
+	 * the same way as the basic recipe transfer handler does.
+	 */
+	private Optional<SourceInventory> createSourceInventory(IRecipeTransferSlots.TransferSlots slots) {
+		IntArrayList slotIndexes = new IntArrayList();
+		IntArrayList groups = new IntArrayList();
+		IntArrayList counts = new IntArrayList();
+		Set<Slot> addedSlots = new HashSet<>();
+		int filledCraftSlotCount = 0;
+		int emptySlotCount = 0;
+
+		for (Slot slot : slots.craftingSlots()) {
+			ItemStack stack = slot.getItem();
+			if (!stack.isEmpty()) {
+				if (!slot.allowModification(player)) {
+					return Optional.empty();
+				}
+				filledCraftSlotCount++;
+				addSource(slot, stack, addedSlots, slotIndexes, groups, counts);
+			}
+		}
+		for (Slot slot : slots.inventorySlots()) {
+			ItemStack stack = slot.getItem();
+			if (!stack.isEmpty()) {
+				if (!slot.allowModification(player)) {
+					return Optional.empty();
+				}
+				addSource(slot, stack, addedSlots, slotIndexes, groups, counts);
+			} else {
+				emptySlotCount++;
+			}
+		}
+
+		Inventory inventory = new Inventory(slotIndexes.toIntArray(), groups.toIntArray(), counts.toIntArray(), inventoryIndex.getGroupCount());
+		return Optional.of(new SourceInventory(inventory, slots.craftingSlots().size(), filledCraftSlotCount, emptySlotCount));
+	}
+
+	private void addSource(Slot slot, ItemStack stack, Set<Slot> addedSlots, IntArrayList slotIndexes, IntArrayList groups, IntArrayList counts) {
+		if (!addedSlots.add(slot)) {
+			return;
+		}
+		int group = inventoryIndex.getGroup(slot);
+		if (group >= 0) {
+			slotIndexes.add(slot.index);
+			groups.add(group);
+			counts.add(stack.getCount());
+		}
+	}
+
+	/**
+	 * Collects the inputs of the next recipes, until the time budget is used up.
+	 * Must be called on the main thread.
+	 *
+	 * @return true when the inputs of all recipes have been collected
+	 */
+	public boolean collectInputs(long budgetNanos) {
+		long start = System.nanoTime();
+		while (collectedCount < recipes.size()) {
+			collectInputs(collectedCount);
+			collectedCount++;
+			if (System.nanoTime() - start >= budgetNanos) {
+				break;
+			}
+		}
+		return collectedCount == recipes.size();
+	}
+
+	private void collectInputs(int index) {
+		T recipe = recipes.get(index);
+		SourceInventory sourceInventory = transferSlots.getTransferSlots(container, recipe)
+			.flatMap(slots -> sourceInventories.computeIfAbsent(slots, this::createSourceInventory))
+			.orElse(null);
+		if (sourceInventory == null) {
+			return;
+		}
+		List<List<ITypedIngredient<?>>> inputSlots = inputSlotsGetter.apply(recipe);
+		if (inputSlots.size() > sourceInventory.craftingSlotCount() || !sourceInventory.hasRoom(inputSlots.size())) {
+			// the handler returns an error that is not about missing items
+			return;
+		}
+
+		int[][] groups = new int[inputSlots.size()][];
+		int inputCount = 0;
+		for (List<ITypedIngredient<?>> slotIngredients : inputSlots) {
+			if (slotIngredients.isEmpty()) {
+				continue;
+			}
+			int[] slotGroups = getGroups(slotIngredients);
+			if (slotGroups == null) {
+				return;
+			}
+			groups[inputCount] = slotGroups;
+			inputCount++;
+		}
+		recipeInventories[index] = sourceInventory.inventory();
+		requiredGroups[index] = Arrays.copyOf(groups, inputCount);
+		inputCounts[index] = inputCount;
+	}
+
+	/**
+	 * @return the inventory groups that have an item this slot accepts, or null if the slot can't be estimated
+	 */
+	private int @Nullable [] getGroups(List<ITypedIngredient<?>> slotIngredients) {
+		IntSet groups = new IntArraySet();
+		for (ITypedIngredient<?> typedIngredient : slotIngredients) {
+			if (typedIngredient == null) {
+				continue;
+			}
+			ITypedIngredient<ItemStack> typedItemStack = typedIngredient.cast(VanillaTypes.ITEM_STACK);
+			if (typedItemStack == null) {
+				return null;
+			}
+			ItemStack itemStack = typedItemStack.getIngredient();
+			if (itemStack.getCount() != 1) {
+				return null;
+			}
+			if (!inventoryIndex.containsItem(itemStack.getItem())) {
+				continue;
+			}
+			Object uid = stackHelper.getUidForStack(typedItemStack, UidContext.Ingredient);
+			int group = inventoryIndex.getGroup(uid);
+			if (group >= 0) {
+				groups.add(group);
+			}
+		}
+		return groups.toIntArray();
+	}
+
+	/**
+	 * Collects the inputs of the remaining recipes on the calling thread,
+	 * then counts the missing inputs of all recipes in the background.
+	 *
+	 * @return the number of missing inputs of each recipe, or {@link #NOT_ESTIMATED}
+	 */
+	public CompletableFuture<int[]> countMissingAsync(Executor executor) {
+		collectInputs(Long.MAX_VALUE);
+		return CompletableFuture.supplyAsync(() -> {
+			long start = System.nanoTime();
+			int[] missingCounts = countMissing(recipeInventories, requiredGroups);
+			if (DebugConfig.isDebugModeEnabled()) {
+				LOGGER.debug(
+					"Estimated craftable recipes for {} in {} us",
+					recipeType.getUid(),
+					(System.nanoTime() - start) / 1000
+				);
+			}
+			return missingCounts;
+		}, executor);
+	}
+
+	/**
+	 * @return the number of non-empty input slots of the recipe, when it was estimated
+	 */
+	public int getInputCount(int index) {
+		return inputCounts[index];
+	}
+
+	/**
+	 * @param inventories    for each recipe, the items that its handler can use, or null if it is not estimated
+	 * @param requiredGroups for each recipe, the groups that each of its input slots accepts, or null if it is not estimated
+	 * @return the number of missing inputs of each recipe, or {@link #NOT_ESTIMATED}
+	 */
+	public static int[] countMissing(Inventory[] inventories, int[][][] requiredGroups) {
+		int[] missingCounts = new int[requiredGroups.length];
+		for (int i = 0; i < requiredGroups.length; i++) {
+			Inventory inventory = inventories[i];
+			int[][] recipeGroups = requiredGroups[i];
+			missingCounts[i] = inventory == null || recipeGroups == null ? NOT_ESTIMATED : countMissing(inventory, recipeGroups);
+		}
+		return missingCounts;
+	}
+
+	/**
+	 * @param requiredGroups the groups that each input slot of a recipe accepts
+	 * @return the number of input slots that can't be filled from the inventory
+	 */
+	public static int countMissing(Inventory inventory, int[][] requiredGroups) {
+		int[] matches = RecipeSlotMatcher.match(inventory.slotIndexes(), inventory.groups(), inventory.counts(), inventory.groupCount(), requiredGroups);
+		int missingCount = 0;
+		for (int match : matches) {
+			if (match < 0) {
+				missingCount++;
+			}
+		}
+		return missingCount;
+	}
+
+	/**
+	 * Orders recipes the same way as {@link LazyRecipeLayoutList} does with the transfer handlers:
+	 * recipes with nothing missing go first, then the rest are sorted by {@link RecipeSortUtil#getCraftableSortKey(int, int)}.
+	 * Otherwise, recipes keep their order.
+	 *
+	 * @param inputCounts   the number of non-empty input slots of each recipe
+	 * @param missingCounts the number of missing inputs of each recipe, or -1 if the transfer handler could not tell
+	 * @return the recipe indexes in sorted order
+	 */
+	public static int[] getCraftableOrder(int[] inputCounts, int[] missingCounts) {
+		int[] order = new int[missingCounts.length];
+		int orderSize = 0;
+		List<Integer> craftMissing = new ArrayList<>();
+		for (int i = 0; i < missingCounts.length; i++) {
+			if (missingCounts[i] == 0) {
+				order[orderSize] = i;
+				orderSize++;
+			} else {
+				craftMissing.add(i);
+			}
+		}
+		craftMissing.sort(Comparator.comparingInt(i -> RecipeSortUtil.getCraftableSortKey(inputCounts[i], missingCounts[i])));
+		for (int i : craftMissing) {
+			order[orderSize] = i;
+			orderSize++;
+		}
+		return order;
+	}
+
+	/**
+	 * The items in the player's inventory, grouped by their uid.
+	 *
+	 * @param slotIndexes the slot index of each inventory slot with an item
+	 * @param groups      the group of each inventory slot, from 0 to groupCount - 1
+	 * @param counts      the number of items in each inventory slot
+	 */
+	public record Inventory(int[] slotIndexes, int[] groups, int[] counts, int groupCount) {}
+
+	/**
+	 * The items that a handler can use, and the counts it checks for room to move items around.
+	 */
+	private record SourceInventory(Inventory inventory, int craftingSlotCount, int filledCraftSlotCount, int emptySlotCount) {
+		public boolean hasRoom(int inputCount) {
+			return filledCraftSlotCount - inputCount <= emptySlotCount;
+		}
+	}
+}
@@ -22,6 +22,7 @@ public interface IRecipeLayoutList {
 		IFocusGroup focusGroup,
 		BookmarkList bookmarkList,
 		IRecipeManager recipeManager,
+		RecipeLayoutCache recipeLayoutCache,
 		RecipesGui recipesGui
 	) {
 		return new LazyRecipeLayoutList<>(
@@ -30,6 +31,7 @@ public interface IRecipeLayoutList {
 			selectedRecipes,
 			bookmarkList,
 			recipeManager,
+			recipeLayoutCache,
 			recipesGui,
 			focusGroup
 		);
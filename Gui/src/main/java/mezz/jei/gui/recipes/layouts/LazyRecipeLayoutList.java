@@ -2,14 +2,19 @@ package mezz.jei.gui.recipes.layouts;
 
 import mezz.jei.api.gui.IRecipeLayoutDrawable;
 import mezz.jei.api.recipe.IFocusGroup;
+import mezz.jei.api.helpers.IStackHelper;
 import mezz.jei.api.recipe.IRecipeManager;
+import mezz.jei.api.recipe.RecipeIngredientRole;
 import mezz.jei.api.recipe.RecipeType;
 import mezz.jei.api.recipe.category.IRecipeCategory;
+import mezz.jei.api.recipe.transfer.IRecipeTransferHandler;
 import mezz.jei.api.recipe.transfer.IRecipeTransferManager;
 import mezz.jei.api.runtime.IIngredientManager;
 import mezz.jei.api.runtime.IJeiRuntime;
 import mezz.jei.common.Internal;
+import mezz.jei.common.config.IClientConfig;
 import mezz.jei.common.config.RecipeSorterStage;
+import mezz.jei.common.transfer.IRecipeTransferSlots;
 import mezz.jei.gui.bookmarks.BookmarkList;
 import mezz.jei.gui.bookmarks.RecipeBookmark;
 import mezz.jei.gui.recipes.RecipeBookmarkButton;
@@ -18,25 +23,45 @@ import mezz.jei.gui.recipes.RecipeSortUtil;
 import mezz.jei.gui.recipes.RecipeTransferButton;
 import mezz.jei.gui.recipes.RecipesGui;
 import mezz.jei.gui.recipes.lookups.IFocusedRecipes;
+import net.minecraft.Util;
 import net.minecraft.client.Minecraft;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.inventory.AbstractContainerMenu;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 public class LazyRecipeLayoutList<T> implements IRecipeLayoutList {
+	private static final Logger LOGGER = LogManager.getLogger();
+	private static final long COLLECT_INPUTS_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
 	private final IRecipeManager recipeManager;
+	private final RecipeLayoutCache recipeLayoutCache;
 	private final IRecipeCategory<T> recipeCategory;
 	private final RecipesGui recipesGui;
 	private final IFocusGroup focusGroup;
 	private final List<RecipeLayoutWithButtons<?>> results;
 	private final List<RecipeLayoutWithButtons<?>> craftMissing;
 	private final Iterator<T> unsortedIterator;
+	/**
+	 * Estimates which recipes are craftable when the fast craftable sort is used, until the recipes are sorted.
+	 */
+	private @Nullable CraftableRecipeSorter<?, T> craftableSorter;
+	private @Nullable FastCraftableSort<T> fastCraftableSort;
+	private final Set<IRecipeLayoutDrawable<?>> usedRecipeLayouts = Collections.newSetFromMap(new IdentityHashMap<>());
 	private final int size;
 
 	private final boolean matchingCraftable;
@@ -48,6 +73,7 @@ public class LazyRecipeLayoutList<T> implements IRecipeLayoutList {
 		IFocusedRecipes<T> selectedRecipes,
 		BookmarkList bookmarkList,
 		IRecipeManager recipeManager,
+		RecipeLayoutCache recipeLayoutCache,
 		RecipesGui recipesGui,
 		IFocusGroup focusGroup
 	) {
@@ -55,6 +81,7 @@ public class LazyRecipeLayoutList<T> implements IRecipeLayoutList {
 		boolean matchingBookmarks = recipeSorterStages.contains(RecipeSorterStage.BOOKMARKED);
 		boolean matchingCraftable = recipeSorterStages.contains(RecipeSorterStage.CRAFTABLE);
 		this.recipeManager = recipeManager;
+		this.recipeLayoutCache = recipeLayoutCache;
 		this.recipesGui = recipesGui;
 		this.focusGroup = focusGroup;
 		this.results = new ArrayList<>();
@@ -81,7 +108,7 @@ public class LazyRecipeLayoutList<T> implements IRecipeLayoutList {
 				T recipe = iterator.next();
 				RecipeBookmark<T, ?> recipeBookmark = bookmarkList.getMatchingBookmark(recipeType, recipe);
 				if (recipeBookmark != null) {
-					IRecipeLayoutDrawable<T> recipeLayout = recipeManager.createRecipeLayoutDrawableOrShowError(recipeCategory, recipe, focusGroup);
+					IRecipeLayoutDrawable<T> recipeLayout = createRecipeLayout(recipe);
 					RecipeLayoutWithButtons<T> recipeLayoutWithButtons = createRecipeLayoutWithButtons(recipeLayout, recipeBookmark, bookmarkList, recipesGui, container);
 					results.add(recipeLayoutWithButtons);
 					iterator.remove();
@@ -90,6 +117,43 @@ public class LazyRecipeLayoutList<T> implements IRecipeLayoutList {
 		}
 
 		this.unsortedIterator = recipes.iterator();
+
+		IClientConfig clientConfig = Internal.getJeiClientConfigs().getClientConfig();
+		if (this.matchingCraftable && container != null && clientConfig.isFastCraftableSortEnabled()) {
+			this.craftableSorter = createCraftableSorter(recipes, container);
+			if (this.craftableSorter != null) {
+				this.fastCraftableSort = new FastCraftableSort<>(recipes);
+			}
+		}
+	}
+
+	/**
+	 * @return a sorter that uses the same slots as the transfer handler, or null if the handler does not say which slots it uses
+	 */
+	private @Nullable CraftableRecipeSorter<?, T> createCraftableSorter(List<T> recipes, AbstractContainerMenu container) {
+		Player player = Minecraft.getInstance().player;
+		if (player == null) {
+			return null;
+		}
+		IJeiRuntime jeiRuntime = Internal.getJeiRuntime();
+		IRecipeTransferManager recipeTransferManager = jeiRuntime.getRecipeTransferManager();
+		IRecipeTransferHandler<AbstractContainerMenu, T> transferHandler = recipeTransferManager.getRecipeTransferHandler(container, recipeCategory)
+			.orElse(null);
+		if (!(transferHandler instanceof IRecipeTransferSlots<?, ?>)) {
+			return null;
+		}
+		@SuppressWarnings("unchecked")
+		IRecipeTransferSlots<AbstractContainerMenu, T> transferSlots = (IRecipeTransferSlots<AbstractContainerMenu, T>) transferHandler;
+		IStackHelper stackHelper = jeiRuntime.getJeiHelpers().getStackHelper();
+		return new CraftableRecipeSorter<>(
+			recipes,
+			recipeCategory.getRecipeType(),
+			recipe -> recipeManager.getRecipeIngredients(recipeCategory, recipe).getSlotIngredients(RecipeIngredientRole.INPUT),
+			transferSlots,
+			container,
+			player,
+			stackHelper
+		);
 	}
 
 	private static <T> RecipeLayoutWithButtons<T> createRecipeLayoutWithButtons(
@@ -107,6 +171,15 @@ public class LazyRecipeLayoutList<T> implements IRecipeLayoutList {
 	}
 
 	private IRecipeLayoutDrawable<T> createRecipeLayout(T recipe) {
+		IRecipeLayoutDrawable<T> recipeLayout = recipeLayoutCache.get(recipeCategory, recipe, focusGroup, () -> buildRecipeLayout(recipe));
+		if (!usedRecipeLayouts.add(recipeLayout)) {
+			// the same recipe is in the list twice, each one needs its own layout to be positioned on the page
+			recipeLayout = buildRecipeLayout(recipe);
+		}
+		return recipeLayout;
+	}
+
+	private IRecipeLayoutDrawable<T> buildRecipeLayout(T recipe) {
 		return recipeManager.createRecipeLayoutDrawableOrShowError(recipeCategory, recipe, focusGroup);
 	}
 
@@ -150,13 +223,106 @@ public class LazyRecipeLayoutList<T> implements IRecipeLayoutList {
 
 	@Override
 	public void tick(@Nullable AbstractContainerMenu container) {
+		CraftableRecipeSorter<?, T> craftableSorter = this.craftableSorter;
+		if (craftableSorter != null && !prepareFastCraftableSort(craftableSorter, container, false)) {
+			// spread the work of the sort over the ticks, until the results are needed
+			return;
+		}
 		calculateNextResult(container);
 	}
 
+	/**
+	 * Works towards sorting the recipes with the fast craftable sort.
+	 * Each call does part of the work: collecting recipe inputs on this thread, waiting for the estimate from the background,
+	 * or running the transfer handler of one recipe that could not be estimated.
+	 *
+	 * @param finish do all the remaining work now, because the results are needed
+	 * @return true when the recipes are sorted, or the sort failed and the transfer handlers are used instead
+	 */
+	private boolean prepareFastCraftableSort(CraftableRecipeSorter<?, T> craftableSorter, @Nullable AbstractContainerMenu container, boolean finish) {
+		FastCraftableSort<T> sort = Objects.requireNonNull(fastCraftableSort);
+		if (sort.missingCountsFuture == null) {
+			if (!finish && !craftableSorter.collectInputs(COLLECT_INPUTS_BUDGET_NANOS)) {
+				return false;
+			}
+			sort.missingCountsFuture = craftableSorter.countMissingAsync(Util.backgroundExecutor());
+		}
+		if (sort.missingCounts == null) {
+			if (!finish && !sort.missingCountsFuture.isDone()) {
+				return false;
+			}
+			try {
+				sort.missingCounts = sort.missingCountsFuture.join();
+			} catch (RuntimeException e) {
+				LOGGER.error("Failed to sort craftable recipes for {}, using the transfer handlers instead.", recipeCategory.getRecipeType().getUid(), e);
+				this.craftableSorter = null;
+				this.fastCraftableSort = null;
+				return true;
+			}
+			sort.inputCounts = new int[sort.missingCounts.length];
+			for (int i = 0; i < sort.inputCounts.length; i++) {
+				sort.inputCounts[i] = craftableSorter.getInputCount(i);
+			}
+		}
+
+		// recipes that could not be estimated go through their transfer handler, like without the fast sort
+		int[] missingCounts = sort.missingCounts;
+		int[] inputCounts = Objects.requireNonNull(sort.inputCounts);
+		while (sort.nextHandlerIndex < missingCounts.length) {
+			int index = sort.nextHandlerIndex;
+			sort.nextHandlerIndex++;
+			if (missingCounts[index] != CraftableRecipeSorter.NOT_ESTIMATED) {
+				continue;
+			}
+			IIngredientManager ingredientManager = Internal.getJeiRuntime().getIngredientManager();
+			IRecipeLayoutDrawable<T> recipeLayout = createRecipeLayout(sort.recipes.get(index));
+			RecipeLayoutWithButtons<T> recipeLayoutWithButtons = createRecipeLayoutWithButtons(recipeLayout, ingredientManager, container);
+			sort.handlerResults.put(index, recipeLayoutWithButtons);
+			missingCounts[index] = recipeLayoutWithButtons.transferButton().getMissingCountHint();
+			inputCounts[index] = RecipeSortUtil.ingredientCount(recipeLayout.getRecipeSlotsView());
+			if (!finish) {
+				return false;
+			}
+		}
+
+		sort.order = CraftableRecipeSorter.getCraftableOrder(inputCounts, missingCounts);
+		this.craftableSorter = null;
+		return true;
+	}
+
+	/**
+	 * Adds the next recipe in the order from the fast craftable sort.
+	 * Layouts are only built for the recipes that are shown, unless their transfer handler already needed one.
+	 */
+	private boolean addNextSortedResult(FastCraftableSort<T> sort, int[] order, @Nullable AbstractContainerMenu container) {
+		if (sort.nextOrderIndex >= order.length) {
+			return false;
+		}
+		int index = order[sort.nextOrderIndex];
+		sort.nextOrderIndex++;
+		RecipeLayoutWithButtons<T> recipeLayoutWithButtons = sort.handlerResults.remove(index);
+		if (recipeLayoutWithButtons == null) {
+			IIngredientManager ingredientManager = Internal.getJeiRuntime().getIngredientManager();
+			IRecipeLayoutDrawable<T> recipeLayout = createRecipeLayout(sort.recipes.get(index));
+			recipeLayoutWithButtons = createRecipeLayoutWithButtons(recipeLayout, ingredientManager, container);
+		}
+		results.add(recipeLayoutWithButtons);
+		return true;
+	}
+
 	private boolean calculateNextResult(@Nullable AbstractContainerMenu container) {
 		IJeiRuntime jeiRuntime = Internal.getJeiRuntime();
 		IIngredientManager ingredientManager = jeiRuntime.getIngredientManager();
 
+		CraftableRecipeSorter<?, T> craftableSorter = this.craftableSorter;
+		if (craftableSorter != null) {
+			prepareFastCraftableSort(craftableSorter, container, true);
+		}
+		FastCraftableSort<T> fastCraftableSort = this.fastCraftableSort;
+		if (fastCraftableSort != null && fastCraftableSort.order != null) {
+			return addNextSortedResult(fastCraftableSort, fastCraftableSort.order, container);
+		}
+
 		while (unsortedIterator.hasNext()) {
 			T recipe = unsortedIterator.next();
 			IRecipeLayoutDrawable<T> recipeLayout = createRecipeLayout(recipe);
@@ -189,4 +355,22 @@ public class LazyRecipeLayoutList<T> implements IRecipeLayoutList {
 
 		return false;
 	}
+
+	/**
+	 * The state of the fast craftable sort.
+	 */
+	private static class FastCraftableSort<T> {
+		private final List<T> recipes;
+		private final Map<Integer, RecipeLayoutWithButtons<T>> handlerResults = new HashMap<>();
+		private @Nullable CompletableFuture<int[]> missingCountsFuture;
+		private int @Nullable [] missingCounts;
+		private int @Nullable [] inputCounts;
+		private int nextHandlerIndex;
+		private int @Nullable [] order;
+		private int nextOrderIndex;
+
+		public FastCraftableSort(List<T> recipes) {
+			this.recipes = recipes;
+		}
+	}
 }
@@ -0,0 +1,206 @@
+package mezz.jei.gui.recipes.layouts;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import mezz.jei.api.gui.IRecipeLayoutDrawable;
+import mezz.jei.api.ingredients.IIngredientHelper;
+import mezz.jei.api.ingredients.IIngredientType;
+import mezz.jei.api.ingredients.ITypedIngredient;
+import mezz.jei.api.ingredients.subtypes.UidContext;
+import mezz.jei.api.recipe.IFocus;
+import mezz.jei.api.recipe.IFocusGroup;
+import mezz.jei.api.recipe.RecipeIngredientRole;
+import mezz.jei.api.recipe.RecipeType;
+import mezz.jei.api.recipe.category.IRecipeCategory;
+import mezz.jei.api.runtime.IIngredientManager;
+import mezz.jei.api.runtime.IIngredientVisibility;
+import mezz.jei.common.config.DebugConfig;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps recently built recipe layouts, so that going back and forth between recipes
+ * does not rebuild every layout with all of its slots and widgets.
+ *
+ * Layouts are found by the recipe and the focuses they were built with.
+ * Focus groups are compared by value, because showing the same ingredient again creates a new focus group.
+ *
+ * The hit rate and layout build time of each category are logged periodically in debug mode.
+ */
+public class RecipeLayoutCache {
+	private static final Logger LOGGER = LogManager.getLogger();
+	private static final int MAX_SIZE = 256;
+	private static final long SUMMARY_INTERVAL_NANOS = Duration.ofSeconds(10).toNanos();
+	private static int generation;
+
+	private final IIngredientManager ingredientManager;
+	private final Cache<Key, IRecipeLayoutDrawable<?>> cache =
+		CacheBuilder.newBuilder()
+			.maximumSize(MAX_SIZE)
+			.build();
+	private final Map<RecipeType<?>, Stats> stats = new HashMap<>();
+	private long lastSummaryTime = System.nanoTime();
+	private int cachedGeneration = generation;
+
+	private @Nullable IFocusGroup lastFocusGroup;
+	private List<FocusKey> lastFocusKeys = List.of();
+
+	public RecipeLayoutCache(IIngredientManager ingredientManager) {
+		this.ingredientManager = ingredientManager;
+	}
+
+	/**
+	 * Invalidates the cached layouts of all caches.
+	 * Layouts contain translated text and textures that depend on the loaded resources,
+	 * and only display the ingredients that were visible when they were built.
+	 */
+	public static void invalidateAll() {
+		generation++;
+	}
+
+	/**
+	 * Invalidates all cached layouts when an ingredient is hidden or shown,
+	 * so that layouts stop showing ingredients hidden by the blacklist or edit mode.
+	 */
+	public static IIngredientVisibility.IListener createVisibilityListener() {
+		return new IIngredientVisibility.IListener() {
+			@Override
+			public <V> void onIngredientVisibilityChanged(ITypedIngredient<V> ingredient, boolean visible) {
+				invalidateAll();
+			}
+		};
+	}
+
+	public <T> IRecipeLayoutDrawable<T> get(
+		IRecipeCategory<T> recipeCategory,
+		T recipe,
+		IFocusGroup focusGroup,
+		Supplier<IRecipeLayoutDrawable<T>> layoutFactory
+	) {
+		if (cachedGeneration != generation) {
+			cachedGeneration = generation;
+			clear();
+		}
+
+		RecipeType<T> recipeType = recipeCategory.getRecipeType();
+		Stats categoryStats = stats.computeIfAbsent(recipeType, t -> new Stats());
+		Key key = new Key(new IdentityKey(recipe), recipeType, getFocusKeys(focusGroup));
+
+		IRecipeLayoutDrawable<?> cached = cache.getIfPresent(key);
+		if (cached != null) {
+			categoryStats.hits++;
+			logSummaryIfNeeded();
+			@SuppressWarnings("unchecked")
+			IRecipeLayoutDrawable<T> castCached = (IRecipeLayoutDrawable<T>) cached;
+			return castCached;
+		}
+
+		long start = System.nanoTime();
+		IRecipeLayoutDrawable<T> recipeLayout = layoutFactory.get();
+		categoryStats.addBuild(System.nanoTime() - start);
+		cache.put(key, recipeLayout);
+		logSummaryIfNeeded();
+		return recipeLayout;
+	}
+
+	public void clear() {
+		cache.invalidateAll();
+		lastFocusGroup = null;
+		lastFocusKeys = List.of();
+	}
+
+	/**
+	 * The focus group is usually the same for many layouts in a row, so its key is remembered.
+	 */
+	private List<FocusKey> getFocusKeys(IFocusGroup focusGroup) {
+		if (focusGroup != lastFocusGroup) {
+			lastFocusGroup = focusGroup;
+			lastFocusKeys = focusGroup.getAllFocuses()
+				.stream()
+				.map(this::getFocusKey)
+				.toList();
+		}
+		return lastFocusKeys;
+	}
+
+	private <V> FocusKey getFocusKey(IFocus<V> focus) {
+		ITypedIngredient<V> typedIngredient = focus.getTypedValue();
+		IIngredientType<V> ingredientType = typedIngredient.getType();
+		IIngredientHelper<V> ingredientHelper = ingredientManager.getIngredientHelper(ingredientType);
+		Object uid = ingredientHelper.getUid(typedIngredient, UidContext.Ingredient);
+		return new FocusKey(focus.getRole(), ingredientType, uid);
+	}
+
+	private void logSummaryIfNeeded() {
+		if (!DebugConfig.isDebugModeEnabled()) {
+			return;
+		}
+		long now = System.nanoTime();
+		if (now - lastSummaryTime > SUMMARY_INTERVAL_NANOS) {
+			lastSummaryTime = now;
+			logSummary();
+		}
+	}
+
+	private void logSummary() {
+		String summary = stats.entrySet()
+			.stream()
+			.sorted(Comparator.comparingLong((Map.Entry<RecipeType<?>, Stats> e) -> e.getValue().buildNanos).reversed())
+			.map(e -> {
+				Stats categoryStats = e.getValue();
+				long lookups = categoryStats.hits + categoryStats.builds;
+				return String.format(
+					"%s: %d lookups, %.1f%% hits, %d builds, %.1f us average build, %.1f us max build",
+					e.getKey().getUid(),
+					lookups,
+					lookups == 0 ? 0.0 : 100.0 * categoryStats.hits / lookups,
+					categoryStats.builds,
+					categoryStats.builds == 0 ? 0.0 : categoryStats.buildNanos / 1000.0 / categoryStats.builds,
+					categoryStats.maxBuildNanos / 1000.0
+				);
+			})
+			.collect(Collectors.joining("\n"));
+		LOGGER.debug("Recipe layout cache ({} layouts):\n{}", cache.size(), summary);
+	}
+
+	private static class Stats {
+		private long hits;
+		private long builds;
+		private long buildNanos;
+		private long maxBuildNanos;
+
+		public void addBuild(long nanos) {
+			builds++;
+			buildNanos += nanos;
+			maxBuildNanos = Math.max(maxBuildNanos, nanos);
+		}
+	}
+
+	private record Key(IdentityKey recipe, RecipeType<?> recipeType, List<FocusKey> focuses) {}
+
+	private record FocusKey(RecipeIngredientRole role, IIngredientType<?> ingredientType, Object uid) {}
+
+	/**
+	 * Recipes are compared by identity, their equals and hashCode can be slow or missing.
+	 */
+	private record IdentityKey(Object value) {
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof IdentityKey other && other.value == value;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(value);
+		}
+	}
+}
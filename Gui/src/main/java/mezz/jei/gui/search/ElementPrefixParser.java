@@ -16,8 +16,12 @@ import mezz.jei.gui.ingredients.IListElementInfo;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.regex.Pattern;
@@ -34,8 +38,14 @@ public class ElementPrefixParser {
 	private static final Pattern MOD_NAME_SEPARATOR_PATTERN = Pattern.compile("(?=[A-Z_-])|\\s+");
 
 	private final Char2ObjectMap<PrefixInfo<IListElementInfo<?>, IListElement<?>>> map = new Char2ObjectOpenHashMap<>();
-
-	public ElementPrefixParser(IIngredientManager ingredientManager, IIngredientFilterConfig config, IColorHelper colorHelper, IModIdHelper modIdHelper) {
+	private final Map<PrefixInfo<IListElementInfo<?>, IListElement<?>>, Set<ReloadInput>> reloadInputs = new IdentityHashMap<>();
+
+	/**
+	 * @param parallelColors true to get ingredient colors from several threads at once.
+	 *                       Colors come from plugin code that is not guaranteed to be thread-safe, so this is opt-in.
+	 */
+	public ElementPrefixParser(IIngredientManager ingredientManager, IIngredientFilterConfig config, IColorHelper colorHelper, IModIdHelper modIdHelper, boolean parallelColors) {
+		this.reloadInputs.put(NO_PREFIX, EnumSet.of(ReloadInput.LANGUAGE));
 		addPrefix(new PrefixInfo<>(
 			'@',
 			config::getModNameSearchMode,
@@ -70,25 +80,25 @@ public class ElementPrefixParser {
 				return sanitizedModNames;
 			},
 			LimitedStringStorage::new
-		));
+		), EnumSet.noneOf(ReloadInput.class));
 		addPrefix(new PrefixInfo<>(
 			'#',
 			config::getTagSearchMode,
 			e -> e.getTagStrings(ingredientManager),
 			LimitedStringStorage::new
-		));
+		), EnumSet.noneOf(ReloadInput.class));
 		addPrefix(new PrefixInfo<>(
 			'$',
 			config::getTooltipSearchMode,
 			e -> e.getTooltipStrings(config, ingredientManager),
 			GeneralizedSuffixTree::new
-		));
+		), EnumSet.of(ReloadInput.LANGUAGE));
 		addPrefix(new PrefixInfo<>(
 			'%',
 			config::getCreativeTabSearchMode,
 			e -> e.getCreativeTabsStrings(ingredientManager),
 			LimitedStringStorage::new
-		));
+		), EnumSet.of(ReloadInput.LANGUAGE));
 		addPrefix(new PrefixInfo<>(
 			'^',
 			config::getColorSearchMode,
@@ -100,18 +110,23 @@ public class ElementPrefixParser {
 					.distinct()
 					.toList();
 			},
-			LimitedStringStorage::new
-		));
+			LimitedStringStorage::new,
+			parallelColors
+		), EnumSet.of(ReloadInput.TEXTURES));
 		addPrefix(new PrefixInfo<>(
 			'&',
 			config::getResourceLocationSearchMode,
 			element -> List.of(element.getResourceLocation().toString()),
 			GeneralizedSuffixTree::new
-		));
+		), EnumSet.noneOf(ReloadInput.class));
 	}
 
-	private void addPrefix(PrefixInfo<IListElementInfo<?>, IListElement<?>> info) {
+	/**
+	 * @param reloadInputs the client resources that the prefix's search strings are derived from
+	 */
+	private void addPrefix(PrefixInfo<IListElementInfo<?>, IListElement<?>> info, Set<ReloadInput> reloadInputs) {
 		this.map.put(info.getPrefix(), info);
+		this.reloadInputs.put(info, reloadInputs);
 	}
 
 	public Collection<PrefixInfo<IListElementInfo<?>, IListElement<?>>> allPrefixInfos() {
@@ -120,6 +135,20 @@ public class ElementPrefixParser {
 		return values;
 	}
 
+	/**
+	 * Get the prefixes with search strings that have to be recomputed when the given inputs change.
+	 */
+	public Set<PrefixInfo<IListElementInfo<?>, IListElement<?>>> getPrefixesAffectedBy(Set<ReloadInput> changedInputs) {
+		Set<PrefixInfo<IListElementInfo<?>, IListElement<?>>> affected = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (PrefixInfo<IListElementInfo<?>, IListElement<?>> prefixInfo : allPrefixInfos()) {
+			Set<ReloadInput> inputs = this.reloadInputs.getOrDefault(prefixInfo, EnumSet.allOf(ReloadInput.class));
+			if (!Collections.disjoint(inputs, changedInputs)) {
+				affected.add(prefixInfo);
+			}
+		}
+		return affected;
+	}
+
 	public record TokenInfo(String token, PrefixInfo<IListElementInfo<?>, IListElement<?>> prefixInfo) {}
 
 	public Optional<TokenInfo> parseToken(String token) {
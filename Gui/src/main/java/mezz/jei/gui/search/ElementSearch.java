@@ -11,9 +11,11 @@ import mezz.jei.gui.ingredients.IListElementInfo;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -23,13 +25,30 @@ public class ElementSearch implements IElementSearch {
 	private final Map<PrefixInfo<IListElementInfo<?>, IListElement<?>>, PrefixedSearchable<IListElementInfo<?>, IListElement<?>>> prefixedSearchables = new IdentityHashMap<>();
 	private final CombinedSearchables<IListElement<?>> combinedSearchables = new CombinedSearchables<>();
 	private final Set<IListElement<?>> allElements = Collections.newSetFromMap(new IdentityHashMap<>());
+	/**
+	 * Prefixes with a storage that contains every element.
+	 * Storages of prefixes that were disabled while elements were added are missing those elements,
+	 * and can't be reused when rebuilding.
+	 */
+	private final Set<PrefixInfo<IListElementInfo<?>, IListElement<?>>> completePrefixes = Collections.newSetFromMap(new IdentityHashMap<>());
 
 	public ElementSearch(ElementPrefixParser elementPrefixParser) {
-		for (PrefixInfo<IListElementInfo<?>, IListElement<?>> prefixInfo : elementPrefixParser.allPrefixInfos()) {
-			ISearchStorage<IListElement<?>> storage = prefixInfo.createStorage();
-			var prefixedSearchable = new PrefixedSearchable<>(storage, prefixInfo);
+		this(elementPrefixParser.allPrefixInfos(), Map.of());
+	}
+
+	private ElementSearch(
+		Collection<PrefixInfo<IListElementInfo<?>, IListElement<?>>> prefixInfos,
+		Map<PrefixInfo<IListElementInfo<?>, IListElement<?>>, PrefixedSearchable<IListElementInfo<?>, IListElement<?>>> reusedSearchables
+	) {
+		for (PrefixInfo<IListElementInfo<?>, IListElement<?>> prefixInfo : prefixInfos) {
+			PrefixedSearchable<IListElementInfo<?>, IListElement<?>> prefixedSearchable = reusedSearchables.get(prefixInfo);
+			if (prefixedSearchable == null) {
+				ISearchStorage<IListElement<?>> storage = prefixInfo.createStorage();
+				prefixedSearchable = new PrefixedSearchable<>(storage, prefixInfo);
+			}
 			this.prefixedSearchables.put(prefixInfo, prefixedSearchable);
 			this.combinedSearchables.addSearchable(prefixedSearchable);
+			this.completePrefixes.add(prefixInfo);
 		}
 	}
 
@@ -59,7 +78,8 @@ public class ElementSearch implements IElementSearch {
 	@Override
 	public void add(IListElementInfo<?> info) {
 		this.allElements.add(info.getElement());
-		for (PrefixedSearchable<IListElementInfo<?>, IListElement<?>> prefixedSearchable : this.prefixedSearchables.values()) {
+		for (Map.Entry<PrefixInfo<IListElementInfo<?>, IListElement<?>>, PrefixedSearchable<IListElementInfo<?>, IListElement<?>>> entry : this.prefixedSearchables.entrySet()) {
+			PrefixedSearchable<IListElementInfo<?>, IListElement<?>> prefixedSearchable = entry.getValue();
 			SearchMode searchMode = prefixedSearchable.getMode();
 			if (searchMode != SearchMode.DISABLED) {
 				Collection<String> strings = prefixedSearchable.getStrings(info);
@@ -67,6 +87,8 @@ public class ElementSearch implements IElementSearch {
 				for (String string : strings) {
 					storage.put(string, info.getElement());
 				}
+			} else {
+				this.completePrefixes.remove(entry.getKey());
 			}
 		}
 	}
@@ -76,10 +98,52 @@ public class ElementSearch implements IElementSearch {
 		for (IListElementInfo<?> info : infos) {
 			this.allElements.add(info.getElement());
 		}
-		for (PrefixedSearchable<IListElementInfo<?>, IListElement<?>> prefixedSearchable : this.prefixedSearchables.values()) {
+		addToStorages(List.copyOf(infos), this.prefixedSearchables.keySet());
+	}
+
+	@Override
+	public IElementSearch rebuild(Collection<IListElementInfo<?>> infos, Set<PrefixInfo<IListElementInfo<?>, IListElement<?>>> changedPrefixes) {
+		Map<PrefixInfo<IListElementInfo<?>, IListElement<?>>, PrefixedSearchable<IListElementInfo<?>, IListElement<?>>> reusedSearchables = new IdentityHashMap<>();
+		List<PrefixInfo<IListElementInfo<?>, IListElement<?>>> rebuiltPrefixes = new ArrayList<>();
+		for (Map.Entry<PrefixInfo<IListElementInfo<?>, IListElement<?>>, PrefixedSearchable<IListElementInfo<?>, IListElement<?>>> entry : this.prefixedSearchables.entrySet()) {
+			PrefixInfo<IListElementInfo<?>, IListElement<?>> prefixInfo = entry.getKey();
+			if (changedPrefixes.contains(prefixInfo) || !this.completePrefixes.contains(prefixInfo)) {
+				rebuiltPrefixes.add(prefixInfo);
+			} else {
+				reusedSearchables.put(prefixInfo, entry.getValue());
+			}
+		}
+		LOGGER.info("Rebuilding search storages {}, reusing {}", rebuiltPrefixes, reusedSearchables.keySet());
+
+		ElementSearch rebuilt = new ElementSearch(this.prefixedSearchables.keySet(), reusedSearchables);
+		for (IListElementInfo<?> info : infos) {
+			rebuilt.allElements.add(info.getElement());
+		}
+		rebuilt.addToStorages(List.copyOf(infos), rebuiltPrefixes);
+		return rebuilt;
+	}
+
+	private void addToStorages(List<IListElementInfo<?>> infos, Collection<PrefixInfo<IListElementInfo<?>, IListElement<?>>> prefixInfos) {
+		for (PrefixInfo<IListElementInfo<?>, IListElement<?>> prefixInfo : prefixInfos) {
+			PrefixedSearchable<IListElementInfo<?>, IListElement<?>> prefixedSearchable = this.prefixedSearchables.get(prefixInfo);
 			SearchMode searchMode = prefixedSearchable.getMode();
-			if (searchMode != SearchMode.DISABLED) {
-				ISearchStorage<IListElement<?>> storage = prefixedSearchable.getSearchStorage();
+			if (searchMode == SearchMode.DISABLED) {
+				this.completePrefixes.remove(prefixInfo);
+				continue;
+			}
+			ISearchStorage<IListElement<?>> storage = prefixedSearchable.getSearchStorage();
+			if (prefixInfo.isParallelStrings()) {
+				// compute the expensive strings in parallel, the storage itself is not thread-safe
+				List<Collection<String>> allStrings = infos.parallelStream()
+					.map(prefixedSearchable::getStrings)
+					.toList();
+				for (int i = 0; i < infos.size(); i++) {
+					IListElement<?> element = infos.get(i).getElement();
+					for (String string : allStrings.get(i)) {
+						storage.put(string, element);
+					}
+				}
+			} else {
 				for (IListElementInfo<?> info : infos) {
 					Collection<String> strings = prefixedSearchable.getStrings(info);
 					for (String string : strings) {
@@ -58,6 +58,14 @@ public class ElementSearchLowMem implements IElementSearch {
 		this.elementInfoList.addAll(infos);
 	}
 
+	@Override
+	public IElementSearch rebuild(Collection<IListElementInfo<?>> infos, Set<PrefixInfo<IListElementInfo<?>, IListElement<?>>> changedPrefixes) {
+		// strings are computed during each search, so there is nothing to reuse
+		ElementSearchLowMem rebuilt = new ElementSearchLowMem();
+		rebuilt.addAll(infos);
+		return rebuilt;
+	}
+
 	@Override
 	public List<IListElement<?>> getAllIngredients() {
 		return this.elementInfoList.stream()
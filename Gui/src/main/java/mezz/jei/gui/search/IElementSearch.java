@@ -1,5 +1,6 @@
 package mezz.jei.gui.search;
 
+import mezz.jei.core.search.PrefixInfo;
 import mezz.jei.gui.ingredients.IListElement;
 import mezz.jei.gui.ingredients.IListElementInfo;
 
@@ -11,6 +12,12 @@ public interface IElementSearch {
 
 	void addAll(Collection<IListElementInfo<?>> infos);
 
+	/**
+	 * Create a new search from freshly computed element infos,
+	 * recomputing the strings of the changed prefixes and reusing everything else.
+	 */
+	IElementSearch rebuild(Collection<IListElementInfo<?>> infos, Set<PrefixInfo<IListElementInfo<?>, IListElement<?>>> changedPrefixes);
+
 	Collection<IListElement<?>> getAllIngredients();
 
 	Set<IListElement<?>> getSearchResults(ElementPrefixParser.TokenInfo tokenInfo);
@@ -0,0 +1,16 @@
+package mezz.jei.gui.search;
+
+/**
+ * Client resources that search strings are derived from.
+ * When resources are reloaded, only the search storages that depend on a changed input are rebuilt.
+ */
+public enum ReloadInput {
+	/**
+	 * Translated text: display names, aliases, tooltips and creative tab names.
+	 */
+	LANGUAGE,
+	/**
+	 * Sprites, which ingredient colors are computed from.
+	 */
+	TEXTURES
+}
@@ -1,5 +1,8 @@
 package mezz.jei.gui.startup;
 
+import mezz.jei.common.Internal;
+import mezz.jei.common.config.IClientConfig;
+import mezz.jei.common.config.file.ConfigFileFormat;
 import mezz.jei.common.platform.Services;
 import mezz.jei.gui.config.BookmarkJsonConfig;
 import mezz.jei.gui.config.IBookmarkConfig;
@@ -16,7 +19,10 @@ public record GuiConfigData(
 	public static GuiConfigData create() {
 		Path configDir = Services.PLATFORM.getConfigHelper().createJeiConfigDir();
 
-		IBookmarkConfig bookmarkConfig = new BookmarkJsonConfig(configDir);
+		IClientConfig clientConfig = Internal.getJeiClientConfigs().getClientConfig();
+		ConfigFileFormat fileFormat = ConfigFileFormat.get(clientConfig.isBinaryConfigFilesEnabled());
+
+		IBookmarkConfig bookmarkConfig = new BookmarkJsonConfig(configDir, fileFormat);
 		ModNameSortingConfig ingredientModNameSortingConfig = new ModNameSortingConfig(configDir.resolve("ingredient-list-mod-sort-order.ini"));
 		IngredientTypeSortingConfig ingredientTypeSortingConfig = new IngredientTypeSortingConfig(configDir.resolve("ingredient-list-type-sort-order.ini"));
 
@@ -1,11 +1,13 @@
 package mezz.jei.gui.startup;
 
+import mezz.jei.gui.bookmarks.BookmarkList;
 import mezz.jei.gui.events.GuiEventHandler;
 import mezz.jei.gui.input.ClientInputHandler;
 
 public record JeiEventHandlers(
 	GuiEventHandler guiEventHandler,
 	ClientInputHandler clientInputHandler,
-	ResourceReloadHandler resourceReloadHandler
+	ResourceReloadHandler resourceReloadHandler,
+	BookmarkList bookmarkList
 ) {
 }
@@ -24,6 +24,7 @@ import mezz.jei.common.gui.textures.Textures;
 import mezz.jei.common.input.IInternalKeyMappings;
 import mezz.jei.common.network.IConnectionToServer;
 import mezz.jei.common.util.ErrorUtil;
+import mezz.jei.common.util.StartupExecutors;
 import mezz.jei.core.util.LoggedTimer;
 import mezz.jei.gui.bookmarks.BookmarkList;
 import mezz.jei.gui.config.IBookmarkConfig;
@@ -32,7 +33,6 @@ import mezz.jei.gui.config.ModNameSortingConfig;
 import mezz.jei.gui.events.GuiEventHandler;
 import mezz.jei.gui.filter.FilterTextSource;
 import mezz.jei.gui.filter.IFilterTextSource;
-import mezz.jei.gui.ingredients.IListElement;
 import mezz.jei.gui.ingredients.IListElementInfo;
 import mezz.jei.gui.ingredients.IngredientFilter;
 import mezz.jei.gui.ingredients.IngredientFilterApi;
@@ -52,6 +52,7 @@ import mezz.jei.gui.input.handlers.UserInputRouter;
 import mezz.jei.gui.overlay.IngredientListOverlay;
 import mezz.jei.gui.overlay.bookmarks.BookmarkOverlay;
 import mezz.jei.gui.recipes.RecipesGui;
+import mezz.jei.gui.recipes.layouts.RecipeLayoutCache;
 import mezz.jei.gui.util.FocusUtil;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.multiplayer.ClientLevel;
@@ -59,8 +60,9 @@ import net.minecraft.core.RegistryAccess;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class JeiGuiStarter {
 	private static final Logger LOGGER = LogManager.getLogger();
@@ -112,21 +114,13 @@ public class JeiGuiStarter {
 		IIngredientGridConfig bookmarkListConfig = jeiClientConfigs.getBookmarkListConfig();
 		IIngredientFilterConfig ingredientFilterConfig = jeiClientConfigs.getIngredientFilterConfig();
 
-		Comparator<IListElement<?>> ingredientComparator = IngredientSorter.sortIngredients(
-			clientConfig,
-			modNameSortingConfig,
-			ingredientTypeSortingConfig,
-			ingredientManager,
-			ingredientList
-		);
-
 		IngredientFilter ingredientFilter = new IngredientFilter(
 			filterTextSource,
 			clientConfig,
 			ingredientFilterConfig,
 			ingredientManager,
-			ingredientComparator,
-			ingredientList,
+			IngredientSorter.COMPARE_SORT_INDEX,
+			List.of(),
 			modIdHelper,
 			ingredientVisibility,
 			colorHelper,
@@ -134,6 +128,26 @@ public class JeiGuiStarter {
 		);
 		ingredientManager.registerIngredientListener(ingredientFilter);
 		ingredientVisibility.registerListener(ingredientFilter);
+		ingredientVisibility.registerListener(RecipeLayoutCache.createVisibilityListener());
+		toggleState.addEditModeToggleListener(RecipeLayoutCache::invalidateAll);
+
+		StartupExecutors executors = StartupExecutors.create(clientConfig);
+		// sorting reorders its list in-place, so give it a copy while the search index is built from the original
+		List<IListElementInfo<?>> sortedIngredientList = new ArrayList<>(ingredientList);
+		CompletableFuture<Void> sortingTask = CompletableFuture.runAsync(() -> {
+			LoggedTimer sortingTimer = new LoggedTimer();
+			sortingTimer.start("Sorting ingredients");
+			IngredientSorter.sortIngredients(
+				clientConfig,
+				modNameSortingConfig,
+				ingredientTypeSortingConfig,
+				ingredientManager,
+				sortedIngredientList
+			);
+			sortingTimer.stop();
+		}, executors.background());
+		CompletableFuture<Void> ingredientFilterTask = ingredientFilter.loadIngredients(ingredientList, sortingTask, executors);
+		registration.addStartupTask(ingredientFilterTask);
 		timer.stop();
 
 		IIngredientFilter ingredientFilterApi = new IngredientFilterApi(ingredientFilter, filterTextSource);
@@ -185,7 +199,8 @@ public class JeiGuiStarter {
 			keyMappings,
 			focusFactory,
 			bookmarkList,
-			guiHelper
+			guiHelper,
+			ingredientManager
 		);
 		registration.setRecipesGui(recipesGui);
 
@@ -231,7 +246,8 @@ public class JeiGuiStarter {
 		return new JeiEventHandlers(
 			guiEventHandler,
 			clientInputHandler,
-			resourceReloadHandler
+			resourceReloadHandler,
+			bookmarkList
 		);
 	}
 }
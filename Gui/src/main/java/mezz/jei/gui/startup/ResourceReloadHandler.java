@@ -2,30 +2,61 @@ package mezz.jei.gui.startup;
 
 import mezz.jei.core.util.LoggedTimer;
 import mezz.jei.gui.ingredients.IngredientFilter;
+import mezz.jei.gui.overlay.IngredientGridTooltipCache;
 import mezz.jei.gui.overlay.IngredientListOverlay;
+import mezz.jei.gui.recipes.layouts.RecipeLayoutCache;
+import mezz.jei.gui.search.ReloadInput;
 import net.minecraft.client.Minecraft;
 import net.minecraft.server.packs.resources.ResourceManager;
 import net.minecraft.server.packs.resources.ResourceManagerReloadListener;
 
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
 public class ResourceReloadHandler implements ResourceManagerReloadListener {
 	private final IngredientListOverlay ingredientListOverlay;
 	private final IngredientFilter ingredientFilter;
+	private List<String> selectedPackIds;
 
 	public ResourceReloadHandler(IngredientListOverlay ingredientListOverlay, IngredientFilter ingredientFilter) {
 		this.ingredientListOverlay = ingredientListOverlay;
 		this.ingredientFilter = ingredientFilter;
+		this.selectedPackIds = getSelectedPackIds();
 	}
 
 	@Override
 	public void onResourceManagerReload(ResourceManager resourceManager) {
+		Set<ReloadInput> changedInputs = getChangedInputs();
+
 		LoggedTimer timer = new LoggedTimer();
-		timer.start("Rebuilding ingredient filter");
-		ingredientFilter.rebuildItemFilter();
+		timer.start("Rebuilding ingredient filter for changes to " + changedInputs);
+		ingredientFilter.rebuildItemFilter(changedInputs);
 		timer.stop();
 
+		IngredientGridTooltipCache.invalidateAll();
+		RecipeLayoutCache.invalidateAll();
+
 		Minecraft minecraft = Minecraft.getInstance();
 		ingredientListOverlay.getScreenPropertiesUpdater()
 			.updateScreen(minecraft.screen)
 			.update();
 	}
+
+	private Set<ReloadInput> getChangedInputs() {
+		List<String> packIds = getSelectedPackIds();
+		if (!packIds.equals(this.selectedPackIds)) {
+			// resource packs can replace both textures and translations
+			this.selectedPackIds = packIds;
+			return EnumSet.allOf(ReloadInput.class);
+		}
+		// Same packs, so the textures and their cached colors are unchanged.
+		// The language may have been switched, or translation files edited.
+		return EnumSet.of(ReloadInput.LANGUAGE);
+	}
+
+	private static List<String> getSelectedPackIds() {
+		Minecraft minecraft = Minecraft.getInstance();
+		return List.copyOf(minecraft.getResourcePackRepository().getSelectedIds());
+	}
 }
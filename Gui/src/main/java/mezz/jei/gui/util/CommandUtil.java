@@ -2,6 +2,7 @@ package mezz.jei.gui.util;
 
 import mezz.jei.common.network.IConnectionToServer;
 import mezz.jei.common.network.packets.PacketGiveItemStack;
+import mezz.jei.common.network.packets.PacketGiveItemStacks;
 import mezz.jei.common.network.packets.PacketSetHotbarItemStack;
 import mezz.jei.common.util.ErrorUtil;
 import mezz.jei.common.util.ServerCommandUtil;
@@ -15,6 +16,9 @@ import net.minecraft.world.item.ItemStack;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public final class CommandUtil {
 	private static final Logger LOGGER = LogManager.getLogger();
 	private final IClientConfig clientConfig;
@@ -51,6 +55,44 @@ public final class CommandUtil {
 		}
 	}
 
+	/**
+	 * Gives several stacks at once.
+	 * When JEI is on the server, they are sent in as few packets as possible,
+	 * so the server only checks the player's permission once for each packet instead of once for each stack.
+	 * Servers with an older version of JEI get one packet for each stack instead.
+	 */
+	public void giveStacks(List<ItemStack> itemStacks, GiveAmount giveAmount) {
+		final GiveMode giveMode = clientConfig.getGiveMode();
+		Minecraft minecraft = Minecraft.getInstance();
+		if ((minecraft.screen instanceof CreativeModeInventoryScreen && giveMode == GiveMode.MOUSE_PICKUP) || !serverConnection.canSend(PacketGiveItemStacks.TYPE)) {
+			for (ItemStack itemStack : itemStacks) {
+				giveStack(itemStack, giveAmount);
+			}
+			return;
+		}
+		if (minecraft.player == null) {
+			LOGGER.error("Can't give stacks, there is no player");
+			return;
+		}
+
+		List<ItemStack> batch = new ArrayList<>();
+		for (ItemStack itemStack : itemStacks) {
+			final int amount = giveAmount.getAmountForStack(itemStack);
+			ItemStack sendStack = copyWithSize(itemStack, amount);
+			if (sendStack.isEmpty()) {
+				continue;
+			}
+			batch.add(sendStack);
+			if (batch.size() == PacketGiveItemStacks.MAX_STACKS) {
+				serverConnection.sendPacketToServer(new PacketGiveItemStacks(batch, giveMode));
+				batch.clear();
+			}
+		}
+		if (!batch.isEmpty()) {
+			serverConnection.sendPacketToServer(new PacketGiveItemStacks(batch, giveMode));
+		}
+	}
+
 	public void setHotbarStack(ItemStack itemStack, int hotbarSlot) {
 		if (serverConnection.isJeiOnServer()) {
 			ItemStack sendStack = copyWithSize(itemStack, itemStack.getMaxStackSize());
@@ -1,64 +1,102 @@
 package mezz.jei.gui.util;
 
 import mezz.jei.common.util.ImmutableRect2i;
-import mezz.jei.common.util.MathUtil;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.List;
 import java.util.stream.Stream;
 
+/**
+ * Finds the largest rectangles in an area that do not overlap any of the exclusion areas.
+ *
+ * The area is split into cells along the edges of the exclusion areas,
+ * so the results are exact and the amount of work depends on the number of exclusion areas
+ * instead of on the size of the area.
+ */
 public class MaximalRectangle {
 	public static Stream<ImmutableRect2i> getLargestRectangles(
 		ImmutableRect2i area,
-		Collection<ImmutableRect2i> exclusionAreas,
-		int samplingScale
+		Collection<ImmutableRect2i> exclusionAreas
 	) {
-		exclusionAreas = exclusionAreas.stream()
-			.filter(area::intersects)
-			.collect(Collectors.toUnmodifiableSet());
+		List<ImmutableRect2i> intersectingAreas = new ArrayList<>();
+		for (ImmutableRect2i exclusionArea : exclusionAreas) {
+			if (area.intersects(exclusionArea)) {
+				intersectingAreas.add(exclusionArea);
+			}
+		}
 
-		if (exclusionAreas.isEmpty()) {
+		if (intersectingAreas.isEmpty()) {
 			return Stream.of(area);
 		}
 
-		MaximalRectangle maximalRectangle = new MaximalRectangle(area, samplingScale, exclusionAreas);
+		MaximalRectangle maximalRectangle = new MaximalRectangle(area, intersectingAreas);
 		return maximalRectangle.getLargestRectangles();
 	}
 
-	private final ImmutableRect2i area;
+	/**
+	 * The x coordinates of the cell edges, from the left of the area to the right.
+	 */
+	private final int[] xEdges;
+	/**
+	 * The y coordinates of the cell edges, from the top of the area to the bottom.
+	 */
+	private final int[] yEdges;
 	private final int rows;
 	private final int columns;
-	private final int samplingScale;
-	private final boolean[][] blockedAreas;
+	private final boolean[][] blockedCells;
 
-	private MaximalRectangle(ImmutableRect2i area, int samplingScale, Collection<ImmutableRect2i> exclusionAreas) {
-		this.area = area;
-		this.samplingScale = samplingScale;
+	private MaximalRectangle(ImmutableRect2i area, List<ImmutableRect2i> exclusionAreas) {
+		final int left = area.getX();
+		final int right = area.getX() + area.getWidth();
+		final int top = area.getY();
+		final int bottom = area.getY() + area.getHeight();
 
-		this.rows = area.getHeight() / samplingScale;
-		this.columns = area.getWidth() / samplingScale;
-		this.blockedAreas = new boolean[rows][columns];
-		for (int row = 0; row < rows; row++) {
-			for (int column = 0; column < columns; column++) {
-				ImmutableRect2i rect = getRect(row, column, 1, 1);
-				boolean intersects = MathUtil.intersects(exclusionAreas, rect);
-				blockedAreas[row][column] = intersects;
+		int[] xs = new int[2 + exclusionAreas.size() * 2];
+		int[] ys = new int[2 + exclusionAreas.size() * 2];
+		xs[0] = left;
+		xs[1] = right;
+		ys[0] = top;
+		ys[1] = bottom;
+		for (int i = 0; i < exclusionAreas.size(); i++) {
+			ImmutableRect2i exclusionArea = exclusionAreas.get(i);
+			xs[2 + i * 2] = clamp(exclusionArea.getX(), left, right);
+			xs[3 + i * 2] = clamp(exclusionArea.getX() + exclusionArea.getWidth(), left, right);
+			ys[2 + i * 2] = clamp(exclusionArea.getY(), top, bottom);
+			ys[3 + i * 2] = clamp(exclusionArea.getY() + exclusionArea.getHeight(), top, bottom);
+		}
+		this.xEdges = sortedDistinct(xs);
+		this.yEdges = sortedDistinct(ys);
+		this.columns = xEdges.length - 1;
+		this.rows = yEdges.length - 1;
+
+		// every exclusion area covers a whole range of cells, because the cells are cut along its edges
+		this.blockedCells = new boolean[rows][columns];
+		for (ImmutableRect2i exclusionArea : exclusionAreas) {
+			int firstColumn = Arrays.binarySearch(xEdges, clamp(exclusionArea.getX(), left, right));
+			int endColumn = Arrays.binarySearch(xEdges, clamp(exclusionArea.getX() + exclusionArea.getWidth(), left, right));
+			int firstRow = Arrays.binarySearch(yEdges, clamp(exclusionArea.getY(), top, bottom));
+			int endRow = Arrays.binarySearch(yEdges, clamp(exclusionArea.getY() + exclusionArea.getHeight(), top, bottom));
+			for (int row = firstRow; row < endRow; row++) {
+				Arrays.fill(blockedCells[row], firstColumn, endColumn, true);
 			}
 		}
 	}
 
-	private ImmutableRect2i getRect(int row, int column, int width, int height) {
-		if (width == 0 || height == 0) {
-			return ImmutableRect2i.EMPTY;
+	private static int clamp(int value, int min, int max) {
+		return Math.max(min, Math.min(max, value));
+	}
+
+	private static int[] sortedDistinct(int[] values) {
+		Arrays.sort(values);
+		int count = 0;
+		for (int value : values) {
+			if (count == 0 || values[count - 1] != value) {
+				values[count++] = value;
+			}
 		}
-		return new ImmutableRect2i(
-			area.getX() + (column * samplingScale),
-			area.getY() + (row * samplingScale),
-			width * samplingScale,
-			height * samplingScale
-		);
+		return Arrays.copyOf(values, count);
 	}
 
 	private Stream<ImmutableRect2i> getLargestRectangles() {
@@ -66,46 +104,82 @@ public class MaximalRectangle {
 			return Stream.empty();
 		}
 
+		// the cell-count version of the classic maximal rectangle algorithm,
+		// converted to pixels using the edge coordinates.
 		int[] heights = new int[columns];
 		int[] leftIndexes = new int[columns];
 		int[] rightIndexes = new int[columns];
 		Arrays.fill(rightIndexes, columns);
 
-		return IntStream.range(0, rows)
-			.boxed()
-			.flatMap(row -> {
-				int currentLeftIndex = 0;
-				for (int column = 0; column < columns; column++) {
-					if (blockedAreas[row][column]) {
-						heights[column] = 0;
-						leftIndexes[column] = 0;
-						currentLeftIndex = column + 1;
-					} else {
-						heights[column]++;
-						leftIndexes[column] = Math.max(leftIndexes[column], currentLeftIndex);
-					}
+		List<ImmutableRect2i> results = new ArrayList<>();
+		for (int row = 0; row < rows; row++) {
+			boolean[] blockedRow = blockedCells[row];
+
+			int currentLeftIndex = 0;
+			for (int column = 0; column < columns; column++) {
+				if (blockedRow[column]) {
+					heights[column] = 0;
+					leftIndexes[column] = 0;
+					currentLeftIndex = column + 1;
+				} else {
+					heights[column]++;
+					leftIndexes[column] = Math.max(leftIndexes[column], currentLeftIndex);
 				}
+			}
 
-				int currentRightIndex = columns;
-				for (int column = columns - 1; column >= 0; column--) {
-					if (blockedAreas[row][column]) {
-						rightIndexes[column] = columns;
-						currentRightIndex = column;
-					} else {
-						rightIndexes[column] = Math.min(rightIndexes[column], currentRightIndex);
-					}
+			int currentRightIndex = columns;
+			for (int column = columns - 1; column >= 0; column--) {
+				if (blockedRow[column]) {
+					rightIndexes[column] = columns;
+					currentRightIndex = column;
+				} else {
+					rightIndexes[column] = Math.min(rightIndexes[column], currentRightIndex);
 				}
+			}
 
-				return IntStream.range(0, columns)
-					.mapToObj(column -> {
-						int rightIndex = rightIndexes[column];
-						int leftIndex = leftIndexes[column];
-						int width = (rightIndex - leftIndex);
-						int height = heights[column];
-
-						return getRect(row - height + 1, leftIndex, width, height);
-					})
-					.filter(r -> !r.isEmpty());
-			});
+			int[] blockedBelow = countBlockedCellsBelow(row);
+			int previousLeftIndex = -1;
+			int previousRightIndex = -1;
+			int previousHeight = -1;
+			for (int column = 0; column < columns; column++) {
+				int height = heights[column];
+				int leftIndex = leftIndexes[column];
+				int rightIndex = rightIndexes[column];
+				if (height > 0 &&
+					blockedBelow[rightIndex] - blockedBelow[leftIndex] > 0 &&
+					(leftIndex != previousLeftIndex || rightIndex != previousRightIndex || height != previousHeight)
+				) {
+					// only add rectangles that cannot grow downwards, and skip repeats from neighboring columns
+					previousLeftIndex = leftIndex;
+					previousRightIndex = rightIndex;
+					previousHeight = height;
+					int x = xEdges[leftIndex];
+					int y = yEdges[row - height + 1];
+					int width = xEdges[rightIndex] - x;
+					int pixelHeight = yEdges[row + 1] - y;
+					results.add(new ImmutableRect2i(x, y, width, pixelHeight));
+				}
+			}
+		}
+		return results.stream();
+	}
+
+	/**
+	 * @return the number of blocked cells in the row below the given row, before each column.
+	 * The row below the area counts as fully blocked.
+	 */
+	private int[] countBlockedCellsBelow(int row) {
+		int[] blockedBefore = new int[columns + 1];
+		if (row + 1 >= rows) {
+			for (int column = 0; column <= columns; column++) {
+				blockedBefore[column] = column;
+			}
+			return blockedBefore;
+		}
+		boolean[] blockedRow = blockedCells[row + 1];
+		for (int column = 0; column < columns; column++) {
+			blockedBefore[column + 1] = blockedBefore[column] + (blockedRow[column] ? 1 : 0);
+		}
+		return blockedBefore;
 	}
 }
@@ -0,0 +1,144 @@
+package mezz.jei.test.gui.bookmarks;
+
+import mezz.jei.gui.bookmarks.BookmarkSaver;
+import mezz.jei.test.gui.lib.ManualScheduler;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+public class BookmarkSaverTest {
+	private static final Duration DELAY = Duration.ofSeconds(1);
+	private static final Executor DIRECT = Runnable::run;
+
+	/**
+	 * A burst of changes should be saved once, after the delay.
+	 */
+	@Test
+	public void testBurstIsSavedOnce() {
+		TestBookmarks bookmarks = new TestBookmarks();
+		ManualScheduler scheduler = new ManualScheduler();
+		BookmarkSaver saver = new BookmarkSaver(bookmarks::prepareSave, DIRECT, DIRECT, DELAY, scheduler);
+		for (int i = 0; i < 100; i++) {
+			bookmarks.add(i);
+			saver.markDirty();
+		}
+		Assertions.assertEquals(0, bookmarks.prepareCount);
+		Assertions.assertEquals(0, bookmarks.saves.size());
+		Assertions.assertEquals(1, scheduler.getScheduledCount());
+
+		scheduler.runScheduled();
+		Assertions.assertEquals(1, bookmarks.prepareCount);
+		Assertions.assertEquals(1, bookmarks.saves.size());
+		Assertions.assertEquals(100, bookmarks.saves.getFirst().size());
+	}
+
+	/**
+	 * The list is copied when the save is prepared, so later changes do not leak into a save that is being written.
+	 */
+	@Test
+	public void testSaveIsSnapshot() {
+		TestBookmarks bookmarks = new TestBookmarks();
+		ManualScheduler scheduler = new ManualScheduler();
+		List<Runnable> background = new ArrayList<>();
+		BookmarkSaver saver = new BookmarkSaver(bookmarks::prepareSave, DIRECT, background::add, DELAY, scheduler);
+		bookmarks.add(1);
+		saver.markDirty();
+		scheduler.runScheduled();
+		Assertions.assertEquals(1, background.size());
+
+		bookmarks.add(2);
+		background.getFirst().run();
+		Assertions.assertEquals(List.of(1), bookmarks.saves.getFirst());
+	}
+
+	@Test
+	public void testFlushSavesImmediately() {
+		TestBookmarks bookmarks = new TestBookmarks();
+		ManualScheduler scheduler = new ManualScheduler();
+		BookmarkSaver saver = new BookmarkSaver(bookmarks::prepareSave, DIRECT, DIRECT, DELAY, scheduler);
+		bookmarks.add(1);
+		saver.markDirty();
+		saver.flush();
+		Assertions.assertEquals(1, bookmarks.saves.size());
+
+		// the delayed save has nothing left to do
+		scheduler.runScheduled();
+		Assertions.assertEquals(1, bookmarks.prepareCount);
+		Assertions.assertEquals(1, bookmarks.saves.size());
+
+		// nothing changed
+		saver.flush();
+		Assertions.assertEquals(1, bookmarks.saves.size());
+	}
+
+	/**
+	 * A save that was waiting in the background must not replace a newer one written by a flush.
+	 */
+	@Test
+	public void testOlderSaveDoesNotReplaceFlush() {
+		TestBookmarks bookmarks = new TestBookmarks();
+		ManualScheduler scheduler = new ManualScheduler();
+		List<Runnable> background = new ArrayList<>();
+		BookmarkSaver saver = new BookmarkSaver(bookmarks::prepareSave, DIRECT, background::add, DELAY, scheduler);
+		bookmarks.add(1);
+		saver.markDirty();
+		scheduler.runScheduled();
+		Assertions.assertEquals(1, background.size());
+
+		bookmarks.add(2);
+		saver.markDirty();
+		saver.flush();
+		background.getFirst().run();
+
+		Assertions.assertEquals(1, bookmarks.saves.size());
+		Assertions.assertEquals(List.of(1, 2), bookmarks.saves.getFirst());
+	}
+
+	/**
+	 * Changes only mark the bookmarks as changed, so no matter how many bookmarks there are,
+	 * they are copied once for each burst of changes instead of once for each change.
+	 */
+	@Test
+	public void testBookmarksAreCopiedOncePerBurst() {
+		TestBookmarks bookmarks = new TestBookmarks();
+		for (int i = 0; i < 100_000; i++) {
+			bookmarks.add(i);
+		}
+		ManualScheduler scheduler = new ManualScheduler();
+		BookmarkSaver saver = new BookmarkSaver(bookmarks::prepareSave, DIRECT, DIRECT, DELAY, scheduler);
+
+		for (int burst = 1; burst <= 3; burst++) {
+			for (int i = 0; i < 1_000; i++) {
+				bookmarks.add(i);
+				saver.markDirty();
+			}
+			Assertions.assertEquals(burst - 1, bookmarks.prepareCount);
+
+			scheduler.runScheduled();
+			Assertions.assertEquals(burst, bookmarks.prepareCount);
+			Assertions.assertEquals(burst, bookmarks.saves.size());
+			Assertions.assertEquals(100_000 + burst * 1_000, bookmarks.saves.getLast().size());
+		}
+	}
+
+	private static class TestBookmarks {
+		private final List<Integer> list = new ArrayList<>();
+		private final List<List<Integer>> saves = new ArrayList<>();
+		private int prepareCount;
+
+		public void add(int bookmark) {
+			list.add(bookmark);
+		}
+
+		public Optional<Runnable> prepareSave() {
+			prepareCount++;
+			List<Integer> copy = List.copyOf(list);
+			return Optional.of(() -> saves.add(copy));
+		}
+	}
+}
@@ -0,0 +1,246 @@
+package mezz.jei.test.gui.bookmarks;
+
+import mezz.jei.api.gui.builder.IRecipeLayoutBuilder;
+import mezz.jei.api.gui.drawable.IDrawable;
+import mezz.jei.api.ingredients.IIngredientType;
+import mezz.jei.api.ingredients.ITypedIngredient;
+import mezz.jei.api.recipe.IFocusGroup;
+import mezz.jei.api.recipe.RecipeType;
+import mezz.jei.api.recipe.category.IRecipeCategory;
+import mezz.jei.gui.bookmarks.BookmarkStore;
+import mezz.jei.gui.bookmarks.BookmarkType;
+import mezz.jei.gui.bookmarks.IBookmark;
+import mezz.jei.gui.bookmarks.RecipeBookmark;
+import mezz.jei.gui.overlay.elements.IElement;
+import net.minecraft.network.chat.Component;
+import net.minecraft.resources.ResourceLocation;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class BookmarkStoreTest {
+	private static final RecipeType<String> RECIPE_TYPE = RecipeType.create("test", "recipe", String.class);
+	private static final RecipeType<String> OTHER_RECIPE_TYPE = RecipeType.create("test", "other", String.class);
+	private static final IIngredientType<String> INGREDIENT_TYPE = () -> String.class;
+
+	@Test
+	public void testAddKeepsOrder() {
+		BookmarkStore store = new BookmarkStore();
+		TestBookmark a = new TestBookmark("a");
+		TestBookmark b = new TestBookmark("b");
+		TestBookmark c = new TestBookmark("c");
+		Assertions.assertTrue(store.add(a, false));
+		Assertions.assertTrue(store.add(b, false));
+		Assertions.assertTrue(store.add(c, true));
+		Assertions.assertEquals(List.of(c, a, b), store.getBookmarks());
+
+		Assertions.assertEquals(0, store.indexOf(c));
+		Assertions.assertEquals(1, store.indexOf(a));
+		Assertions.assertEquals(2, store.indexOf(b));
+	}
+
+	@Test
+	public void testDuplicatesAreNotAdded() {
+		BookmarkStore store = new BookmarkStore();
+		Assertions.assertTrue(store.add(new TestBookmark("a"), false));
+		Assertions.assertFalse(store.add(new TestBookmark("a"), false));
+		Assertions.assertFalse(store.add(new TestBookmark("a"), true));
+		Assertions.assertEquals(1, store.size());
+		Assertions.assertTrue(store.contains(new TestBookmark("a")));
+		Assertions.assertFalse(store.contains(new TestBookmark("b")));
+	}
+
+	@Test
+	public void testRemove() {
+		BookmarkStore store = new BookmarkStore();
+		TestBookmark a = new TestBookmark("a");
+		TestBookmark b = new TestBookmark("b");
+		TestBookmark c = new TestBookmark("c");
+		store.add(a, false);
+		store.add(b, false);
+		store.add(c, false);
+
+		Assertions.assertTrue(store.remove(a));
+		Assertions.assertFalse(store.remove(a));
+		Assertions.assertFalse(store.contains(a));
+		Assertions.assertEquals(-1, store.indexOf(a));
+		Assertions.assertEquals(List.of(b, c), store.getBookmarks());
+		Assertions.assertEquals(0, store.indexOf(b));
+		Assertions.assertEquals(1, store.indexOf(c));
+
+		Assertions.assertTrue(store.remove(c));
+		Assertions.assertEquals(List.of(b), store.getBookmarks());
+		Assertions.assertEquals(0, store.indexOf(b));
+	}
+
+	/**
+	 * Moving works the same as removing the bookmark and adding it back at the new index.
+	 */
+	@Test
+	public void testMove() {
+		BookmarkStore store = new BookmarkStore();
+		TestBookmark a = new TestBookmark("a");
+		TestBookmark b = new TestBookmark("b");
+		TestBookmark c = new TestBookmark("c");
+		TestBookmark d = new TestBookmark("d");
+		store.add(a, false);
+		store.add(b, false);
+		store.add(c, false);
+		store.add(d, false);
+
+		store.move(a, 2);
+		Assertions.assertEquals(List.of(b, c, a, d), store.getBookmarks());
+		store.move(d, 0);
+		Assertions.assertEquals(List.of(d, b, c, a), store.getBookmarks());
+		for (int i = 0; i < store.size(); i++) {
+			Assertions.assertEquals(i, store.indexOf(store.getBookmarks().get(i)));
+		}
+
+		// not stored
+		store.move(new TestBookmark("e"), 0);
+		Assertions.assertEquals(List.of(d, b, c, a), store.getBookmarks());
+	}
+
+	@Test
+	public void testMatchingRecipeBookmark() {
+		BookmarkStore store = new BookmarkStore();
+		RecipeBookmark<String, String> bookmark = createRecipeBookmark(RECIPE_TYPE, "first");
+		store.add(bookmark, false);
+		store.add(createRecipeBookmark(RECIPE_TYPE, "second"), false);
+		store.add(new TestBookmark("first"), false);
+
+		Assertions.assertSame(bookmark, store.getMatchingBookmark(RECIPE_TYPE, "first"));
+		Assertions.assertNull(store.getMatchingBookmark(RECIPE_TYPE, "third"));
+		Assertions.assertNull(store.getMatchingBookmark(OTHER_RECIPE_TYPE, "first"));
+
+		store.remove(bookmark);
+		Assertions.assertNull(store.getMatchingBookmark(RECIPE_TYPE, "first"));
+		Assertions.assertNotNull(store.getMatchingBookmark(RECIPE_TYPE, "second"));
+	}
+
+	@Test
+	public void testClear() {
+		BookmarkStore store = new BookmarkStore();
+		store.add(new TestBookmark("a"), false);
+		store.add(createRecipeBookmark(RECIPE_TYPE, "first"), true);
+		store.clear();
+		Assertions.assertTrue(store.isEmpty());
+		Assertions.assertFalse(store.contains(new TestBookmark("a")));
+		Assertions.assertNull(store.getMatchingBookmark(RECIPE_TYPE, "first"));
+	}
+
+	/**
+	 * Positions are updated on every change instead of being indexed again,
+	 * so they must match the list after any mix of adds, removes and moves.
+	 */
+	@Test
+	public void testPositionsMatchOrder() {
+		BookmarkStore store = new BookmarkStore();
+		List<IBookmark> expected = new ArrayList<>();
+		Random random = new Random(42);
+		for (int step = 0; step < 5_000; step++) {
+			int operation = random.nextInt(4);
+			if (operation == 0 || expected.isEmpty()) {
+				TestBookmark bookmark = new TestBookmark(Integer.toString(step));
+				boolean addToFront = random.nextBoolean();
+				store.add(bookmark, addToFront);
+				expected.add(addToFront ? 0 : expected.size(), bookmark);
+			} else if (operation == 1) {
+				IBookmark bookmark = expected.remove(random.nextInt(expected.size()));
+				Assertions.assertTrue(store.remove(bookmark));
+			} else {
+				IBookmark bookmark = expected.remove(random.nextInt(expected.size()));
+				int newIndex = random.nextInt(expected.size() + 1);
+				expected.add(newIndex, bookmark);
+				store.move(bookmark, newIndex);
+			}
+
+			Assertions.assertEquals(expected, store.getBookmarks(), "step " + step);
+			for (int i = 0; i < expected.size(); i++) {
+				Assertions.assertEquals(i, store.indexOf(expected.get(i)), "step " + step);
+			}
+		}
+	}
+
+	private static RecipeBookmark<String, String> createRecipeBookmark(RecipeType<String> recipeType, String recipe) {
+		TestRecipeCategory recipeCategory = new TestRecipeCategory(recipeType);
+		ResourceLocation recipeUid = recipeCategory.getRegistryName(recipe);
+		return new RecipeBookmark<>(recipeCategory, recipe, recipeUid, new TestTypedIngredient(recipe), true);
+	}
+
+	private record TestBookmark(String name) implements IBookmark {
+		@Override
+		public BookmarkType getType() {
+			return BookmarkType.INGREDIENT;
+		}
+
+		@Override
+		public IElement<?> getElement() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public boolean isVisible() {
+			return true;
+		}
+
+		@Override
+		public void setVisible(boolean visible) {
+
+		}
+	}
+
+	private record TestTypedIngredient(String ingredient) implements ITypedIngredient<String> {
+		@Override
+		public IIngredientType<String> getType() {
+			return INGREDIENT_TYPE;
+		}
+
+		@Override
+		public String getIngredient() {
+			return ingredient;
+		}
+	}
+
+	private record TestRecipeCategory(RecipeType<String> recipeType) implements IRecipeCategory<String> {
+		@Override
+		public RecipeType<String> getRecipeType() {
+			return recipeType;
+		}
+
+		@Override
+		public Component getTitle() {
+			return Component.literal(recipeType.toString());
+		}
+
+		@Override
+		public int getWidth() {
+			return 0;
+		}
+
+		@Override
+		public int getHeight() {
+			return 0;
+		}
+
+		@Override
+		@Nullable
+		public IDrawable getIcon() {
+			return null;
+		}
+
+		@Override
+		public void setRecipe(IRecipeLayoutBuilder builder, String recipe, IFocusGroup focuses) {
+
+		}
+
+		@Override
+		public ResourceLocation getRegistryName(String recipe) {
+			return ResourceLocation.fromNamespaceAndPath("test", recipe);
+		}
+	}
+}
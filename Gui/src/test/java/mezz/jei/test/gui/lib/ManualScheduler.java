@@ -0,0 +1,134 @@
+package mezz.jei.test.gui.lib;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A scheduler that only runs its tasks when the test calls {@link #runScheduled()},
+ * so tests can control when delays elapse without sleeping.
+ * Delays are ignored, tasks run in the order they were scheduled.
+ */
+public class ManualScheduler extends AbstractExecutorService implements ScheduledExecutorService {
+	private final List<Task<?>> scheduled = new ArrayList<>();
+	private boolean shutdown;
+
+	/**
+	 * Runs the tasks that are scheduled and were not cancelled, as if their delay had elapsed.
+	 *
+	 * @return the number of tasks that ran
+	 */
+	public int runScheduled() {
+		List<Task<?>> tasks = new ArrayList<>(scheduled);
+		scheduled.clear();
+		int count = 0;
+		for (Task<?> task : tasks) {
+			if (!task.isCancelled()) {
+				task.run();
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * @return the number of tasks that are scheduled and were not cancelled
+	 */
+	public int getScheduledCount() {
+		int count = 0;
+		for (Task<?> task : scheduled) {
+			if (!task.isCancelled()) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+		return add(new Task<>(command, null));
+	}
+
+	@Override
+	public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+		return add(new Task<>(callable));
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		schedule(command, 0, TimeUnit.MILLISECONDS);
+	}
+
+	private <V> Task<V> add(Task<V> task) {
+		if (shutdown) {
+			throw new RejectedExecutionException();
+		}
+		scheduled.add(task);
+		return task;
+	}
+
+	@Override
+	public void shutdown() {
+		shutdown = true;
+	}
+
+	@Override
+	public List<Runnable> shutdownNow() {
+		shutdown = true;
+		List<Runnable> tasks = new ArrayList<>(scheduled);
+		scheduled.clear();
+		return tasks;
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return shutdown;
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return shutdown && scheduled.isEmpty();
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) {
+		return isTerminated();
+	}
+
+	private static class Task<V> extends FutureTask<V> implements ScheduledFuture<V> {
+		public Task(Callable<V> callable) {
+			super(callable);
+		}
+
+		public Task(Runnable runnable, V result) {
+			super(runnable, result);
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return 0;
+		}
+
+		@Override
+		public int compareTo(Delayed o) {
+			return Long.compare(getDelay(TimeUnit.NANOSECONDS), o.getDelay(TimeUnit.NANOSECONDS));
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package mezz.jei.test.gui.overlay;
+
+import mezz.jei.gui.overlay.IngredientGridPages;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class IngredientGridPagesTest {
+	@Test
+	public void testEmpty() {
+		IngredientGridPages pages = IngredientGridPages.create(List.<Boolean>of(), visible -> visible, 10);
+		Assertions.assertEquals(1, pages.getPageCount());
+		Assertions.assertEquals(0, pages.getPageStart(0));
+		Assertions.assertEquals(0, pages.getPageNumber(0));
+	}
+
+	@Test
+	public void testNoRoom() {
+		List<Boolean> elements = Collections.nCopies(20, true);
+		IngredientGridPages pages = IngredientGridPages.create(elements, visible -> visible, 0);
+		Assertions.assertEquals(1, pages.getPageCount());
+		Assertions.assertEquals(0, pages.getPageStart(0));
+	}
+
+	@Test
+	public void testAllVisible() {
+		List<Boolean> elements = Collections.nCopies(25, true);
+		IngredientGridPages pages = IngredientGridPages.create(elements, visible -> visible, 10);
+		Assertions.assertEquals(3, pages.getPageCount());
+		Assertions.assertEquals(0, pages.getPageStart(0));
+		Assertions.assertEquals(10, pages.getPageStart(1));
+		Assertions.assertEquals(20, pages.getPageStart(2));
+		Assertions.assertEquals(2, pages.getPageNumber(24));
+	}
+
+	@Test
+	public void testExactlyFullPages() {
+		List<Boolean> elements = Collections.nCopies(20, true);
+		IngredientGridPages pages = IngredientGridPages.create(elements, visible -> visible, 10);
+		Assertions.assertEquals(2, pages.getPageCount());
+	}
+
+	@Test
+	public void testWrapsAround() {
+		List<Boolean> elements = Collections.nCopies(25, true);
+		IngredientGridPages pages = IngredientGridPages.create(elements, visible -> visible, 10);
+		Assertions.assertEquals(0, pages.getPageStart(3));
+		Assertions.assertEquals(20, pages.getPageStart(-1));
+	}
+
+	@Test
+	public void testInvisibleElementsAreSkipped() {
+		List<Boolean> elements = new ArrayList<>(Collections.nCopies(12, true));
+		elements.set(1, false);
+		elements.set(2, false);
+		IngredientGridPages pages = IngredientGridPages.create(elements, visible -> visible, 5);
+		Assertions.assertEquals(2, pages.getPageCount());
+		Assertions.assertEquals(0, pages.getPageStart(0));
+		Assertions.assertEquals(7, pages.getPageStart(1));
+		Assertions.assertEquals(0, pages.getPageNumber(6));
+		Assertions.assertEquals(1, pages.getPageNumber(7));
+	}
+
+	@Test
+	public void testTrailingInvisibleElementsMakeNoPage() {
+		List<Boolean> elements = new ArrayList<>(Collections.nCopies(10, true));
+		elements.addAll(Collections.nCopies(5, false));
+		IngredientGridPages pages = IngredientGridPages.create(elements, visible -> visible, 10);
+		Assertions.assertEquals(1, pages.getPageCount());
+	}
+
+	/**
+	 * Every page must start with a visible element, and hold exactly one page of visible elements.
+	 */
+	@Test
+	public void testPagesHoldPageSizeVisibleElements() {
+		Random random = new Random(2468L);
+		for (int i = 0; i < 200; i++) {
+			int pageSize = 1 + random.nextInt(30);
+			List<Boolean> elements = new ArrayList<>();
+			int count = random.nextInt(300);
+			for (int j = 0; j < count; j++) {
+				elements.add(random.nextInt(4) != 0);
+			}
+
+			IngredientGridPages pages = IngredientGridPages.create(elements, visible -> visible, pageSize);
+			long visibleCount = elements.stream().filter(visible -> visible).count();
+			Assertions.assertEquals(Math.max(1, (visibleCount + pageSize - 1) / pageSize), pages.getPageCount());
+			for (int page = 0; page < pages.getPageCount() - 1; page++) {
+				int start = pages.getPageStart(page);
+				int end = pages.getPageStart(page + 1);
+				Assertions.assertTrue(elements.get(start), "page " + page + " starts with an invisible element");
+				long visibleOnPage = elements.subList(start, end).stream().filter(visible -> visible).count();
+				Assertions.assertEquals(pageSize, visibleOnPage, "visible elements on page " + page);
+				Assertions.assertEquals(page, pages.getPageNumber(start));
+				Assertions.assertEquals(page, pages.getPageNumber(end - 1));
+			}
+		}
+	}
+
+	@Test
+	public void testIsValidFor() {
+		List<Boolean> elements = Collections.nCopies(25, true);
+		IngredientGridPages pages = IngredientGridPages.create(elements, visible -> visible, 10);
+		Assertions.assertTrue(pages.isValidFor(elements, 10));
+		Assertions.assertFalse(pages.isValidFor(elements, 11));
+		Assertions.assertFalse(pages.isValidFor(new ArrayList<>(elements), 10));
+	}
+}
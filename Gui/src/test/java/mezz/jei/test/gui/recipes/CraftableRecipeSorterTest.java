@@ -0,0 +1,329 @@
+package mezz.jei.test.gui.recipes;
+
+import mezz.jei.api.constants.VanillaTypes;
+import mezz.jei.api.gui.ingredient.IRecipeSlotView;
+import mezz.jei.api.helpers.IStackHelper;
+import mezz.jei.api.ingredients.IIngredientType;
+import mezz.jei.api.ingredients.ITypedIngredient;
+import mezz.jei.api.ingredients.subtypes.UidContext;
+import mezz.jei.api.recipe.RecipeIngredientRole;
+import mezz.jei.api.recipe.RecipeType;
+import mezz.jei.common.transfer.IRecipeTransferSlots;
+import mezz.jei.common.transfer.InventoryIndex;
+import mezz.jei.common.transfer.RecipeTransferOperationsResult;
+import mezz.jei.common.transfer.RecipeTransferUtil;
+import mezz.jei.gui.recipes.layouts.CraftableRecipeSorter;
+import net.minecraft.SharedConstants;
+import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.core.component.DataComponents;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.SimpleContainer;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.inventory.AbstractContainerMenu;
+import net.minecraft.world.inventory.Slot;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.Stream;
+
+public class CraftableRecipeSorterTest {
+	private static final RecipeType<TestRecipe> RECIPE_TYPE = RecipeType.create("jei", "test", TestRecipe.class);
+	private static final int CRAFTING_SLOT_COUNT = 9;
+	private static final int INVENTORY_SLOT_COUNT = 12;
+
+	@BeforeAll
+	public static void bootstrap() {
+		SharedConstants.tryDetectVersion();
+		Bootstrap.bootStrap();
+	}
+
+	@Test
+	public void testEachItemIsUsedOnce() {
+		CraftableRecipeSorter.Inventory oneItem = new CraftableRecipeSorter.Inventory(new int[]{0}, new int[]{0}, new int[]{1}, 1);
+		CraftableRecipeSorter.Inventory twoItems = new CraftableRecipeSorter.Inventory(new int[]{0}, new int[]{0}, new int[]{2}, 1);
+		int[][] recipe = {{0}, {0}};
+
+		Assertions.assertEquals(1, CraftableRecipeSorter.countMissing(oneItem, recipe));
+		Assertions.assertEquals(0, CraftableRecipeSorter.countMissing(twoItems, recipe));
+	}
+
+	@Test
+	public void testNotEstimated() {
+		CraftableRecipeSorter.Inventory inventory = new CraftableRecipeSorter.Inventory(new int[]{0}, new int[]{0}, new int[]{1}, 1);
+		CraftableRecipeSorter.Inventory[] inventories = {inventory, inventory, null};
+		int[][][] recipes = {{{0}}, null, {{0}}};
+
+		int[] missingCounts = CraftableRecipeSorter.countMissing(inventories, recipes);
+		Assertions.assertArrayEquals(new int[]{0, CraftableRecipeSorter.NOT_ESTIMATED, CraftableRecipeSorter.NOT_ESTIMATED}, missingCounts);
+	}
+
+	@Test
+	public void testRecipesWithoutInputsAreCraftable() {
+		int[] inputCounts = {2, 0, 1};
+		int[] missingCounts = {1, 0, 0};
+
+		int[] order = CraftableRecipeSorter.getCraftableOrder(inputCounts, missingCounts);
+		Assertions.assertArrayEquals(new int[]{1, 2, 0}, order);
+	}
+
+	/**
+	 * The estimate must report the same missing count as {@link RecipeTransferUtil#getRecipeTransferOperations},
+	 * which the basic recipe transfer handler uses, for every recipe that it estimates.
+	 * Recipes are only left to the handler when it would return an error that is not about missing items.
+	 */
+	@Test
+	public void testSameMissingCountsAsTransferUtil() {
+		Random random = new Random(5);
+		List<ItemStack> items = createItems();
+		int estimatedCount = 0;
+		for (int test = 0; test < 100; test++) {
+			TestStackHelper stackHelper = new TestStackHelper();
+			ItemStack[] stacks = new ItemStack[CRAFTING_SLOT_COUNT + INVENTORY_SLOT_COUNT];
+			for (int i = 0; i < stacks.length; i++) {
+				int emptyChance = i < CRAFTING_SLOT_COUNT ? 4 : 2;
+				if (random.nextInt(emptyChance) == 0) {
+					ItemStack stack = items.get(random.nextInt(items.size())).copy();
+					stack.setCount(Math.min(stack.getMaxStackSize(), 1 + random.nextInt(3)));
+					stacks[i] = stack;
+				} else {
+					stacks[i] = ItemStack.EMPTY;
+				}
+			}
+			TestMenu container = new TestMenu(stacks);
+			List<Slot> craftingSlots = container.slots.subList(0, CRAFTING_SLOT_COUNT);
+			List<Slot> inventorySlots = container.slots.subList(CRAFTING_SLOT_COUNT, container.slots.size());
+			IRecipeTransferSlots.TransferSlots transferSlots = new IRecipeTransferSlots.TransferSlots(craftingSlots, inventorySlots);
+
+			List<TestRecipe> recipes = new ArrayList<>();
+			for (int r = 0; r < 30; r++) {
+				recipes.add(createRecipe(random, items));
+			}
+
+			// plain slots don't look at the player
+			CraftableRecipeSorter<TestMenu, TestRecipe> sorter = new CraftableRecipeSorter<>(
+				recipes,
+				RECIPE_TYPE,
+				TestRecipe::inputSlots,
+				(c, recipe) -> Optional.of(transferSlots),
+				container,
+				null,
+				stackHelper
+			);
+			int[] missingCounts = sorter.countMissingAsync(Runnable::run).join();
+
+			for (int r = 0; r < recipes.size(); r++) {
+				TestRecipe recipe = recipes.get(r);
+				if (missingCounts[r] == CraftableRecipeSorter.NOT_ESTIMATED) {
+					Assertions.assertFalse(hasRoom(craftingSlots, inventorySlots, recipe.inputSlots().size()), "test " + test + " recipe " + r);
+					continue;
+				}
+				estimatedCount++;
+				int expected = getTransferUtilMissingCount(stackHelper, container, craftingSlots, inventorySlots, recipe);
+				Assertions.assertEquals(expected, missingCounts[r], "test " + test + " recipe " + r);
+			}
+		}
+		Assertions.assertTrue(estimatedCount > 1000, "only " + estimatedCount + " recipes were estimated");
+	}
+
+	/**
+	 * Recipes are left to the handler when it does not say which slots it uses for them.
+	 */
+	@Test
+	public void testNotEstimatedWithoutTransferSlots() {
+		TestMenu container = new TestMenu(new ItemStack(Items.STONE));
+		List<TestRecipe> recipes = List.of(new TestRecipe(List.of(List.of(new TestTypedItemStack(new ItemStack(Items.STONE))))));
+		CraftableRecipeSorter<TestMenu, TestRecipe> sorter = new CraftableRecipeSorter<>(
+			recipes,
+			RECIPE_TYPE,
+			TestRecipe::inputSlots,
+			(c, recipe) -> Optional.empty(),
+			container,
+			null,
+			new TestStackHelper()
+		);
+		int[] missingCounts = sorter.countMissingAsync(Runnable::run).join();
+		Assertions.assertArrayEquals(new int[]{CraftableRecipeSorter.NOT_ESTIMATED}, missingCounts);
+	}
+
+	private static List<ItemStack> createItems() {
+		ItemStack damagedPickaxe = new ItemStack(Items.DIAMOND_PICKAXE);
+		damagedPickaxe.setDamageValue(10);
+		ItemStack namedStone = new ItemStack(Items.STONE);
+		namedStone.set(DataComponents.CUSTOM_NAME, Component.literal("Named"));
+		return List.of(
+			new ItemStack(Items.STONE),
+			new ItemStack(Items.DIRT),
+			new ItemStack(Items.APPLE),
+			new ItemStack(Items.STICK),
+			new ItemStack(Items.DIAMOND_PICKAXE),
+			damagedPickaxe,
+			namedStone
+		);
+	}
+
+	private static TestRecipe createRecipe(Random random, List<ItemStack> items) {
+		int slotCount = random.nextInt(CRAFTING_SLOT_COUNT + 1);
+		List<List<ITypedIngredient<?>>> inputSlots = new ArrayList<>();
+		for (int s = 0; s < slotCount; s++) {
+			List<ITypedIngredient<?>> slotIngredients = new ArrayList<>();
+			int ingredientCount = random.nextInt(4);
+			for (int i = 0; i < ingredientCount; i++) {
+				ItemStack stack = items.get(random.nextInt(items.size()));
+				slotIngredients.add(new TestTypedItemStack(stack));
+			}
+			inputSlots.add(slotIngredients);
+		}
+		return new TestRecipe(inputSlots);
+	}
+
+	/**
+	 * The missing count of the basic recipe transfer handler, from the same inputs it uses.
+	 */
+	private static int getTransferUtilMissingCount(
+		IStackHelper stackHelper,
+		AbstractContainerMenu container,
+		List<Slot> craftingSlots,
+		List<Slot> inventorySlots,
+		TestRecipe recipe
+	) {
+		Map<Slot, ItemStack> availableItemStacks = new HashMap<>();
+		for (Slot slot : craftingSlots) {
+			if (!slot.getItem().isEmpty()) {
+				availableItemStacks.put(slot, slot.getItem().copy());
+			}
+		}
+		for (Slot slot : inventorySlots) {
+			if (!slot.getItem().isEmpty()) {
+				availableItemStacks.put(slot, slot.getItem().copy());
+			}
+		}
+		List<IRecipeSlotView> slotViews = recipe.inputSlots()
+			.stream()
+			.<IRecipeSlotView>map(TestRecipeSlotView::new)
+			.toList();
+
+		InventoryIndex inventoryIndex = InventoryIndex.get(stackHelper, container);
+		RecipeTransferOperationsResult result = RecipeTransferUtil.getRecipeTransferOperations(
+			stackHelper,
+			inventoryIndex,
+			availableItemStacks,
+			slotViews,
+			craftingSlots
+		);
+		return result.missingItems.size();
+	}
+
+	/**
+	 * The basic recipe transfer handler's check for room to move items around.
+	 */
+	private static boolean hasRoom(List<Slot> craftingSlots, List<Slot> inventorySlots, int inputCount) {
+		long filledCraftSlotCount = craftingSlots.stream()
+			.filter(slot -> !slot.getItem().isEmpty())
+			.count();
+		long emptySlotCount = inventorySlots.stream()
+			.filter(slot -> slot.getItem().isEmpty())
+			.count();
+		return filledCraftSlotCount - inputCount <= emptySlotCount;
+	}
+
+	private record TestRecipe(List<List<ITypedIngredient<?>>> inputSlots) {}
+
+	private record TestTypedItemStack(ItemStack getIngredient) implements ITypedIngredient<ItemStack> {
+		@Override
+		public IIngredientType<ItemStack> getType() {
+			return VanillaTypes.ITEM_STACK;
+		}
+	}
+
+	private record TestRecipeSlotView(List<ITypedIngredient<?>> ingredients) implements IRecipeSlotView {
+		@Override
+		public Stream<ITypedIngredient<?>> getAllIngredients() {
+			return ingredients.stream();
+		}
+
+		@Override
+		public List<@Nullable ITypedIngredient<?>> getAllIngredientsList() {
+			return List.copyOf(ingredients);
+		}
+
+		@Override
+		public Optional<ITypedIngredient<?>> getDisplayedIngredient() {
+			return ingredients.stream().findFirst();
+		}
+
+		@Override
+		public RecipeIngredientRole getRole() {
+			return RecipeIngredientRole.INPUT;
+		}
+
+		@Override
+		public void drawHighlight(GuiGraphics guiGraphics, int color) {
+
+		}
+
+		@Override
+		public Optional<String> getSlotName() {
+			return Optional.empty();
+		}
+	}
+
+	private static class TestMenu extends AbstractContainerMenu {
+		public TestMenu(ItemStack... stacks) {
+			super(null, 0);
+			SimpleContainer container = new SimpleContainer(stacks);
+			for (int i = 0; i < stacks.length; i++) {
+				addSlot(new Slot(container, i, 0, 0));
+			}
+		}
+
+		@Override
+		public ItemStack quickMoveStack(Player player, int index) {
+			return ItemStack.EMPTY;
+		}
+
+		@Override
+		public boolean stillValid(Player player) {
+			return true;
+		}
+	}
+
+	/**
+	 * Uids are the item and its components, like an item with a subtype interpreter for all of its components.
+	 */
+	private static class TestStackHelper implements IStackHelper {
+		@Override
+		public Object getUidForStack(ItemStack stack, UidContext context) {
+			return List.of(stack.getItem(), stack.getComponentsPatch());
+		}
+
+		@Override
+		public Object getUidForStack(ITypedIngredient<ItemStack> stack, UidContext context) {
+			return getUidForStack(stack.getIngredient(), context);
+		}
+
+		@Override
+		public boolean isEquivalent(@Nullable ItemStack lhs, @Nullable ItemStack rhs, UidContext context) {
+			if (lhs == null || rhs == null) {
+				return lhs == rhs;
+			}
+			return getUidForStack(lhs, context).equals(getUidForStack(rhs, context));
+		}
+
+		@Override
+		@SuppressWarnings("removal")
+		public String getUniqueIdentifierForStack(ItemStack stack, UidContext context) {
+			return getUidForStack(stack, context).toString();
+		}
+	}
+}
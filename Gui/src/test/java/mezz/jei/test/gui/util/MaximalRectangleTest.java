@@ -0,0 +1,175 @@
+package mezz.jei.test.gui.util;
+
+import mezz.jei.common.util.ImmutableRect2i;
+import mezz.jei.gui.util.MaximalRectangle;
+import mezz.jei.test.gui.lib.SampledMaximalRectangle;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+public class MaximalRectangleTest {
+	private static final ImmutableRect2i AREA = new ImmutableRect2i(200, 10, 220, 300);
+	private static final int LAYOUTS = 500;
+	private static final int BRUTE_FORCE_LAYOUTS = 100;
+
+	@Test
+	public void testNoExclusionAreas() {
+		List<ImmutableRect2i> results = MaximalRectangle.getLargestRectangles(AREA, List.of()).toList();
+		Assertions.assertEquals(List.of(AREA), results);
+	}
+
+	@Test
+	public void testExclusionAreasOutsideOfArea() {
+		List<ImmutableRect2i> exclusionAreas = List.of(
+			new ImmutableRect2i(0, 0, 200, 400),
+			new ImmutableRect2i(420, 0, 10, 10)
+		);
+		List<ImmutableRect2i> results = MaximalRectangle.getLargestRectangles(AREA, exclusionAreas).toList();
+		Assertions.assertEquals(List.of(AREA), results);
+	}
+
+	@Test
+	public void testSideTabs() {
+		// a column of tabs along the left side of the area
+		List<ImmutableRect2i> exclusionAreas = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			exclusionAreas.add(new ImmutableRect2i(190, 20 + i * 28, 24, 26));
+		}
+		ImmutableRect2i largest = getLargest(MaximalRectangle.getLargestRectangles(AREA, exclusionAreas).toList());
+		Assertions.assertEquals(new ImmutableRect2i(214, 10, 206, 300), largest);
+	}
+
+	/**
+	 * Every result must be inside the area and must not overlap any exclusion area.
+	 */
+	@Test
+	public void testResultsAreFree() {
+		Random random = new Random(4321L);
+		for (int i = 0; i < LAYOUTS; i++) {
+			List<ImmutableRect2i> exclusionAreas = createRandomLayout(random);
+			List<ImmutableRect2i> results = MaximalRectangle.getLargestRectangles(AREA, exclusionAreas).toList();
+			for (ImmutableRect2i result : results) {
+				Assertions.assertFalse(result.isEmpty(), "empty result for " + exclusionAreas);
+				Assertions.assertTrue(isInside(result, AREA), result + " is outside of the area for " + exclusionAreas);
+				for (ImmutableRect2i exclusionArea : exclusionAreas) {
+					Assertions.assertFalse(result.intersects(exclusionArea), result + " intersects " + exclusionArea);
+				}
+			}
+		}
+	}
+
+	/**
+	 * The largest result must be at least as large as the one found by the sampled implementation,
+	 * since every rectangle found by sampling is also free.
+	 */
+	@Test
+	public void testLargestIsAtLeastAsLargeAsSampled() {
+		Random random = new Random(1234L);
+		for (int i = 0; i < LAYOUTS; i++) {
+			List<ImmutableRect2i> exclusionAreas = createRandomLayout(random);
+			int samplingScale = 1 + random.nextInt(24);
+
+			ImmutableRect2i largest = getLargest(MaximalRectangle.getLargestRectangles(AREA, exclusionAreas).toList());
+			ImmutableRect2i largestSampled = getLargest(SampledMaximalRectangle.getLargestRectangles(AREA, exclusionAreas, samplingScale).toList());
+			Assertions.assertTrue(
+				getArea(largest) >= getArea(largestSampled),
+				largest + " is smaller than the sampled " + largestSampled + " for " + exclusionAreas
+			);
+		}
+	}
+
+	/**
+	 * The largest result must be the largest free rectangle,
+	 * found by checking every rectangle between exclusion area edges.
+	 */
+	@Test
+	public void testLargestMatchesBruteForce() {
+		Random random = new Random(5678L);
+		for (int i = 0; i < BRUTE_FORCE_LAYOUTS; i++) {
+			List<ImmutableRect2i> exclusionAreas = createRandomLayout(random);
+			ImmutableRect2i largest = getLargest(MaximalRectangle.getLargestRectangles(AREA, exclusionAreas).toList());
+			long expectedArea = getLargestFreeAreaBruteForce(exclusionAreas);
+			Assertions.assertEquals(expectedArea, getArea(largest), "largest area for " + exclusionAreas);
+		}
+	}
+
+	private static List<ImmutableRect2i> createRandomLayout(Random random) {
+		int count = random.nextInt(12);
+		List<ImmutableRect2i> exclusionAreas = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			int x = AREA.getX() - 20 + random.nextInt(AREA.getWidth() + 40);
+			int y = AREA.getY() - 20 + random.nextInt(AREA.getHeight() + 40);
+			int width = random.nextInt(80);
+			int height = random.nextInt(80);
+			exclusionAreas.add(new ImmutableRect2i(x, y, width, height));
+		}
+		return exclusionAreas;
+	}
+
+	private static long getLargestFreeAreaBruteForce(List<ImmutableRect2i> exclusionAreas) {
+		Set<Integer> xSet = new TreeSet<>(List.of(AREA.getX(), AREA.getX() + AREA.getWidth()));
+		Set<Integer> ySet = new TreeSet<>(List.of(AREA.getY(), AREA.getY() + AREA.getHeight()));
+		for (ImmutableRect2i exclusionArea : exclusionAreas) {
+			xSet.add(clamp(exclusionArea.getX(), AREA.getX(), AREA.getX() + AREA.getWidth()));
+			xSet.add(clamp(exclusionArea.getX() + exclusionArea.getWidth(), AREA.getX(), AREA.getX() + AREA.getWidth()));
+			ySet.add(clamp(exclusionArea.getY(), AREA.getY(), AREA.getY() + AREA.getHeight()));
+			ySet.add(clamp(exclusionArea.getY() + exclusionArea.getHeight(), AREA.getY(), AREA.getY() + AREA.getHeight()));
+		}
+		List<Integer> xs = new ArrayList<>(xSet);
+		List<Integer> ys = new ArrayList<>(ySet);
+
+		long largestArea = 0;
+		for (int left = 0; left < xs.size(); left++) {
+			for (int right = left + 1; right < xs.size(); right++) {
+				for (int top = 0; top < ys.size(); top++) {
+					for (int bottom = top + 1; bottom < ys.size(); bottom++) {
+						ImmutableRect2i rect = new ImmutableRect2i(xs.get(left), ys.get(top), xs.get(right) - xs.get(left), ys.get(bottom) - ys.get(top));
+						if (getArea(rect) > largestArea && !intersectsAny(rect, exclusionAreas)) {
+							largestArea = getArea(rect);
+						}
+					}
+				}
+			}
+		}
+		return largestArea;
+	}
+
+	private static boolean intersectsAny(ImmutableRect2i rect, List<ImmutableRect2i> exclusionAreas) {
+		for (ImmutableRect2i exclusionArea : exclusionAreas) {
+			if (rect.intersects(exclusionArea)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static int clamp(int value, int min, int max) {
+		return Math.max(min, Math.min(max, value));
+	}
+
+	private static boolean isInside(ImmutableRect2i rect, ImmutableRect2i area) {
+		return rect.getX() >= area.getX() &&
+			rect.getY() >= area.getY() &&
+			rect.getX() + rect.getWidth() <= area.getX() + area.getWidth() &&
+			rect.getY() + rect.getHeight() <= area.getY() + area.getHeight();
+	}
+
+	private static ImmutableRect2i getLargest(List<ImmutableRect2i> rects) {
+		ImmutableRect2i largest = ImmutableRect2i.EMPTY;
+		for (ImmutableRect2i rect : rects) {
+			if (getArea(rect) > getArea(largest)) {
+				largest = rect;
+			}
+		}
+		return largest;
+	}
+
+	private static long getArea(ImmutableRect2i rect) {
+		return (long) rect.getWidth() * rect.getHeight();
+	}
+}
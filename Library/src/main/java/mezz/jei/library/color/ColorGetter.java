@@ -33,8 +33,15 @@ import java.util.Optional;
 public final class ColorGetter {
 	private static final Logger LOGGER = LogManager.getLogger();
 
+	@Nullable
+	private final ColorPaletteCache paletteCache;
+
 	public ColorGetter() {
+		this(null);
+	}
 
+	public ColorGetter(@Nullable ColorPaletteCache paletteCache) {
+		this.paletteCache = paletteCache;
 	}
 
 	public List<Integer> getColors(ItemStack itemStack, int colorCount) {
@@ -89,26 +96,41 @@ public final class ColorGetter {
 		if (colorCount <= 0) {
 			return Collections.emptyList();
 		}
+		final int[] palette;
+		if (paletteCache != null) {
+			String spriteName = textureAtlasSprite.contents().name().toString();
+			palette = paletteCache.getPalette(spriteName, renderColor, colorCount, () -> computePalette(textureAtlasSprite, renderColor, colorCount));
+		} else {
+			palette = computePalette(textureAtlasSprite, renderColor, colorCount);
+		}
+		final List<Integer> colors = new ArrayList<>(palette.length);
+		for (int color : palette) {
+			colors.add(color);
+		}
+		return colors;
+	}
+
+	private static int[] computePalette(TextureAtlasSprite textureAtlasSprite, int renderColor, int colorCount) {
 		return getNativeImage(textureAtlasSprite)
 			.map(bufferedImage -> {
-				final List<Integer> colors = new ArrayList<>(colorCount);
 				final int[][] palette = ColorThief.getPalette(bufferedImage, colorCount, 2, false);
-				for (int[] colorInt : palette) {
+				final int[] colors = new int[palette.length];
+				for (int i = 0; i < palette.length; i++) {
+					int[] colorInt = palette[i];
 					int red = (int) ((colorInt[0] - 1) * (float) (renderColor >> 16 & 255) / 255.0F);
 					int green = (int) ((colorInt[1] - 1) * (float) (renderColor >> 8 & 255) / 255.0F);
 					int blue = (int) ((colorInt[2] - 1) * (float) (renderColor & 255) / 255.0F);
 					red = Mth.clamp(red, 0, 255);
 					green = Mth.clamp(green, 0, 255);
 					blue = Mth.clamp(blue, 0, 255);
-					int color = ((0xFF) << 24) |
+					colors[i] = ((0xFF) << 24) |
 						((red & 0xFF) << 16) |
 						((green & 0xFF) << 8) |
 						(blue & 0xFF);
-					colors.add(color);
 				}
 				return colors;
 			})
-			.orElseGet(Collections::emptyList);
+			.orElseGet(() -> new int[0]);
 	}
 
 	private static Optional<NativeImage> getNativeImage(TextureAtlasSprite textureAtlasSprite) {
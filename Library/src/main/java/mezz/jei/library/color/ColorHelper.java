@@ -11,8 +11,8 @@ public class ColorHelper implements IColorHelper {
 	private final ColorGetter colorGetter;
 	private final ColorNameConfig colorNameConfig;
 
-	public ColorHelper(ColorNameConfig colorNameConfig) {
-		this.colorGetter = new ColorGetter();
+	public ColorHelper(ColorNameConfig colorNameConfig, ColorPaletteCache paletteCache) {
+		this.colorGetter = new ColorGetter(paletteCache);
 		this.colorNameConfig = colorNameConfig;
 	}
 
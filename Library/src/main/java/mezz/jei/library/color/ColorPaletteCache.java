@@ -0,0 +1,188 @@
+package mezz.jei.library.color;
+
+import com.google.common.hash.Hashing;
+import mezz.jei.common.platform.Services;
+import mezz.jei.common.util.DeduplicatingRunner;
+import mezz.jei.core.util.PathUtil;
+import net.minecraft.SharedConstants;
+import net.minecraft.client.Minecraft;
+import net.minecraft.server.packs.repository.KnownPack;
+import net.minecraft.server.packs.repository.Pack;
+import net.minecraft.server.packs.repository.PackRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Stores the color palettes computed by {@link ColorGetter} so that they do not have to be
+ * quantized again every time JEI starts.
+ *
+ * Palettes are keyed by sprite name, render color and color count.
+ * The whole cache is thrown away when the resource fingerprint changes,
+ * since a different set of mods or resource packs can change any sprite.
+ */
+public class ColorPaletteCache {
+	private static final Logger LOGGER = LogManager.getLogger();
+	private static final int VERSION = 1;
+
+	private final Path path;
+	private final Map<Key, int[]> palettes = new ConcurrentHashMap<>();
+	private final AtomicBoolean dirty = new AtomicBoolean();
+	private final DeduplicatingRunner delayedSave;
+	private volatile String fingerprint = "";
+
+	public ColorPaletteCache(Path path) {
+		this.path = path;
+		this.delayedSave = new DeduplicatingRunner(this::save, Duration.ofSeconds(10), "JEI Color Palette Cache Saver");
+		load();
+	}
+
+	/**
+	 * Creates a fingerprint of the currently loaded resources.
+	 * Any change to the game version, the mods or their versions, or the selected resource packs invalidates cached palettes.
+	 * Packs are identified by their id, description and known pack version,
+	 * so a resource pack that is updated without changing any of those keeps its stale palettes.
+	 */
+	public static String createResourceFingerprint() {
+		List<String> parts = new ArrayList<>();
+		parts.add(SharedConstants.getCurrentVersion().getName());
+
+		List<String> modVersions = new ArrayList<>(Services.PLATFORM.getModHelper().getModVersions());
+		Collections.sort(modVersions);
+		parts.addAll(modVersions);
+
+		PackRepository packRepository = Minecraft.getInstance().getResourcePackRepository();
+		for (Pack pack : packRepository.getSelectedPacks()) {
+			String knownPackVersion = pack.location()
+				.knownPackInfo()
+				.map(KnownPack::version)
+				.orElse("");
+			parts.add(pack.getId() + "|" + pack.getDescription().getString() + "|" + knownPackVersion);
+		}
+
+		// hashed to keep the fingerprint short no matter how many mods and packs there are
+		return Hashing.sha256()
+			.hashString(String.join("\n", parts), StandardCharsets.UTF_8)
+			.toString();
+	}
+
+	public void setResourceFingerprint(String fingerprint) {
+		if (!this.fingerprint.equals(fingerprint)) {
+			if (!palettes.isEmpty()) {
+				LOGGER.info("Resources have changed, clearing {} cached color palettes.", palettes.size());
+				palettes.clear();
+			}
+			this.fingerprint = fingerprint;
+			markDirty();
+		}
+	}
+
+	public int[] getPalette(String spriteName, int renderColor, int colorCount, Supplier<int[]> paletteSupplier) {
+		Key key = new Key(spriteName, renderColor, colorCount);
+		int[] palette = palettes.get(key);
+		if (palette != null) {
+			return palette;
+		}
+		// computed outside the map so that slow quantization does not block other threads
+		palette = paletteSupplier.get();
+		int[] previous = palettes.putIfAbsent(key, palette);
+		if (previous != null) {
+			return previous;
+		}
+		markDirty();
+		return palette;
+	}
+
+	private void markDirty() {
+		if (dirty.compareAndSet(false, true)) {
+			delayedSave.run();
+		}
+	}
+
+	private void load() {
+		if (!Files.exists(path)) {
+			return;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+			int version = in.readInt();
+			if (version != VERSION) {
+				LOGGER.info("Ignoring color palette cache {} with old version {}", path, version);
+				return;
+			}
+			String fingerprint = in.readUTF();
+			int count = in.readInt();
+			Map<Key, int[]> loaded = new HashMap<>(count);
+			for (int i = 0; i < count; i++) {
+				Key key = new Key(in.readUTF(), in.readInt(), in.readInt());
+				int[] palette = new int[in.readUnsignedShort()];
+				for (int j = 0; j < palette.length; j++) {
+					palette[j] = in.readInt();
+				}
+				loaded.put(key, palette);
+			}
+			this.palettes.putAll(loaded);
+			this.fingerprint = fingerprint;
+			LOGGER.debug("Loaded {} color palettes from file: {}", count, path);
+		} catch (IOException | RuntimeException e) {
+			LOGGER.error("Failed to load color palette cache from file {}", path, e);
+		}
+	}
+
+	private void save() {
+		dirty.set(false);
+		@Nullable Path tempFile = null;
+		try {
+			Files.createDirectories(path.getParent());
+			tempFile = Files.createTempFile(path.getParent(), null, null);
+			Map<Key, int[]> snapshot = new HashMap<>(palettes);
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+				out.writeInt(VERSION);
+				out.writeUTF(fingerprint);
+				out.writeInt(snapshot.size());
+				for (Map.Entry<Key, int[]> entry : snapshot.entrySet()) {
+					Key key = entry.getKey();
+					int[] palette = entry.getValue();
+					out.writeUTF(key.spriteName());
+					out.writeInt(key.renderColor());
+					out.writeInt(key.colorCount());
+					out.writeShort(palette.length);
+					for (int color : palette) {
+						out.writeInt(color);
+					}
+				}
+			}
+			PathUtil.moveAtomicReplace(tempFile, path);
+			LOGGER.debug("Saved {} color palettes to file: {}", snapshot.size(), path);
+		} catch (IOException e) {
+			LOGGER.error("Failed to save color palette cache to file {}", path, e);
+		} finally {
+			if (tempFile != null) {
+				try {
+					Files.deleteIfExists(tempFile);
+				} catch (IOException e) {
+					LOGGER.error("Failed to delete temporary file {}", tempFile, e);
+				}
+			}
+		}
+	}
+
+	private record Key(String spriteName, int renderColor, int colorCount) {}
+}
@@ -18,12 +18,14 @@ package mezz.jei.library.color;
  * available at http://lokeshdhakar.com/projects/color-thief/
  */
 
-import org.jetbrains.annotations.Nullable;
-import java.util.Arrays;
-
 import com.mojang.blaze3d.platform.NativeImage;
 
 public class ColorThief {
+	/**
+	 * Pixel buffers reused between calls on the same thread, grown as needed.
+	 */
+	private static final ThreadLocal<int[]> PIXEL_BUFFER = ThreadLocal.withInitial(() -> new int[256]);
+
 	/**
 	 * Use the median cut algorithm to cluster similar colors.
 	 *
@@ -37,61 +39,51 @@ public class ColorThief {
 	 * @return the palette as array of RGB arrays
 	 */
 	public static int[][] getPalette(NativeImage sourceImage, int colorCount, int quality, boolean ignoreWhite) {
-		MMCQ.CMap cmap = getColorMap(sourceImage, colorCount, quality, ignoreWhite);
-		if (cmap == null) {
+		if (sourceImage.format() != NativeImage.Format.RGBA) {
 			return new int[0][0];
 		}
-		return cmap.palette();
+		int[] pixels = getPixelBuffer(sourceImage, quality);
+		int pixelCount = getPixels(sourceImage, pixels, quality, ignoreWhite);
+		// Send array to quantize function which clusters values using median
+		// cut algorithm
+		int[][] palette = MMCQ.quantize(pixels, pixelCount, colorCount);
+		if (palette == null) {
+			return new int[0][0];
+		}
+		return palette;
 	}
 
-	/**
-	 * Use the median cut algorithm to cluster similar colors.
-	 *
-	 * @param sourceImage the source image
-	 * @param colorCount  the size of the palette; the number of colors returned
-	 * @param quality     0 is the highest quality settings. 10 is the default. There is
-	 *                    a trade-off between quality and speed. The bigger the number,
-	 *                    the faster the palette generation but the greater the
-	 *                    likelihood that colors will be missed.
-	 * @param ignoreWhite if <code>true</code>, white pixels are ignored
-	 * @return the color map
-	 */
-	@Nullable
-	public static MMCQ.CMap getColorMap(NativeImage sourceImage, int colorCount, int quality, boolean ignoreWhite) {
-		if (sourceImage.format() == NativeImage.Format.RGBA) {
-			int[][] pixelArray = getPixels(sourceImage, quality, ignoreWhite);
-			// Send array to quantize function which clusters values using median
-			// cut algorithm
-			return MMCQ.quantize(pixelArray, colorCount);
+	private static int[] getPixelBuffer(NativeImage sourceImage, int quality) {
+		int pixelCount = sourceImage.getWidth() * sourceImage.getHeight();
+		// numRegardedPixels must be rounded up to avoid an
+		// ArrayIndexOutOfBoundsException if all pixels are good.
+		int numRegardedPixels = (pixelCount + quality - 1) / quality;
+		int[] pixels = PIXEL_BUFFER.get();
+		if (pixels.length < numRegardedPixels) {
+			pixels = new int[numRegardedPixels];
+			PIXEL_BUFFER.set(pixels);
 		}
-		return null;
+		return pixels;
 	}
 
 	/**
-	 * Gets the image's pixels via BufferedImage.getRaster().getDataBuffer().
-	 * Fast, but doesn't work for all color models.
+	 * Reads the image's pixels into the given buffer.
 	 *
 	 * @param sourceImage the source image
+	 * @param pixels      the buffer to fill with pixels packed as 0xRRGGBB
 	 * @param quality     1 is the highest quality settings. 10 is the default. There is
 	 *                    a trade-off between quality and speed. The bigger the number,
 	 *                    the faster the palette generation but the greater the
 	 *                    likelihood that colors will be missed.
 	 * @param ignoreWhite if <code>true</code>, white pixels are ignored
-	 * @return an array of pixels (each an RGB int array)
+	 * @return the number of pixels written to the buffer
 	 */
-	private static int[][] getPixels(NativeImage sourceImage, int quality, boolean ignoreWhite) {
+	private static int getPixels(NativeImage sourceImage, int[] pixels, int quality, boolean ignoreWhite) {
 		int width = sourceImage.getWidth();
 		int height = sourceImage.getHeight();
 		int pixelCount = width * height;
 
-		// Store the RGB values in an array format suitable for quantize function
-
-		// numRegardedPixels must be rounded up to avoid an
-		// ArrayIndexOutOfBoundsException if all pixels are good.
-		int numRegardedPixels = (pixelCount + quality - 1) / quality;
-
 		int numUsedPixels = 0;
-		int[][] pixelArray = new int[numRegardedPixels][];
 
 		int i = 0;
 		while (i < pixelCount) {
@@ -104,14 +96,13 @@ public class ColorThief {
 			int r = rgba & 255;
 			// If pixel is mostly opaque and not white
 			if (a >= 125 && !(ignoreWhite && r > 250 && g > 250 && b > 250)) {
-				pixelArray[numUsedPixels] = new int[]{r, g, b};
+				pixels[numUsedPixels] = (r << 16) | (g << 8) | b;
 				numUsedPixels++;
 				i += quality;
 			} else {
 				i++;
 			}
 		}
-		// trim the array
-		return Arrays.copyOfRange(pixelArray, 0, numUsedPixels);
+		return numUsedPixels;
 	}
 }
@@ -19,15 +19,19 @@ package mezz.jei.library.color;
  */
 
 import org.jetbrains.annotations.Nullable;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.List;
 
-@SuppressWarnings("ALL")
-public class MMCQ {
+import java.util.Arrays;
 
+/**
+ * Modified median cut quantization.
+ *
+ * Boxes in color space are stored in primitive arrays that are reused between calls on the same thread,
+ * so quantizing a sprite does not allocate anything except for the resulting palette.
+ * Box operations only visit the occupied cells of the histogram instead of the whole box volume,
+ * which is much faster for small sprites that only have a few distinct colors.
+ * The output is identical to the original object-based Color Thief implementation.
+ */
+public final class MMCQ {
 	private static final int SIGBITS = 5;
 	private static final int RSHIFT = 8 - SIGBITS;
 	private static final int MULT = 1 << RSHIFT;
@@ -36,6 +40,12 @@ public class MMCQ {
 	private static final double FRACT_BY_POPULATION = 0.75;
 	private static final int MAX_ITERATIONS = 1000;
 
+	private static final ThreadLocal<Workspace> WORKSPACE = ThreadLocal.withInitial(Workspace::new);
+
+	private MMCQ() {
+
+	}
+
 	/**
 	 * Get reduced-space color index for a pixel.
 	 *
@@ -49,474 +59,384 @@ public class MMCQ {
 	}
 
 	/**
-	 * 3D color space box.
+	 * @param pixels     pixels packed as 0xRRGGBB
+	 * @param pixelCount the number of pixels to read from the start of the pixels array
+	 * @param maxcolors  the maximum number of colors in the palette
+	 * @return the palette as array of RGB arrays, or null if the input is invalid
 	 */
-	public static class VBox {
-		int r1;
-		int r2;
-		int g1;
-		int g2;
-		int b1;
-		int b2;
-
-		private final int[] histo;
-
-		private int[] _avg;
-		private Integer _volume;
-		private Integer _count;
-
-		public VBox(int r1, int r2, int g1, int g2, int b1, int b2, int[] histo) {
-			this.r1 = r1;
-			this.r2 = r2;
-			this.g1 = g1;
-			this.g2 = g2;
-			this.b1 = b1;
-			this.b2 = b2;
-
-			this.histo = histo;
+	@Nullable
+	public static int[][] quantize(int[] pixels, int pixelCount, int maxcolors) {
+		// short-circuit
+		if (pixelCount == 0 || maxcolors < 1 || maxcolors > 256) {
+			return null;
 		}
 
-		@Override
-		public String toString() {
-			return "r1: " + r1 + " / r2: " + r2 + " / g1: " + g1 + " / g2: "
-				+ g2 + " / b1: " + b1 + " / b2: " + b2;
+		Workspace workspace = WORKSPACE.get();
+		try {
+			return workspace.quantize(pixels, pixelCount, maxcolors);
+		} finally {
+			workspace.reset();
 		}
+	}
 
-		public int volume(boolean force) {
-			if (_volume == null || force) {
-				_volume = ((r2 - r1 + 1) * (g2 - g1 + 1) * (b2 - b1 + 1));
-			}
-
-			return _volume;
+	/**
+	 * Reusable state for quantizing one image.
+	 *
+	 * Each box is a slot index into the bound, count and volume arrays.
+	 * The histogram indexes of all non-empty cells are kept in the cells array.
+	 * The queue holds box slots in the same order as the original implementation's priority list.
+	 */
+	private static final class Workspace {
+		private final int[] histo = new int[HISTOSIZE];
+		private final int[] cells = new int[HISTOSIZE];
+		private int cellCount;
+		private final int[] sliceSums = new int[VBOX_LENGTH];
+		private final int[] partialsum = new int[VBOX_LENGTH];
+		private final int[] lookaheadsum = new int[VBOX_LENGTH];
+
+		private int[] r1 = new int[0];
+		private int[] r2 = new int[0];
+		private int[] g1 = new int[0];
+		private int[] g2 = new int[0];
+		private int[] b1 = new int[0];
+		private int[] b2 = new int[0];
+		private int[] count = new int[0];
+		private int[] volume = new int[0];
+		private int boxCount;
+
+		private int[] queue = new int[0];
+		private int queueSize;
+
+		public Workspace() {
+			ensureBoxCapacity(64);
 		}
 
-		public int count(boolean force) {
-			if (_count == null || force) {
-				int npix = 0;
-				int i, j, k, index;
-
-				for (i = r1; i <= r2; i++) {
-					for (j = g1; j <= g2; j++) {
-						for (k = b1; k <= b2; k++) {
-							index = getColorIndex(i, j, k);
-							npix += histo[index];
-						}
-					}
-				}
+		public int[][] quantize(int[] pixels, int pixelCount, int maxcolors) {
+			fillHisto(pixels, pixelCount);
 
-				_count = npix;
-			}
+			// get the beginning vbox from the colors
+			int vbox = vboxFromPixels(pixels, pixelCount);
+			queueAdd(vbox);
 
-			return _count;
-		}
+			// Round up to have the same behaviour as in JavaScript
+			int target = (int) Math.ceil(FRACT_BY_POPULATION * maxcolors);
 
-		@Override
-		public VBox clone() {
-			return new VBox(r1, r2, g1, g2, b1, b2, histo);
-		}
+			// first set of colors, sorted by population
+			iter(false, target);
 
-		public int[] avg(boolean force) {
-			if (_avg == null || force) {
-				int ntot = 0;
-
-				int rsum = 0;
-				int gsum = 0;
-				int bsum = 0;
-
-				int hval, i, j, k, histoindex;
-
-				for (i = r1; i <= r2; i++) {
-					for (j = g1; j <= g2; j++) {
-						for (k = b1; k <= b2; k++) {
-							histoindex = getColorIndex(i, j, k);
-							hval = histo[histoindex];
-							ntot += hval;
-							rsum += (hval * (i + 0.5) * MULT);
-							gsum += (hval * (j + 0.5) * MULT);
-							bsum += (hval * (k + 0.5) * MULT);
-						}
-					}
-				}
+			// Re-sort by the product of pixel occupancy times the size in color
+			// space.
+			sort(true);
 
-				if (ntot > 0) {
-					_avg = new int[]{~~(rsum / ntot), ~~(gsum / ntot),
-						~~(bsum / ntot)};
-				} else {
-					_avg = new int[]{~~(MULT * (r1 + r2 + 1) / 2),
-						~~(MULT * (g1 + g2 + 1) / 2),
-						~~(MULT * (b1 + b2 + 1) / 2)};
-				}
-			}
+			// next set - generate the median cuts using the (npix * vol) sorting.
+			iter(true, maxcolors - queueSize);
 
-			return _avg;
+			// the highest elements are at the end of the queue, read it in reverse
+			return palette();
 		}
 
-		public boolean contains(int[] pixel) {
-			int rval = pixel[0] >> RSHIFT;
-			int gval = pixel[1] >> RSHIFT;
-			int bval = pixel[2] >> RSHIFT;
-
-			return (rval >= r1 && rval <= r2 && gval >= g1 && gval <= g2
-				&& bval >= b1 && bval <= b2);
+		public void reset() {
+			// clearing only the touched entries is much cheaper than clearing the whole histogram for small sprites
+			for (int i = 0; i < cellCount; i++) {
+				histo[cells[i]] = 0;
+			}
+			cellCount = 0;
+			boxCount = 0;
+			queueSize = 0;
 		}
 
-	}
-
-	/**
-	 * Color map.
-	 */
-	public static class CMap {
-
-		public final ArrayList<VBox> vboxes = new ArrayList<VBox>();
-
-		public void push(VBox box) {
-			vboxes.add(box);
+		private static int histoIndex(int pixel) {
+			int rval = (pixel >> 16 & 0xFF) >> RSHIFT;
+			int gval = (pixel >> 8 & 0xFF) >> RSHIFT;
+			int bval = (pixel & 0xFF) >> RSHIFT;
+			return getColorIndex(rval, gval, bval);
 		}
 
-		public int[][] palette() {
-			int numVBoxes = vboxes.size();
-			int[][] palette = new int[numVBoxes][];
-			int numChosen = 0;
-			int maxCount = 0;
-			for (int i = 0; i < numVBoxes; i++) {
-				VBox vBox = vboxes.get(i);
-				if (vBox.count(false) >= (maxCount * 0.25)) {
-					palette[numChosen] = vBox.avg(false);
-					numChosen++;
-					maxCount = vBox.count(false);
+		private void fillHisto(int[] pixels, int pixelCount) {
+			for (int i = 0; i < pixelCount; i++) {
+				int index = histoIndex(pixels[i]);
+				if (histo[index]++ == 0) {
+					cells[cellCount++] = index;
 				}
 			}
-			return Arrays.copyOfRange(palette, 0, numChosen);
 		}
 
-		public int size() {
-			return vboxes.size();
-		}
+		private int vboxFromPixels(int[] pixels, int pixelCount) {
+			int rmin = 1000000, rmax = 0;
+			int gmin = 1000000, gmax = 0;
+			int bmin = 1000000, bmax = 0;
+
+			// find min/max
+			// the else-if matches the original implementation, which never checks the first pixel against the max
+			for (int i = 0; i < pixelCount; i++) {
+				int pixel = pixels[i];
+				int rval = (pixel >> 16 & 0xFF) >> RSHIFT;
+				int gval = (pixel >> 8 & 0xFF) >> RSHIFT;
+				int bval = (pixel & 0xFF) >> RSHIFT;
+
+				if (rval < rmin) {
+					rmin = rval;
+				} else if (rval > rmax) {
+					rmax = rval;
+				}
 
-		@Nullable
-		public int[] map(int[] color) {
-			int numVBoxes = vboxes.size();
-			for (int i = 0; i < numVBoxes; i++) {
-				VBox vbox = vboxes.get(i);
-				if (vbox.contains(color)) {
-					return vbox.avg(false);
+				if (gval < gmin) {
+					gmin = gval;
+				} else if (gval > gmax) {
+					gmax = gval;
 				}
-			}
-			return nearest(color);
-		}
 
-		@Nullable
-		public int[] nearest(int[] color) {
-			double d1 = Double.MAX_VALUE;
-			double d2;
-			int[] pColor = null;
-
-			int numVBoxes = vboxes.size();
-			for (int i = 0; i < numVBoxes; i++) {
-				int[] vbColor = vboxes.get(i).avg(false);
-				d2 = ColorUtil.fastPerceptualColorDistanceSquared(color, vbColor);
-				if (d2 < d1) {
-					d1 = d2;
-					pColor = vbColor;
+				if (bval < bmin) {
+					bmin = bval;
+				} else if (bval > bmax) {
+					bmax = bval;
 				}
 			}
-			return pColor;
-		}
-
-	}
 
-	/**
-	 * Histo (1-d array, giving the number of pixels in each quantized region of
-	 * color space), or null on error.
-	 */
-	private static int[] getHisto(int[][] pixels) {
-		int[] histo = new int[HISTOSIZE];
-		int index, rval, gval, bval;
-
-		int numPixels = pixels.length;
-		for (int i = 0; i < numPixels; i++) {
-			int[] pixel = pixels[i];
-			rval = pixel[0] >> RSHIFT;
-			gval = pixel[1] >> RSHIFT;
-			bval = pixel[2] >> RSHIFT;
-			index = getColorIndex(rval, gval, bval);
-			histo[index]++;
+			int vbox = newBox(rmin, rmax, gmin, gmax, bmin, bmax);
+			updateBox(vbox);
+			return vbox;
 		}
-		return histo;
-	}
 
-	private static VBox vboxFromPixels(int[][] pixels, int[] histo) {
-		int rmin = 1000000, rmax = 0;
-		int gmin = 1000000, gmax = 0;
-		int bmin = 1000000, bmax = 0;
-
-		int rval, gval, bval;
-
-		// find min/max
-		int numPixels = pixels.length;
-		for (int i = 0; i < numPixels; i++) {
-			int[] pixel = pixels[i];
-			rval = pixel[0] >> RSHIFT;
-			gval = pixel[1] >> RSHIFT;
-			bval = pixel[2] >> RSHIFT;
-
-			if (rval < rmin) {
-				rmin = rval;
-			} else if (rval > rmax) {
-				rmax = rval;
-			}
+		private void iter(boolean byProduct, int target) {
+			int ncolors = 1;
+			int niters = 0;
 
-			if (gval < gmin) {
-				gmin = gval;
-			} else if (gval > gmax) {
-				gmax = gval;
-			}
+			while (niters < MAX_ITERATIONS) {
+				int vbox = queue[queueSize - 1];
+				if (count[vbox] == 0) {
+					sort(byProduct);
+					niters++;
+					continue;
+				}
+				queueSize--;
 
-			if (bval < bmin) {
-				bmin = bval;
-			} else if (bval > bmax) {
-				bmax = bval;
-			}
-		}
+				// do the cut
+				int vbox2 = medianCutApply(vbox);
 
-		return new VBox(rmin, rmax, gmin, gmax, bmin, bmax, histo);
-	}
+				queueAdd(vbox);
+				if (vbox2 >= 0) {
+					queueAdd(vbox2);
+					ncolors++;
+				}
+				sort(byProduct);
 
-	private static VBox[] medianCutApply(int[] histo, VBox vbox) {
-		if (vbox.count(false) == 0) {
-			return null;
+				if (ncolors >= target) {
+					return;
+				}
+				if (niters++ > MAX_ITERATIONS) {
+					return;
+				}
+			}
 		}
 
-		// only one pixel, no split
-		if (vbox.count(false) == 1) {
-			return new VBox[]{vbox.clone(), null};
-		}
+		/**
+		 * Cuts the box in place, shrinking it to the first half.
+		 *
+		 * @return the slot of the second half, or -1 if the box was not split
+		 */
+		private int medianCutApply(int vbox) {
+			// only one pixel, no split
+			if (count[vbox] == 1) {
+				return -1;
+			}
 
-		int rw = vbox.r2 - vbox.r1 + 1;
-		int gw = vbox.g2 - vbox.g1 + 1;
-		int bw = vbox.b2 - vbox.b1 + 1;
-		int maxw = Math.max(Math.max(rw, gw), bw);
-
-		// Find the partial sum arrays along the selected axis.
-		int total = 0;
-		int[] partialsum = new int[VBOX_LENGTH];
-		Arrays.fill(partialsum, -1); // -1 = not set / 0 = 0
-		int[] lookaheadsum = new int[VBOX_LENGTH];
-		Arrays.fill(lookaheadsum, -1); // -1 = not set / 0 = 0
-		int i, j, k, sum, index;
-
-		if (maxw == rw) {
-			for (i = vbox.r1; i <= vbox.r2; i++) {
-				sum = 0;
-				for (j = vbox.g1; j <= vbox.g2; j++) {
-					for (k = vbox.b1; k <= vbox.b2; k++) {
-						index = getColorIndex(i, j, k);
-						sum += histo[index];
-					}
+			// make room for the second half up front, so the bound arrays passed to doCut are not replaced
+			ensureBoxCapacity(boxCount + 1);
+
+			int rw = r2[vbox] - r1[vbox] + 1;
+			int gw = g2[vbox] - g1[vbox] + 1;
+			int bw = b2[vbox] - b1[vbox] + 1;
+			int maxw = Math.max(Math.max(rw, gw), bw);
+
+			// Find the partial sum arrays along the selected axis.
+			int total = 0;
+			Arrays.fill(partialsum, -1); // -1 = not set / 0 = 0
+			Arrays.fill(lookaheadsum, -1); // -1 = not set / 0 = 0
+
+			// sum up the pixels in each slice of the box along the selected axis
+			Arrays.fill(sliceSums, 0);
+			final int axisShift = maxw == rw ? 2 * SIGBITS : maxw == gw ? SIGBITS : 0;
+			for (int i = 0; i < cellCount; i++) {
+				int index = cells[i];
+				if (contains(vbox, index)) {
+					sliceSums[(index >> axisShift) & (VBOX_LENGTH - 1)] += histo[index];
 				}
-				total += sum;
-				partialsum[i] = total;
 			}
-		} else if (maxw == gw) {
-			for (i = vbox.g1; i <= vbox.g2; i++) {
-				sum = 0;
-				for (j = vbox.r1; j <= vbox.r2; j++) {
-					for (k = vbox.b1; k <= vbox.b2; k++) {
-						index = getColorIndex(j, i, k);
-						sum += histo[index];
-					}
-				}
-				total += sum;
+			final int axisMin = maxw == rw ? r1[vbox] : maxw == gw ? g1[vbox] : b1[vbox];
+			final int axisMax = maxw == rw ? r2[vbox] : maxw == gw ? g2[vbox] : b2[vbox];
+			for (int i = axisMin; i <= axisMax; i++) {
+				total += sliceSums[i];
 				partialsum[i] = total;
 			}
-		} else
-			/* maxw == bw */ {
-			for (i = vbox.b1; i <= vbox.b2; i++) {
-				sum = 0;
-				for (j = vbox.r1; j <= vbox.r2; j++) {
-					for (k = vbox.g1; k <= vbox.g2; k++) {
-						index = getColorIndex(j, k, i);
-						sum += histo[index];
-					}
+
+			for (int i = 0; i < VBOX_LENGTH; i++) {
+				if (partialsum[i] != -1) {
+					lookaheadsum[i] = total - partialsum[i];
 				}
-				total += sum;
-				partialsum[i] = total;
 			}
-		}
 
-		for (i = 0; i < VBOX_LENGTH; i++) {
-			if (partialsum[i] != -1) {
-				lookaheadsum[i] = total - partialsum[i];
+			// determine the cut planes
+			if (maxw == rw) {
+				return doCut(vbox, r1, r2, total);
+			} else if (maxw == gw) {
+				return doCut(vbox, g1, g2, total);
+			} else {
+				return doCut(vbox, b1, b2, total);
 			}
 		}
 
-		// determine the cut planes
-		return maxw == rw ? doCut('r', vbox, partialsum, lookaheadsum, total)
-			: maxw == gw ? doCut('g', vbox, partialsum, lookaheadsum, total)
-			: doCut('b', vbox, partialsum, lookaheadsum, total);
-	}
-
-	private static VBox[] doCut(char color, VBox vbox, int[] partialsum, int[] lookaheadsum, int total) {
-		int vbox_dim1;
-		int vbox_dim2;
-
-		if (color == 'r') {
-			vbox_dim1 = vbox.r1;
-			vbox_dim2 = vbox.r2;
-		} else if (color == 'g') {
-			vbox_dim1 = vbox.g1;
-			vbox_dim2 = vbox.g2;
-		} else
-			/* color == 'b' */ {
-			vbox_dim1 = vbox.b1;
-			vbox_dim2 = vbox.b2;
-		}
-
-		int left, right;
-		VBox vbox1 = null, vbox2 = null;
-		int d2, count2;
-
-		for (int i = vbox_dim1; i <= vbox_dim2; i++) {
-			if (partialsum[i] > total / 2) {
-				vbox1 = vbox.clone();
-				vbox2 = vbox.clone();
+		private int doCut(int vbox, int[] dim1, int[] dim2, int total) {
+			int vboxDim1 = dim1[vbox];
+			int vboxDim2 = dim2[vbox];
+
+			for (int i = vboxDim1; i <= vboxDim2; i++) {
+				if (partialsum[i] > total / 2) {
+					int left = i - vboxDim1;
+					int right = vboxDim2 - i;
+
+					int d2;
+					if (left <= right) {
+						d2 = Math.min(vboxDim2 - 1, i + right / 2);
+					} else {
+						// 2.0 and cast to int is necessary to have the same
+						// behaviour as in JavaScript
+						d2 = Math.max(vboxDim1, (int) (i - 1 - left / 2.0));
+					}
 
-				left = i - vbox_dim1;
-				right = vbox_dim2 - i;
+					// avoid 0-count boxes
+					while (d2 < 0 || partialsum[d2] <= 0) {
+						d2++;
+					}
+					int count2 = lookaheadsum[d2];
+					while (count2 == 0 && d2 > 0 && partialsum[d2 - 1] > 0) {
+						count2 = lookaheadsum[--d2];
+					}
 
-				if (left <= right) {
-					d2 = Math.min(vbox_dim2 - 1, ~~(i + right / 2));
-				} else {
-					// 2.0 and cast to int is necessary to have the same
-					// behaviour as in JavaScript
-					d2 = Math.max(vbox_dim1, ~~((int) (i - 1 - left / 2.0)));
+					// the second box is a copy of the original with its lower bound moved up,
+					// the original box keeps the lower half
+					int vbox2 = newBox(r1[vbox], r2[vbox], g1[vbox], g2[vbox], b1[vbox], b2[vbox]);
+					dim1[vbox2] = d2 + 1;
+					dim2[vbox] = d2;
+					updateBox(vbox);
+					updateBox(vbox2);
+					return vbox2;
 				}
+			}
 
-				// avoid 0-count boxes
-				while (d2 < 0 || partialsum[d2] <= 0) {
-					d2++;
-				}
-				count2 = lookaheadsum[d2];
-				while (count2 == 0 && d2 > 0 && partialsum[d2 - 1] > 0) {
-					count2 = lookaheadsum[--d2];
-				}
+			throw new IllegalStateException("VBox can't be cut");
+		}
 
-				// set dimensions
-				if (color == 'r') {
-					vbox1.r2 = d2;
-					vbox2.r1 = d2 + 1;
-				} else if (color == 'g') {
-					vbox1.g2 = d2;
-					vbox2.g1 = d2 + 1;
-				} else
-					/* color == 'b' */ {
-					vbox1.b2 = d2;
-					vbox2.b1 = d2 + 1;
+		private int[][] palette() {
+			int[][] palette = new int[queueSize][];
+			int numChosen = 0;
+			int maxCount = 0;
+			for (int i = queueSize - 1; i >= 0; i--) {
+				int vbox = queue[i];
+				if (count[vbox] >= (maxCount * 0.25)) {
+					palette[numChosen] = avg(vbox);
+					numChosen++;
+					maxCount = count[vbox];
 				}
-
-				return new VBox[]{vbox1, vbox2};
 			}
+			return Arrays.copyOfRange(palette, 0, numChosen);
 		}
 
-		throw new RuntimeException("VBox can't be cut");
-	}
+		private int[] avg(int vbox) {
+			int ntot = 0;
+
+			int rsum = 0;
+			int gsum = 0;
+			int bsum = 0;
+
+			// each term is a whole number, so the sums do not depend on the order the cells are visited in
+			for (int c = 0; c < cellCount; c++) {
+				int index = cells[c];
+				if (contains(vbox, index)) {
+					int i = index >> (2 * SIGBITS);
+					int j = (index >> SIGBITS) & (VBOX_LENGTH - 1);
+					int k = index & (VBOX_LENGTH - 1);
+					int hval = histo[index];
+					ntot += hval;
+					rsum += (hval * (i + 0.5) * MULT);
+					gsum += (hval * (j + 0.5) * MULT);
+					bsum += (hval * (k + 0.5) * MULT);
+				}
+			}
 
-	@Nullable
-	public static CMap quantize(int[][] pixels, int maxcolors) {
-		// short-circuit
-		if (pixels.length == 0 || maxcolors < 1 || maxcolors > 256) {
-			return null;
+			if (ntot > 0) {
+				return new int[]{rsum / ntot, gsum / ntot, bsum / ntot};
+			}
+			return new int[]{
+				MULT * (r1[vbox] + r2[vbox] + 1) / 2,
+				MULT * (g1[vbox] + g2[vbox] + 1) / 2,
+				MULT * (b1[vbox] + b2[vbox] + 1) / 2
+			};
 		}
 
-		int[] histo = getHisto(pixels);
-
-		// get the beginning vbox from the colors
-		VBox vbox = vboxFromPixels(pixels, histo);
-		ArrayList<VBox> pq = new ArrayList<VBox>();
-		pq.add(vbox);
-
-		// Round up to have the same behaviour as in JavaScript
-		int target = (int) Math.ceil(FRACT_BY_POPULATION * maxcolors);
-
-		// first set of colors, sorted by population
-		iter(pq, COMPARATOR_COUNT, target, histo);
-
-		// Re-sort by the product of pixel occupancy times the size in color
-		// space.
-		Collections.sort(pq, COMPARATOR_PRODUCT);
-
-		// next set - generate the median cuts using the (npix * vol) sorting.
-		iter(pq, COMPARATOR_PRODUCT, maxcolors - pq.size(), histo);
-
-		// Reverse to put the highest elements first into the color map
-		Collections.reverse(pq);
-
-		// calculate the actual colors
-		CMap cmap = new CMap();
-		for (VBox vb : pq) {
-			cmap.push(vb);
+		private int newBox(int r1, int r2, int g1, int g2, int b1, int b2) {
+			ensureBoxCapacity(boxCount + 1);
+			int vbox = boxCount++;
+			this.r1[vbox] = r1;
+			this.r2[vbox] = r2;
+			this.g1[vbox] = g1;
+			this.g2[vbox] = g2;
+			this.b1[vbox] = b1;
+			this.b2[vbox] = b2;
+			return vbox;
 		}
 
-		return cmap;
-	}
-
-	/**
-	 * Inner function to do the iteration.
-	 */
-	private static void iter(List<VBox> lh, Comparator<VBox> comparator, int target, int[] histo) {
-		int ncolors = 1;
-		int niters = 0;
-		VBox vbox;
-
-		while (niters < MAX_ITERATIONS) {
-			vbox = lh.get(lh.size() - 1);
-			if (vbox.count(false) == 0) {
-				Collections.sort(lh, comparator);
-				niters++;
-				continue;
-			}
-			lh.remove(lh.size() - 1);
-
-			// do the cut
-			VBox[] vboxes = medianCutApply(histo, vbox);
-			VBox vbox1 = vboxes[0];
-			VBox vbox2 = vboxes[1];
+		private void updateBox(int vbox) {
+			volume[vbox] = (r2[vbox] - r1[vbox] + 1) * (g2[vbox] - g1[vbox] + 1) * (b2[vbox] - b1[vbox] + 1);
 
-			if (vbox1 == null) {
-				throw new RuntimeException(
-					"vbox1 not defined; shouldn't happen!");
+			int npix = 0;
+			for (int i = 0; i < cellCount; i++) {
+				int index = cells[i];
+				if (contains(vbox, index)) {
+					npix += histo[index];
+				}
 			}
+			count[vbox] = npix;
+		}
 
-			lh.add(vbox1);
-			if (vbox2 != null) {
-				lh.add(vbox2);
-				ncolors++;
-			}
-			Collections.sort(lh, comparator);
+		private boolean contains(int vbox, int index) {
+			int rval = index >> (2 * SIGBITS);
+			int gval = (index >> SIGBITS) & (VBOX_LENGTH - 1);
+			int bval = index & (VBOX_LENGTH - 1);
+			return rval >= r1[vbox] && rval <= r2[vbox] &&
+				gval >= g1[vbox] && gval <= g2[vbox] &&
+				bval >= b1[vbox] && bval <= b2[vbox];
+		}
 
-			if (ncolors >= target) {
-				return;
-			}
-			if (niters++ > MAX_ITERATIONS) {
+		private void ensureBoxCapacity(int capacity) {
+			if (capacity <= count.length) {
 				return;
 			}
+			int newCapacity = Math.max(capacity, count.length * 2);
+			r1 = Arrays.copyOf(r1, newCapacity);
+			r2 = Arrays.copyOf(r2, newCapacity);
+			g1 = Arrays.copyOf(g1, newCapacity);
+			g2 = Arrays.copyOf(g2, newCapacity);
+			b1 = Arrays.copyOf(b1, newCapacity);
+			b2 = Arrays.copyOf(b2, newCapacity);
+			count = Arrays.copyOf(count, newCapacity);
+			volume = Arrays.copyOf(volume, newCapacity);
+			queue = Arrays.copyOf(queue, newCapacity);
 		}
-	}
 
-	private static final Comparator<VBox> COMPARATOR_COUNT = new Comparator<VBox>() {
-		@Override
-		public int compare(VBox a, VBox b) {
-			return a.count(false) - b.count(false);
+		private void queueAdd(int vbox) {
+			queue[queueSize++] = vbox;
 		}
-	};
 
-	private static final Comparator<VBox> COMPARATOR_PRODUCT = new Comparator<VBox>() {
-		@Override
-		public int compare(VBox a, VBox b) {
-			int aCount = a.count(false);
-			int bCount = b.count(false);
-			int aVolume = a.volume(false);
-			int bVolume = b.volume(false);
+		private int compare(int a, int b, boolean byProduct) {
+			int aCount = count[a];
+			int bCount = count[b];
+			if (!byProduct) {
+				return aCount - bCount;
+			}
+
+			int aVolume = volume[a];
+			int bVolume = volume[b];
 
 			// If count is 0 for both (or the same), sort by volume
 			if (aCount == bCount) {
@@ -526,6 +446,51 @@ public class MMCQ {
 			// Otherwise sort by products
 			return aCount * aVolume - bCount * bVolume;
 		}
-	};
 
+		/**
+		 * Stable sort of the queue.
+		 * This is the same run detection and binary insertion sort that {@link java.util.Collections#sort}
+		 * uses for small lists, so that the order of the queue always matches the original implementation.
+		 */
+		private void sort(boolean byProduct) {
+			final int hi = queueSize;
+			if (hi < 2) {
+				return;
+			}
+
+			// find the ascending run at the start, reversing it if it is strictly descending
+			int runHi = 1;
+			if (compare(queue[runHi++], queue[0], byProduct) < 0) {
+				while (runHi < hi && compare(queue[runHi], queue[runHi - 1], byProduct) < 0) {
+					runHi++;
+				}
+				for (int lo = 0, end = runHi - 1; lo < end; lo++, end--) {
+					int t = queue[lo];
+					queue[lo] = queue[end];
+					queue[end] = t;
+				}
+			} else {
+				while (runHi < hi && compare(queue[runHi], queue[runHi - 1], byProduct) >= 0) {
+					runHi++;
+				}
+			}
+
+			// binary insertion sort for the rest
+			for (int start = runHi; start < hi; start++) {
+				int pivot = queue[start];
+				int left = 0;
+				int right = start;
+				while (left < right) {
+					int mid = (left + right) >>> 1;
+					if (compare(pivot, queue[mid], byProduct) < 0) {
+						right = mid;
+					} else {
+						left = mid + 1;
+					}
+				}
+				System.arraycopy(queue, left, queue, left + 1, start - left);
+				queue[left] = pivot;
+			}
+		}
+	}
 }
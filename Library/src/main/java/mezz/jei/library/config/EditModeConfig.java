@@ -2,9 +2,12 @@ package mezz.jei.library.config;
 
 import com.google.gson.JsonElement;
 import com.google.gson.JsonIOException;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.google.gson.JsonSyntaxException;
 import com.mojang.datafixers.util.Pair;
 import com.mojang.serialization.Codec;
+import com.mojang.serialization.DataResult;
 import com.mojang.serialization.JsonOps;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
 import mezz.jei.api.helpers.ICodecHelper;
@@ -15,25 +18,32 @@ import mezz.jei.api.ingredients.subtypes.UidContext;
 import mezz.jei.api.runtime.IEditModeConfig;
 import mezz.jei.api.runtime.IIngredientManager;
 import mezz.jei.common.codecs.EnumCodec;
-import mezz.jei.common.config.file.JsonArrayFileHelper;
+import mezz.jei.common.config.file.ConfigFileFormat;
+import mezz.jei.common.config.file.ConfigJournal;
+import mezz.jei.common.util.DeduplicatingRunner;
+import mezz.jei.core.util.PathUtil;
 import mezz.jei.library.ingredients.IngredientVisibility;
+import net.minecraft.Util;
+import net.minecraft.client.Minecraft;
 import net.minecraft.core.RegistryAccess;
 import net.minecraft.resources.RegistryOps;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.IOException;
 import java.lang.ref.WeakReference;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 public class EditModeConfig implements IEditModeConfig {
 	private static final Logger LOGGER = LogManager.getLogger();
@@ -53,7 +63,7 @@ public class EditModeConfig implements IEditModeConfig {
 
 	public <V> void addIngredientToConfigBlacklist(ITypedIngredient<V> typedIngredient, HideMode blacklistType, IIngredientHelper<V> ingredientHelper) {
 		if (addIngredientToConfigBlacklistInternal(typedIngredient, blacklistType, ingredientHelper)) {
-			serializer.save(this);
+			serializer.saveChange(this, blacklistType, typedIngredient, true);
 			notifyListenersOfVisibilityChange(typedIngredient, false);
 		}
 	}
@@ -92,13 +102,29 @@ public class EditModeConfig implements IEditModeConfig {
 		HideMode blacklistType,
 		IIngredientHelper<V> ingredientHelper
 	) {
-		final Object uid = getIngredientUid(typedIngredient, blacklistType, ingredientHelper);
-		if (blacklist.remove(uid) != null) {
-			serializer.save(this);
+		if (removeIngredientFromConfigBlacklistInternal(typedIngredient, blacklistType, ingredientHelper)) {
+			serializer.saveChange(this, blacklistType, typedIngredient, false);
 			notifyListenersOfVisibilityChange(typedIngredient, true);
 		}
 	}
 
+	private <V> boolean removeIngredientFromConfigBlacklistInternal(
+		ITypedIngredient<V> typedIngredient,
+		HideMode blacklistType
+	) {
+		IIngredientHelper<V> ingredientHelper = ingredientManager.getIngredientHelper(typedIngredient.getType());
+		return removeIngredientFromConfigBlacklistInternal(typedIngredient, blacklistType, ingredientHelper);
+	}
+
+	private <V> boolean removeIngredientFromConfigBlacklistInternal(
+		ITypedIngredient<V> typedIngredient,
+		HideMode blacklistType,
+		IIngredientHelper<V> ingredientHelper
+	) {
+		final Object uid = getIngredientUid(typedIngredient, blacklistType, ingredientHelper);
+		return blacklist.remove(uid) != null;
+	}
+
 	public <V> boolean isIngredientOnConfigBlacklist(ITypedIngredient<V> typedIngredient, IIngredientHelper<V> ingredientHelper) {
 		for (HideMode hideMode : HideMode.values()) {
 			if (isIngredientOnConfigBlacklist(typedIngredient, hideMode, ingredientHelper)) {
@@ -173,19 +199,65 @@ public class EditModeConfig implements IEditModeConfig {
 		this.ingredientVisibilityRef = new WeakReference<>(ingredientVisibility);
 	}
 
+	/**
+	 * Saves any changes that have not been written to the config file yet.
+	 * Called when JEI stops.
+	 */
+	public void flush() {
+		serializer.flush(this);
+	}
+
 	public interface ISerializer {
 		void initialize(EditModeConfig config);
 		void save(EditModeConfig config);
 		void load(EditModeConfig config);
+
+		/**
+		 * Saves a single ingredient being hidden or shown.
+		 * Serializers that can't save a single change save the whole config instead.
+		 */
+		default void saveChange(EditModeConfig config, HideMode hideMode, ITypedIngredient<?> typedIngredient, boolean hidden) {
+			save(config);
+		}
+
+		/**
+		 * Saves any changes that have not been written yet.
+		 */
+		default void flush(EditModeConfig config) {
+
+		}
 	}
 
+	/**
+	 * Saves the blacklist to a json or binary file, see {@link ConfigFileFormat}.
+	 * If there is only a file in the other format, it is converted when the blacklist is loaded.
+	 *
+	 * Hiding or showing a single ingredient appends it to a journal next to the file, instead of rewriting the file.
+	 * The journal is compacted into the file in the background once there have been no changes for a while,
+	 * and when JEI stops. Changes left in the journal after a crash are replayed when the blacklist is loaded.
+	 */
 	public static class FileSerializer implements ISerializer {
+		private static final Duration COMPACTION_DELAY = Duration.ofSeconds(10);
+		private static final String HIDE = "hide";
+		private static final String SHOW = "show";
+		private static final String FILE_NAME = "blacklist";
+
 		private final Path path;
+		private final Path otherFormatPath;
+		private final ConfigFileFormat fileFormat;
+		private final ConfigJournal journal;
 		private final Codec<Pair<HideMode, ITypedIngredient<?>>> codec;
 		private final RegistryOps<JsonElement> registryOps;
+		private final DeduplicatingRunner delayedCompaction;
+		private @Nullable EditModeConfig config;
+		private @Nullable CompletableFuture<Void> compaction;
 
-		public FileSerializer(Path path, RegistryAccess registryAccess, ICodecHelper codecHelper) {
-			this.path = path;
+		public FileSerializer(Path configDir, ConfigFileFormat fileFormat, RegistryAccess registryAccess, ICodecHelper codecHelper) {
+			this.path = configDir.resolve(fileFormat.getFileName(FILE_NAME));
+			this.otherFormatPath = configDir.resolve(fileFormat.getOther().getFileName(FILE_NAME));
+			this.fileFormat = fileFormat;
+			// the journal is always json lines, it keeps the same name in both formats so that changes are not lost when switching
+			this.journal = new ConfigJournal(configDir.resolve("blacklist.json.journal"));
 			this.codec = RecordCodecBuilder.create(builder -> {
 				return builder.group(
 					EnumCodec.create(HideMode.class)
@@ -197,46 +269,105 @@ public class EditModeConfig implements IEditModeConfig {
 				).apply(builder, Pair::new);
 			});
 			this.registryOps = registryAccess.createSerializationContext(JsonOps.INSTANCE);
+			this.delayedCompaction = new DeduplicatingRunner(
+				() -> Minecraft.getInstance().execute(this::startCompaction),
+				COMPACTION_DELAY,
+				"JEI Blacklist Compaction Delay"
+			);
 		}
 
 		@Override
 		public void initialize(EditModeConfig config) {
-			if (!Files.exists(path)) {
+			this.config = config;
+			if (!Files.exists(path) && !Files.exists(otherFormatPath)) {
 				save(config);
 			}
 		}
 
 		@Override
 		public void save(EditModeConfig config) {
-			try (BufferedWriter out = Files.newBufferedWriter(path)) {
-				JsonArrayFileHelper.write(
-					out,
-					VERSION,
-					config.blacklist.values(),
-					codec,
-					registryOps,
-					error -> {
-						LOGGER.error("Encountered an error when saving the blacklist config to file {}\n{}", path, error);
-					},
-					(element, exception) -> {
-						LOGGER.error("Encountered an exception when saving the blacklist config to file {}\n{}", path, element, exception);
-					}
-				);
-				LOGGER.debug("Saved blacklist config to file: {}", path);
+			// a compaction that is still running would overwrite this newer file when it finishes
+			awaitCompaction();
+			write(List.copyOf(config.blacklist.values()));
+		}
+
+		@Override
+		public void saveChange(EditModeConfig config, HideMode hideMode, ITypedIngredient<?> typedIngredient, boolean hidden) {
+			long start = System.nanoTime();
+			DataResult<JsonElement> result = codec.encodeStart(registryOps, new Pair<>(hideMode, typedIngredient));
+			Optional<JsonElement> entry = result.resultOrPartial(error -> {
+				LOGGER.error("Encountered an error when saving a blacklist change for file {}\n{}", path, error);
+			});
+			if (entry.isEmpty()) {
+				return;
+			}
+			JsonObject change = new JsonObject();
+			change.addProperty("action", hidden ? HIDE : SHOW);
+			change.add("entry", entry.get());
+			try {
+				journal.append(change.toString());
 			} catch (IOException e) {
-				LOGGER.error("Failed to save blacklist config to file {}", path, e);
+				LOGGER.error("Failed to save a blacklist change to the journal for {}, saving the whole file instead", path, e);
+				save(config);
+				return;
+			}
+			delayedCompaction.run();
+			LOGGER.debug("Saved blacklist change in {} us", (System.nanoTime() - start) / 1000);
+		}
+
+		@Override
+		public void flush(EditModeConfig config) {
+			awaitCompaction();
+			if (journal.getEntryCount() > 0) {
+				List<Pair<HideMode, ITypedIngredient<?>>> entries = List.copyOf(config.blacklist.values());
+				if (rotateJournal()) {
+					compact(entries);
+				}
+			}
+			try {
+				journal.close();
+			} catch (IOException e) {
+				LOGGER.error("Failed to close the blacklist journal for {}", path, e);
 			}
 		}
 
 		@Override
 		public void load(EditModeConfig config) {
-			if (!Files.exists(path)) {
-				return;
+			long start = System.nanoTime();
+			boolean migrating = false;
+			if (Files.exists(path)) {
+				loadFile(config, path, fileFormat);
+			} else if (Files.exists(otherFormatPath)) {
+				loadFile(config, otherFormatPath, fileFormat.getOther());
+				migrating = true;
+			}
+
+			if (journal.exists()) {
+				int replayed = replayJournal(config);
+				LOGGER.info("Replayed {} blacklist changes that were not saved to file {}", replayed, path);
+				// compact now, so that new changes start from an empty journal
+				List<Pair<HideMode, ITypedIngredient<?>>> entries = List.copyOf(config.blacklist.values());
+				if (rotateJournal()) {
+					compact(entries);
+				}
 			}
+			if (migrating && write(List.copyOf(config.blacklist.values()))) {
+				try {
+					Path backupPath = otherFormatPath.resolveSibling(otherFormatPath.getFileName() + ".bak");
+					PathUtil.moveAtomicReplace(otherFormatPath, backupPath);
+					LOGGER.info("Converted blacklist config file '{}' to {}, and backed it up to '{}'", otherFormatPath, fileFormat, backupPath);
+				} catch (IOException e) {
+					LOGGER.error("Failed to back up converted blacklist config file '{}'", otherFormatPath, e);
+				}
+			}
+			LOGGER.debug("Loaded {} blacklist entries from file {} in {} ms", config.blacklist.size(), path, (System.nanoTime() - start) / 1_000_000);
+		}
+
+		private void loadFile(EditModeConfig config, Path path, ConfigFileFormat fileFormat) {
 			List<Pair<HideMode, ITypedIngredient<?>>> results;
-			try (BufferedReader reader = Files.newBufferedReader(path)) {
-				results = JsonArrayFileHelper.read(
-					reader,
+			try {
+				results = fileFormat.read(
+					path,
 					VERSION,
 					codec,
 					registryOps,
@@ -256,6 +387,119 @@ public class EditModeConfig implements IEditModeConfig {
 				config.addIngredientToConfigBlacklistInternal(pair.getSecond(), pair.getFirst());
 			}
 		}
+
+		private int replayJournal(EditModeConfig config) {
+			List<String> changes;
+			try {
+				changes = journal.readAll();
+			} catch (IOException e) {
+				LOGGER.error("Failed to read the blacklist journal for {}", path, e);
+				return 0;
+			}
+			int replayed = 0;
+			for (String line : changes) {
+				try {
+					JsonObject change = JsonParser.parseString(line).getAsJsonObject();
+					String action = change.get("action").getAsString();
+					Optional<Pair<HideMode, ITypedIngredient<?>>> entry = codec.parse(registryOps, change.get("entry"))
+						.resultOrPartial(error -> {
+							LOGGER.error("Encountered an error when loading a blacklist change for file {}\n{}\n{}", path, line, error);
+						});
+					if (entry.isPresent()) {
+						Pair<HideMode, ITypedIngredient<?>> pair = entry.get();
+						if (HIDE.equals(action)) {
+							config.addIngredientToConfigBlacklistInternal(pair.getSecond(), pair.getFirst());
+						} else {
+							config.removeIngredientFromConfigBlacklistInternal(pair.getSecond(), pair.getFirst());
+						}
+						replayed++;
+					}
+				} catch (RuntimeException e) {
+					LOGGER.error("Encountered an exception when loading a blacklist change for file {}\n{}", path, line, e);
+				}
+			}
+			return replayed;
+		}
+
+		/**
+		 * Called on the main thread, copies the blacklist and writes it to file in the background.
+		 */
+		private void startCompaction() {
+			if (config == null || journal.getEntryCount() == 0) {
+				return;
+			}
+			if (compaction != null && !compaction.isDone()) {
+				// only one compaction at a time, the rotated journal must not change while it is being compacted
+				delayedCompaction.run();
+				return;
+			}
+			List<Pair<HideMode, ITypedIngredient<?>>> entries = List.copyOf(config.blacklist.values());
+			if (rotateJournal()) {
+				compaction = CompletableFuture.runAsync(() -> compact(entries), Util.ioPool());
+			}
+		}
+
+		private void awaitCompaction() {
+			if (compaction != null) {
+				compaction.join();
+				compaction = null;
+			}
+		}
+
+		private boolean rotateJournal() {
+			try {
+				journal.rotate();
+				return true;
+			} catch (IOException e) {
+				LOGGER.error("Failed to rotate the blacklist journal for {}", path, e);
+				return false;
+			}
+		}
+
+		private void compact(List<Pair<HideMode, ITypedIngredient<?>>> entries) {
+			if (write(entries)) {
+				try {
+					journal.deleteRotated();
+				} catch (IOException e) {
+					LOGGER.error("Failed to delete the compacted blacklist journal for {}", path, e);
+				}
+			}
+		}
+
+		private boolean write(List<Pair<HideMode, ITypedIngredient<?>>> entries) {
+			// write to a temp file first, so that the blacklist file is never left half-written
+			Path tempFile = null;
+			try {
+				tempFile = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+				fileFormat.write(
+					tempFile,
+					VERSION,
+					entries,
+					codec,
+					registryOps,
+					error -> {
+						LOGGER.error("Encountered an error when saving the blacklist config to file {}\n{}", path, error);
+					},
+					(element, exception) -> {
+						LOGGER.error("Encountered an exception when saving the blacklist config to file {}\n{}", path, element, exception);
+					}
+				);
+				PathUtil.moveAtomicReplace(tempFile, path);
+				LOGGER.debug("Saved blacklist config to file: {}", path);
+				return true;
+			} catch (IOException e) {
+				LOGGER.error("Failed to save blacklist config to file {}", path, e);
+				return false;
+			} finally {
+				if (tempFile != null) {
+					try {
+						Files.deleteIfExists(tempFile);
+					} catch (IOException e) {
+						LOGGER.error("Failed to delete temporary blacklist file {}", tempFile, e);
+					}
+				}
+			}
+		}
 	}
 
 	private <T> void notifyListenersOfVisibilityChange(ITypedIngredient<T> ingredient, boolean visible) {
@@ -4,8 +4,6 @@ import mezz.jei.api.gui.handlers.IGuiClickableArea;
 import mezz.jei.api.gui.handlers.IGuiContainerHandler;
 import mezz.jei.common.util.MathUtil;
 import net.minecraft.client.gui.screens.inventory.AbstractContainerScreen;
-import net.minecraft.client.renderer.Rect2i;
-import net.minecraft.world.inventory.AbstractContainerMenu;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
@@ -55,12 +53,6 @@ public class GuiContainerHandlers {
 			.filter(guiClickableArea -> MathUtil.contains(guiClickableArea.getArea(), guiMouseX, guiMouseY));
 	}
 
-	public <C extends AbstractContainerMenu, T extends AbstractContainerScreen<C>> Stream<Rect2i> getGuiExtraAreas(T guiContainer) {
-		return getActiveGuiHandlerStream(guiContainer)
-			.map(guiContainerHandler -> guiContainerHandler.getGuiExtraAreas(guiContainer))
-			.flatMap(Collection::stream);
-	}
-
 	private static class Entry<T extends AbstractContainerScreen<?>> {
 		private final Class<? extends T> containerClass;
 		private final List<IGuiContainerHandler<? super T>> handlers;
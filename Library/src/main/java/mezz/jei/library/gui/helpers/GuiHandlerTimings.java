@@ -0,0 +1,88 @@
+package mezz.jei.library.gui.helpers;
+
+import mezz.jei.common.config.DebugConfig;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Measures how long each gui handler takes to answer JEI's queries,
+ * so that a slow handler from one mod can be found instead of slowing down every screen.
+ *
+ * Slow handlers are logged once. In debug mode, a summary of all handlers is logged periodically.
+ */
+public class GuiHandlerTimings {
+	private static final Logger LOGGER = LogManager.getLogger();
+	private static final long SLOW_CALL_NANOS = Duration.ofMillis(2).toNanos();
+	private static final long SUMMARY_INTERVAL_NANOS = Duration.ofSeconds(10).toNanos();
+
+	private final String queryName;
+	private final Map<Object, Timing> timings = new IdentityHashMap<>();
+	private long lastSummaryTime = System.nanoTime();
+
+	public GuiHandlerTimings(String queryName) {
+		this.queryName = queryName;
+	}
+
+	public <T> T time(Object handler, Supplier<T> query) {
+		long start = System.nanoTime();
+		T result = query.get();
+		long end = System.nanoTime();
+
+		Timing timing = timings.computeIfAbsent(handler, h -> new Timing());
+		long elapsed = end - start;
+		timing.add(elapsed);
+		if (elapsed > SLOW_CALL_NANOS && !timing.warned) {
+			timing.warned = true;
+			LOGGER.warn(
+				"Gui handler is slow, took {} ms to get {}. It is called regularly while a screen is open: {}",
+				String.format("%.2f", elapsed / 1_000_000.0),
+				queryName,
+				handler.getClass()
+			);
+		}
+
+		if (DebugConfig.isDebugModeEnabled() && end - lastSummaryTime > SUMMARY_INTERVAL_NANOS) {
+			lastSummaryTime = end;
+			logSummary();
+		}
+		return result;
+	}
+
+	private void logSummary() {
+		String summary = timings.entrySet()
+			.stream()
+			.sorted(Comparator.comparingLong((Map.Entry<Object, Timing> e) -> e.getValue().totalNanos).reversed())
+			.map(e -> {
+				Timing timing = e.getValue();
+				return String.format(
+					"%s: %d calls, %.1f us average, %.1f us max",
+					e.getKey().getClass().getName(),
+					timing.calls,
+					timing.totalNanos / 1000.0 / timing.calls,
+					timing.maxNanos / 1000.0
+				);
+			})
+			.collect(Collectors.joining("\n"));
+		LOGGER.debug("Gui handler timings for {}:\n{}", queryName, summary);
+	}
+
+	private static class Timing {
+		private long calls;
+		private long totalNanos;
+		private long maxNanos;
+		private boolean warned;
+
+		public void add(long nanos) {
+			calls++;
+			totalNanos += nanos;
+			maxNanos = Math.max(maxNanos, nanos);
+		}
+	}
+}
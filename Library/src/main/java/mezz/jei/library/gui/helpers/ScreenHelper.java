@@ -10,6 +10,7 @@ import mezz.jei.api.ingredients.ITypedIngredient;
 import mezz.jei.api.runtime.IClickableIngredient;
 import mezz.jei.api.runtime.IIngredientManager;
 import mezz.jei.api.runtime.IScreenHelper;
+import mezz.jei.common.gui.GuiExclusionAreaTracker;
 import mezz.jei.common.input.ClickableIngredient;
 import mezz.jei.common.platform.IPlatformScreenHelper;
 import mezz.jei.common.platform.Services;
@@ -38,6 +39,7 @@ public class ScreenHelper implements IScreenHelper {
 	private final ListMultiMap<Class<?>, IGhostIngredientHandler<?>> ghostIngredientHandlers;
 	private final ListMultiMap<Class<?>, IGhostIngredientHandler<?>> cachedGhostIngredientHandlers;
 	private final Map<Class<?>, IScreenHandler<?>> guiScreenHandlers;
+	private final GuiHandlerTimings exclusionAreaTimings = new GuiHandlerTimings("gui exclusion areas");
 
 	public ScreenHelper(
 		IIngredientManager ingredientManager,
@@ -81,17 +83,28 @@ public class ScreenHelper implements IScreenHelper {
 	@Override
 	public Stream<Rect2i> getGuiExclusionAreas(Screen screen) {
 		Stream<Rect2i> globalGuiHandlerExclusionAreas = globalGuiHandlers.stream()
-			.map(IGlobalGuiHandler::getGuiExtraAreas)
+			.map(handler -> exclusionAreaTimings.time(handler, handler::getGuiExtraAreas))
 			.flatMap(Collection::stream);
 
 		if (screen instanceof AbstractContainerScreen<?> guiContainer) {
-			Stream<Rect2i> guiExtraAreas = this.guiContainerHandlers.getGuiExtraAreas(guiContainer);
+			Stream<Rect2i> guiExtraAreas = getGuiContainerExtraAreas(guiContainer);
 			return Stream.concat(globalGuiHandlerExclusionAreas, guiExtraAreas);
 		} else {
 			return globalGuiHandlerExclusionAreas;
 		}
 	}
 
+	private <T extends AbstractContainerScreen<?>> Stream<Rect2i> getGuiContainerExtraAreas(T guiContainer) {
+		return this.guiContainerHandlers.getActiveGuiHandlerStream(guiContainer)
+			.map(handler -> exclusionAreaTimings.time(handler, () -> handler.getGuiExtraAreas(guiContainer)))
+			.flatMap(Collection::stream);
+	}
+
+	@Override
+	public void invalidateGuiExclusionAreas() {
+		GuiExclusionAreaTracker.invalidateAll();
+	}
+
 	@Override
 	public Stream<IClickableIngredient<?>> getClickableIngredientUnderMouse(Screen screen, double mouseX, double mouseY) {
 		return Stream.concat(
@@ -1,9 +1,6 @@
 package mezz.jei.library.gui.ingredients;
 
 import net.minecraft.client.gui.screens.Screen;
-import org.jetbrains.annotations.Nullable;
-
-import java.util.List;
 
 public class CycleTicker implements ICycler {
 	private static final int MAX_INDEX = 100_000;
@@ -22,13 +19,8 @@ public class CycleTicker implements ICycler {
 	}
 
 	@Override
-	@Nullable
-	public <T> T getCycled(List<@Nullable T> list) {
-		if (list.isEmpty()) {
-			return null;
-		}
-		int index = this.index % list.size();
-		return list.get(index);
+	public int getCycleIndex() {
+		return index;
 	}
 
 	public boolean tick() {
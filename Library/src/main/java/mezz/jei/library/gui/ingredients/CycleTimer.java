@@ -1,9 +1,6 @@
 package mezz.jei.library.gui.ingredients;
 
 import net.minecraft.client.gui.screens.Screen;
-import org.jetbrains.annotations.Nullable;
-
-import java.util.List;
 
 public class CycleTimer implements ICycler {
 	private static final CycleTimer ZERO_OFFSET = new CycleTimer(0);
@@ -38,16 +35,11 @@ public class CycleTimer implements ICycler {
 	}
 
 	@Override
-	@Nullable
-	public <T> T getCycled(List<@Nullable T> list) {
-		if (list.isEmpty()) {
-			return null;
-		}
+	public int getCycleIndex() {
 		if (!Screen.hasShiftDown()) {
 			long now = System.currentTimeMillis();
 			index = calculateIndex(now, cycleOffset);
 		}
-		int index = this.index % list.size();
-		return list.get(index);
+		return index;
 	}
 }
@@ -0,0 +1,74 @@
+package mezz.jei.library.gui.ingredients;
+
+import mezz.jei.api.ingredients.ITypedIngredient;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * The ingredients that a recipe slot cycles through, stored in a fixed array.
+ *
+ * Recipe slots are drawn every frame for every recipe on the page,
+ * so focus and visibility are worked out once when the slot is built,
+ * and drawing only picks an element using the cycle index that the layout's slots share.
+ *
+ * null ingredients represent a "blank" drawn ingredient in the rotation.
+ */
+public final class DisplayIngredients {
+	public static final DisplayIngredients EMPTY = new DisplayIngredients(new ITypedIngredient<?>[0]);
+	private static final int MAX_DISPLAYED_INGREDIENTS = 100;
+
+	private final @Nullable ITypedIngredient<?>[] ingredients;
+
+	/**
+	 * Display all the given ingredients, for focused ingredients and display overrides.
+	 */
+	public static DisplayIngredients of(List<@Nullable ITypedIngredient<?>> ingredients) {
+		if (ingredients.isEmpty()) {
+			return EMPTY;
+		}
+		return new DisplayIngredients(ingredients.toArray(new ITypedIngredient<?>[0]));
+	}
+
+	/**
+	 * Display the visible ingredients, up to a limit.
+	 * If everything is invisible, they are all shown anyway so that the recipe slot isn't blank.
+	 */
+	public static DisplayIngredients createVisible(List<@Nullable ITypedIngredient<?>> allIngredients, Predicate<ITypedIngredient<?>> isVisible) {
+		if (allIngredients.isEmpty()) {
+			return EMPTY;
+		}
+
+		List<@Nullable ITypedIngredient<?>> visibleIngredients = new ArrayList<>();
+		for (int i = 0; i < allIngredients.size() && visibleIngredients.size() < MAX_DISPLAYED_INGREDIENTS; i++) {
+			@Nullable ITypedIngredient<?> ingredient = allIngredients.get(i);
+			if (ingredient == null || isVisible.test(ingredient)) {
+				visibleIngredients.add(ingredient);
+			}
+		}
+
+		if (!visibleIngredients.isEmpty()) {
+			return of(visibleIngredients);
+		}
+		return of(allIngredients.subList(0, Math.min(allIngredients.size(), MAX_DISPLAYED_INGREDIENTS)));
+	}
+
+	private DisplayIngredients(@Nullable ITypedIngredient<?>[] ingredients) {
+		this.ingredients = ingredients;
+	}
+
+	@Nullable
+	public ITypedIngredient<?> getCycled(ICycler cycler) {
+		if (ingredients.length == 0) {
+			return null;
+		}
+		int index = cycler.getCycleIndex() % ingredients.length;
+		return ingredients[index];
+	}
+
+	public int size() {
+		return ingredients.length;
+	}
+}
@@ -5,6 +5,18 @@ import org.jetbrains.annotations.Nullable;
 import java.util.List;
 
 public interface ICycler {
+	/**
+	 * @return the current index into the cycled ingredients, shared by all slots using this cycler.
+	 * It is never negative and should be wrapped to the number of ingredients.
+	 */
+	int getCycleIndex();
+
 	@Nullable
-	<T> T getCycled(List<@Nullable T> list);
+	default <T> T getCycled(List<@Nullable T> list) {
+		if (list.isEmpty()) {
+			return null;
+		}
+		int index = getCycleIndex() % list.size();
+		return list.get(index);
+	}
 }
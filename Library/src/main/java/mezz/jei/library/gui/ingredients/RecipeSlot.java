@@ -17,6 +17,7 @@ import mezz.jei.api.runtime.IIngredientVisibility;
 import mezz.jei.api.runtime.IJeiRuntime;
 import mezz.jei.common.Internal;
 import mezz.jei.common.config.IClientConfig;
+import mezz.jei.common.gui.IngredientRenderBatch;
 import mezz.jei.common.gui.JeiTooltip;
 import mezz.jei.common.gui.elements.OffsetDrawable;
 import mezz.jei.common.platform.IPlatformRenderHelper;
@@ -34,7 +35,6 @@ import net.minecraft.network.chat.Component;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
@@ -42,8 +42,6 @@ import java.util.Optional;
 import java.util.stream.Stream;
 
 public class RecipeSlot implements IRecipeSlotView, IRecipeSlotDrawable {
-	private static final int MAX_DISPLAYED_INGREDIENTS = 100;
-
 	private final RecipeIngredientRole role;
 	private final ICycler cycler;
 	private final List<IRecipeSlotRichTooltipCallback> tooltipCallbacks;
@@ -61,15 +59,21 @@ public class RecipeSlot implements IRecipeSlotView, IRecipeSlotDrawable {
 	private final List<@Nullable ITypedIngredient<?>> allIngredients;
 
 	/**
-	 * Displayed ingredients, taking focus and visibility into account.
-	 * null ingredients represent a "blank" drawn ingredient in the rotation.
+	 * All non-null ingredients, ignoring focus and visibility
 	 */
 	@Unmodifiable
+	private final List<ITypedIngredient<?>> nonNullIngredients;
+
+	/**
+	 * Displayed ingredients, taking focus and visibility into account.
+	 * Calculated when the slot is first drawn, because visibility needs the runtime.
+	 */
 	@Nullable
-	private List<@Nullable ITypedIngredient<?>> displayIngredients;
+	private DisplayIngredients displayIngredients;
 
 	@Nullable
 	private DisplayIngredientAcceptor displayOverrides;
+	private DisplayIngredients displayOverrideIngredients = DisplayIngredients.EMPTY;
 
 	public RecipeSlot(
 		RecipeIngredientRole role,
@@ -84,6 +88,9 @@ public class RecipeSlot implements IRecipeSlotView, IRecipeSlotDrawable {
 		@Nullable RendererOverrides rendererOverrides
 	) {
 		this.allIngredients = Collections.unmodifiableList(allIngredients);
+		this.nonNullIngredients = allIngredients.stream()
+			.<ITypedIngredient<?>>filter(Objects::nonNull)
+			.toList();
 		this.background = background;
 		this.overlay = overlay;
 		this.slotName = slotName;
@@ -91,14 +98,13 @@ public class RecipeSlot implements IRecipeSlotView, IRecipeSlotDrawable {
 		this.role = role;
 		this.rect = rect;
 		this.cycler = cycler;
-		this.displayIngredients = focusedIngredients;
+		this.displayIngredients = focusedIngredients == null ? null : DisplayIngredients.of(focusedIngredients);
 		this.tooltipCallbacks = tooltipCallbacks;
 	}
 
 	@Override
 	public Stream<ITypedIngredient<?>> getAllIngredients() {
-		return this.allIngredients.stream()
-			.filter(Objects::nonNull);
+		return this.nonNullIngredients.stream();
 	}
 
 	@Override
@@ -109,62 +115,28 @@ public class RecipeSlot implements IRecipeSlotView, IRecipeSlotDrawable {
 
 	@Override
 	public boolean isEmpty() {
-		return this.allIngredients.isEmpty() || this.allIngredients.stream().allMatch(Objects::isNull);
+		return this.nonNullIngredients.isEmpty();
 	}
 
 	@Override
 	public Optional<ITypedIngredient<?>> getDisplayedIngredient() {
-		if (this.displayOverrides != null) {
-			List<@Nullable ITypedIngredient<?>> overrides = this.displayOverrides.getAllIngredients();
-			@Nullable ITypedIngredient<?> cycled = cycler.getCycled(overrides);
-			return Optional.ofNullable(cycled);
-		}
-		if (this.displayIngredients == null) {
-			this.displayIngredients = calculateDisplayIngredients(this.allIngredients);
-		}
-		@Nullable ITypedIngredient<?> cycled = cycler.getCycled(this.displayIngredients);
-		return Optional.ofNullable(cycled);
+		return Optional.ofNullable(getDisplayedIngredientOrNull());
 	}
 
-	private static List<@Nullable ITypedIngredient<?>> calculateDisplayIngredients(List<@Nullable ITypedIngredient<?>> allIngredients) {
-		if (allIngredients.isEmpty()) {
-			return List.of();
-		}
-
-		List<@Nullable ITypedIngredient<?>> visibleIngredients = List.of();
-		boolean hasInvisibleIngredients = false;
-
-		// hide invisible ingredients if there are any
-		// try scanning through all the ingredients without building the list of visible ingredients.
-		// if an invisible ingredient is found, start building the list of visible ingredients
-		IIngredientVisibility ingredientVisibility = Internal.getJeiRuntime().getJeiHelpers().getIngredientVisibility();
-		for (int i = 0; i < allIngredients.size() && visibleIngredients.size() < MAX_DISPLAYED_INGREDIENTS; i++) {
-			@Nullable ITypedIngredient<?> ingredient = allIngredients.get(i);
-			boolean visible = ingredient == null || ingredientVisibility.isIngredientVisible(ingredient);
-			if (visible) {
-				if (hasInvisibleIngredients) {
-					visibleIngredients.add(ingredient);
-				}
-			} else if (!hasInvisibleIngredients) {
-				hasInvisibleIngredients = true;
-				// `i` is the first invisible ingredient, start putting visible ingredients into visibleIngredients
-				visibleIngredients = new ArrayList<>(allIngredients.subList(0, i));
+	@Nullable
+	private ITypedIngredient<?> getDisplayedIngredientOrNull() {
+		if (this.displayOverrides != null) {
+			if (this.displayOverrideIngredients.size() != this.displayOverrides.getIngredientCount()) {
+				// overrides can be added at any time, update when they change
+				this.displayOverrideIngredients = DisplayIngredients.of(this.displayOverrides.getAllIngredients());
 			}
+			return this.displayOverrideIngredients.getCycled(cycler);
 		}
-
-		if (!visibleIngredients.isEmpty()) {
-			// some ingredients have been successfully hidden, and some are still visible
-			return visibleIngredients;
-		}
-
-		// either everything is visible or everything is invisible.
-		// if everything is invisible, we show them all anyway so that the recipe slot isn't blank
-		if (allIngredients.size() < MAX_DISPLAYED_INGREDIENTS) {
-			// re-use allIngredients to save some memory
-			return allIngredients;
-		} else {
-			return allIngredients.subList(0, MAX_DISPLAYED_INGREDIENTS);
+		if (this.displayIngredients == null) {
+			IIngredientVisibility ingredientVisibility = Internal.getJeiRuntime().getJeiHelpers().getIngredientVisibility();
+			this.displayIngredients = DisplayIngredients.createVisible(this.allIngredients, ingredientVisibility::isIngredientVisible);
 		}
+		return this.displayIngredients.getCycled(cycler);
 	}
 
 	@Override
@@ -276,12 +248,15 @@ public class RecipeSlot implements IRecipeSlotView, IRecipeSlotDrawable {
 	}
 
 	private <T> IIngredientRenderer<T> getIngredientRenderer(IIngredientType<T> ingredientType) {
-		return Optional.ofNullable(rendererOverrides)
-			.flatMap(r -> r.getIngredientRenderer(ingredientType))
-			.orElseGet(() -> {
-				IIngredientManager ingredientManager = Internal.getJeiRuntime().getIngredientManager();
-				return ingredientManager.getIngredientRenderer(ingredientType);
-			});
+		// called for every slot in every frame, so this avoids creating lambdas
+		if (rendererOverrides != null) {
+			Optional<IIngredientRenderer<T>> override = rendererOverrides.getIngredientRenderer(ingredientType);
+			if (override.isPresent()) {
+				return override.get();
+			}
+		}
+		IIngredientManager ingredientManager = Internal.getJeiRuntime().getIngredientManager();
+		return ingredientManager.getIngredientRenderer(ingredientType);
 	}
 
 	@Override
@@ -293,10 +268,25 @@ public class RecipeSlot implements IRecipeSlotView, IRecipeSlotDrawable {
 			background.draw(guiGraphics, x, y);
 		}
 
+		ITypedIngredient<?> displayedIngredient = getDisplayedIngredientOrNull();
+
+		IngredientRenderBatch batch = IngredientRenderBatch.getCurrent();
+		if (batch != null && batch.canAdd(guiGraphics)) {
+			// drawn later along with the rest of the page
+			if (displayedIngredient != null) {
+				addIngredient(batch, displayedIngredient, x, y);
+			}
+			if (overlay != null) {
+				batch.addOverlay(overlay, x, y);
+			}
+			return;
+		}
+
 		RenderSystem.enableBlend();
 
-		getDisplayedIngredient()
-			.ifPresent(ingredient -> drawIngredient(guiGraphics, ingredient, x, y));
+		if (displayedIngredient != null) {
+			drawIngredient(guiGraphics, displayedIngredient, x, y);
+		}
 
 		if (overlay != null) {
 			RenderSystem.enableBlend();
@@ -313,6 +303,11 @@ public class RecipeSlot implements IRecipeSlotView, IRecipeSlotDrawable {
 		RenderSystem.disableBlend();
 	}
 
+	private <T> void addIngredient(IngredientRenderBatch batch, ITypedIngredient<T> typedIngredient, int xPos, int yPos) {
+		IIngredientRenderer<T> ingredientRenderer = getIngredientRenderer(typedIngredient.getType());
+		batch.addIngredient(ingredientRenderer, typedIngredient, xPos, yPos);
+	}
+
 	private <T> void drawIngredient(GuiGraphics guiGraphics, ITypedIngredient<T> typedIngredient, int xPos, int yPos) {
 		IIngredientType<T> ingredientType = typedIngredient.getType();
 		IIngredientRenderer<T> ingredientRenderer = getIngredientRenderer(ingredientType);
@@ -353,6 +348,7 @@ public class RecipeSlot implements IRecipeSlotView, IRecipeSlotDrawable {
 	@Override
 	public void clearDisplayOverrides() {
 		this.displayOverrides = null;
+		this.displayOverrideIngredients = DisplayIngredients.EMPTY;
 	}
 
 	@Override
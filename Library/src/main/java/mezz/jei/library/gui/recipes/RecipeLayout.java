@@ -26,6 +26,7 @@ import mezz.jei.api.recipe.category.IRecipeCategory;
 import mezz.jei.api.recipe.category.extensions.IRecipeCategoryDecorator;
 import mezz.jei.api.runtime.IIngredientManager;
 import mezz.jei.common.Internal;
+import mezz.jei.common.gui.IngredientRenderBatch;
 import mezz.jei.common.gui.JeiTooltip;
 import mezz.jei.common.gui.elements.DrawableAnimated;
 import mezz.jei.common.gui.elements.DrawableCombined;
@@ -80,6 +81,7 @@ public class RecipeLayout<R> implements IRecipeLayoutDrawable<R>, IRecipeExtrasB
 	private final ImmutableRect2i recipeTransferButtonArea;
 	private final @Nullable ShapelessIcon shapelessIcon;
 	private final RecipeLayoutInputHandler<R> inputHandler;
+	private final IngredientRenderBatch ingredientRenderBatch = new IngredientRenderBatch();
 	private boolean extrasCreated = false;
 
 	private ImmutableRect2i area;
@@ -193,8 +195,15 @@ public class RecipeLayout<R> implements IRecipeLayoutDrawable<R>, IRecipeExtrasB
 			poseStack.pushPose();
 			{
 				recipeCategory.draw(recipe, recipeCategorySlotsView, guiGraphics, recipeMouseX, recipeMouseY);
-				for (IRecipeSlotDrawable slot : recipeCategorySlots) {
-					slot.draw(guiGraphics);
+				// the slots are drawn together, one batch for each ingredient renderer,
+				// before anything else is drawn on top of them
+				ingredientRenderBatch.begin(guiGraphics);
+				try {
+					for (IRecipeSlotDrawable slot : recipeCategorySlots) {
+						slot.draw(guiGraphics);
+					}
+				} finally {
+					ingredientRenderBatch.end(guiGraphics);
 				}
 				for (IRecipeWidget widget : allWidgets) {
 					ScreenPosition position = widget.getPosition();
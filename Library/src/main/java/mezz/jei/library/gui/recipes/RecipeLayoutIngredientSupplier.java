@@ -5,14 +5,20 @@ import mezz.jei.api.ingredients.ITypedIngredient;
 import mezz.jei.api.recipe.RecipeIngredientRole;
 import mezz.jei.library.gui.recipes.supplier.builder.IngredientSlotBuilder;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 public class RecipeLayoutIngredientSupplier implements IIngredientSupplier {
 	private final Map<RecipeIngredientRole, IngredientSlotBuilder> ingredientSlotBuilders;
+	private final Map<RecipeIngredientRole, List<IngredientSlotBuilder>> slotBuilders;
 
-	public RecipeLayoutIngredientSupplier(Map<RecipeIngredientRole, IngredientSlotBuilder> ingredientSlotBuilders) {
+	public RecipeLayoutIngredientSupplier(
+		Map<RecipeIngredientRole, IngredientSlotBuilder> ingredientSlotBuilders,
+		Map<RecipeIngredientRole, List<IngredientSlotBuilder>> slotBuilders
+	) {
 		this.ingredientSlotBuilders = ingredientSlotBuilders;
+		this.slotBuilders = slotBuilders;
 	}
 
 	@Override
@@ -23,4 +29,17 @@ public class RecipeLayoutIngredientSupplier implements IIngredientSupplier {
 		}
 		return ingredientSlotBuilder.getAllIngredients();
 	}
+
+	@Override
+	public List<List<ITypedIngredient<?>>> getSlotIngredients(RecipeIngredientRole role) {
+		List<IngredientSlotBuilder> builders = slotBuilders.get(role);
+		if (builders == null) {
+			return List.of();
+		}
+		List<List<ITypedIngredient<?>>> slotIngredients = new ArrayList<>(builders.size());
+		for (IngredientSlotBuilder builder : builders) {
+			slotIngredients.add(builder.getAllIngredients());
+		}
+		return List.copyOf(slotIngredients);
+	}
 }
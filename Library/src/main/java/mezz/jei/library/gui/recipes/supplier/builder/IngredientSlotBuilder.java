@@ -24,57 +24,78 @@ import java.util.Optional;
  */
 public class IngredientSlotBuilder implements IRecipeSlotBuilder {
 	private final SimpleIngredientAcceptor ingredients;
+	private final @Nullable IngredientSlotBuilder roleBuilder;
 
-	public IngredientSlotBuilder(IIngredientManager ingredientManager) {
+	/**
+	 * @param roleBuilder collects the ingredients of all slots with the same role, if there is one.
+	 */
+	public IngredientSlotBuilder(IIngredientManager ingredientManager, @Nullable IngredientSlotBuilder roleBuilder) {
 		this.ingredients = new SimpleIngredientAcceptor(ingredientManager);
+		this.roleBuilder = roleBuilder;
+	}
+
+	private IRecipeSlotBuilder addedFrom(int start) {
+		if (roleBuilder != null) {
+			List<ITypedIngredient<?>> allIngredients = this.ingredients.getAllIngredients();
+			roleBuilder.ingredients.addValidatedIngredients(allIngredients.subList(start, allIngredients.size()));
+		}
+		return this;
 	}
 
 	@Override
 	public <I> IRecipeSlotBuilder addIngredients(IIngredientType<I> ingredientType, List<@Nullable I> ingredients) {
+		int start = this.ingredients.getAllIngredients().size();
 		this.ingredients.addIngredients(ingredientType, ingredients);
-		return this;
+		return addedFrom(start);
 	}
 
 	@Override
 	public <I> IRecipeSlotBuilder addIngredient(IIngredientType<I> ingredientType, I ingredient) {
+		int start = this.ingredients.getAllIngredients().size();
 		this.ingredients.addIngredient(ingredientType, ingredient);
-		return this;
+		return addedFrom(start);
 	}
 
 	@Override
 	public IRecipeSlotBuilder addFluidStack(Fluid fluid) {
+		int start = this.ingredients.getAllIngredients().size();
 		this.ingredients.addFluidStack(fluid);
-		return this;
+		return addedFrom(start);
 	}
 
 	@Override
 	public IRecipeSlotBuilder addFluidStack(Fluid fluid, long amount) {
+		int start = this.ingredients.getAllIngredients().size();
 		this.ingredients.addFluidStack(fluid, amount);
-		return this;
+		return addedFrom(start);
 	}
 
 	@Override
 	public IRecipeSlotBuilder addFluidStack(Fluid fluid, long amount, DataComponentPatch componentPatch) {
+		int start = this.ingredients.getAllIngredients().size();
 		this.ingredients.addFluidStack(fluid, amount, componentPatch);
-		return this;
+		return addedFrom(start);
 	}
 
 	@Override
 	public IRecipeSlotBuilder addIngredientsUnsafe(List<?> ingredients) {
+		int start = this.ingredients.getAllIngredients().size();
 		this.ingredients.addIngredientsUnsafe(ingredients);
-		return this;
+		return addedFrom(start);
 	}
 
 	@Override
 	public IRecipeSlotBuilder addTypedIngredients(List<ITypedIngredient<?>> ingredients) {
+		int start = this.ingredients.getAllIngredients().size();
 		this.ingredients.addTypedIngredients(ingredients);
-		return this;
+		return addedFrom(start);
 	}
 
 	@Override
 	public IRecipeSlotBuilder addOptionalTypedIngredients(List<Optional<ITypedIngredient<?>>> ingredients) {
+		int start = this.ingredients.getAllIngredients().size();
 		this.ingredients.addOptionalTypedIngredients(ingredients);
-		return this;
+		return addedFrom(start);
 	}
 
 	@Override
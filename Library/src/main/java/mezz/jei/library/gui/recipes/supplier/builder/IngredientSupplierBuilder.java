@@ -8,7 +8,9 @@ import mezz.jei.api.runtime.IIngredientManager;
 import mezz.jei.library.gui.recipes.RecipeLayoutIngredientSupplier;
 import mezz.jei.api.ingredients.IIngredientSupplier;
 
+import java.util.ArrayList;
 import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -18,10 +20,12 @@ import java.util.Map;
 public class IngredientSupplierBuilder implements IRecipeLayoutBuilder {
 	private final IIngredientManager ingredientManager;
 	private final Map<RecipeIngredientRole, IngredientSlotBuilder> ingredientSlotBuilders;
+	private final Map<RecipeIngredientRole, List<IngredientSlotBuilder>> slotBuilders;
 
 	public IngredientSupplierBuilder(IIngredientManager ingredientManager) {
 		this.ingredientManager = ingredientManager;
 		this.ingredientSlotBuilders = new EnumMap<>(RecipeIngredientRole.class);
+		this.slotBuilders = new EnumMap<>(RecipeIngredientRole.class);
 	}
 
 	@Override
@@ -29,16 +33,27 @@ public class IngredientSupplierBuilder implements IRecipeLayoutBuilder {
 		return addSlot(role);
 	}
 
+	/**
+	 * Each slot gets its own builder so the ingredients of each slot can be found,
+	 * and all of them also add to one builder for the role, so that getting all the ingredients is cheap.
+	 */
 	@Override
 	public IRecipeSlotBuilder addSlot(RecipeIngredientRole role) {
-		IngredientSlotBuilder slot = ingredientSlotBuilders.get(role);
-		if (slot == null) {
-			slot = new IngredientSlotBuilder(ingredientManager);
-			ingredientSlotBuilders.put(role, slot);
-		}
+		IngredientSlotBuilder slot = new IngredientSlotBuilder(ingredientManager, getRoleBuilder(role));
+		slotBuilders.computeIfAbsent(role, r -> new ArrayList<>())
+			.add(slot);
 		return slot;
 	}
 
+	private IngredientSlotBuilder getRoleBuilder(RecipeIngredientRole role) {
+		IngredientSlotBuilder roleBuilder = ingredientSlotBuilders.get(role);
+		if (roleBuilder == null) {
+			roleBuilder = new IngredientSlotBuilder(ingredientManager, null);
+			ingredientSlotBuilders.put(role, roleBuilder);
+		}
+		return roleBuilder;
+	}
+
 	@SuppressWarnings("removal")
 	@Override
 	public IRecipeSlotBuilder addSlotToWidget(RecipeIngredientRole role, mezz.jei.api.gui.widgets.ISlottedWidgetFactory<?> widgetFactory) {
@@ -47,7 +62,7 @@ public class IngredientSupplierBuilder implements IRecipeLayoutBuilder {
 
 	@Override
 	public IIngredientAcceptor<?> addInvisibleIngredients(RecipeIngredientRole role) {
-		return addSlot(role);
+		return getRoleBuilder(role);
 	}
 
 	@Override
@@ -71,6 +86,6 @@ public class IngredientSupplierBuilder implements IRecipeLayoutBuilder {
 	}
 
 	public IIngredientSupplier buildIngredientSupplier() {
-		return new RecipeLayoutIngredientSupplier(this.ingredientSlotBuilders);
+		return new RecipeLayoutIngredientSupplier(this.ingredientSlotBuilders, this.slotBuilders);
 	}
 }
@@ -151,6 +151,10 @@ public class DisplayIngredientAcceptor implements IIngredientAcceptor<DisplayIng
 		this.ingredients.add(result);
 	}
 
+	public int getIngredientCount() {
+		return this.ingredients.size();
+	}
+
 	@UnmodifiableView
 	public List<@Nullable ITypedIngredient<?>> getAllIngredients() {
 		return Collections.unmodifiableList(this.ingredients);
@@ -144,6 +144,13 @@ public class SimpleIngredientAcceptor implements IIngredientAcceptor<SimpleIngre
 		}
 	}
 
+	/**
+	 * Adds ingredients that were already validated by another acceptor, without copying them again.
+	 */
+	public void addValidatedIngredients(List<ITypedIngredient<?>> ingredients) {
+		this.ingredients.addAll(ingredients);
+	}
+
 	@UnmodifiableView
 	public List<ITypedIngredient<?>> getAllIngredients() {
 		return Collections.unmodifiableList(this.ingredients);
@@ -60,6 +60,8 @@ import mezz.jei.library.transfer.RecipeTransferHandlerHelper;
 import org.jetbrains.annotations.Unmodifiable;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public final class PluginLoader {
 	private PluginLoader() {}
@@ -164,12 +166,13 @@ public final class PluginLoader {
 		return recipeTransferRegistration.createRecipeTransferManager();
 	}
 
-	public static RecipeManager createRecipeManager(
+	public static CompletableFuture<RecipeManager> createRecipeManager(
 		List<IModPlugin> plugins,
 		VanillaPlugin vanillaPlugin,
 		RecipeCategorySortingConfig recipeCategorySortingConfig,
 		JeiHelpers jeiHelpers,
-		IIngredientManager ingredientManager
+		IIngredientManager ingredientManager,
+		Executor backgroundExecutor
 	) {
 		List<IRecipeCategory<?>> recipeCategories = createRecipeCategories(plugins, vanillaPlugin, jeiHelpers);
 
@@ -201,8 +204,7 @@ public final class PluginLoader {
 		RecipeRegistration recipeRegistration = new RecipeRegistration(jeiHelpers, ingredientManager, recipeManagerInternal);
 		PluginCaller.callOnPlugins("Registering recipes", plugins, p -> p.registerRecipes(recipeRegistration));
 
-		recipeManagerInternal.compact();
-
-		return new RecipeManager(recipeManagerInternal, ingredientManager);
+		return recipeManagerInternal.compact(backgroundExecutor)
+			.thenApply(v -> new RecipeManager(recipeManagerInternal, ingredientManager));
 	}
 }
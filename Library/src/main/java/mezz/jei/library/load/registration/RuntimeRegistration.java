@@ -16,6 +16,10 @@ import mezz.jei.library.gui.IngredientListOverlayDummy;
 import mezz.jei.library.gui.recipes.RecipesGuiDummy;
 import mezz.jei.library.ingredients.IngredientFilterApiDummy;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 public class RuntimeRegistration implements IRuntimeRegistration {
 	private final IRecipeManager recipeManager;
 	private final IJeiHelpers jeiHelpers;
@@ -28,6 +32,7 @@ public class RuntimeRegistration implements IRuntimeRegistration {
 	private IBookmarkOverlay bookmarkOverlay = BookmarkOverlayDummy.INSTANCE;
 	private IRecipesGui recipesGui = RecipesGuiDummy.INSTANCE;
 	private IIngredientFilter ingredientFilter = IngredientFilterApiDummy.INSTANCE;
+	private final List<CompletableFuture<?>> startupTasks = new ArrayList<>();
 
 	public RuntimeRegistration(
 		IRecipeManager recipeManager,
@@ -65,6 +70,11 @@ public class RuntimeRegistration implements IRuntimeRegistration {
 		this.ingredientFilter = ingredientFilter;
 	}
 
+	@Override
+	public void addStartupTask(CompletableFuture<?> startupTask) {
+		this.startupTasks.add(startupTask);
+	}
+
 	@Override
 	public IRecipeManager getRecipeManager() {
 		return this.recipeManager;
@@ -110,4 +120,8 @@ public class RuntimeRegistration implements IRuntimeRegistration {
 	public IIngredientFilter getIngredientFilter() {
 		return this.ingredientFilter;
 	}
+
+	public CompletableFuture<Void> getStartupTasks() {
+		return CompletableFuture.allOf(startupTasks.toArray(CompletableFuture[]::new));
+	}
 }
@@ -1,5 +1,6 @@
 package mezz.jei.library.plugins.vanilla.ingredients;
 
+import com.google.common.base.Stopwatch;
 import mezz.jei.api.ingredients.subtypes.UidContext;
 import mezz.jei.common.Internal;
 import mezz.jei.common.config.IClientConfig;
@@ -8,6 +9,7 @@ import mezz.jei.common.platform.Services;
 import mezz.jei.common.util.ErrorUtil;
 import mezz.jei.common.util.RegistryUtil;
 import mezz.jei.common.util.StackHelper;
+import net.minecraft.Util;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.multiplayer.ClientLevel;
 import net.minecraft.client.multiplayer.ClientPacketListener;
@@ -28,22 +30,23 @@ import org.jetbrains.annotations.Unmodifiable;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
-import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 public final class ItemStackListFactory {
 	private static final Logger LOGGER = LogManager.getLogger();
+	private static final int SLOWEST_TABS_LOGGED = 5;
 
 	public static List<ItemStack> create(StackHelper stackHelper, ItemStackHelper itemStackHelper) {
 		IJeiClientConfigs jeiClientConfigs = Internal.getJeiClientConfigs();
 		IClientConfig clientConfig = jeiClientConfigs.getClientConfig();
 		final boolean showHidden = clientConfig.getShowHiddenIngredients();
 
-		final List<ItemStack> itemList = new ArrayList<>();
-		final Set<Object> itemUidSet = new HashSet<>();
+		final UniqueItemCollector<ItemStack> itemCollector = new UniqueItemCollector<>();
 
 		Minecraft minecraft = Minecraft.getInstance();
 		FeatureFlagSet features = Optional.ofNullable(minecraft.player)
@@ -67,6 +70,7 @@ public final class ItemStackListFactory {
 		final CreativeModeTab.ItemDisplayParameters displayParameters =
 			new CreativeModeTab.ItemDisplayParameters(features, hasOperatorItemsTabPermissions, registryAccess);
 
+		List<CreativeModeTab> tabs = new ArrayList<>();
 		for (CreativeModeTab tab : CreativeModeTabs.allTabs()) {
 			if (tab.getType() != CreativeModeTab.Type.CATEGORY) {
 				LOGGER.debug(
@@ -76,14 +80,28 @@ public final class ItemStackListFactory {
 				);
 				continue;
 			}
-			try {
-				tab.buildContents(displayParameters);
-			} catch (RuntimeException | LinkageError e) {
+			tabs.add(tab);
+		}
+
+		Executor executor = clientConfig.isParallelCreativeTabsEnabled() ? Util.backgroundExecutor() : null;
+		Stopwatch stopwatch = Stopwatch.createStarted();
+		List<TabContentsBuilder.Result<CreativeModeTab>> results = TabContentsBuilder.build(
+			tabs,
+			tab -> tab.buildContents(displayParameters),
+			executor
+		);
+		stopwatch.stop();
+
+		List<TabTiming> timings = new ArrayList<>(results.size());
+		for (TabContentsBuilder.Result<CreativeModeTab> result : results) {
+			CreativeModeTab tab = result.tab();
+			Throwable error = result.error();
+			if (error != null) {
 				LOGGER.error(
 					"Item Group crashed while building contents." +
 					"Items from this group will be missing from the JEI ingredient list: {}",
 					tab.getDisplayName().getString(),
-					e
+					error
 				);
 				continue;
 			}
@@ -103,6 +121,18 @@ public final class ItemStackListFactory {
 				continue;
 			}
 
+			TabTiming timing = new TabTiming(tab.getDisplayName().getString(), result.nanos(), displayItems.size(), searchTabDisplayItems.size());
+			timings.add(timing);
+			if (LOGGER.isDebugEnabled()) {
+				LOGGER.debug(
+					"Built '{}' creative tab in {}: {} display items, {} search tab display items",
+					timing.name(),
+					toMillisString(timing.nanos()),
+					timing.displayItems(),
+					timing.searchTabDisplayItems()
+				);
+			}
+
 			if (displayItems.isEmpty() && searchTabDisplayItems.isEmpty()) {
 				LOGGER.warn(
 					"Item Group has no display items and no search tab display items. " +
@@ -118,8 +148,7 @@ public final class ItemStackListFactory {
 				tab,
 				stackHelper,
 				itemStackHelper,
-				itemList,
-				itemUidSet
+				itemCollector
 			);
 			if (!displayItems.equals(searchTabDisplayItems)) {
 				addFromTab(
@@ -128,17 +157,45 @@ public final class ItemStackListFactory {
 					tab,
 					stackHelper,
 					itemStackHelper,
-					itemList,
-					itemUidSet
+					itemCollector
 				);
 			}
 		}
 
+		logSlowestTabs(timings, stopwatch, executor != null);
+
 		if (showHidden) {
-			addItemsFromRegistries(stackHelper, itemList, itemUidSet, features);
+			addItemsFromRegistries(stackHelper, itemCollector, features);
 		}
 
-		return itemList;
+		return itemCollector.getItems();
+	}
+
+	private record TabTiming(String name, long nanos, int displayItems, int searchTabDisplayItems) {}
+
+	private static void logSlowestTabs(List<TabTiming> timings, Stopwatch stopwatch, boolean parallel) {
+		String slowest = timings.stream()
+			.sorted(Comparator.comparingLong(TabTiming::nanos).reversed())
+			.limit(SLOWEST_TABS_LOGGED)
+			.map(timing -> String.format(
+				Locale.ROOT,
+				"'%s' %s (%d items)",
+				timing.name(),
+				toMillisString(timing.nanos()),
+				Math.max(timing.displayItems(), timing.searchTabDisplayItems())
+			))
+			.collect(Collectors.joining(", "));
+		LOGGER.info(
+			"Built {} creative tabs {}in {}. Slowest tabs: {}",
+			timings.size(),
+			parallel ? "in parallel " : "",
+			stopwatch,
+			slowest
+		);
+	}
+
+	private static String toMillisString(long nanos) {
+		return String.format(Locale.ROOT, "%.1f ms", nanos / 1_000_000.0);
 	}
 
 	private static void addFromTab(
@@ -147,72 +204,53 @@ public final class ItemStackListFactory {
 		CreativeModeTab tab,
 		StackHelper stackHelper,
 		ItemStackHelper itemStackHelper,
-		List<ItemStack> itemList,
-		Set<Object> itemUidSet
+		UniqueItemCollector<ItemStack> itemCollector
 	) {
-		Set<Object> tabUidSet = new HashSet<>();
-		int added = 0;
-		Set<Object> duplicateInTab = new HashSet<>();
-		int duplicateInTabCount = 0;
-		for (ItemStack itemStack : tabDisplayItems) {
+		UniqueItemCollector.TabResult result = itemCollector.addFromTab(tabDisplayItems, itemStack -> {
 			if (itemStack.isEmpty()) {
 				String errorInfo = itemStackHelper.getErrorInfo(itemStack);
 				LOGGER.error("Found an empty itemStack in '{}' creative tab's {}: {}", tab, displayType, errorInfo);
-				continue;
+				return null;
 			}
 			if (!itemStackHelper.isValidIngredient(itemStack)) {
 				String errorInfo = itemStackHelper.getErrorInfo(itemStack);
 				LOGGER.error("Ignoring ingredient in '{}' creative tab's {} that is considered invalid: {}", tab, displayType, errorInfo);
-				continue;
+				return null;
 			}
 			if (!itemStackHelper.isIngredientOnServer(itemStack)) {
 				String errorInfo = itemStackHelper.getErrorInfo(itemStack);
 				LOGGER.warn("Ignoring ingredient in '{}' creative tab's {} that isn't on the server: {}", tab, displayType, errorInfo);
-				continue;
+				return null;
 			}
-			Object itemKey = safeGetUid(stackHelper, itemStack);
-			if (itemKey == null) {
-				continue;
-			}
-
-			if (tabUidSet.contains(itemKey)) {
-				duplicateInTab.add(itemKey);
-				duplicateInTabCount++;
-			}
-			if (itemUidSet.add(itemKey)) {
-				tabUidSet.add(itemKey);
-				itemList.add(itemStack);
-				added++;
-			}
-		}
+			return safeGetUid(stackHelper, itemStack);
+		});
 		if (LOGGER.isDebugEnabled()) {
 			LOGGER.debug(
 				"Added {}/{} new items from '{}' creative tab's {}",
-				StringUtils.leftPad(Integer.toString(added), 4, ' '),
+				StringUtils.leftPad(Integer.toString(result.added()), 4, ' '),
 				StringUtils.leftPad(Integer.toString(tabDisplayItems.size()), 4, ' '),
 				tab.getDisplayName().getString(),
 				displayType
 			);
 		}
-		if (duplicateInTabCount > 0) {
+		if (result.duplicateCount() > 0) {
 			Level level = Services.PLATFORM.getModHelper().isInDev() ? Level.WARN : Level.DEBUG;
 			LOGGER.log(level,
 				"""
 					{} duplicate items were found in '{}' creative tab's: {}
 					This may indicate that these types of item need a subtype interpreter added to JEI:
 					{}""",
-				duplicateInTabCount,
+				result.duplicateCount(),
 				tab.getDisplayName().getString(),
 				displayType,
-				duplicateInTab.stream().map(Object::toString).collect(Collectors.joining(", ", "[", "]"))
+				result.duplicates().stream().map(Object::toString).collect(Collectors.joining(", ", "[", "]"))
 			);
 		}
 	}
 
 	private static void addItemsFromRegistries(
 		StackHelper stackHelper,
-		List<ItemStack> itemList,
-		Set<Object> itemUidSet,
+		UniqueItemCollector<ItemStack> itemCollector,
 		FeatureFlagSet features
 	) {
 		{
@@ -227,8 +265,7 @@ public final class ItemStackListFactory {
 			int added = 0;
 			for (ItemStack itemStack : itemStacks) {
 				Object itemKey = safeGetUid(stackHelper, itemStack);
-				if (itemKey != null && itemUidSet.add(itemKey)) {
-					itemList.add(itemStack);
+				if (itemKey != null && itemCollector.add(itemStack, itemKey)) {
 					added++;
 				}
 			}
@@ -253,8 +290,7 @@ public final class ItemStackListFactory {
 			int added = 0;
 			for (ItemStack itemStack : itemStacks) {
 				Object itemKey = safeGetUid(stackHelper, itemStack);
-				if (itemKey != null && itemUidSet.add(itemKey)) {
-					itemList.add(itemStack);
+				if (itemKey != null && itemCollector.add(itemStack, itemKey)) {
 					added++;
 				}
 			}
@@ -0,0 +1,72 @@
+package mezz.jei.library.plugins.vanilla.ingredients;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Builds the contents of creative tabs, optionally at the same time on other threads.
+ *
+ * Results are returned in tab order no matter which tab finishes first, so the ingredient list is the same either way.
+ * Tabs are built by mod code that may not work off the main thread,
+ * so a tab that fails on another thread is built again on the calling thread before it is reported as broken.
+ */
+public final class TabContentsBuilder {
+	private TabContentsBuilder() {}
+
+	/**
+	 * @param tab      the tab that was built
+	 * @param error    the error thrown while building the tab, or null if it was built
+	 * @param nanos    how long building the tab took
+	 * @param threaded true if the tab was built on another thread
+	 */
+	public record Result<T>(T tab, @Nullable Throwable error, long nanos, boolean threaded) {}
+
+	/**
+	 * @param executor the executor to build tabs on, or null to build them one at a time on this thread
+	 */
+	public static <T> List<Result<T>> build(List<T> tabs, Consumer<T> buildContents, @Nullable Executor executor) {
+		List<Result<T>> results = new ArrayList<>(tabs.size());
+		if (executor == null) {
+			for (T tab : tabs) {
+				results.add(buildTab(tab, buildContents, false));
+			}
+			return results;
+		}
+
+		List<CompletableFuture<Result<T>>> futures = new ArrayList<>(tabs.size());
+		for (T tab : tabs) {
+			CompletableFuture<Result<T>> future;
+			try {
+				future = CompletableFuture.supplyAsync(() -> buildTab(tab, buildContents, true), executor);
+			} catch (RejectedExecutionException e) {
+				future = CompletableFuture.completedFuture(buildTab(tab, buildContents, false));
+			}
+			futures.add(future);
+		}
+
+		for (CompletableFuture<Result<T>> future : futures) {
+			Result<T> result = future.join();
+			if (result.error() != null && result.threaded()) {
+				result = buildTab(result.tab(), buildContents, false);
+			}
+			results.add(result);
+		}
+		return results;
+	}
+
+	private static <T> Result<T> buildTab(T tab, Consumer<T> buildContents, boolean threaded) {
+		long start = System.nanoTime();
+		try {
+			buildContents.accept(tab);
+			return new Result<>(tab, null, System.nanoTime() - start, threaded);
+		} catch (RuntimeException | LinkageError e) {
+			return new Result<>(tab, e, System.nanoTime() - start, threaded);
+		}
+	}
+}
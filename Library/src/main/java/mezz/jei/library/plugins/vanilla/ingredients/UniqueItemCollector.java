@@ -0,0 +1,67 @@
+package mezz.jei.library.plugins.vanilla.ingredients;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Collects items in the order they are added, skipping items with the same uid as one that was already collected.
+ */
+public final class UniqueItemCollector<I> {
+	private final List<I> items = new ArrayList<>();
+	private final Set<Object> uids = new HashSet<>();
+
+	/**
+	 * @param added          how many new items were collected from the tab
+	 * @param duplicateCount how many items in the tab had the same uid as an earlier item the tab added
+	 * @param duplicates     the uids of those duplicate items
+	 */
+	public record TabResult(int added, int duplicateCount, Set<Object> duplicates) {}
+
+	/**
+	 * @param getUid returns the uid of an item, or null if the item should be skipped
+	 */
+	public TabResult addFromTab(Collection<I> tabItems, Function<I, @Nullable Object> getUid) {
+		Set<Object> tabUidSet = new HashSet<>();
+		int added = 0;
+		Set<Object> duplicateInTab = new HashSet<>();
+		int duplicateInTabCount = 0;
+		for (I item : tabItems) {
+			Object uid = getUid.apply(item);
+			if (uid == null) {
+				continue;
+			}
+
+			if (tabUidSet.contains(uid)) {
+				duplicateInTab.add(uid);
+				duplicateInTabCount++;
+			}
+			if (uids.add(uid)) {
+				tabUidSet.add(uid);
+				items.add(item);
+				added++;
+			}
+		}
+		return new TabResult(added, duplicateInTabCount, duplicateInTab);
+	}
+
+	/**
+	 * @return true if the item was collected, false if an item with the same uid was already collected
+	 */
+	public boolean add(I item, Object uid) {
+		if (uids.add(uid)) {
+			items.add(item);
+			return true;
+		}
+		return false;
+	}
+
+	public List<I> getItems() {
+		return items;
+	}
+}
@@ -34,6 +34,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Stream;
 
 public class RecipeManagerInternal {
@@ -289,8 +291,16 @@ public class RecipeManagerInternal {
 		return (List<IRecipeCategoryDecorator<T>>) (Object) decorators;
 	}
 
-	public void compact() {
-		recipeMaps.values().forEach(RecipeMap::compact);
+	/**
+	 * Compact the recipe maps for each role after all recipes have been added.
+	 * Each role has its own independent map, so they are compacted in parallel on the given executor.
+	 */
+	public CompletableFuture<Void> compact(Executor executor) {
+		CompletableFuture<?>[] tasks = recipeMaps.values()
+			.stream()
+			.map(recipeMap -> CompletableFuture.runAsync(recipeMap::compact, executor))
+			.toArray(CompletableFuture[]::new);
+		return CompletableFuture.allOf(tasks);
 	}
 
 	public boolean isRecipeCatalyst(RecipeType<?> recipeType, IFocus<?> focus) {
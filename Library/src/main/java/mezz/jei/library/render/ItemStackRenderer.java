@@ -45,6 +45,11 @@ public class ItemStackRenderer implements IIngredientRenderer<ItemStack> {
 		batchRenderer.renderBatch(guiGraphics, this, batchRenderElements);
 	}
 
+	@Override
+	public void prepareBatch(List<BatchRenderElement<ItemStack>> batchRenderElements) {
+		batchRenderer.prepareBatch(batchRenderElements);
+	}
+
 	@SuppressWarnings("removal")
 	@Override
 	public List<Component> getTooltip(ItemStack ingredient, TooltipFlag tooltipFlag) {
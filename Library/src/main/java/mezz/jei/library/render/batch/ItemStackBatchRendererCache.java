@@ -1,10 +1,12 @@
 package mezz.jei.library.render.batch;
 
 
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import mezz.jei.api.ingredients.rendering.BatchRenderElement;
+import mezz.jei.common.gui.BatchRenderPlan;
 import mezz.jei.library.render.ItemStackRenderer;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiGraphics;
@@ -14,23 +16,59 @@ import net.minecraft.world.item.ItemStack;
 import java.util.List;
 
 public class ItemStackBatchRendererCache {
+	private static final int MAX_SIZE = 6;
+
 	private final LoadingCache<List<BatchRenderElement<ItemStack>>, ItemStackBatchRenderer> cache =
 		CacheBuilder.newBuilder()
-			.maximumSize(6)
+			.maximumSize(MAX_SIZE)
 			.build(new CacheLoader<>() {
 				@Override
 				public ItemStackBatchRenderer load(List<BatchRenderElement<ItemStack>> elements) {
-					Minecraft minecraft = Minecraft.getInstance();
-					return new ItemStackBatchRenderer(minecraft, elements);
+					return createBatchRenderer(elements);
 				}
 			});
 
+	/**
+	 * Plans are looked up by generation, so their elements never need to be hashed or compared.
+	 */
+	private final Cache<Long, ItemStackBatchRenderer> planCache =
+		CacheBuilder.newBuilder()
+			.maximumSize(MAX_SIZE)
+			.build();
+
 	public void renderBatch(GuiGraphics guiGraphics, ItemStackRenderer itemStackRenderer, List<BatchRenderElement<ItemStack>> elements) {
-		ItemStackBatchRenderer batchData = cache.getUnchecked(elements);
+		ItemStackBatchRenderer batchData = getBatchRenderer(elements);
 
 		Minecraft minecraft = Minecraft.getInstance();
 		ItemRenderer itemRenderer = minecraft.getItemRenderer();
 		batchData.render(guiGraphics, minecraft, itemRenderer, itemStackRenderer);
 	}
 
+	/**
+	 * Looking up the models is the slow part of a batch,
+	 * so plans that will be rendered soon are looked up ahead of time.
+	 * Only plans are prepared, other lists would not be found again.
+	 */
+	public void prepareBatch(List<BatchRenderElement<ItemStack>> elements) {
+		if (elements instanceof BatchRenderPlan<ItemStack> plan && planCache.getIfPresent(plan.getGeneration()) == null) {
+			planCache.put(plan.getGeneration(), createBatchRenderer(plan));
+		}
+	}
+
+	private ItemStackBatchRenderer getBatchRenderer(List<BatchRenderElement<ItemStack>> elements) {
+		if (elements instanceof BatchRenderPlan<ItemStack> plan) {
+			ItemStackBatchRenderer batchData = planCache.getIfPresent(plan.getGeneration());
+			if (batchData == null) {
+				batchData = createBatchRenderer(plan);
+				planCache.put(plan.getGeneration(), batchData);
+			}
+			return batchData;
+		}
+		return cache.getUnchecked(elements);
+	}
+
+	private static ItemStackBatchRenderer createBatchRenderer(List<BatchRenderElement<ItemStack>> elements) {
+		Minecraft minecraft = Minecraft.getInstance();
+		return new ItemStackBatchRenderer(minecraft, elements);
+	}
 }
@@ -11,14 +11,17 @@ import mezz.jei.common.config.ConfigManager;
 import mezz.jei.common.config.DebugConfig;
 import mezz.jei.common.config.IIngredientFilterConfig;
 import mezz.jei.common.config.JeiClientConfigs;
+import mezz.jei.common.config.file.ConfigFileFormat;
 import mezz.jei.common.config.file.ConfigSchemaBuilder;
 import mezz.jei.common.config.file.FileWatcher;
 import mezz.jei.common.config.file.IConfigSchemaBuilder;
 import mezz.jei.common.platform.Services;
 import mezz.jei.common.util.ErrorUtil;
 import mezz.jei.common.util.RegistryUtil;
+import mezz.jei.common.util.StartupExecutors;
 import mezz.jei.core.util.LoggedTimer;
 import mezz.jei.library.color.ColorHelper;
+import mezz.jei.library.color.ColorPaletteCache;
 import mezz.jei.library.config.ColorNameConfig;
 import mezz.jei.library.config.EditModeConfig;
 import mezz.jei.library.config.ModIdFormatConfig;
@@ -39,9 +42,13 @@ import net.minecraft.client.Minecraft;
 import net.minecraft.core.RegistryAccess;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
 
 import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public final class JeiStarter {
 	private static final Logger LOGGER = LogManager.getLogger();
@@ -51,11 +58,20 @@ public final class JeiStarter {
 	private final VanillaPlugin vanillaPlugin;
 	private final ModIdFormatConfig modIdFormatConfig;
 	private final ColorNameConfig colorNameConfig;
+	private final ColorPaletteCache colorPaletteCache;
 	private final RecipeCategorySortingConfig recipeCategorySortingConfig;
 	@SuppressWarnings("FieldCanBeLocal")
 	private final FileWatcher fileWatcher = new FileWatcher("JEI Config File Watcher");
 	private final ConfigManager configManager;
 	private final JeiClientConfigs jeiClientConfigs;
+	@Nullable
+	private Object startToken;
+	@Nullable
+	private EditModeConfig editModeConfig;
+	/**
+	 * True once plugins have been sent the runtime, so they are only sent Runtime Unavailable after that.
+	 */
+	private boolean runtimeAvailable;
 
 	public JeiStarter(StartData data) {
 		ErrorUtil.checkNotEmpty(data.plugins(), "plugins");
@@ -82,6 +98,7 @@ public final class JeiStarter {
 		IConfigSchemaBuilder colorFileBuilder = new ConfigSchemaBuilder(configDir.resolve("jei-colors.ini"), "jei.config.colors");
 		this.colorNameConfig = new ColorNameConfig(colorFileBuilder);
 		colorFileBuilder.build().register(fileWatcher, configManager);
+		this.colorPaletteCache = new ColorPaletteCache(configDir.resolve("cache").resolve("color-palettes.dat"));
 
 		this.jeiClientConfigs = new JeiClientConfigs(configDir.resolve("jei-client.ini"));
 		jeiClientConfigs.register(fileWatcher, configManager);
@@ -94,6 +111,13 @@ public final class JeiStarter {
 		PluginCaller.callOnPlugins("Sending ConfigManager", plugins, p -> p.onConfigManagerAvailable(configManager));
 	}
 
+	/**
+	 * Called when client resources are reloaded, before JEI's GUI rebuilds its search.
+	 */
+	public void onResourcesReloaded() {
+		colorPaletteCache.setResourceFingerprint(ColorPaletteCache.createResourceFingerprint());
+	}
+
 	public void start() {
 		Minecraft minecraft = Minecraft.getInstance();
 		if (minecraft.level == null) {
@@ -107,7 +131,12 @@ public final class JeiStarter {
 		totalTime.start("Starting JEI");
 		this.configManager.onJeiStarted();
 
-		IColorHelper colorHelper = new ColorHelper(colorNameConfig);
+		Object startToken = new Object();
+		this.startToken = startToken;
+		StartupExecutors executors = StartupExecutors.create(jeiClientConfigs.getClientConfig());
+
+		colorPaletteCache.setResourceFingerprint(ColorPaletteCache.createResourceFingerprint());
+		IColorHelper colorHelper = new ColorHelper(colorNameConfig, colorPaletteCache);
 		IIngredientFilterConfig ingredientFilterConfig = jeiClientConfigs.getIngredientFilterConfig();
 		SubtypeManager subtypeManager = PluginLoader.registerSubtypes(data);
 		IIngredientManager ingredientManager = PluginLoader.registerIngredients(data, subtypeManager, colorHelper, ingredientFilterConfig);
@@ -117,21 +146,24 @@ public final class JeiStarter {
 
 		Path configDir = Services.PLATFORM.getConfigHelper().createJeiConfigDir();
 		EditModeConfig.FileSerializer editModeSerializer = new EditModeConfig.FileSerializer(
-			configDir.resolve("blacklist.json"),
+			configDir,
+			ConfigFileFormat.get(jeiClientConfigs.getClientConfig().isBinaryConfigFilesEnabled()),
 			registryAccess,
 			codecHelper
 		);
 		EditModeConfig editModeConfig = new EditModeConfig(editModeSerializer, ingredientManager);
+		this.editModeConfig = editModeConfig;
 
 		ImmutableSetMultimap<String, String> modAliases = PluginLoader.registerModAliases(data, ingredientFilterConfig);
 		JeiHelpers jeiHelpers = PluginLoader.createJeiHelpers(modAliases, modIdFormatConfig, colorHelper, editModeConfig, focusFactory, codecHelper, ingredientManager, subtypeManager);
 
-		RecipeManager recipeManager = PluginLoader.createRecipeManager(
+		CompletableFuture<RecipeManager> recipeManagerFuture = PluginLoader.createRecipeManager(
 			plugins,
 			vanillaPlugin,
 			recipeCategorySortingConfig,
 			jeiHelpers,
-			ingredientManager
+			ingredientManager,
+			executors.background()
 		);
 		IRecipeTransferManager recipeTransferManager = PluginLoader.createRecipeTransferManager(
 			vanillaPlugin,
@@ -139,11 +171,56 @@ public final class JeiStarter {
 			jeiHelpers,
 			data.serverConnection()
 		);
+		IScreenHelper screenHelper = PluginLoader.createGuiScreenHelper(plugins, jeiHelpers, ingredientManager);
+
+		CompletableFuture<Void> startFuture = recipeManagerFuture
+			.thenApplyAsync(recipeManager -> {
+				checkStillStarting(startToken);
+				return createRuntime(recipeManager, jeiHelpers, editModeConfig, ingredientManager, recipeTransferManager, screenHelper);
+			}, executors.mainThread())
+			.thenCompose(startedRuntime -> startedRuntime.startupTasks().thenApply(v -> startedRuntime.jeiRuntime()))
+			.thenAcceptAsync(jeiRuntime -> {
+				checkStillStarting(startToken);
+				PluginCaller.callOnPlugins("Sending Runtime", plugins, p -> p.onRuntimeAvailable(jeiRuntime));
+				Internal.setRuntime(jeiRuntime);
+				runtimeAvailable = true;
+				totalTime.stop();
+			}, executors.mainThread());
+
+		if (startFuture.isDone()) {
+			// everything ran on this thread, rethrow any errors the same way a synchronous start would
+			try {
+				startFuture.join();
+			} catch (CompletionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException runtimeException) {
+					throw runtimeException;
+				}
+				if (cause instanceof Error error) {
+					throw error;
+				}
+				throw e;
+			}
+		} else {
+			LOGGER.info("Finishing JEI startup in the background...");
+			startFuture.whenComplete((v, t) -> {
+				if (t != null && !(t.getCause() instanceof CancellationException)) {
+					LOGGER.error("Failed to start JEI", t);
+				}
+			});
+		}
+	}
 
+	private StartedRuntime createRuntime(
+		RecipeManager recipeManager,
+		JeiHelpers jeiHelpers,
+		EditModeConfig editModeConfig,
+		IIngredientManager ingredientManager,
+		IRecipeTransferManager recipeTransferManager,
+		IScreenHelper screenHelper
+	) {
 		LoggedTimer timer = new LoggedTimer();
 		timer.start("Building runtime");
-		IScreenHelper screenHelper = PluginLoader.createGuiScreenHelper(plugins, jeiHelpers, ingredientManager);
-
 		RuntimeRegistration runtimeRegistration = new RuntimeRegistration(
 			recipeManager,
 			jeiHelpers,
@@ -170,17 +247,34 @@ public final class JeiStarter {
 		);
 		timer.stop();
 
-		PluginCaller.callOnPlugins("Sending Runtime", plugins, p -> p.onRuntimeAvailable(jeiRuntime));
-		Internal.setRuntime(jeiRuntime);
+		return new StartedRuntime(jeiRuntime, runtimeRegistration.getStartupTasks());
+	}
 
-		totalTime.stop();
+	/**
+	 * Startup work finishes asynchronously, so JEI may be stopped (or restarted) while it is still in progress.
+	 * Results from a start that has been superseded must not be published.
+	 */
+	private void checkStillStarting(Object startToken) {
+		if (this.startToken != startToken) {
+			throw new CancellationException("JEI was stopped before it finished starting.");
+		}
 	}
 
 	public void stop() {
 		LOGGER.info("Stopping JEI");
-		List<IModPlugin> plugins = data.plugins();
-		PluginCaller.callOnPlugins("Sending Runtime Unavailable", plugins, IModPlugin::onRuntimeUnavailable);
+		this.startToken = null;
+		if (editModeConfig != null) {
+			editModeConfig.flush();
+			editModeConfig = null;
+		}
+		if (runtimeAvailable) {
+			runtimeAvailable = false;
+			List<IModPlugin> plugins = data.plugins();
+			PluginCaller.callOnPlugins("Sending Runtime Unavailable", plugins, IModPlugin::onRuntimeUnavailable);
+		}
 		Internal.setRuntime(null);
 		RegistryUtil.setRegistryAccess(null);
 	}
+
+	private record StartedRuntime(JeiRuntime jeiRuntime, CompletableFuture<Void> startupTasks) {}
 }
@@ -12,6 +12,8 @@ import mezz.jei.api.recipe.transfer.IRecipeTransferHandlerHelper;
 import mezz.jei.api.recipe.transfer.IRecipeTransferInfo;
 import mezz.jei.common.network.IConnectionToServer;
 import mezz.jei.common.network.packets.PacketRecipeTransfer;
+import mezz.jei.common.transfer.IRecipeTransferSlots;
+import mezz.jei.common.transfer.InventoryIndex;
 import mezz.jei.common.transfer.RecipeTransferOperationsResult;
 import mezz.jei.common.transfer.RecipeTransferUtil;
 import mezz.jei.common.util.StringUtil;
@@ -33,7 +35,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
-public class BasicRecipeTransferHandler<C extends AbstractContainerMenu, R> implements IRecipeTransferHandler<C, R> {
+public class BasicRecipeTransferHandler<C extends AbstractContainerMenu, R> implements IRecipeTransferHandler<C, R>, IRecipeTransferSlots<C, R> {
 	private static final Logger LOGGER = LogManager.getLogger();
 
 	private final IConnectionToServer serverConnection;
@@ -68,6 +70,19 @@ public class BasicRecipeTransferHandler<C extends AbstractContainerMenu, R> impl
 		return transferInfo.getRecipeType();
 	}
 
+	@Override
+	public Optional<TransferSlots> getTransferSlots(C container, R recipe) {
+		if (!serverConnection.isJeiOnServer() || !transferInfo.canHandle(container, recipe)) {
+			return Optional.empty();
+		}
+		List<Slot> craftingSlots = Collections.unmodifiableList(transferInfo.getRecipeSlots(container, recipe));
+		List<Slot> inventorySlots = Collections.unmodifiableList(transferInfo.getInventorySlots(container, recipe));
+		if (!validateTransferInfo(transferInfo, container, craftingSlots, inventorySlots)) {
+			return Optional.empty();
+		}
+		return Optional.of(new TransferSlots(craftingSlots, inventorySlots));
+	}
+
 	@Nullable
 	@Override
 	public IRecipeTransferError transferRecipe(C container, R recipe, IRecipeSlotsView recipeSlotsView, Player player, boolean maxTransfer, boolean doTransfer) {
@@ -107,8 +122,10 @@ public class BasicRecipeTransferHandler<C extends AbstractContainerMenu, R> impl
 			return handlerHelper.createUserErrorWithTooltip(message);
 		}
 
+		InventoryIndex inventoryIndex = InventoryIndex.get(stackHelper, container);
 		RecipeTransferOperationsResult transferOperations = RecipeTransferUtil.getRecipeTransferOperations(
 			stackHelper,
+			inventoryIndex,
 			inventoryState.availableItemStacks,
 			inputItemSlotViews,
 			craftingSlots
@@ -0,0 +1,106 @@
+package mezz.jei.test.color;
+
+import mezz.jei.library.color.MMCQ;
+import mezz.jei.test.lib.ReferenceMMCQ;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class MMCQTest {
+	private static final int[] SIZES = {1, 2, 16 * 16, 32 * 32, 64 * 64};
+	private static final int[] COLOR_COUNTS = {1, 2, 3, 5, 8, 16, 64, 256};
+
+	/**
+	 * The palette must be exactly the same as the one from the original implementation,
+	 * for noisy images with many colors.
+	 */
+	@Test
+	public void testRandomImages() {
+		Random random = new Random(8024L);
+		for (int size : SIZES) {
+			for (int colorCount : COLOR_COUNTS) {
+				int[] pixels = new int[size];
+				for (int i = 0; i < size; i++) {
+					pixels[i] = random.nextInt(0x1000000);
+				}
+				assertSamePalette(pixels, colorCount);
+			}
+		}
+	}
+
+	/**
+	 * The palette must be exactly the same as the one from the original implementation,
+	 * for images made of a few flat colors like most item sprites.
+	 */
+	@Test
+	public void testFewColorImages() {
+		Random random = new Random(1337L);
+		for (int size : SIZES) {
+			for (int colorCount : COLOR_COUNTS) {
+				int[] baseColors = new int[1 + random.nextInt(6)];
+				for (int i = 0; i < baseColors.length; i++) {
+					baseColors[i] = random.nextInt(0x1000000);
+				}
+				int[] pixels = new int[size];
+				for (int i = 0; i < size; i++) {
+					pixels[i] = baseColors[random.nextInt(baseColors.length)];
+				}
+				assertSamePalette(pixels, colorCount);
+			}
+		}
+	}
+
+	/**
+	 * The palette must be exactly the same as the one from the original implementation,
+	 * for smooth gradients.
+	 */
+	@Test
+	public void testGradientImages() {
+		for (int size : SIZES) {
+			for (int colorCount : COLOR_COUNTS) {
+				int[] pixels = new int[size];
+				for (int i = 0; i < size; i++) {
+					int r = (i * 255) / size;
+					int g = 255 - r;
+					int b = (i * 7) & 0xFF;
+					pixels[i] = (r << 16) | (g << 8) | b;
+				}
+				assertSamePalette(pixels, colorCount);
+			}
+		}
+	}
+
+	/**
+	 * Invalid inputs return no palette, like the original implementation.
+	 */
+	@Test
+	public void testInvalidInputs() {
+		Assertions.assertNull(MMCQ.quantize(new int[0], 0, 2));
+		Assertions.assertNull(MMCQ.quantize(new int[]{0xFF0000}, 1, 0));
+		Assertions.assertNull(MMCQ.quantize(new int[]{0xFF0000}, 1, 257));
+	}
+
+	private static void assertSamePalette(int[] pixels, int colorCount) {
+		int[][] unpackedPixels = new int[pixels.length][];
+		for (int i = 0; i < pixels.length; i++) {
+			int pixel = pixels[i];
+			unpackedPixels[i] = new int[]{pixel >> 16 & 0xFF, pixel >> 8 & 0xFF, pixel & 0xFF};
+		}
+		ReferenceMMCQ.CMap expectedMap = ReferenceMMCQ.quantize(unpackedPixels, colorCount);
+		Assertions.assertNotNull(expectedMap);
+		int[][] expected = expectedMap.palette();
+
+		// pad the input to make sure only pixelCount pixels are read
+		int[] paddedPixels = new int[pixels.length + 3];
+		System.arraycopy(pixels, 0, paddedPixels, 0, pixels.length);
+		int[][] actual = MMCQ.quantize(paddedPixels, pixels.length, colorCount);
+		Assertions.assertNotNull(actual);
+
+		String message = "size " + pixels.length + ", colorCount " + colorCount;
+		Assertions.assertEquals(expected.length, actual.length, message);
+		for (int i = 0; i < expected.length; i++) {
+			Assertions.assertArrayEquals(expected[i], actual[i], message + ", color " + i);
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package mezz.jei.test.gui.ingredients;
+
+import mezz.jei.api.ingredients.IIngredientType;
+import mezz.jei.api.ingredients.ITypedIngredient;
+import mezz.jei.library.gui.ingredients.DisplayIngredients;
+import mezz.jei.library.gui.ingredients.ICycler;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class DisplayIngredientsTest {
+	private static final IIngredientType<String> TYPE = () -> String.class;
+
+	@Test
+	public void testEmpty() {
+		DisplayIngredients displayIngredients = DisplayIngredients.createVisible(List.of(), i -> true);
+		Assertions.assertEquals(0, displayIngredients.size());
+		Assertions.assertNull(displayIngredients.getCycled(new TestCycler(3)));
+	}
+
+	@Test
+	public void testCycles() {
+		List<@Nullable ITypedIngredient<?>> ingredients = createIngredients(3);
+		DisplayIngredients displayIngredients = DisplayIngredients.createVisible(ingredients, i -> true);
+		TestCycler cycler = new TestCycler(0);
+		for (int i = 0; i < 7; i++) {
+			Assertions.assertSame(ingredients.get(i % 3), displayIngredients.getCycled(cycler));
+			cycler.index++;
+		}
+	}
+
+	@Test
+	public void testInvisibleIngredientsAreHidden() {
+		List<@Nullable ITypedIngredient<?>> ingredients = createIngredients(5);
+		DisplayIngredients displayIngredients = DisplayIngredients.createVisible(ingredients, i -> !isOdd(i));
+		Assertions.assertEquals(3, displayIngredients.size());
+		Assertions.assertSame(ingredients.get(0), displayIngredients.getCycled(new TestCycler(0)));
+		Assertions.assertSame(ingredients.get(2), displayIngredients.getCycled(new TestCycler(1)));
+		Assertions.assertSame(ingredients.get(4), displayIngredients.getCycled(new TestCycler(2)));
+	}
+
+	@Test
+	public void testAllInvisibleShowsEverything() {
+		List<@Nullable ITypedIngredient<?>> ingredients = createIngredients(4);
+		DisplayIngredients displayIngredients = DisplayIngredients.createVisible(ingredients, i -> false);
+		Assertions.assertEquals(4, displayIngredients.size());
+	}
+
+	@Test
+	public void testBlanksAreKept() {
+		List<@Nullable ITypedIngredient<?>> ingredients = new ArrayList<>(createIngredients(2));
+		ingredients.add(1, null);
+		DisplayIngredients displayIngredients = DisplayIngredients.createVisible(ingredients, i -> true);
+		Assertions.assertEquals(3, displayIngredients.size());
+		Assertions.assertNull(displayIngredients.getCycled(new TestCycler(1)));
+	}
+
+	@Test
+	public void testDisplayedIngredientsAreLimited() {
+		List<@Nullable ITypedIngredient<?>> ingredients = createIngredients(250);
+		Assertions.assertEquals(100, DisplayIngredients.createVisible(ingredients, i -> true).size());
+		Assertions.assertEquals(100, DisplayIngredients.createVisible(ingredients, i -> false).size());
+		Assertions.assertEquals(100, DisplayIngredients.createVisible(ingredients, i -> !isOdd(i)).size());
+	}
+
+	@Test
+	public void testCopiesIngredients() {
+		List<@Nullable ITypedIngredient<?>> ingredients = new ArrayList<>(createIngredients(2));
+		DisplayIngredients displayIngredients = DisplayIngredients.of(ingredients);
+		ingredients.clear();
+		Assertions.assertEquals(2, displayIngredients.size());
+	}
+
+	private static boolean isOdd(ITypedIngredient<?> ingredient) {
+		return ((TestIngredient) ingredient).number() % 2 == 1;
+	}
+
+	private static List<@Nullable ITypedIngredient<?>> createIngredients(int count) {
+		TestIngredient[] ingredients = new TestIngredient[count];
+		for (int i = 0; i < count; i++) {
+			ingredients[i] = new TestIngredient(i);
+		}
+		return Arrays.asList(ingredients);
+	}
+
+	private record TestIngredient(int number) implements ITypedIngredient<String> {
+		@Override
+		public IIngredientType<String> getType() {
+			return TYPE;
+		}
+
+		@Override
+		public String getIngredient() {
+			return "ingredient" + number;
+		}
+	}
+
+	private static class TestCycler implements ICycler {
+		private int index;
+
+		public TestCycler(int index) {
+			this.index = index;
+		}
+
+		@Override
+		public int getCycleIndex() {
+			return index;
+		}
+	}
+}
@@ -0,0 +1,190 @@
+package mezz.jei.test.ingredients;
+
+import mezz.jei.library.plugins.vanilla.ingredients.TabContentsBuilder;
+import mezz.jei.library.plugins.vanilla.ingredients.UniqueItemCollector;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class CreativeTabContentsTest {
+	private static final Logger LOGGER = LogManager.getLogger();
+	private static final int TABS = 64;
+
+	/**
+	 * Results come back in tab order even when later tabs finish first.
+	 */
+	@Test
+	public void testResultsInTabOrder() {
+		List<TestTab> tabs = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			tabs.add(new TestTab("tab" + i, 10, (8 - i) * 5));
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<TabContentsBuilder.Result<TestTab>> results = TabContentsBuilder.build(tabs, TestTab::build, executor);
+			Assertions.assertEquals(tabs, results.stream().map(TabContentsBuilder.Result::tab).toList());
+			for (TabContentsBuilder.Result<TestTab> result : results) {
+				Assertions.assertNull(result.error());
+				Assertions.assertTrue(result.threaded());
+				Assertions.assertTrue(result.nanos() > 0);
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * A tab that only works on the calling thread is built again there, and a tab that always fails is reported.
+	 */
+	@Test
+	public void testFailedTabs() {
+		Thread callingThread = Thread.currentThread();
+		TestTab mainThreadOnly = new TestTab("mainThreadOnly", 1, 0) {
+			@Override
+			public void build() {
+				if (Thread.currentThread() != callingThread) {
+					throw new IllegalStateException("Not on the main thread");
+				}
+				super.build();
+			}
+		};
+		TestTab broken = new TestTab("broken", 1, 0) {
+			@Override
+			public void build() {
+				throw new IllegalStateException("Broken tab");
+			}
+		};
+		List<TestTab> tabs = List.of(new TestTab("first", 1, 0), mainThreadOnly, broken);
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			List<TabContentsBuilder.Result<TestTab>> results = TabContentsBuilder.build(tabs, TestTab::build, executor);
+			Assertions.assertNull(results.get(0).error());
+			Assertions.assertNull(results.get(1).error());
+			Assertions.assertFalse(results.get(1).threaded());
+			Assertions.assertEquals(1, mainThreadOnly.items.size());
+			Assertions.assertInstanceOf(IllegalStateException.class, results.get(2).error());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * The first tab to have an item keeps it, and only repeats within the tab that added an item count as duplicates.
+	 */
+	@Test
+	public void testDuplicates() {
+		UniqueItemCollector<String> collector = new UniqueItemCollector<>();
+		UniqueItemCollector.TabResult first = collector.addFromTab(List.of("a", "b", "b", "b"), CreativeTabContentsTest::getUid);
+		UniqueItemCollector.TabResult second = collector.addFromTab(List.of("c", "a", "a", "skip", "c"), CreativeTabContentsTest::getUid);
+
+		Assertions.assertEquals(new UniqueItemCollector.TabResult(2, 2, Set.of("b")), first);
+		Assertions.assertEquals(new UniqueItemCollector.TabResult(1, 1, Set.of("c")), second);
+		Assertions.assertFalse(collector.add("B", "b"));
+		Assertions.assertTrue(collector.add("d", "d"));
+		Assertions.assertEquals(List.of("a", "b", "c", "d"), collector.getItems());
+	}
+
+	/**
+	 * Building many tabs in parallel gives the same item list as building them one at a time.
+	 * The times of both are logged to compare by hand, timings are not reliable enough to assert on.
+	 */
+	@Test
+	public void testParallelSameAsSerial() {
+		long serialNanos = Long.MAX_VALUE;
+		long parallelNanos = Long.MAX_VALUE;
+		List<String> serialItems = List.of();
+		List<String> parallelItems = List.of();
+		int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			for (int run = 0; run < 5; run++) {
+				List<TestTab> tabs = createTabs();
+				long start = System.nanoTime();
+				serialItems = collect(TabContentsBuilder.build(tabs, TestTab::build, null));
+				serialNanos = Math.min(serialNanos, System.nanoTime() - start);
+
+				tabs = createTabs();
+				start = System.nanoTime();
+				parallelItems = collect(TabContentsBuilder.build(tabs, TestTab::build, executor));
+				parallelNanos = Math.min(parallelNanos, System.nanoTime() - start);
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		Assertions.assertEquals(serialItems, parallelItems);
+		LOGGER.info("Building tabs in parallel on {} threads took {} ns, serial took {} ns", threads, parallelNanos, serialNanos);
+	}
+
+	private static List<TestTab> createTabs() {
+		List<TestTab> tabs = new ArrayList<>();
+		for (int i = 0; i < TABS; i++) {
+			// a few slow tabs, like large modded tabs that generate their items
+			int work = i % 16 == 0 ? 2_000 : 200;
+			tabs.add(new TestTab("tab" + i, work, 0));
+		}
+		return tabs;
+	}
+
+	private static List<String> collect(List<TabContentsBuilder.Result<TestTab>> results) {
+		UniqueItemCollector<String> collector = new UniqueItemCollector<>();
+		for (TabContentsBuilder.Result<TestTab> result : results) {
+			collector.addFromTab(result.tab().items, CreativeTabContentsTest::getUid);
+		}
+		return collector.getItems();
+	}
+
+	@Nullable
+	private static String getUid(String item) {
+		if (item.equals("skip")) {
+			return null;
+		}
+		// tabs share some items, which should only be added once
+		int separator = item.indexOf(':');
+		return separator < 0 ? item : item.substring(separator + 1);
+	}
+
+	private static class TestTab {
+		private final String name;
+		private final int itemCount;
+		private final int delayMs;
+		protected final List<String> items = new ArrayList<>();
+
+		public TestTab(String name, int itemCount, int delayMs) {
+			this.name = name;
+			this.itemCount = itemCount;
+			this.delayMs = delayMs;
+		}
+
+		public void build() {
+			if (delayMs > 0) {
+				try {
+					Thread.sleep(delayMs);
+				} catch (InterruptedException e) {
+					throw new RuntimeException(e);
+				}
+			}
+			items.clear();
+			for (int i = 0; i < itemCount; i++) {
+				// some work for each item, like building its components
+				String item = name + ":" + Integer.toHexString(Integer.toString(i).repeat(20).hashCode() % 500);
+				items.add(item);
+			}
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+}
@@ -24,7 +24,7 @@ public class JustEnoughItems {
 		ModLoadingContext modLoadingContext = ModLoadingContext.get();
 		IServerConfig serverConfig = ServerConfig.register(modLoadingContext);
 
-		NetworkHandler networkHandler = new NetworkHandler("3", serverConfig);
+		NetworkHandler networkHandler = new NetworkHandler("4", serverConfig);
 		networkHandler.registerPacketHandlers(subscriptions);
 
 		JustEnoughItemsClientSafeRunner clientSafeRunner = new JustEnoughItemsClientSafeRunner(networkHandler, subscriptions);
@@ -5,6 +5,7 @@ import mezz.jei.common.network.packets.PacketDeletePlayerItem;
 import mezz.jei.common.network.packets.PlayToServerPacket;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.multiplayer.ClientPacketListener;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
 import net.neoforged.neoforge.network.PacketDistributor;
 import org.jetbrains.annotations.Nullable;
 
@@ -30,6 +31,15 @@ public final class ConnectionToServer implements IConnectionToServer {
 		return jeiOnServerCacheValue;
 	}
 
+	@Override
+	public boolean canSend(CustomPacketPayload.Type<?> type) {
+		if (!isJeiOnServer()) {
+			return false;
+		}
+		ClientPacketListener clientPacketListener = Minecraft.getInstance().getConnection();
+		return clientPacketListener != null && clientPacketListener.hasChannel(type);
+	}
+
 	@Override
 	public <T extends PlayToServerPacket<T>> void sendPacketToServer(T packet) {
 		Minecraft minecraft = Minecraft.getInstance();
@@ -8,6 +8,7 @@ import net.neoforged.neoforgespi.language.IModInfo;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class ModHelper implements IPlatformModHelper {
@@ -30,4 +31,13 @@ public class ModHelper implements IPlatformModHelper {
 	public boolean isInDev() {
 		return !FMLLoader.isProduction();
 	}
+
+	@Override
+	public List<String> getModVersions() {
+		return ModList.get()
+			.getMods()
+			.stream()
+			.map(modInfo -> modInfo.getModId() + "@" + modInfo.getVersion())
+			.toList();
+	}
 }
@@ -7,6 +7,7 @@ import mezz.jei.api.registration.IRuntimeRegistration;
 import mezz.jei.gui.startup.ResourceReloadHandler;
 import mezz.jei.neoforge.events.RuntimeEventSubscriptions;
 import mezz.jei.neoforge.startup.EventRegistration;
+import mezz.jei.gui.bookmarks.BookmarkList;
 import mezz.jei.gui.startup.JeiEventHandlers;
 import mezz.jei.gui.startup.JeiGuiStarter;
 import net.minecraft.resources.ResourceLocation;
@@ -21,6 +22,7 @@ import java.util.Optional;
 public class NeoForgeGuiPlugin implements IModPlugin {
 	private static final Logger LOGGER = LogManager.getLogger();
 	private static @Nullable ResourceReloadHandler resourceReloadHandler;
+	private static @Nullable BookmarkList bookmarkList;
 
 	private final RuntimeEventSubscriptions runtimeSubscriptions = new RuntimeEventSubscriptions(NeoForge.EVENT_BUS);
 
@@ -38,6 +40,7 @@ public class NeoForgeGuiPlugin implements IModPlugin {
 
 		JeiEventHandlers eventHandlers = JeiGuiStarter.start(registration);
 		resourceReloadHandler = eventHandlers.resourceReloadHandler();
+		bookmarkList = eventHandlers.bookmarkList();
 
 		EventRegistration.registerEvents(runtimeSubscriptions, eventHandlers);
 	}
@@ -47,6 +50,10 @@ public class NeoForgeGuiPlugin implements IModPlugin {
 		LOGGER.info("Stopping JEI GUI");
 		runtimeSubscriptions.clear();
 		resourceReloadHandler = null;
+		if (bookmarkList != null) {
+			bookmarkList.flushSave();
+			bookmarkList = null;
+		}
 	}
 
 	public static Optional<ResourceReloadHandler> getResourceReloadHandler() {
@@ -26,6 +26,36 @@ public class TestClientConfig implements IClientConfig {
 		return lowMemorySlowSearchEnabled;
 	}
 
+	@Override
+	public boolean isBackgroundLoadingEnabled() {
+		return false;
+	}
+
+	@Override
+	public boolean isFastCraftableSortEnabled() {
+		return false;
+	}
+
+	@Override
+	public boolean isBinaryConfigFilesEnabled() {
+		return false;
+	}
+
+	@Override
+	public boolean isParallelCreativeTabsEnabled() {
+		return false;
+	}
+
+	@Override
+	public boolean isParallelColorSearchEnabled() {
+		return false;
+	}
+
+	@Override
+	public int getGuiExclusionAreaPollingIntervalMs() {
+		return 0;
+	}
+
 	@Override
 	public boolean isCatchRenderErrorsEnabled() {
 		return false;